@@ -1,10 +1,16 @@
 import { GraphQLError } from 'graphql';
 import { USERS_SERVICE_VERIFY_PATH } from '#server/utils/env.js';
 
-export async function authenticate({ username, password }) {
+export async function authenticate({ username, password }, { clientIp } = {}) {
+    const headers = { 'Content-Type': 'application/json' };
+
+    if (clientIp) {
+        // used by the users service to throttle login attempts per client address
+        headers['X-Forwarded-For'] = clientIp;
+    }
     const response = await fetch(USERS_SERVICE_VERIFY_PATH, {
         method: 'POST',
-        headers: { 'Content-Type': 'application/json' },
+        headers,
         body: JSON.stringify({ username, password }),
     });
     if (response.status !== 200) {
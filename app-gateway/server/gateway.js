@@ -2,6 +2,7 @@ import gql from 'graphql-tag';
 import fetcher from 'make-fetch-happen';
 import { ApolloGateway, IntrospectAndCompose, LocalGraphQLDataSource, RemoteGraphQLDataSource } from '@apollo/gateway';
 import { buildSubgraphSchema } from '@apollo/subgraph';
+import { authenticate } from '#server/client/user-service-client.js';
 import { COMMS_SERVICE_GRAPHQL_URL, POSTS_SERVICE_GRAPHQL_URL, USERS_SERVICE_GRAPHQL_URL } from '#server/utils/env.js';
 
 export function createGateway(server) {
@@ -44,8 +45,8 @@ function createLocalDataSource({ server }) {
             `,
             resolvers: {
                 Mutation: {
-                    signIn: async (source, args) => {
-                        const principal = await vauthenticate(args.input);
+                    signIn: async (source, args, context) => {
+                        const principal = await authenticate(args.input, { clientIp: context.clientIp });
                         const signedJwt = server.jwt.sign({ payload: principal });
 
                         return { accessToken: signedJwt };
@@ -76,6 +77,7 @@ function createRemoteDatasource({ url, name }) {
             const {
                 tracingUuid,
                 currentUser,
+                cookie,
             } = context;
 
             if (tracingUuid) {
@@ -84,6 +86,27 @@ function createRemoteDatasource({ url, name }) {
             if (currentUser) {
                 request.http.headers.set('x-current-user', JSON.stringify(currentUser));
             }
+            if (cookie) {
+                request.http.headers.set('cookie', cookie);
+            }
+        },
+        didReceiveResponse({ response, context }) {
+            // passes read-your-writes cookies of the subgraphs back to the client
+            const cookies = getSetCookies(response.http.headers);
+
+            if (cookies.length > 0 && context.reply) {
+                // fastify appends set-cookie values to the ones set by other subgraphs responses
+                context.reply.header('set-cookie', cookies);
+            }
+            return response;
         },
     });
 }
+
+// cookies can't be read with `headers.get`, since it joins them with commas also used within `Expires` attribute
+function getSetCookies(headers) {
+    if (typeof headers.getSetCookie === 'function') {
+        return headers.getSetCookie();
+    }
+    return headers.raw?.()['set-cookie'] ?? [];
+}
@@ -42,9 +42,12 @@ await server.register(fastifyJwt, {
 });
 
 await server.register(fastifyApollo(apollo), {
-    context: (req) => ({
+    context: (req, reply) => ({
         tracingUuid: req.id,
         currentUser: req.user?.payload,
+        cookie: req.headers.cookie,
+        clientIp: req.ip,
+        reply,
     }),
 });
 
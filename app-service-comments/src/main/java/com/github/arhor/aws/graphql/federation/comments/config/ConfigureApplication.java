@@ -4,8 +4,10 @@ import com.github.arhor.aws.graphql.federation.comments.config.props.AppProps;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @EnableRetry
+@EnableScheduling
 @Configuration(proxyBeanMethods = false)
 @EnableConfigurationProperties(AppProps.class)
 public class ConfigureApplication {
@@ -29,10 +29,19 @@ public class ConfigureCaching {
                     .build()
             );
             it.registerCustomCache(
-                Caches.IDEMPOTENT_ID_SET.name(),
+                Caches.USER_REPRESENTATIONS.name(),
                 Caffeine.newBuilder()
                     .maximumSize(10_000)
-                    .expireAfterAccess(Duration.ofMinutes(30))
+                    .expireAfterWrite(Duration.ofMinutes(1))
+                    .recordStats()
+                    .build()
+            );
+            it.registerCustomCache(
+                Caches.POST_REPRESENTATIONS.name(),
+                Caffeine.newBuilder()
+                    .maximumSize(10_000)
+                    .expireAfterWrite(Duration.ofMinutes(1))
+                    .recordStats()
                     .build()
             );
         };
@@ -32,6 +32,9 @@ public record CommentEntity(
     @Column("content")
     String content,
 
+    @Column("deleted")
+    boolean deleted,
+
     @Version
     @Column("version")
     Long version,
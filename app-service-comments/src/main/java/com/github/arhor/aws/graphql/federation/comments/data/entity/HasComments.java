@@ -6,6 +6,11 @@ public interface HasComments {
 
     Features<Feature> features();
 
+    /**
+     * @return {@code true} if the entity is deleted, but its comments are not yet processed in the background
+     */
+    boolean deleted();
+
     enum Feature {
         COMMENTS_DISABLED,
     }
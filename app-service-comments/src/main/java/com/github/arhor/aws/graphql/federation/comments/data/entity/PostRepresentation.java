@@ -23,6 +23,9 @@ public record PostRepresentation(
     @Column("features")
     Features<Feature> features,
 
+    @Column("deleted")
+    boolean deleted,
+
     @Transient
     boolean shouldBePersisted
 ) implements Persistable<UUID>, HasComments {
@@ -34,8 +37,8 @@ public record PostRepresentation(
     }
 
     @PersistenceCreator
-    public PostRepresentation(final UUID id, final Features<Feature> features) {
-        this(id, features, false);
+    public PostRepresentation(final UUID id, final Features<Feature> features, final boolean deleted) {
+        this(id, features, deleted, false);
     }
 
     @Override
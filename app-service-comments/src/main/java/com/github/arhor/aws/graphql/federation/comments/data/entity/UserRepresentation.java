@@ -23,6 +23,9 @@ public record UserRepresentation(
     @Column("features")
     Features<Feature> features,
 
+    @Column("deleted")
+    boolean deleted,
+
     @Transient
     boolean shouldBePersisted
 ) implements Persistable<UUID>, HasComments {
@@ -34,8 +37,8 @@ public record UserRepresentation(
     }
 
     @PersistenceCreator
-    public UserRepresentation(final UUID id, final Features<Feature> features) {
-        this(id, features, false);
+    public UserRepresentation(final UUID id, final Features<Feature> features, final boolean deleted) {
+        this(id, features, deleted, false);
     }
 
     @Override
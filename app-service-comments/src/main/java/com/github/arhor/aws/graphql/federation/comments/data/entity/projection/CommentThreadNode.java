@@ -0,0 +1,12 @@
+package com.github.arhor.aws.graphql.federation.comments.data.entity.projection;
+
+import com.github.arhor.aws.graphql.federation.comments.data.entity.CommentEntity;
+
+/**
+ * Comment fetched as a node of the post discussion thread.
+ *
+ * @param comment the comment entity
+ * @param depth   level of the comment in the thread, starting from {@code 1} for top-level comments
+ */
+public record CommentThreadNode(CommentEntity comment, int depth) {
+}
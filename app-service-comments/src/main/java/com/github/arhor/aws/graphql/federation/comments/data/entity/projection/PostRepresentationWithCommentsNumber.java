@@ -0,0 +1,19 @@
+package com.github.arhor.aws.graphql.federation.comments.data.entity.projection;
+
+import com.github.arhor.aws.graphql.federation.comments.data.entity.HasComments.Feature;
+import com.github.arhor.aws.graphql.federation.starter.core.data.Features;
+
+import java.util.UUID;
+
+/**
+ * Post representation fetched along with the number of the post comments.
+ *
+ * @param commentsNumber number of the post comments, {@code null} if the post has never been commented
+ */
+public record PostRepresentationWithCommentsNumber(
+    UUID id,
+    Features<Feature> features,
+    boolean deleted,
+    Integer commentsNumber
+) {
+}
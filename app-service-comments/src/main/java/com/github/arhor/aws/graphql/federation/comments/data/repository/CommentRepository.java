@@ -1,11 +1,17 @@
 package com.github.arhor.aws.graphql.federation.comments.data.repository;
 
 import com.github.arhor.aws.graphql.federation.comments.data.entity.CommentEntity;
+import com.github.arhor.aws.graphql.federation.comments.data.entity.projection.CommentThreadNode;
+import com.github.arhor.aws.graphql.federation.comments.data.repository.mapping.CommentThreadNodeRowMapper;
 import com.github.arhor.aws.graphql.federation.comments.data.repository.mapping.CommentsNumberByPostIdResultSetExtractor;
+import com.github.arhor.aws.graphql.federation.comments.data.repository.mapping.RepliesNumberByCommentIdResultSetExtractor;
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.springframework.data.jdbc.repository.query.Modifying;
 import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.ListCrudRepository;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.Map;
 import java.util.UUID;
@@ -17,40 +23,101 @@ import java.util.stream.Stream;
 public interface CommentRepository extends ListCrudRepository<CommentEntity, UUID> {
 
     /**
-     * Finds all comment entities for the specified user IDs.
+     * Finds a page of comment entities for each of the specified user IDs.
+     * <p>
+     * Comments are ordered by creation date-time and ID, so the last returned comment of each user
+     * may be used as a cursor to load the next page.
      *
-     * @param userIds the collection of user IDs to retrieve comments for
+     * @param userIds              the collection of user IDs to retrieve comments for
+     * @param limit                the maximum number of comments to retrieve per user
+     * @param afterCreatedDateTime the creation date-time of the comment after which to start, may be {@code null}
+     * @param afterId              the ID of the comment after which to start, may be {@code null}
+     * @param withContent          whether the content of comments should be fetched, otherwise it is left empty
      * @return a stream of comment entities associated with the specified user IDs
      */
-    Stream<CommentEntity> findAllByUserIdIn(@Nonnull Collection<UUID> userIds);
+    @Query(name = "CommentEntity.findPageByUserIdIn")
+    Stream<CommentEntity> findPageByUserIdIn(
+        @Nonnull Collection<UUID> userIds,
+        int limit,
+        @Nullable LocalDateTime afterCreatedDateTime,
+        @Nullable UUID afterId,
+        boolean withContent
+    );
 
     /**
-     * Finds all comment entities for the specified parent comment IDs.
+     * Finds a page of comment entities for each of the specified parent comment IDs.
+     * <p>
+     * Comments are ordered by creation date-time and ID, so the last returned reply of each parent
+     * may be used as a cursor to load the next page.
      *
-     * @param prntId the collection of parent comment IDs to retrieve comments for
+     * @param prntIds              the collection of parent comment IDs to retrieve comments for
+     * @param limit                the maximum number of comments to retrieve per parent comment
+     * @param afterCreatedDateTime the creation date-time of the comment after which to start, may be {@code null}
+     * @param afterId              the ID of the comment after which to start, may be {@code null}
+     * @param withContent          whether the content of comments should be fetched, otherwise it is left empty
      * @return a stream of comment entities associated with the specified parent comment IDs
      */
-    Stream<CommentEntity> findAllByPrntIdIn(@Nonnull Collection<UUID> prntId);
+    @Query(name = "CommentEntity.findPageByPrntIdIn")
+    Stream<CommentEntity> findPageByPrntIdIn(
+        @Nonnull Collection<UUID> prntIds,
+        int limit,
+        @Nullable LocalDateTime afterCreatedDateTime,
+        @Nullable UUID afterId,
+        boolean withContent
+    );
 
     /**
-     * Finds all top-level (without a parent) comment entities for the specified post IDs.
+     * Finds a page of top-level (without a parent) comment entities for each of the specified post IDs.
+     * <p>
+     * Comments are ordered by creation date-time and ID, so the last returned comment of each post
+     * may be used as a cursor to load the next page.
      *
-     * @param postIds the collection of post IDs to retrieve comments for
+     * @param postIds              the collection of post IDs to retrieve comments for
+     * @param limit                the maximum number of comments to retrieve per post
+     * @param afterCreatedDateTime the creation date-time of the comment after which to start, may be {@code null}
+     * @param afterId              the ID of the comment after which to start, may be {@code null}
+     * @param withContent          whether the content of comments should be fetched, otherwise it is left empty
      * @return a stream of top-level comment entities associated with the specified post IDs
      */
-    Stream<CommentEntity> findAllByPrntIdNullAndPostIdIn(@Nonnull Collection<UUID> postIds);
+    @Query(name = "CommentEntity.findPageByPrntIdNullAndPostIdIn")
+    Stream<CommentEntity> findPageByPrntIdNullAndPostIdIn(
+        @Nonnull Collection<UUID> postIds,
+        int limit,
+        @Nullable LocalDateTime afterCreatedDateTime,
+        @Nullable UUID afterId,
+        boolean withContent
+    );
 
     /**
-     * Checks if a comment exists with the given post ID and parent ID.
+     * Finds comment entities forming the discussion thread of the specified post.
+     * <p>
+     * Comments are returned level by level, so each reply always follows its parent comment. Comments within a
+     * level are ordered by creation date-time and ID, so the nodes limit always truncates the deepest level.
+     * <p>
+     * Each level carries the number of comments visited so far, so the recursion stops descending as soon as the
+     * nodes limit is reached instead of building the whole thread down to the max depth.
      *
-     * @param postId the UUID of the post to check for existence.
+     * @param postId   the UUID of the post to retrieve comments thread for
+     * @param maxDepth the maximum number of thread levels to retrieve, including top-level comments
+     * @param maxNodes the maximum number of comments to retrieve
+     * @return a stream of comments forming the discussion thread of the specified post along with their depth
+     */
+    @Query(name = "CommentEntity.findThreadByPostId", rowMapperRef = CommentThreadNodeRowMapper.BEAN_NAME)
+    Stream<CommentThreadNode> findThreadByPostId(@Nonnull UUID postId, int maxDepth, int maxNodes);
+
+    /**
+     * Checks if a comment which may be replied to exists within the given post. Deleted comments are treated as
+     * missing, since their replies are going to be deleted in the background.
+     *
+     * @param postId the UUID of the post the parent comment belongs to.
      * @param prntId the UUID of the parent comment to check for existence.
-     * @return {@code true} if a comment exists with the given post ID and parent ID, {@code false} otherwise.
+     * @return {@code true} if not deleted comment exists with the given ID and post ID, {@code false} otherwise.
      */
-    boolean existsByPostIdAndPrntId(UUID postId, UUID prntId);
+    @Query(name = "CommentEntity.existsByPostIdAndPrntId")
+    boolean existsByPostIdAndPrntId(@Nonnull UUID postId, @Nonnull UUID prntId);
 
     /**
-     * Counts all comments for the specified post IDs.
+     * Counts all comments for the specified post IDs using maintained comments counters.
      *
      * @param postIds the collection of post IDs to retrieve number of comments for
      * @return a map where the key is the post ID and the value is a number of comments associated with that post
@@ -60,4 +127,121 @@ public interface CommentRepository extends ListCrudRepository<CommentEntity, UUI
         resultSetExtractorRef = CommentsNumberByPostIdResultSetExtractor.BEAN_NAME
     )
     Map<UUID, Integer> countCommentsByPostIds(@Nonnull Collection<UUID> postIds);
+
+    /**
+     * Counts direct replies for the specified comment IDs using maintained replies counters.
+     *
+     * @param commentIds the collection of comment IDs to retrieve number of replies for
+     * @return a map where the key is the comment ID and the value is a number of direct replies to that comment
+     */
+    @Query(
+        name = "CommentEntity.countRepliesByCommentIds",
+        resultSetExtractorRef = RepliesNumberByCommentIdResultSetExtractor.BEAN_NAME
+    )
+    Map<UUID, Integer> countRepliesByCommentIds(@Nonnull Collection<UUID> commentIds);
+
+    /**
+     * Counts the specified comment along with all its replies, including nested ones.
+     *
+     * @param id the UUID of the comment to count
+     * @return the number of comments which will be deleted along with the specified comment
+     */
+    @Query(name = "CommentEntity.countCommentWithReplies")
+    int countCommentWithReplies(@Nonnull UUID id);
+
+    /**
+     * Adds the delta to the specified slot of the post comments counter.
+     * <p>
+     * Counter is split into several slots, so concurrent updates of the same post do not compete for a single row.
+     *
+     * @param postId the UUID of the post to update comments counter for
+     * @param slot   the slot of the counter to update
+     * @param delta  the value to add to the counter, may be negative
+     */
+    @Modifying
+    @Query(name = "CommentEntity.incrementCommentsNumber")
+    void incrementCommentsNumber(@Nonnull UUID postId, int slot, int delta);
+
+    /**
+     * Adds the delta to the specified slot of the comment replies counter.
+     *
+     * @param commentId the UUID of the comment to update replies counter for
+     * @param slot      the slot of the counter to update
+     * @param delta     the value to add to the counter, may be negative
+     */
+    @Modifying
+    @Query(name = "CommentEntity.incrementRepliesNumber")
+    void incrementRepliesNumber(@Nonnull UUID commentId, int slot, int delta);
+
+    /**
+     * Tries to acquire transaction-level lock guarding counters reconciliation.
+     *
+     * @return {@code true} if lock is acquired, {@code false} if reconciliation is in progress in other transaction
+     */
+    @Query(name = "CommentEntity.tryLockCountersReconciliation")
+    boolean tryLockCountersReconciliation();
+
+    /**
+     * Compares post comments counters with actual number of comments and adds compensating deltas where they differ.
+     *
+     * @return the number of repaired counters
+     */
+    @Modifying
+    @Query(name = "CommentEntity.reconcileCommentsNumbers")
+    int reconcileCommentsNumbers();
+
+    /**
+     * Compares comment replies counters with actual number of replies and adds compensating deltas where they differ.
+     *
+     * @return the number of repaired counters
+     */
+    @Modifying
+    @Query(name = "CommentEntity.reconcileRepliesNumbers")
+    int reconcileRepliesNumbers();
+
+    /**
+     * Deletes the next chunk of comments of the specified post, taking only comments without replies, so that
+     * deletion never cascades to the rest of the thread.
+     *
+     * @param postId the UUID of the post to delete comments for
+     * @param limit  the maximum number of comments to delete
+     * @return the number of deleted comments
+     */
+    @Modifying
+    @Query(name = "CommentEntity.deleteNextChunkByPostId")
+    int deleteNextChunkByPostId(@Nonnull UUID postId, int limit);
+
+    /**
+     * Marks the next chunk of direct replies to the deleted comments of the specified post as deleted.
+     *
+     * @param postId the UUID of the post to process deleted comments for
+     * @param limit  the maximum number of replies to mark
+     * @return the number of marked replies
+     */
+    @Modifying
+    @Query(name = "CommentEntity.markNextChunkOfDeletedCommentsRepliesDeleted")
+    int markNextChunkOfDeletedCommentsRepliesDeleted(@Nonnull UUID postId, int limit);
+
+    /**
+     * Deletes the next chunk of comments of the specified post marked as deleted, taking only comments without
+     * replies, so that deletion never cascades to the rest of the thread.
+     *
+     * @param postId the UUID of the post to delete marked comments for
+     * @param limit  the maximum number of comments to delete
+     * @return the number of deleted comments
+     */
+    @Modifying
+    @Query(name = "CommentEntity.deleteNextChunkOfDeletedByPostId")
+    int deleteNextChunkOfDeletedByPostId(@Nonnull UUID postId, int limit);
+
+    /**
+     * Removes the specified user from the next chunk of their comments.
+     *
+     * @param userId the UUID of the user to anonymize comments for
+     * @param limit  the maximum number of comments to anonymize
+     * @return the number of anonymized comments
+     */
+    @Modifying
+    @Query(name = "CommentEntity.anonymizeNextChunkByUserId")
+    int anonymizeNextChunkByUserId(@Nonnull UUID userId, int limit);
 }
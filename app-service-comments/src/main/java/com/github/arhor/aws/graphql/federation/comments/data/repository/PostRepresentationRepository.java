@@ -1,9 +1,25 @@
 package com.github.arhor.aws.graphql.federation.comments.data.repository;
 
 import com.github.arhor.aws.graphql.federation.comments.data.entity.PostRepresentation;
+import com.github.arhor.aws.graphql.federation.comments.data.entity.projection.PostRepresentationWithCommentsNumber;
+import org.springframework.data.jdbc.repository.query.Modifying;
+import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.CrudRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 public interface PostRepresentationRepository extends CrudRepository<PostRepresentation, UUID> {
+
+    @Query(name = "PostRepresentation.findAllWithCommentsNumberByIdIn")
+    List<PostRepresentationWithCommentsNumber> findAllWithCommentsNumberByIdIn(Collection<UUID> ids);
+
+    @Modifying
+    @Query(name = "PostRepresentation.insertAllIgnoringExisting")
+    void insertAllIgnoringExisting(Collection<UUID> ids);
+
+    @Modifying
+    @Query(name = "PostRepresentation.markDeletedByIdIn")
+    void markDeletedByIdIn(Collection<UUID> ids);
 }
@@ -1,9 +1,20 @@
 package com.github.arhor.aws.graphql.federation.comments.data.repository;
 
 import com.github.arhor.aws.graphql.federation.comments.data.entity.UserRepresentation;
+import org.springframework.data.jdbc.repository.query.Modifying;
+import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.CrudRepository;
 
+import java.util.Collection;
 import java.util.UUID;
 
 public interface UserRepresentationRepository extends CrudRepository<UserRepresentation, UUID> {
+
+    @Modifying
+    @Query(name = "UserRepresentation.insertAllIgnoringExisting")
+    void insertAllIgnoringExisting(Collection<UUID> ids);
+
+    @Modifying
+    @Query(name = "UserRepresentation.markDeletedByIdIn")
+    void markDeletedByIdIn(Collection<UUID> ids);
 }
@@ -0,0 +1,35 @@
+package com.github.arhor.aws.graphql.federation.comments.data.repository.mapping;
+
+import com.github.arhor.aws.graphql.federation.comments.data.entity.CommentEntity;
+import com.github.arhor.aws.graphql.federation.comments.data.entity.projection.CommentThreadNode;
+import org.springframework.data.jdbc.core.convert.EntityRowMapper;
+import org.springframework.data.jdbc.core.convert.JdbcConverter;
+import org.springframework.data.relational.core.mapping.RelationalPersistentEntity;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+@Component(CommentThreadNodeRowMapper.BEAN_NAME)
+public class CommentThreadNodeRowMapper implements RowMapper<CommentThreadNode> {
+
+    public static final String BEAN_NAME = "commentThreadNodeRowMapper";
+
+    private static final String SELECT_COL_DEPTH = "depth";
+
+    private final RowMapper<CommentEntity> commentRowMapper;
+
+    @SuppressWarnings("unchecked")
+    public CommentThreadNodeRowMapper(final JdbcConverter converter) {
+        final var entity = (RelationalPersistentEntity<CommentEntity>)
+            converter.getMappingContext().getRequiredPersistentEntity(CommentEntity.class);
+
+        this.commentRowMapper = new EntityRowMapper<>(entity, converter);
+    }
+
+    @Override
+    public CommentThreadNode mapRow(final ResultSet rs, final int rowNum) throws SQLException {
+        return new CommentThreadNode(commentRowMapper.mapRow(rs, rowNum), rs.getInt(SELECT_COL_DEPTH));
+    }
+}
@@ -0,0 +1,36 @@
+package com.github.arhor.aws.graphql.federation.comments.data.repository.mapping;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+@Component(RepliesNumberByCommentIdResultSetExtractor.BEAN_NAME)
+public class RepliesNumberByCommentIdResultSetExtractor implements ResultSetExtractor<Map<UUID, Integer>> {
+
+    public static final String BEAN_NAME = "repliesNumberByCommentIdResultSetExtractor";
+
+    private static final String SELECT_COL_COMMENT_ID = "comment_id";
+    private static final String SELECT_COL_REPLIES_NUMBER = "replies_number";
+
+    @Override
+    public Map<UUID, Integer> extractData(final ResultSet rs) throws SQLException, DataAccessException {
+        final var result = new HashMap<UUID, Integer>();
+        while (rs.next()) {
+            final var commentId = rs.getObject(SELECT_COL_COMMENT_ID, UUID.class);
+            final var repliesNumber = rs.getInt(SELECT_COL_REPLIES_NUMBER);
+
+            final var prev = result.put(commentId, repliesNumber);
+
+            if (prev != null) {
+                throw new IllegalStateException("More than one record present for the same comment ID: " + commentId);
+            }
+        }
+        return result;
+    }
+}
@@ -1,19 +1,24 @@
 package com.github.arhor.aws.graphql.federation.comments.infrastructure.graphql.datafetcher;
 
 import com.github.arhor.aws.graphql.federation.comments.generated.graphql.DgsConstants.COMMENT;
+import com.github.arhor.aws.graphql.federation.comments.generated.graphql.DgsConstants.COMMENTPAGE;
 import com.github.arhor.aws.graphql.federation.comments.generated.graphql.DgsConstants.POST;
 import com.github.arhor.aws.graphql.federation.comments.generated.graphql.DgsConstants.USER;
 import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.Comment;
+import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.CommentPage;
 import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.CreateCommentInput;
 import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.DeleteCommentInput;
 import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.Post;
 import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.UpdateCommentInput;
 import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.User;
 import com.github.arhor.aws.graphql.federation.comments.infrastructure.graphql.dataloader.CommentRepliesBatchLoader;
+import com.github.arhor.aws.graphql.federation.comments.infrastructure.graphql.dataloader.CommentRepliesNumberBatchLoader;
 import com.github.arhor.aws.graphql.federation.comments.infrastructure.graphql.dataloader.PostCommentsBatchLoader;
 import com.github.arhor.aws.graphql.federation.comments.infrastructure.graphql.dataloader.PostCommentsNumberBatchLoader;
 import com.github.arhor.aws.graphql.federation.comments.infrastructure.graphql.dataloader.UserCommentsBatchLoader;
 import com.github.arhor.aws.graphql.federation.comments.service.CommentService;
+import com.github.arhor.aws.graphql.federation.comments.service.CommentsPageKey;
+import com.github.arhor.aws.graphql.federation.starter.graphql.PrunableFields;
 import com.github.arhor.aws.graphql.federation.starter.security.CurrentUserDetails;
 import com.github.arhor.aws.graphql.federation.starter.tracing.Trace;
 import com.netflix.graphql.dgs.DgsComponent;
@@ -28,15 +33,22 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Trace
 @DgsComponent
 @RequiredArgsConstructor
 public class CommentFetcher {
 
+    private static final PrunableFields COMMENT_PAGE_FIELDS = new PrunableFields(
+        COMMENTPAGE.Data,
+        Set.of(COMMENT.Content)
+    );
+
     private final CommentService commentService;
 
     /* ---------- Queries ---------- */
@@ -47,19 +59,47 @@ public class CommentFetcher {
     }
 
     @DgsData(parentType = COMMENT.TYPE_NAME, field = COMMENT.Replies)
-    public CompletableFuture<List<Comment>> commentReplies(final DgsDataFetchingEnvironment dfe) {
-        return loadWith(CommentRepliesBatchLoader.class, dfe, Comment::getId);
+    public CompletableFuture<CommentPage> commentReplies(
+        final @InputArgument Integer first,
+        final @InputArgument String after,
+        final DgsDataFetchingEnvironment dfe
+    ) {
+        final var fields = COMMENT_PAGE_FIELDS.selectedIn(dfe);
+
+        return loadWith(CommentRepliesBatchLoader.class, dfe, (Comment comment) ->
+            new CommentsPageKey(comment.getId(), first, after, fields)
+        );
     }
 
-    @DgsData(parentType = USER.TYPE_NAME, field = USER.Comments)
-    public CompletableFuture<List<Comment>> userComments(final DgsDataFetchingEnvironment dfe) {
-        return loadWith(UserCommentsBatchLoader.class, dfe, User::getId);
+    @DgsData(parentType = COMMENT.TYPE_NAME, field = COMMENT.RepliesNumber)
+    public CompletableFuture<Integer> commentRepliesNumber(final DgsDataFetchingEnvironment dfe) {
+        return loadWith(CommentRepliesNumberBatchLoader.class, dfe, Comment::getId);
     }
 
+    @DgsData(parentType = USER.TYPE_NAME, field = USER.Comments)
+    public CompletableFuture<CommentPage> userComments(
+        final @InputArgument Integer first,
+        final @InputArgument String after,
+        final DgsDataFetchingEnvironment dfe
+    ) {
+        final var fields = COMMENT_PAGE_FIELDS.selectedIn(dfe);
+
+        return loadWith(UserCommentsBatchLoader.class, dfe, (User user) ->
+            new CommentsPageKey(user.getId(), first, after, fields)
+        );
+    }
 
     @DgsData(parentType = POST.TYPE_NAME, field = POST.Comments)
-    public CompletableFuture<List<Comment>> postComments(final DgsDataFetchingEnvironment dfe) {
-        return loadWith(PostCommentsBatchLoader.class, dfe, Post::getId);
+    public CompletableFuture<CommentPage> postComments(
+        final @InputArgument Integer first,
+        final @InputArgument String after,
+        final DgsDataFetchingEnvironment dfe
+    ) {
+        final var fields = COMMENT_PAGE_FIELDS.selectedIn(dfe);
+
+        return loadWith(PostCommentsBatchLoader.class, dfe, (Post post) ->
+            new CommentsPageKey(post.getId(), first, after, fields)
+        );
     }
 
     @DgsData(parentType = POST.TYPE_NAME, field = POST.CommentsNumber)
@@ -67,6 +107,33 @@ public class CommentFetcher {
         return loadWith(PostCommentsNumberBatchLoader.class, dfe, Post::getId);
     }
 
+    @DgsData(parentType = POST.TYPE_NAME, field = POST.Thread)
+    public List<Comment> postThread(
+        final @InputArgument Integer maxDepth,
+        final @InputArgument Integer maxNodes,
+        final DgsDataFetchingEnvironment dfe
+    ) {
+        final var post = dfe.<Post>getSource();
+        final var repliesSelections = determineRepliesSelections(dfe);
+        final var thread = commentService.getCommentsThread(
+            post.getId(),
+            maxDepth,
+            maxNodes,
+            repliesSelections.stream().map(RepliesSelection::first).collect(Collectors.toSet())
+        );
+        final var repliesLoader = dfe.<CommentsPageKey, CommentPage>getDataLoader(CommentRepliesBatchLoader.class);
+
+        // thread contains complete comments, so the same page satisfies replies selections with any fields
+        thread.replies().forEach((key, page) -> {
+            for (final var selection : repliesSelections) {
+                if (selection.first() == key.first()) {
+                    repliesLoader.prime(key.withFields(selection.fields()), page);
+                }
+            }
+        });
+        return thread.comments();
+    }
+
     /* ---------- Mutations ---------- */
 
     @DgsMutation
@@ -98,6 +165,24 @@ public class CommentFetcher {
 
     /* ---------- Internal implementation ---------- */
 
+    /**
+     * @param dfe data fetching environment
+     * @return page sizes and fields of the first pages of replies requested within the current selection set
+     */
+    private Set<RepliesSelection> determineRepliesSelections(final DgsDataFetchingEnvironment dfe) {
+        return dfe.getSelectionSet()
+            .getFields()
+            .stream()
+            .filter((field) -> COMMENT.Replies.equals(field.getName()))
+            .filter((field) -> field.getArguments().get(COMMENT.REPLIES_INPUT_ARGUMENT.After) == null)
+            .filter((field) -> field.getArguments().get(COMMENT.REPLIES_INPUT_ARGUMENT.First) != null)
+            .map((field) -> new RepliesSelection(
+                (Integer) field.getArguments().get(COMMENT.REPLIES_INPUT_ARGUMENT.First),
+                COMMENT_PAGE_FIELDS.selectedIn(field.getSelectionSet())
+            ))
+            .collect(Collectors.toSet());
+    }
+
     /**
      * @param loaderType concrete class of the data loader to use
      * @param dfe        data fetching environment
@@ -117,4 +202,11 @@ public class CommentFetcher {
 
         return loader.load(extractKey.apply(entity));
     }
+
+    /**
+     * @param first  the maximum number of replies in the page
+     * @param fields the optional comment fields requested within the replies page
+     */
+    private record RepliesSelection(int first, Set<String> fields) {
+    }
 }
@@ -1,10 +1,13 @@
 package com.github.arhor.aws.graphql.federation.comments.infrastructure.graphql.datafetcher;
 
+import com.github.arhor.aws.graphql.federation.comments.infrastructure.graphql.dataloader.PostCommentsNumberBatchLoader;
 import com.github.arhor.aws.graphql.federation.comments.infrastructure.graphql.dataloader.PostRepresentationBatchLoader;
+import com.github.arhor.aws.graphql.federation.comments.infrastructure.graphql.dataloader.PostRepresentationWithCommentsNumberBatchLoader;
 import com.github.arhor.aws.graphql.federation.comments.generated.graphql.DgsConstants.POST;
 import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.Post;
 import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.SwitchPostCommentsInput;
 import com.github.arhor.aws.graphql.federation.comments.service.PostRepresentationService;
+import com.github.arhor.aws.graphql.federation.starter.graphql.LookaheadField;
 import com.github.arhor.aws.graphql.federation.starter.tracing.Trace;
 import com.netflix.graphql.dgs.DgsComponent;
 import com.netflix.graphql.dgs.DgsDataFetchingEnvironment;
@@ -19,12 +22,16 @@ import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
 import static com.github.arhor.aws.graphql.federation.common.MapExtKt.getUuid;
+import static java.util.Collections.singletonMap;
 
 @Trace
 @DgsComponent
 @RequiredArgsConstructor
 public class PostRepresentationFetcher {
 
+    private static final LookaheadField<UUID, Integer> POST_COMMENTS_NUMBER =
+        new LookaheadField<>(POST.CommentsNumber, PostCommentsNumberBatchLoader.class);
+
     private final PostRepresentationService postService;
 
     /* ---------- Entity Fetchers ---------- */
@@ -32,6 +39,15 @@ public class PostRepresentationFetcher {
     @DgsEntityFetcher(name = POST.TYPE_NAME)
     public CompletableFuture<Post> resolvePost(final Map<String, ?> values, final DgsDataFetchingEnvironment dfe) {
         final var postId = getUuid(values, POST.Id);
+
+        if (POST_COMMENTS_NUMBER.isSelected(dfe)) {
+            final var loader = dfe.<UUID, Post>getDataLoader(PostRepresentationWithCommentsNumberBatchLoader.class);
+
+            return loader.load(postId).thenApply((post) -> {
+                POST_COMMENTS_NUMBER.prime(dfe, singletonMap(post.getId(), post.getCommentsNumber()));
+                return post;
+            });
+        }
         final var loader = dfe.<UUID, Post>getDataLoader(PostRepresentationBatchLoader.class);
 
         return loader.load(postId);
@@ -0,0 +1,22 @@
+package com.github.arhor.aws.graphql.federation.comments.infrastructure.graphql.dataloader;
+
+import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.Post;
+import com.github.arhor.aws.graphql.federation.comments.service.PostRepresentationService;
+import com.netflix.graphql.dgs.DgsDataLoader;
+import org.springframework.beans.factory.annotation.Qualifier;
+
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+import static org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME;
+
+@DgsDataLoader(maxBatchSize = 50)
+public class PostRepresentationWithCommentsNumberBatchLoader extends AbstractMappedBatchLoader<UUID, Post> {
+
+    public PostRepresentationWithCommentsNumberBatchLoader(
+        @Qualifier(APPLICATION_TASK_EXECUTOR_BEAN_NAME) final Executor executor,
+        final PostRepresentationService postService
+    ) {
+        super(executor, postService::findPostsRepresentationsWithCommentsNumberInBatch);
+    }
+}
@@ -1,18 +1,17 @@
 package com.github.arhor.aws.graphql.federation.comments.infrastructure.graphql.dataloader;
 
-import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.Comment;
+import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.CommentPage;
 import com.github.arhor.aws.graphql.federation.comments.service.CommentService;
+import com.github.arhor.aws.graphql.federation.comments.service.CommentsPageKey;
 import com.netflix.graphql.dgs.DgsDataLoader;
 import org.springframework.beans.factory.annotation.Qualifier;
 
-import java.util.List;
-import java.util.UUID;
 import java.util.concurrent.Executor;
 
 import static org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME;
 
 @DgsDataLoader(maxBatchSize = 50)
-public class UserCommentsBatchLoader extends AbstractMappedBatchLoader<UUID, List<Comment>> {
+public class UserCommentsBatchLoader extends AbstractMappedBatchLoader<CommentsPageKey, CommentPage> {
 
     public UserCommentsBatchLoader(
         final @Qualifier(APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor executor,
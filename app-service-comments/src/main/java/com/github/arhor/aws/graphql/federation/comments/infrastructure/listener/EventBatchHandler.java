@@ -0,0 +1,105 @@
+package com.github.arhor.aws.graphql.federation.comments.infrastructure.listener;
+
+import io.awspring.cloud.sqs.listener.acknowledgement.BatchAcknowledgement;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static com.github.arhor.aws.graphql.federation.starter.tracing.AttributesKt.IDEMPOTENT_KEY;
+import static com.github.arhor.aws.graphql.federation.starter.tracing.AttributesKt.TRACING_ID_KEY;
+import static com.github.arhor.aws.graphql.federation.starter.tracing.Utils.withExtendedMDC;
+
+/**
+ * Applies a batch of events with a single call, falling back to per-message processing when the batch fails,
+ * so that only failed messages are left unacknowledged and redelivered.
+ */
+@Slf4j
+final class EventBatchHandler {
+
+    private EventBatchHandler() {
+        throw new UnsupportedOperationException("Cannot be instantiated!");
+    }
+
+    /**
+     * Messages without usable idempotency key or entity id are logged and left unacknowledged, so they do not
+     * prevent the rest of the batch from being applied and acknowledged.
+     *
+     * @param messages        received messages
+     * @param acknowledgement acknowledgement of the received messages
+     * @param entityId        function extracting entity id from the event
+     * @param action          action applied to the entity ids keyed by idempotency keys
+     * @param <T>             type of the event
+     * @return messages processed successfully
+     */
+    static <T> List<Message<T>> handle(
+        final List<Message<T>> messages,
+        final BatchAcknowledgement<T> acknowledgement,
+        final Function<T, UUID> entityId,
+        final Consumer<Map<UUID, UUID>> action
+    ) {
+        final var applicable = new ArrayList<Message<T>>(messages.size());
+        final var entityIdsByIdempotencyKey = new LinkedHashMap<UUID, UUID>(messages.size());
+
+        for (final var message : messages) {
+            try {
+                entityIdsByIdempotencyKey.put(idempotencyKey(message), entityId.apply(message.getPayload()));
+                applicable.add(message);
+            } catch (final Exception messageError) {
+                log.error("Skipping malformed message {}", message.getHeaders().getId(), messageError);
+            }
+        }
+        if (applicable.isEmpty()) {
+            return applicable;
+        }
+        try {
+            action.accept(entityIdsByIdempotencyKey);
+            if (applicable.size() == messages.size()) {
+                acknowledgement.acknowledge();
+            } else {
+                acknowledgement.acknowledge(applicable);
+            }
+            return applicable;
+        } catch (final Exception batchError) {
+            log.warn("Failed to process batch of {} messages, processing them one by one", applicable.size(), batchError);
+
+            final var processed = new ArrayList<Message<T>>(applicable.size());
+
+            for (final var message : applicable) {
+                try {
+                    withExtendedMDC(
+                        traceId(message),
+                        () -> action.accept(Map.of(idempotencyKey(message), entityId.apply(message.getPayload())))
+                    );
+                    processed.add(message);
+                } catch (final Exception messageError) {
+                    log.error("Failed to process message {}", message.getHeaders().getId(), messageError);
+                }
+            }
+            acknowledgement.acknowledge(processed);
+            return processed;
+        }
+    }
+
+    private static UUID idempotencyKey(final Message<?> message) {
+        return header(message, IDEMPOTENT_KEY);
+    }
+
+    private static UUID traceId(final Message<?> message) {
+        return header(message, TRACING_ID_KEY);
+    }
+
+    private static UUID header(final Message<?> message, final String name) {
+        final var value = message.getHeaders().get(name);
+        if (value == null) {
+            throw new IllegalStateException("Message header '" + name + "' is missing");
+        }
+        return (value instanceof UUID uuid) ? uuid : UUID.fromString(value.toString());
+    }
+}
@@ -0,0 +1,50 @@
+package com.github.arhor.aws.graphql.federation.comments.infrastructure.listener;
+
+import com.github.arhor.aws.graphql.federation.common.event.DomainEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ClockProvider;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * Records the time passed since the events were produced by the other services until they are applied.
+ */
+@Component
+@RequiredArgsConstructor
+public class EventPropagationMetrics {
+
+    private static final String PROPAGATION_LATENCY_METRIC = "domain.events.propagation.latency";
+    private static final String TYPE_TAG = "type";
+
+    private final MeterRegistry meterRegistry;
+    private final ClockProvider clockProvider;
+
+    public void recordPropagationLatency(final Collection<? extends Message<?>> messages) {
+        final var consumedAt = clockProvider.getClock().millis();
+
+        for (final var message : messages) {
+            final var type = message.getHeaders().get(DomainEvent.ATTRS_PAYLOAD_TYPE);
+            final var producedAt = message.getHeaders().get(DomainEvent.ATTRS_PRODUCED_AT);
+
+            if (type == null || producedAt == null) {
+                continue;
+            }
+            try {
+                final var latency = Math.max(consumedAt - Long.parseLong(producedAt.toString()), 0);
+
+                Timer.builder(PROPAGATION_LATENCY_METRIC)
+                    .tag(TYPE_TAG, type.toString())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(Duration.ofMillis(latency));
+            } catch (final NumberFormatException e) {
+                // message produced by a service not passing the timestamp in the expected format
+            }
+        }
+    }
+}
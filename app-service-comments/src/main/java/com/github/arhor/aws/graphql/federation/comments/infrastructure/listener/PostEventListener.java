@@ -4,16 +4,12 @@ import com.github.arhor.aws.graphql.federation.comments.service.PostRepresentati
 import com.github.arhor.aws.graphql.federation.common.event.PostEvent;
 import com.github.arhor.aws.graphql.federation.starter.tracing.Trace;
 import io.awspring.cloud.sqs.annotation.SqsListener;
+import io.awspring.cloud.sqs.listener.acknowledgement.BatchAcknowledgement;
 import lombok.RequiredArgsConstructor;
-import org.springframework.messaging.handler.annotation.Header;
-import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.Message;
 import org.springframework.stereotype.Component;
 
-import java.util.UUID;
-
-import static com.github.arhor.aws.graphql.federation.starter.tracing.AttributesKt.IDEMPOTENT_KEY;
-import static com.github.arhor.aws.graphql.federation.starter.tracing.AttributesKt.TRACING_ID_KEY;
-import static com.github.arhor.aws.graphql.federation.starter.tracing.Utils.withExtendedMDC;
+import java.util.List;
 
 @Trace
 @Component
@@ -21,34 +17,33 @@ import static com.github.arhor.aws.graphql.federation.starter.tracing.Utils.with
 public class PostEventListener {
 
     private final PostRepresentationService postRepresentationService;
+    private final EventPropagationMetrics eventPropagationMetrics;
 
-    @SqsListener("${app-props.aws.sqs.post-created-events:}")
-    public void handlePostCreatedEvent(
-        @Payload final PostEvent.Created event,
-        @Header(TRACING_ID_KEY) final UUID traceId,
-        @Header(IDEMPOTENT_KEY) final UUID idempotencyKey
+    @SqsListener(value = "${app-props.aws.sqs.post-created-events:}", acknowledgementMode = "MANUAL")
+    public void handlePostCreatedEvents(
+        final List<Message<PostEvent.Created>> messages,
+        final BatchAcknowledgement<PostEvent.Created> acknowledgement
     ) {
-        withExtendedMDC(
-            traceId,
-            () -> postRepresentationService.createPostRepresentation(
-                event.getId(),
-                idempotencyKey
-            )
+        final var processed = EventBatchHandler.handle(
+            messages,
+            acknowledgement,
+            PostEvent.Created::getId,
+            postRepresentationService::createPostRepresentations
         );
+        eventPropagationMetrics.recordPropagationLatency(processed);
     }
 
-    @SqsListener("${app-props.aws.sqs.post-deleted-events:}")
-    public void handlePostDeletedEvent(
-        @Payload final PostEvent.Deleted event,
-        @Header(TRACING_ID_KEY) final UUID traceId,
-        @Header(IDEMPOTENT_KEY) final UUID idempotencyKey
+    @SqsListener(value = "${app-props.aws.sqs.post-deleted-events:}", acknowledgementMode = "MANUAL")
+    public void handlePostDeletedEvents(
+        final List<Message<PostEvent.Deleted>> messages,
+        final BatchAcknowledgement<PostEvent.Deleted> acknowledgement
     ) {
-        withExtendedMDC(
-            traceId,
-            () -> postRepresentationService.deletePostRepresentation(
-                event.getId(),
-                idempotencyKey
-            )
+        final var processed = EventBatchHandler.handle(
+            messages,
+            acknowledgement,
+            PostEvent.Deleted::getId,
+            postRepresentationService::deletePostRepresentations
         );
+        eventPropagationMetrics.recordPropagationLatency(processed);
     }
 }
@@ -4,16 +4,12 @@ import com.github.arhor.aws.graphql.federation.comments.service.UserRepresentati
 import com.github.arhor.aws.graphql.federation.common.event.UserEvent;
 import com.github.arhor.aws.graphql.federation.starter.tracing.Trace;
 import io.awspring.cloud.sqs.annotation.SqsListener;
+import io.awspring.cloud.sqs.listener.acknowledgement.BatchAcknowledgement;
 import lombok.RequiredArgsConstructor;
-import org.springframework.messaging.handler.annotation.Header;
-import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.Message;
 import org.springframework.stereotype.Component;
 
-import java.util.UUID;
-
-import static com.github.arhor.aws.graphql.federation.starter.tracing.AttributesKt.IDEMPOTENT_KEY;
-import static com.github.arhor.aws.graphql.federation.starter.tracing.AttributesKt.TRACING_ID_KEY;
-import static com.github.arhor.aws.graphql.federation.starter.tracing.Utils.withExtendedMDC;
+import java.util.List;
 
 @Trace
 @Component
@@ -21,34 +17,33 @@ import static com.github.arhor.aws.graphql.federation.starter.tracing.Utils.with
 public class UserEventListener {
 
     private final UserRepresentationService userRepresentationService;
+    private final EventPropagationMetrics eventPropagationMetrics;
 
-    @SqsListener("${app-props.aws.sqs.user-created-events:}")
-    public void handleUserCreatedEvent(
-        @Payload final UserEvent.Created event,
-        @Header(TRACING_ID_KEY) final UUID traceId,
-        @Header(IDEMPOTENT_KEY) final UUID idempotencyKey
+    @SqsListener(value = "${app-props.aws.sqs.user-created-events:}", acknowledgementMode = "MANUAL")
+    public void handleUserCreatedEvents(
+        final List<Message<UserEvent.Created>> messages,
+        final BatchAcknowledgement<UserEvent.Created> acknowledgement
     ) {
-        withExtendedMDC(
-            traceId,
-            () -> userRepresentationService.createUserRepresentation(
-                event.getId(),
-                idempotencyKey
-            )
+        final var processed = EventBatchHandler.handle(
+            messages,
+            acknowledgement,
+            UserEvent.Created::getId,
+            userRepresentationService::createUserRepresentations
         );
+        eventPropagationMetrics.recordPropagationLatency(processed);
     }
 
-    @SqsListener("${app-props.aws.sqs.user-deleted-events:}")
-    public void handleUserDeletedEvent(
-        @Payload final UserEvent.Deleted event,
-        @Header(TRACING_ID_KEY) final UUID traceId,
-        @Header(IDEMPOTENT_KEY) final UUID idempotencyKey
+    @SqsListener(value = "${app-props.aws.sqs.user-deleted-events:}", acknowledgementMode = "MANUAL")
+    public void handleUserDeletedEvents(
+        final List<Message<UserEvent.Deleted>> messages,
+        final BatchAcknowledgement<UserEvent.Deleted> acknowledgement
     ) {
-        withExtendedMDC(
-            traceId,
-            () -> userRepresentationService.deleteUserRepresentation(
-                event.getId(),
-                idempotencyKey
-            )
+        final var processed = EventBatchHandler.handle(
+            messages,
+            acknowledgement,
+            UserEvent.Deleted::getId,
+            userRepresentationService::deleteUserRepresentations
         );
+        eventPropagationMetrics.recordPropagationLatency(processed);
     }
 }
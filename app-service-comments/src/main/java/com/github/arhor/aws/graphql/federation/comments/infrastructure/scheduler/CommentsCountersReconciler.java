@@ -0,0 +1,18 @@
+package com.github.arhor.aws.graphql.federation.comments.infrastructure.scheduler;
+
+import com.github.arhor.aws.graphql.federation.comments.service.CommentService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class CommentsCountersReconciler {
+
+    private final CommentService commentService;
+
+    @Scheduled(cron = "${app-props.comments-counters-reconciliation-cron}")
+    public void reconcileCommentsCounters() {
+        commentService.reconcileCommentsCounters();
+    }
+}
@@ -1,14 +1,15 @@
 package com.github.arhor.aws.graphql.federation.comments.service;
 
 import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.Comment;
+import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.CommentPage;
 import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.CreateCommentInput;
 import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.DeleteCommentInput;
 import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.UpdateCommentInput;
 import com.github.arhor.aws.graphql.federation.starter.security.CurrentUserDetails;
 
 import java.util.Collection;
-import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -25,28 +26,39 @@ public interface CommentService {
     Comment getCommentById(UUID id);
 
     /**
-     * Retrieves replies for the specified comments IDs.
+     * Retrieves pages of replies for the specified comments.
      *
-     * @param commentIds the collection of comment IDs to retrieve reply comments for
-     * @return a map where the key is the comment ID and the value is a list of reply comments associated with that comment
+     * @param keys the collection of keys, each identifying parent comment ID and requested page
+     * @return a map where the key is the page key and the value is a page of reply comments
      */
-    Map<UUID, List<Comment>> getCommentsReplies(Collection<UUID> commentIds);
+    Map<CommentsPageKey, CommentPage> getCommentsReplies(Collection<CommentsPageKey> keys);
 
     /**
-     * Retrieves comments for the specified user IDs.
+     * Retrieves pages of comments for the specified users.
      *
-     * @param userIds the collection of user IDs to retrieve comments for
-     * @return a map where the key is the user ID and the value is a list of comments associated with that user
+     * @param keys the collection of keys, each identifying user ID and requested page
+     * @return a map where the key is the page key and the value is a page of comments associated with that user
      */
-    Map<UUID, List<Comment>> getCommentsByUserIds(Collection<UUID> userIds);
+    Map<CommentsPageKey, CommentPage> getCommentsByUserIds(Collection<CommentsPageKey> keys);
 
     /**
-     * Retrieves comments for the specified post IDs.
+     * Retrieves pages of top-level comments for the specified posts.
      *
-     * @param postIds the collection of post IDs to retrieve comments for
-     * @return a map where the key is the post ID and the value is a list of comments associated with that post
+     * @param keys the collection of keys, each identifying post ID and requested page
+     * @return a map where the key is the page key and the value is a page of comments associated with that post
      */
-    Map<UUID, List<Comment>> getCommentsByPostIds(Collection<UUID> postIds);
+    Map<CommentsPageKey, CommentPage> getCommentsByPostIds(Collection<CommentsPageKey> keys);
+
+    /**
+     * Retrieves discussion thread of the specified post limited by depth and total number of comments.
+     *
+     * @param postId           the UUID of the post to retrieve thread for
+     * @param maxDepth         the maximum number of thread levels, including top-level comments
+     * @param maxNodes         the maximum number of comments in the thread
+     * @param repliesPageSizes the page sizes to prepare replies pages for
+     * @return top-level comments of the thread along with replies pages for the comments loaded completely
+     */
+    CommentsThread getCommentsThread(UUID postId, int maxDepth, int maxNodes, Set<Integer> repliesPageSizes);
 
     /**
      * Retrieves number of comments for the specified post IDs.
@@ -56,6 +68,19 @@ public interface CommentService {
      */
     Map<UUID, Integer> getCommentsNumberByPostIds(Collection<UUID> postIds);
 
+    /**
+     * Retrieves number of direct replies for the specified comment IDs.
+     *
+     * @param commentIds the collection of comment IDs to retrieve number of replies for
+     * @return a map where the key is the comment ID and the value is a number of direct replies to that comment
+     */
+    Map<UUID, Integer> getRepliesNumberByCommentIds(Collection<UUID> commentIds);
+
+    /**
+     * Repairs drift of the comments and replies counters comparing them with the actual number of comments.
+     */
+    void reconcileCommentsCounters();
+
     /**
      * Creates a new comment.
      *
@@ -0,0 +1,23 @@
+package com.github.arhor.aws.graphql.federation.comments.service;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Identifies a single page of comments related to a parent entity (post, user or another comment).
+ *
+ * @param parentId the ID of the entity comments are related to
+ * @param first    the maximum number of comments in the page
+ * @param after    the opaque cursor of the comment after which the page starts, may be {@code null}
+ * @param fields   names of the optional comment fields requested by the client, e.g. {@code content}
+ */
+public record CommentsPageKey(UUID parentId, int first, String after, Set<String> fields) {
+
+    /**
+     * @param fields names of the optional comment fields requested by the client
+     * @return a key of the same page of comments with the given optional fields
+     */
+    public CommentsPageKey withFields(final Set<String> fields) {
+        return new CommentsPageKey(parentId, first, after, fields);
+    }
+}
@@ -0,0 +1,16 @@
+package com.github.arhor.aws.graphql.federation.comments.service;
+
+import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.Comment;
+import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.CommentPage;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Discussion thread of a post loaded at once.
+ *
+ * @param comments top-level comments of the thread
+ * @param replies  pages of replies for each thread comment whose replies were loaded completely
+ */
+public record CommentsThread(List<Comment> comments, Map<CommentsPageKey, CommentPage> replies) {
+}
@@ -14,6 +14,14 @@ public interface PostRepresentationService {
 
     Map<UUID, Post> findPostsRepresentationsInBatch(Set<UUID> postIds);
 
+    /**
+     * Finds post representations along with the number of comments of each post using a single query.
+     *
+     * @param postIds the set of post IDs to find representations for
+     * @return a map where the key is the post ID and the value is the post with its comments number
+     */
+    Map<UUID, Post> findPostsRepresentationsWithCommentsNumberInBatch(Set<UUID> postIds);
+
     /**
      * Creates a new post representation.
      *
@@ -23,13 +31,28 @@ public interface PostRepresentationService {
     void createPostRepresentation(UUID postId, UUID idempotencyKey);
 
     /**
-     * Deletes an existing post representation.
+     * Deletes an existing post representation. Representation is marked as deleted immediately, while
+     * comments of the post are deleted in the background.
      *
      * @param postId         the UUID of the post whose representation is to be deleted
      * @param idempotencyKey the UUID used to ensure idempotency of the deletion operation
      */
     void deletePostRepresentation(UUID postId, UUID idempotencyKey);
 
+    /**
+     * Creates post representations in bulk, skipping the ones with already processed idempotency keys.
+     *
+     * @param postIdsByIdempotencyKey the UUIDs of the posts keyed by the idempotency keys of the creation operations
+     */
+    void createPostRepresentations(Map<UUID, UUID> postIdsByIdempotencyKey);
+
+    /**
+     * Deletes existing post representations in bulk, skipping the ones with already processed idempotency keys.
+     *
+     * @param postIdsByIdempotencyKey the UUIDs of the posts keyed by the idempotency keys of the deletion operations
+     */
+    void deletePostRepresentations(Map<UUID, UUID> postIdsByIdempotencyKey);
+
     /**
      * Switches the comments for the post based on the provided input.
      *
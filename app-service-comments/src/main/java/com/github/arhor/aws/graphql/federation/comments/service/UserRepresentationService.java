@@ -23,13 +23,28 @@ public interface UserRepresentationService {
     void createUserRepresentation(UUID userId, UUID idempotencyKey);
 
     /**
-     * Deletes an existing user representation.
+     * Deletes an existing user representation. Representation is marked as deleted immediately, while
+     * the user is removed from their comments in the background.
      *
      * @param userId         the UUID of the user whose representation is to be deleted
      * @param idempotencyKey the UUID used to ensure idempotency of the deletion operation
      */
     void deleteUserRepresentation(UUID userId, UUID idempotencyKey);
 
+    /**
+     * Creates user representations in bulk, skipping the ones with already processed idempotency keys.
+     *
+     * @param userIdsByIdempotencyKey the UUIDs of the users keyed by the idempotency keys of the creation operations
+     */
+    void createUserRepresentations(Map<UUID, UUID> userIdsByIdempotencyKey);
+
+    /**
+     * Deletes existing user representations in bulk, skipping the ones with already processed idempotency keys.
+     *
+     * @param userIdsByIdempotencyKey the UUIDs of the users keyed by the idempotency keys of the deletion operations
+     */
+    void deleteUserRepresentations(Map<UUID, UUID> userIdsByIdempotencyKey);
+
     /**
      * Switches the comments for the user based on the provided input.
      *
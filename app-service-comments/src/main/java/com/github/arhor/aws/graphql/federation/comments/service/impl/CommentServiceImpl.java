@@ -2,6 +2,7 @@ package com.github.arhor.aws.graphql.federation.comments.service.impl;
 
 import com.github.arhor.aws.graphql.federation.comments.data.entity.CommentEntity;
 import com.github.arhor.aws.graphql.federation.comments.data.entity.HasComments;
+import com.github.arhor.aws.graphql.federation.comments.data.entity.projection.CommentThreadNode;
 import com.github.arhor.aws.graphql.federation.comments.data.repository.CommentRepository;
 import com.github.arhor.aws.graphql.federation.comments.data.repository.PostRepresentationRepository;
 import com.github.arhor.aws.graphql.federation.comments.data.repository.UserRepresentationRepository;
@@ -9,32 +10,46 @@ import com.github.arhor.aws.graphql.federation.comments.generated.graphql.DgsCon
 import com.github.arhor.aws.graphql.federation.comments.generated.graphql.DgsConstants.POST;
 import com.github.arhor.aws.graphql.federation.comments.generated.graphql.DgsConstants.USER;
 import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.Comment;
+import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.CommentPage;
 import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.CreateCommentInput;
 import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.DeleteCommentInput;
 import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.UpdateCommentInput;
 import com.github.arhor.aws.graphql.federation.comments.service.CommentService;
+import com.github.arhor.aws.graphql.federation.comments.service.CommentsPageKey;
+import com.github.arhor.aws.graphql.federation.comments.service.CommentsThread;
 import com.github.arhor.aws.graphql.federation.comments.service.mapper.CommentMapper;
+import com.github.arhor.aws.graphql.federation.comments.util.Caches;
 import com.github.arhor.aws.graphql.federation.common.exception.EntityNotFoundException;
 import com.github.arhor.aws.graphql.federation.common.exception.EntityOperationRestrictedException;
 import com.github.arhor.aws.graphql.federation.common.exception.Operation;
+import com.github.arhor.aws.graphql.federation.starter.core.cascade.CascadeEngine;
 import com.github.arhor.aws.graphql.federation.starter.security.CurrentUserDetails;
 import com.github.arhor.aws.graphql.federation.starter.tracing.Trace;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
+import static com.github.arhor.aws.graphql.federation.comments.service.impl.CommentsCursor.COMMENTS_ORDER;
+import static com.github.arhor.aws.graphql.federation.comments.util.CacheManagerUtils.getCache;
 import static com.github.arhor.aws.graphql.federation.starter.security.UtilsKt.ensureAccessAllowed;
 import static java.util.stream.Collectors.groupingBy;
 
@@ -44,37 +59,49 @@ import static java.util.stream.Collectors.groupingBy;
 @RequiredArgsConstructor
 public class CommentServiceImpl implements CommentService {
 
+    private static final int COUNTER_SLOTS = 8;
+
+    // thread is always loaded with all the comment columns
+    private static final Set<String> THREAD_FIELDS = Set.of(COMMENT.Content);
+
+    private final CacheManager cacheManager;
     private final CommentRepository commentRepository;
     private final CommentMapper commentMapper;
     private final PostRepresentationRepository postRepository;
     private final UserRepresentationRepository userRepository;
+    private final CascadeEngine cascadeEngine;
 
-    private GroupingLoader<CommentEntity, Comment, UUID> usersCommentsLoader;
-    private GroupingLoader<CommentEntity, Comment, UUID> postsCommentsLoader;
-    private GroupingLoader<CommentEntity, Comment, UUID> replyCommentsLoader;
+    private Cache usersCache;
+    private Cache postsCache;
+    private PagingLoader usersCommentsLoader;
+    private PagingLoader postsCommentsLoader;
+    private PagingLoader replyCommentsLoader;
 
     @PostConstruct
     public void initialize() {
-        usersCommentsLoader = new GroupingLoader<>(
-            commentRepository::findAllByUserIdIn,
+        usersCache = getCache(cacheManager, Caches.USER_REPRESENTATIONS);
+        postsCache = getCache(cacheManager, Caches.POST_REPRESENTATIONS);
+        usersCommentsLoader = new PagingLoader(
+            commentRepository::findPageByUserIdIn,
             commentMapper::mapToDto,
-            Comment::getUserId
+            CommentEntity::userId
         );
-        postsCommentsLoader = new GroupingLoader<>(
-            commentRepository::findAllByPrntIdNullAndPostIdIn,
+        postsCommentsLoader = new PagingLoader(
+            commentRepository::findPageByPrntIdNullAndPostIdIn,
             commentMapper::mapToDto,
-            Comment::getPostId
+            CommentEntity::postId
         );
-        replyCommentsLoader = new GroupingLoader<>(
-            commentRepository::findAllByPrntIdIn,
+        replyCommentsLoader = new PagingLoader(
+            commentRepository::findPageByPrntIdIn,
             commentMapper::mapToDto,
-            Comment::getPrntId
+            CommentEntity::prntId
         );
     }
 
     @Override
     public Comment getCommentById(final UUID id) {
         return commentRepository.findById(id)
+            .filter((comment) -> !comment.deleted())
             .map(commentMapper::mapToDto)
             .orElseThrow(() ->
                 new EntityNotFoundException(
@@ -87,27 +114,104 @@ public class CommentServiceImpl implements CommentService {
 
     @Override
     @Transactional(readOnly = true)
-    public Map<UUID, List<Comment>> getCommentsReplies(final Collection<UUID> commentIds) {
-        return replyCommentsLoader.loadBy(commentIds);
+    public Map<CommentsPageKey, CommentPage> getCommentsReplies(final Collection<CommentsPageKey> keys) {
+        return replyCommentsLoader.loadBy(keys);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<CommentsPageKey, CommentPage> getCommentsByUserIds(final Collection<CommentsPageKey> keys) {
+        return usersCommentsLoader.loadBy(keys);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Map<UUID, List<Comment>> getCommentsByUserIds(final Collection<UUID> userIds) {
-        return usersCommentsLoader.loadBy(userIds);
+    public Map<CommentsPageKey, CommentPage> getCommentsByPostIds(final Collection<CommentsPageKey> keys) {
+        return postsCommentsLoader.loadBy(keys);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Map<UUID, List<Comment>> getCommentsByPostIds(final Collection<UUID> postIds) {
-        return postsCommentsLoader.loadBy(postIds);
+    public CommentsThread getCommentsThread(
+        final UUID postId,
+        final int maxDepth,
+        final int maxNodes,
+        final Set<Integer> repliesPageSizes
+    ) {
+        final List<CommentThreadNode> nodes;
+        try (final var data = commentRepository.findThreadByPostId(postId, maxDepth, maxNodes)) {
+            nodes = data.toList();
+        }
+        final var topLevelComments = new ArrayList<CommentEntity>();
+        final var repliesByPrntId = new HashMap<UUID, List<CommentEntity>>();
+
+        for (final var node : nodes) {
+            final var entity = node.comment();
+            final var prntId = entity.prntId();
+            if (prntId == null) {
+                topLevelComments.add(entity);
+            } else {
+                repliesByPrntId.computeIfAbsent(prntId, (__) -> new ArrayList<>()).add(entity);
+            }
+        }
+        // when thread is truncated by the nodes limit, the deepest loaded level is partial, so its parents are too
+        final var completeDepth = (nodes.size() < maxNodes)
+            ? maxDepth - 1
+            : nodes.stream().mapToInt(CommentThreadNode::depth).max().orElse(0) - 2;
+
+        final var dtoById = new HashMap<UUID, Comment>(nodes.size());
+        for (final var node : nodes) {
+            dtoById.put(node.comment().id(), commentMapper.mapToDto(node.comment()));
+        }
+        final Function<CommentEntity, Comment> dtoLookup = (entity) -> dtoById.get(entity.id());
+        final var replies = new HashMap<CommentsPageKey, CommentPage>();
+
+        for (final var node : nodes) {
+            if (node.depth() <= completeDepth) {
+                final var entityId = node.comment().id();
+                final var entityReplies = repliesByPrntId.getOrDefault(entityId, new ArrayList<>());
+                entityReplies.sort(COMMENTS_ORDER);
+
+                for (final var pageSize : repliesPageSizes) {
+                    replies.put(
+                        new CommentsPageKey(entityId, pageSize, null, THREAD_FIELDS),
+                        createPage(entityReplies, pageSize, dtoLookup)
+                    );
+                }
+            }
+        }
+        topLevelComments.sort(COMMENTS_ORDER);
+
+        return new CommentsThread(topLevelComments.stream().map(dtoLookup).toList(), replies);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Map<UUID, Integer> getCommentsNumberByPostIds(final Collection<UUID> postIds) {
         return commentRepository.countCommentsByPostIds(postIds);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Map<UUID, Integer> getRepliesNumberByCommentIds(final Collection<UUID> commentIds) {
+        return commentRepository.countRepliesByCommentIds(commentIds);
+    }
+
+    @Override
+    @Transactional
+    public void reconcileCommentsCounters() {
+        if (!commentRepository.tryLockCountersReconciliation()) {
+            log.debug("Comments counters reconciliation is already in progress, skipping");
+            return;
+        }
+        final var commentsNumbers = commentRepository.reconcileCommentsNumbers();
+        final var repliesNumbers = commentRepository.reconcileRepliesNumbers();
+
+        if (commentsNumbers > 0 || repliesNumbers > 0) {
+            log.warn("Repaired comments counters: posts - {}, comments - {}", commentsNumbers, repliesNumbers);
+        }
+    }
+
     @Override
     @Transactional
     public Comment createComment(final CreateCommentInput input, final CurrentUserDetails actor) {
@@ -123,6 +227,11 @@ public class CommentServiceImpl implements CommentService {
         var entity = commentMapper.mapToEntity(input);
         var create = commentRepository.save(entity);
 
+        commentRepository.incrementCommentsNumber(create.postId(), determineCounterSlot(), 1);
+
+        if (create.prntId() != null) {
+            commentRepository.incrementRepliesNumber(create.prntId(), determineCounterSlot(), 1);
+        }
         return commentMapper.mapToDto(create);
     }
 
@@ -133,6 +242,7 @@ public class CommentServiceImpl implements CommentService {
         final var commentId = input.getId();
         final var initialState =
             commentRepository.findById(commentId)
+                .filter((comment) -> !comment.deleted())
                 .orElseThrow(() ->
                     new EntityNotFoundException(
                         COMMENT.TYPE_NAME,
@@ -162,6 +272,7 @@ public class CommentServiceImpl implements CommentService {
     @Transactional
     public boolean deleteComment(final DeleteCommentInput input, final CurrentUserDetails actor) {
         return commentRepository.findById(input.getId())
+            .filter((comment) -> !comment.deleted())
             .map((comment) -> {
                 ensureOperationAllowed(
                     comment.userId(),
@@ -169,7 +280,16 @@ public class CommentServiceImpl implements CommentService {
                     Operation.DELETE,
                     actor
                 );
-                commentRepository.delete(comment);
+                // replies are deleted in the background, so they have to be counted in advance
+                final var deletedNumber = commentRepository.countCommentWithReplies(comment.id());
+
+                commentRepository.save(comment.toBuilder().deleted(true).build());
+                cascadeEngine.schedule(CommentSubtreesDeletionHandler.TYPE, comment.postId());
+                commentRepository.incrementCommentsNumber(comment.postId(), determineCounterSlot(), -deletedNumber);
+
+                if (comment.prntId() != null) {
+                    commentRepository.incrementRepliesNumber(comment.prntId(), determineCounterSlot(), -1);
+                }
                 return true;
             })
             .orElse(false);
@@ -220,8 +340,8 @@ public class CommentServiceImpl implements CommentService {
         if (prntId != null) {
             ensureParentCommentExists(postId, prntId, operation);
         }
-        ensureCommentsEnabled(userRepository, operation, USER.TYPE_NAME, USER.Id, userId);
-        ensureCommentsEnabled(postRepository, operation, POST.TYPE_NAME, POST.Id, postId);
+        ensureCommentsEnabled(usersCache, userRepository, operation, USER.TYPE_NAME, USER.Id, userId);
+        ensureCommentsEnabled(postsCache, postRepository, operation, POST.TYPE_NAME, POST.Id, postId);
     }
 
     private void ensureParentCommentExists(
@@ -240,6 +360,7 @@ public class CommentServiceImpl implements CommentService {
     }
 
     private <T extends HasComments> void ensureCommentsEnabled(
+        final Cache commentsContainerCache,
         final CrudRepository<T, UUID> commentsContainerSource,
         final Operation operation,
         final String entity,
@@ -247,14 +368,15 @@ public class CommentServiceImpl implements CommentService {
         final UUID id
     ) {
         final var commentsContainer =
-            commentsContainerSource.findById(id)
-                .orElseThrow(() ->
-                    new EntityNotFoundException(
-                        COMMENT.TYPE_NAME,
-                        entity + " with " + field + " = " + id + " is not found",
-                        operation
-                    )
-                );
+            commentsContainerCache.get(id, () -> commentsContainerSource.findById(id).orElse(null));
+
+        if (commentsContainer == null || commentsContainer.deleted()) {
+            throw new EntityNotFoundException(
+                COMMENT.TYPE_NAME,
+                entity + " with " + field + " = " + id + " is not found",
+                operation
+            );
+        }
 
         if (commentsContainer.features().check(HasComments.Feature.COMMENTS_DISABLED)) {
             throw new EntityOperationRestrictedException(
@@ -281,26 +403,106 @@ public class CommentServiceImpl implements CommentService {
     }
 
     /**
-     * @param dataSource function that will be used to load comments in case ids collection is not empty
-     * @param dataMapper function that converts entities of type T to type D
-     * @param classifier function that will be used to classify object for grouping operation
-     * @param <T>        entity type loaded by datasource
-     * @param <D>        type of output objects
-     * @param <K>        type of key
+     * @return randomly chosen slot of the counter, spreading concurrent updates of the same counter between rows
+     */
+    private int determineCounterSlot() {
+        return ThreadLocalRandom.current().nextInt(COUNTER_SLOTS);
+    }
+
+    /**
+     * @param comments   comments ordered by creation date-time and ID, may contain one more comment than requested
+     * @param first      the maximum number of comments in the page
+     * @param dataMapper function that converts comment entities to DTOs
+     * @return page of comments with cursor pointing to the last comment of the page
      */
-    private record GroupingLoader<T, D, K>(
-        Function<Collection<K>, Stream<T>> dataSource,
-        Function<T, D> dataMapper,
-        Function<D, K> classifier
+    private static CommentPage createPage(
+        final List<CommentEntity> comments,
+        final int first,
+        final Function<CommentEntity, Comment> dataMapper
     ) {
-        Map<K, List<D>> loadBy(final Collection<K> ids) {
-            if (ids.isEmpty()) {
+        final var hasNext = comments.size() > first;
+        final var page = hasNext ? comments.subList(0, first) : comments;
+
+        return CommentPage.newBuilder()
+            .data(page.stream().map(dataMapper).toList())
+            .cursor(page.isEmpty() ? null : CommentsCursor.of(page.getLast()).encode())
+            .hasNext(hasNext)
+            .build();
+    }
+
+    /**
+     * Function loading at most {@code limit} comments per each of the given parent IDs, starting after the comment
+     * identified by {@code afterCreatedDateTime} and {@code afterId} in the {@code created_date_time, id} order.
+     */
+    @FunctionalInterface
+    private interface PageSource {
+        Stream<CommentEntity> load(
+            Collection<UUID> parentIds,
+            int limit,
+            LocalDateTime afterCreatedDateTime,
+            UUID afterId,
+            boolean withContent
+        );
+    }
+
+    /**
+     * @param first  the maximum number of comments in the page
+     * @param after  the opaque cursor of the comment after which the page starts
+     * @param fields the optional comment fields to fetch
+     */
+    private record PageArgs(int first, String after, Set<String> fields) {
+        static PageArgs of(final CommentsPageKey key) {
+            return new PageArgs(key.first(), key.after(), key.fields());
+        }
+    }
+
+    /**
+     * @param dataSource function that will be used to load comments windowed per parent ID
+     * @param dataMapper function that converts comment entities to DTOs
+     * @param classifier function that will be used to extract parent ID from the comment entity
+     */
+    private record PagingLoader(
+        PageSource dataSource,
+        Function<CommentEntity, Comment> dataMapper,
+        Function<CommentEntity, UUID> classifier
+    ) {
+        Map<CommentsPageKey, CommentPage> loadBy(final Collection<CommentsPageKey> keys) {
+            if (keys.isEmpty()) {
                 return Collections.emptyMap();
             }
-            try (final var data = dataSource.apply(ids)) {
-                return data
-                    .map(dataMapper)
-                    .collect(groupingBy(classifier));
+            final var result = new HashMap<CommentsPageKey, CommentPage>(keys.size());
+
+            // keys requested within the same field selection share page arguments, so usually it's a single query
+            keys.stream().collect(groupingBy(PageArgs::of)).forEach((args, argsKeys) -> {
+                final var parentIds = argsKeys.stream().map(CommentsPageKey::parentId).toList();
+                final var comments = loadGroupedByParentId(parentIds, args);
+
+                for (final var key : argsKeys) {
+                    final var parentComments = comments.getOrDefault(key.parentId(), List.of());
+                    result.put(key, createPage(parentComments, args.first(), dataMapper));
+                }
+            });
+            return result;
+        }
+
+        private Map<UUID, List<CommentEntity>> loadGroupedByParentId(
+            final Collection<UUID> parentIds,
+            final PageArgs args
+        ) {
+            final var cursor = CommentsCursor.decode(args.after());
+            final var afterCreatedDateTime = (cursor != null) ? cursor.createdDateTime() : null;
+            final var afterId = (cursor != null) ? cursor.id() : null;
+            final var withContent = args.fields().contains(COMMENT.Content);
+
+            // one extra comment per parent is requested to find out whether there is a next page
+            try (final var data = dataSource.load(
+                parentIds,
+                args.first() + 1,
+                afterCreatedDateTime,
+                afterId,
+                withContent
+            )) {
+                return data.collect(groupingBy(classifier));
             }
         }
     }
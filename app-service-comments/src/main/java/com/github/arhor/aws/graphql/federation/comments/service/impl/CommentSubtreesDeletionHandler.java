@@ -0,0 +1,35 @@
+package com.github.arhor.aws.graphql.federation.comments.service.impl;
+
+import com.github.arhor.aws.graphql.federation.comments.data.repository.CommentRepository;
+import com.github.arhor.aws.graphql.federation.starter.core.cascade.CascadeTaskHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Deletes comments of the post marked as deleted along with all their replies chunk by chunk. Deleted mark is
+ * propagated to the replies level by level first, then marked comments are deleted starting from the replies.
+ */
+@Component
+@RequiredArgsConstructor
+public class CommentSubtreesDeletionHandler implements CascadeTaskHandler {
+
+    public static final String TYPE = "COMMENT_SUBTREES_DELETION";
+
+    private final CommentRepository commentRepository;
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public int processChunk(final UUID postId, final int chunkSize) {
+        final var marked = commentRepository.markNextChunkOfDeletedCommentsRepliesDeleted(postId, chunkSize);
+
+        return (marked > 0)
+            ? marked
+            : commentRepository.deleteNextChunkOfDeletedByPostId(postId, chunkSize);
+    }
+}
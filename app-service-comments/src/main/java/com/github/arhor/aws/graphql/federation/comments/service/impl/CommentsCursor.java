@@ -0,0 +1,62 @@
+package com.github.arhor.aws.graphql.federation.comments.service.impl;
+
+import com.github.arhor.aws.graphql.federation.comments.data.entity.CommentEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * Position of a comment in the {@code created_date_time, id} ordering, exposed to the clients as an opaque string.
+ *
+ * @param createdDateTime the creation date-time of the comment
+ * @param id              the ID of the comment
+ */
+record CommentsCursor(LocalDateTime createdDateTime, UUID id) {
+
+    /**
+     * The same order as {@code ORDER BY created_date_time, id} gives in the database, where UUIDs are compared as
+     * unsigned bytes, unlike {@link UUID#compareTo(UUID)} comparing signed longs.
+     */
+    static final Comparator<CommentEntity> COMMENTS_ORDER =
+        Comparator.comparing(CommentEntity::createdDateTime)
+            .thenComparing(CommentEntity::id, CommentsCursor::compareUnsigned);
+
+    private static final String SEPARATOR = "|";
+
+    static CommentsCursor of(final CommentEntity entity) {
+        return new CommentsCursor(entity.createdDateTime(), entity.id());
+    }
+
+    static CommentsCursor decode(final String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            final var decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            final var separatorIndex = decoded.indexOf(SEPARATOR);
+
+            return new CommentsCursor(
+                LocalDateTime.parse(decoded.substring(0, separatorIndex)),
+                UUID.fromString(decoded.substring(separatorIndex + 1))
+            );
+        } catch (final IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid comments cursor: " + value, e);
+        }
+    }
+
+    private static int compareUnsigned(final UUID a, final UUID b) {
+        final var result = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return (result != 0)
+            ? result
+            : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    String encode() {
+        final var value = createdDateTime + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
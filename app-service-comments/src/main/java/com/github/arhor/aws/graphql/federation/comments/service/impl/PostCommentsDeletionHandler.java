@@ -0,0 +1,37 @@
+package com.github.arhor.aws.graphql.federation.comments.service.impl;
+
+import com.github.arhor.aws.graphql.federation.comments.data.repository.CommentRepository;
+import com.github.arhor.aws.graphql.federation.comments.data.repository.PostRepresentationRepository;
+import com.github.arhor.aws.graphql.federation.starter.core.cascade.CascadeTaskHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Deletes comments of the deleted post chunk by chunk, starting from the replies, and then the post itself.
+ */
+@Component
+@RequiredArgsConstructor
+public class PostCommentsDeletionHandler implements CascadeTaskHandler {
+
+    public static final String TYPE = "POST_COMMENTS_DELETION";
+
+    private final CommentRepository commentRepository;
+    private final PostRepresentationRepository postRepository;
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public int processChunk(final UUID postId, final int chunkSize) {
+        return commentRepository.deleteNextChunkByPostId(postId, chunkSize);
+    }
+
+    @Override
+    public void complete(final UUID postId) {
+        postRepository.deleteById(postId);
+    }
+}
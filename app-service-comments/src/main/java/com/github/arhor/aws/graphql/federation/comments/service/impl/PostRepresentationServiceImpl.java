@@ -10,12 +10,16 @@ import com.github.arhor.aws.graphql.federation.comments.service.PostRepresentati
 import com.github.arhor.aws.graphql.federation.comments.util.Caches;
 import com.github.arhor.aws.graphql.federation.common.exception.EntityNotFoundException;
 import com.github.arhor.aws.graphql.federation.common.exception.Operation;
+import com.github.arhor.aws.graphql.federation.starter.core.cascade.CascadeEngine;
+import com.github.arhor.aws.graphql.federation.starter.core.idempotency.IdempotencyStore;
 import com.github.arhor.aws.graphql.federation.starter.tracing.Trace;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -23,6 +27,7 @@ import java.util.Set;
 import java.util.UUID;
 
 import static com.github.arhor.aws.graphql.federation.comments.util.CacheManagerUtils.getCache;
+import static java.util.stream.Collectors.toSet;
 
 @Trace
 @Service
@@ -30,13 +35,16 @@ import static com.github.arhor.aws.graphql.federation.comments.util.CacheManager
 public class PostRepresentationServiceImpl implements PostRepresentationService {
 
     private final CacheManager cacheManager;
+    private final IdempotencyStore idempotencyStore;
+    private final CascadeEngine cascadeEngine;
     private final PostRepresentationRepository postRepository;
 
-    private Cache cache;
+    private Cache postsCache;
 
     @PostConstruct
     public void initialize() {
-        cache = getCache(cacheManager, Caches.IDEMPOTENT_ID_SET);
+        // entries must not be updated before the representation change is committed
+        postsCache = new TransactionAwareCacheDecorator(getCache(cacheManager, Caches.POST_REPRESENTATIONS));
     }
 
     @Override
@@ -45,6 +53,9 @@ public class PostRepresentationServiceImpl implements PostRepresentationService
         final var posts = postRepository.findAllById(postIds);
 
         for (final var post : posts) {
+            if (post.deleted()) {
+                continue;
+            }
             result.put(
                 post.id(),
                 Post.newBuilder()
@@ -53,34 +64,73 @@ public class PostRepresentationServiceImpl implements PostRepresentationService
                     .build()
             );
         }
-        postIds.stream().filter(it -> !result.containsKey(it)).forEach((postId) ->
+        fillMissingPosts(postIds, result);
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<UUID, Post> findPostsRepresentationsWithCommentsNumberInBatch(final Set<UUID> postIds) {
+        final var result = new HashMap<UUID, Post>(postIds.size());
+        final var posts = postRepository.findAllWithCommentsNumberByIdIn(postIds);
+
+        for (final var post : posts) {
+            if (post.deleted()) {
+                continue;
+            }
             result.put(
-                postId,
+                post.id(),
                 Post.newBuilder()
-                    .id(postId)
+                    .id(post.id())
+                    .commentsDisabled(post.features().check(Feature.COMMENTS_DISABLED))
+                    .commentsNumber(post.commentsNumber())
                     .build()
-            )
-        );
+            );
+        }
+        fillMissingPosts(postIds, result);
         return result;
     }
 
     @Override
     public void createPostRepresentation(final UUID postId, final UUID idempotencyKey) {
-        cache.get(idempotencyKey, () ->
-            postRepository.save(
+        idempotencyStore.executeOnce(idempotencyKey, () -> {
+            final var post = postRepository.save(
                 PostRepresentation.builder()
                     .id(postId)
                     .shouldBePersisted(true)
                     .build()
-            )
-        );
+            );
+            postsCache.put(postId, post);
+        });
     }
 
     @Override
     public void deletePostRepresentation(final UUID postId, final UUID idempotencyKey) {
-        cache.get(idempotencyKey, () -> {
-            postRepository.deleteById(postId);
-            return null;
+        idempotencyStore.executeOnce(idempotencyKey, () -> {
+            postRepository.markDeletedByIdIn(Set.of(postId));
+            cascadeEngine.schedule(PostCommentsDeletionHandler.TYPE, postId);
+            postsCache.evict(postId);
+        });
+    }
+
+    @Override
+    public void createPostRepresentations(final Map<UUID, UUID> postIdsByIdempotencyKey) {
+        idempotencyStore.executeOnce(postIdsByIdempotencyKey.keySet(), (idempotencyKeys) -> {
+            final var postIds = idempotencyKeys.stream().map(postIdsByIdempotencyKey::get).collect(toSet());
+
+            postRepository.insertAllIgnoringExisting(postIds);
+            postIds.forEach(postsCache::evict);
+        });
+    }
+
+    @Override
+    public void deletePostRepresentations(final Map<UUID, UUID> postIdsByIdempotencyKey) {
+        idempotencyStore.executeOnce(postIdsByIdempotencyKey.keySet(), (idempotencyKeys) -> {
+            final var postIds = idempotencyKeys.stream().map(postIdsByIdempotencyKey::get).collect(toSet());
+
+            postRepository.markDeletedByIdIn(postIds);
+            cascadeEngine.schedule(PostCommentsDeletionHandler.TYPE, postIds);
+            postIds.forEach(postsCache::evict);
         });
     }
 
@@ -91,6 +141,7 @@ public class PostRepresentationServiceImpl implements PostRepresentationService
 
         final var post =
             postRepository.findById(postId)
+                .filter((it) -> !it.deleted())
                 .orElseThrow(() -> new EntityNotFoundException(
                         POST.TYPE_NAME,
                         POST.Id + " = " + postId,
@@ -99,7 +150,7 @@ public class PostRepresentationServiceImpl implements PostRepresentationService
                 );
 
         if (post.features().check(Feature.COMMENTS_DISABLED) != shouldBeDisabled) {
-            postRepository.save(
+            final var updated = postRepository.save(
                 post.toBuilder()
                     .features(
                         shouldBeDisabled
@@ -108,9 +159,21 @@ public class PostRepresentationServiceImpl implements PostRepresentationService
                     )
                     .build()
             );
+            postsCache.put(postId, updated);
             return true;
         } else {
             return false;
         }
     }
+
+    private void fillMissingPosts(final Set<UUID> postIds, final Map<UUID, Post> result) {
+        postIds.stream().filter(it -> !result.containsKey(it)).forEach((postId) ->
+            result.put(
+                postId,
+                Post.newBuilder()
+                    .id(postId)
+                    .build()
+            )
+        );
+    }
 }
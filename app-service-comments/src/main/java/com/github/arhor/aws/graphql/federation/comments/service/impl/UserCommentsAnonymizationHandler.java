@@ -0,0 +1,37 @@
+package com.github.arhor.aws.graphql.federation.comments.service.impl;
+
+import com.github.arhor.aws.graphql.federation.comments.data.repository.CommentRepository;
+import com.github.arhor.aws.graphql.federation.comments.data.repository.UserRepresentationRepository;
+import com.github.arhor.aws.graphql.federation.starter.core.cascade.CascadeTaskHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Removes the deleted user from their comments chunk by chunk, and then deletes the user itself.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserCommentsAnonymizationHandler implements CascadeTaskHandler {
+
+    public static final String TYPE = "USER_COMMENTS_ANONYMIZATION";
+
+    private final CommentRepository commentRepository;
+    private final UserRepresentationRepository userRepository;
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public int processChunk(final UUID userId, final int chunkSize) {
+        return commentRepository.anonymizeNextChunkByUserId(userId, chunkSize);
+    }
+
+    @Override
+    public void complete(final UUID userId) {
+        userRepository.deleteById(userId);
+    }
+}
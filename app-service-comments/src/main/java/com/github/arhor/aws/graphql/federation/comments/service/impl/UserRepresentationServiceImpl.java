@@ -10,11 +10,14 @@ import com.github.arhor.aws.graphql.federation.comments.service.UserRepresentati
 import com.github.arhor.aws.graphql.federation.comments.util.Caches;
 import com.github.arhor.aws.graphql.federation.common.exception.EntityNotFoundException;
 import com.github.arhor.aws.graphql.federation.common.exception.Operation;
+import com.github.arhor.aws.graphql.federation.starter.core.cascade.CascadeEngine;
+import com.github.arhor.aws.graphql.federation.starter.core.idempotency.IdempotencyStore;
 import com.github.arhor.aws.graphql.federation.starter.tracing.Trace;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
@@ -23,6 +26,7 @@ import java.util.Set;
 import java.util.UUID;
 
 import static com.github.arhor.aws.graphql.federation.comments.util.CacheManagerUtils.getCache;
+import static java.util.stream.Collectors.toSet;
 
 @Trace
 @Service
@@ -30,13 +34,16 @@ import static com.github.arhor.aws.graphql.federation.comments.util.CacheManager
 public class UserRepresentationServiceImpl implements UserRepresentationService {
 
     private final CacheManager cacheManager;
+    private final IdempotencyStore idempotencyStore;
+    private final CascadeEngine cascadeEngine;
     private final UserRepresentationRepository userRepository;
 
-    private Cache cache;
+    private Cache usersCache;
 
     @PostConstruct
     public void initialize() {
-        cache = getCache(cacheManager, Caches.IDEMPOTENT_ID_SET);
+        // entries must not be updated before the representation change is committed
+        usersCache = new TransactionAwareCacheDecorator(getCache(cacheManager, Caches.USER_REPRESENTATIONS));
     }
 
     @Override
@@ -45,6 +52,9 @@ public class UserRepresentationServiceImpl implements UserRepresentationService
         final var users = userRepository.findAllById(userIds);
 
         for (final var user : users) {
+            if (user.deleted()) {
+                continue;
+            }
             result.put(
                 user.id(),
                 User.newBuilder()
@@ -66,21 +76,44 @@ public class UserRepresentationServiceImpl implements UserRepresentationService
 
     @Override
     public void createUserRepresentation(final UUID userId, final UUID idempotencyKey) {
-        cache.get(idempotencyKey, () ->
-            userRepository.save(
+        idempotencyStore.executeOnce(idempotencyKey, () -> {
+            final var user = userRepository.save(
                 UserRepresentation.builder()
                     .id(userId)
                     .shouldBePersisted(true)
                     .build()
-            )
-        );
+            );
+            usersCache.put(userId, user);
+        });
     }
 
     @Override
     public void deleteUserRepresentation(final UUID userId, final UUID idempotencyKey) {
-        cache.get(idempotencyKey, () -> {
-            userRepository.deleteById(userId);
-            return null;
+        idempotencyStore.executeOnce(idempotencyKey, () -> {
+            userRepository.markDeletedByIdIn(Set.of(userId));
+            cascadeEngine.schedule(UserCommentsAnonymizationHandler.TYPE, userId);
+            usersCache.evict(userId);
+        });
+    }
+
+    @Override
+    public void createUserRepresentations(final Map<UUID, UUID> userIdsByIdempotencyKey) {
+        idempotencyStore.executeOnce(userIdsByIdempotencyKey.keySet(), (idempotencyKeys) -> {
+            final var userIds = idempotencyKeys.stream().map(userIdsByIdempotencyKey::get).collect(toSet());
+
+            userRepository.insertAllIgnoringExisting(userIds);
+            userIds.forEach(usersCache::evict);
+        });
+    }
+
+    @Override
+    public void deleteUserRepresentations(final Map<UUID, UUID> userIdsByIdempotencyKey) {
+        idempotencyStore.executeOnce(userIdsByIdempotencyKey.keySet(), (idempotencyKeys) -> {
+            final var userIds = idempotencyKeys.stream().map(userIdsByIdempotencyKey::get).collect(toSet());
+
+            userRepository.markDeletedByIdIn(userIds);
+            cascadeEngine.schedule(UserCommentsAnonymizationHandler.TYPE, userIds);
+            userIds.forEach(usersCache::evict);
         });
     }
 
@@ -91,6 +124,7 @@ public class UserRepresentationServiceImpl implements UserRepresentationService
 
         final var user =
             userRepository.findById(userId)
+                .filter((it) -> !it.deleted())
                 .orElseThrow(() -> new EntityNotFoundException(
                         USER.TYPE_NAME,
                         USER.Id + " = " + userId,
@@ -99,7 +133,7 @@ public class UserRepresentationServiceImpl implements UserRepresentationService
                 );
 
         if (user.features().check(Feature.COMMENTS_DISABLED) != shouldBeDisabled) {
-            userRepository.save(
+            final var updated = userRepository.save(
                 user.toBuilder()
                     .features(
                         shouldBeDisabled
@@ -108,6 +142,7 @@ public class UserRepresentationServiceImpl implements UserRepresentationService
                     )
                     .build()
             );
+            usersCache.put(userId, updated);
             return true;
         } else {
             return false;
@@ -7,7 +7,18 @@ public enum Caches {
     GRAPHQL_DOCUMENTS,
 
     /**
-     * Cache for idempotent operation execution.
+     * Cache for user representations checked on write path, including missing ones.
+     * <p>
+     * The cache is local to each service instance: it is updated after commit by the instance
+     * consuming the representation event, other instances rely on the entry expiration.
      */
-    IDEMPOTENT_ID_SET,
+    USER_REPRESENTATIONS,
+
+    /**
+     * Cache for post representations checked on write path, including missing ones.
+     * <p>
+     * The cache is local to each service instance: it is updated after commit by the instance
+     * consuming the representation event, other instances rely on the entry expiration.
+     */
+    POST_REPRESENTATIONS,
 }
@@ -0,0 +1,9 @@
+CREATE INDEX IF NOT EXISTS "IDX__comments__post_id__created_date_time__id"
+    ON "comments" ("post_id", "created_date_time", "id")
+    WHERE "prnt_id" IS NULL;
+
+CREATE INDEX IF NOT EXISTS "IDX__comments__user_id__created_date_time__id"
+    ON "comments" ("user_id", "created_date_time", "id");
+
+CREATE INDEX IF NOT EXISTS "IDX__comments__prnt_id__created_date_time__id"
+    ON "comments" ("prnt_id", "created_date_time", "id");
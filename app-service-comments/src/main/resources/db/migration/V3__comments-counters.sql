@@ -0,0 +1,48 @@
+CREATE TABLE IF NOT EXISTS "post_comments_counters"
+(
+    "post_id" UUID     NOT NULL,
+    "slot"    SMALLINT NOT NULL,
+    "value"   BIGINT   NOT NULL,
+
+    CONSTRAINT "PK__post_comments_counters"
+        PRIMARY KEY ("post_id", "slot"),
+
+    CONSTRAINT "FK__post_comments_counters__post_representations"
+        FOREIGN KEY ("post_id")
+            REFERENCES "post_representations" ("id")
+            ON UPDATE CASCADE
+            ON DELETE CASCADE
+) WITH (OIDS = FALSE);
+
+CREATE TABLE IF NOT EXISTS "comment_replies_counters"
+(
+    "comment_id" UUID     NOT NULL,
+    "slot"       SMALLINT NOT NULL,
+    "value"      BIGINT   NOT NULL,
+
+    CONSTRAINT "PK__comment_replies_counters"
+        PRIMARY KEY ("comment_id", "slot"),
+
+    CONSTRAINT "FK__comment_replies_counters__comments"
+        FOREIGN KEY ("comment_id")
+            REFERENCES "comments" ("id")
+            ON UPDATE CASCADE
+            ON DELETE CASCADE
+) WITH (OIDS = FALSE);
+
+INSERT INTO "post_comments_counters" ("post_id", "slot", "value")
+     SELECT c."post_id"
+          , 0
+          , COUNT(*)
+       FROM "comments" c
+   GROUP BY c."post_id"
+ON CONFLICT DO NOTHING;
+
+INSERT INTO "comment_replies_counters" ("comment_id", "slot", "value")
+     SELECT c."prnt_id"
+          , 0
+          , COUNT(*)
+       FROM "comments" c
+      WHERE c."prnt_id" IS NOT NULL
+   GROUP BY c."prnt_id"
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,2 @@
+CREATE INDEX IF NOT EXISTS "IDX__comments__post_id"
+    ON "comments" ("post_id");
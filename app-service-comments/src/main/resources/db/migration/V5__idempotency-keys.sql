@@ -0,0 +1,8 @@
+CREATE TABLE IF NOT EXISTS "idempotency_keys"
+(
+    "key"    UUID   NOT NULL PRIMARY KEY,
+    "bucket" BIGINT NOT NULL
+) WITH (OIDS = FALSE);
+
+CREATE INDEX IF NOT EXISTS "IDX__idempotency_keys__bucket"
+    ON "idempotency_keys" ("bucket");
@@ -0,0 +1,25 @@
+CREATE TABLE IF NOT EXISTS "cascade_tasks"
+(
+    "type"              VARCHAR(64) NOT NULL,
+    "target_id"         UUID        NOT NULL,
+    "revision"          BIGINT      NOT NULL,
+    "processed"         BIGINT      NOT NULL,
+    "locked_until"      TIMESTAMP   NULL,
+    "created_date_time" TIMESTAMP   NOT NULL,
+
+    CONSTRAINT "PK__cascade_tasks"
+        PRIMARY KEY ("type", "target_id")
+) WITH (OIDS = FALSE);
+
+ALTER TABLE "user_representations"
+    ADD COLUMN IF NOT EXISTS "deleted" BOOLEAN NOT NULL DEFAULT FALSE;
+
+ALTER TABLE "post_representations"
+    ADD COLUMN IF NOT EXISTS "deleted" BOOLEAN NOT NULL DEFAULT FALSE;
+
+ALTER TABLE "comments"
+    ADD COLUMN IF NOT EXISTS "deleted" BOOLEAN NOT NULL DEFAULT FALSE;
+
+CREATE INDEX IF NOT EXISTS "IDX__comments__post_id__deleted"
+    ON "comments" ("post_id")
+    WHERE "deleted";
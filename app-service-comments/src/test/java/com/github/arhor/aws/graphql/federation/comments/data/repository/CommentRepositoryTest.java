@@ -2,7 +2,10 @@ package com.github.arhor.aws.graphql.federation.comments.data.repository;
 
 import com.github.arhor.aws.graphql.federation.comments.data.entity.CommentEntity;
 import com.github.arhor.aws.graphql.federation.comments.data.entity.callback.CommentEntityCallback;
+import com.github.arhor.aws.graphql.federation.comments.data.entity.projection.CommentThreadNode;
+import com.github.arhor.aws.graphql.federation.comments.data.repository.mapping.CommentThreadNodeRowMapper;
 import com.github.arhor.aws.graphql.federation.comments.data.repository.mapping.CommentsNumberByPostIdResultSetExtractor;
+import com.github.arhor.aws.graphql.federation.comments.data.repository.mapping.RepliesNumberByCommentIdResultSetExtractor;
 import com.github.arhor.aws.graphql.federation.starter.testing.ConstantsKt;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -18,16 +21,18 @@ import static org.assertj.core.api.Assertions.assertThat;
 @ContextConfiguration(
     classes = {
         CommentEntityCallback.class,
+        CommentThreadNodeRowMapper.class,
         CommentsNumberByPostIdResultSetExtractor.class,
+        RepliesNumberByCommentIdResultSetExtractor.class,
     }
 )
 public class CommentRepositoryTest extends RepositoryTestBase {
 
     @Nested
-    @DisplayName("CommentRepository :: findAllByUserIdIn")
-    class FindAllByUserIdInTest {
+    @DisplayName("CommentRepository :: findPageByUserIdIn")
+    class FindPageByUserIdInTest {
         @Test
-        void should_return_expected_list_of_comments_by_user_ids() {
+        void should_return_at_most_limit_comments_for_each_of_the_given_user_ids() {
             // Given
             final var user1 = createUser(ConstantsKt.getTEST_1_UUID_VAL());
             final var user2 = createUser(ConstantsKt.getTEST_2_UUID_VAL());
@@ -36,11 +41,11 @@ public class CommentRepositoryTest extends RepositoryTestBase {
             final var post1 = createPost(ConstantsKt.getOMNI_UUID_VAL());
 
             final var user1Comments = List.of(
+                createComment(user1, post1),
                 createComment(user1, post1),
                 createComment(user1, post1)
             );
             final var user2Comments = List.of(
-                createComment(user2, post1),
                 createComment(user2, post1)
             );
             final var user3Comments = List.of(
@@ -48,30 +53,46 @@ public class CommentRepositoryTest extends RepositoryTestBase {
                 createComment(user3, post1)
             );
 
-            final var expectedComments = Stream.concat(user1Comments.stream(), user2Comments.stream()).toList();
-
             // When
-            final var result = commentRepository.findAllByUserIdIn(
-                expectedComments
-                    .stream()
-                    .map(CommentEntity::userId)
-                    .toList()
-            );
+            final var result =
+                commentRepository.findPageByUserIdIn(List.of(user1.id(), user2.id()), 2, null, null, true)
+                    .toList();
 
             // Then
             assertThat(result)
                 .isNotNull()
-                .containsExactlyElementsOf(expectedComments)
-                .doesNotContainAnyElementsOf(user3Comments);
+                .hasSize(3)
+                .doesNotContainAnyElementsOf(user3Comments)
+                .containsAll(user2Comments);
+
+            assertThat(result)
+                .filteredOn(it -> it.userId().equals(user1.id()))
+                .hasSize(2)
+                .isSubsetOf(user1Comments);
         }
 
         @Test
-        void should_return_empty_stream_when_post_ids_is_empty() {
+        void should_not_fetch_comments_content_when_it_is_not_requested() {
+            // Given
+            final var user = createUser(ConstantsKt.getTEST_1_UUID_VAL());
+            final var post = createPost(ConstantsKt.getOMNI_UUID_VAL());
+            final var comment = createComment(user, post);
+
+            // When
+            final var result = commentRepository.findPageByUserIdIn(List.of(user.id()), 2, null, null, false);
+
+            // Then
+            assertThat(result)
+                .containsExactly(comment.toBuilder().content(null).build());
+        }
+
+        @Test
+        void should_return_empty_stream_when_user_ids_is_empty() {
             // Given
             final List<UUID> userIds = List.of();
 
             // When
-            final var result = commentRepository.findAllByUserIdIn(userIds);
+            final var result = commentRepository.findPageByUserIdIn(userIds, 2, null, null, true);
 
             // Then
             assertThat(result)
@@ -80,8 +101,44 @@ public class CommentRepositoryTest extends RepositoryTestBase {
     }
 
     @Nested
-    @DisplayName("CommentRepository :: findAllByPrntIdNullAndPostIdIn")
-    class FindAllByPrntIdNullAndPostIdInTest {
+    @DisplayName("CommentRepository :: findPageByPrntIdIn")
+    class FindPageByPrntIdInTest {
+        @Test
+        void should_return_replies_page_starting_after_the_given_cursor() {
+            // Given
+            final var user = createUser(ConstantsKt.getZERO_UUID_VAL());
+            final var post = createPost(ConstantsKt.getOMNI_UUID_VAL());
+
+            final var parent = createComment(user, post);
+            final var replies = List.of(
+                createComment(user, post, parent),
+                createComment(user, post, parent),
+                createComment(user, post, parent)
+            );
+
+            // When
+            final var page1 = commentRepository.findPageByPrntIdIn(List.of(parent.id()), 2, null, null, true).toList();
+            final var last1 = page1.getLast();
+            final var page2 =
+                commentRepository.findPageByPrntIdIn(List.of(parent.id()), 2, last1.createdDateTime(), last1.id(), true)
+                    .toList();
+
+            // Then
+            assertThat(page1)
+                .hasSize(2);
+
+            assertThat(page2)
+                .hasSize(1)
+                .doesNotContainAnyElementsOf(page1);
+
+            assertThat(Stream.concat(page1.stream(), page2.stream()))
+                .containsExactlyInAnyOrderElementsOf(replies);
+        }
+    }
+
+    @Nested
+    @DisplayName("CommentRepository :: findPageByPrntIdNullAndPostIdIn")
+    class FindPageByPrntIdNullAndPostIdInTest {
         @Test
         void should_return_expected_list_of_top_level_comments_by_post_ids() {
             // Given
@@ -103,17 +160,21 @@ public class CommentRepositoryTest extends RepositoryTestBase {
 
             // When
             final var result =
-                commentRepository.findAllByPrntIdNullAndPostIdIn(
+                commentRepository.findPageByPrntIdNullAndPostIdIn(
                     List.of(
                         post1.id(),
                         post2.id()
-                    )
+                    ),
+                    10,
+                    null,
+                    null,
+                    true
                 );
 
             // Then
             assertThat(result)
                 .isNotNull()
-                .containsExactly(post1Comment1, post1Comment2, post2Comment1)
+                .containsExactlyInAnyOrder(post1Comment1, post1Comment2, post2Comment1)
                 .doesNotContain(post2Comment2, post3Comment1, post3Comment2);
         }
 
@@ -123,7 +184,218 @@ public class CommentRepositoryTest extends RepositoryTestBase {
             final List<UUID> postIds = List.of();
 
             // When
-            final var result = commentRepository.findAllByPrntIdNullAndPostIdIn(postIds);
+            final var result = commentRepository.findPageByPrntIdNullAndPostIdIn(postIds, 10, null, null, true);
+
+            // Then
+            assertThat(result)
+                .isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("CommentRepository :: findThreadByPostId")
+    class FindThreadByPostIdTest {
+        @Test
+        void should_return_comments_of_the_given_post_not_deeper_than_max_depth() {
+            // Given
+            final var user = createUser(ConstantsKt.getZERO_UUID_VAL());
+
+            final var post1 = createPost(ConstantsKt.getTEST_1_UUID_VAL());
+            final var post2 = createPost(ConstantsKt.getTEST_2_UUID_VAL());
+
+            final var root = createComment(user, post1);
+            final var reply = createComment(user, post1, root);
+            final var nestedReply = createComment(user, post1, reply);
+            final var otherPostComment = createComment(user, post2);
+
+            // When
+            final var result = commentRepository.findThreadByPostId(post1.id(), 2, 10).toList();
+
+            // Then
+            assertThat(result)
+                .extracting(CommentThreadNode::comment)
+                .containsExactlyInAnyOrder(root, reply)
+                .doesNotContain(nestedReply, otherPostComment);
+        }
+
+        @Test
+        void should_return_at_most_max_nodes_comments_loading_them_level_by_level() {
+            // Given
+            final var user = createUser(ConstantsKt.getZERO_UUID_VAL());
+            final var post = createPost(ConstantsKt.getOMNI_UUID_VAL());
+
+            final var root1 = createComment(user, post);
+            final var root2 = createComment(user, post);
+            final var reply = createComment(user, post, root1);
+
+            // When
+            final var result = commentRepository.findThreadByPostId(post.id(), 8, 2).toList();
+
+            // Then
+            assertThat(result)
+                .extracting(CommentThreadNode::comment)
+                .containsExactlyInAnyOrder(root1, root2)
+                .doesNotContain(reply);
+        }
+
+        @Test
+        void should_return_only_top_levels_of_thread_larger_than_max_nodes() {
+            // Given
+            final var user = createUser(ConstantsKt.getZERO_UUID_VAL());
+            final var post = createPost(ConstantsKt.getOMNI_UUID_VAL());
+
+            final var root = createComment(user, post);
+            final var reply = createComment(user, post, root);
+            final var nestedReply1 = createComment(user, post, reply);
+            final var nestedReply2 = createComment(user, post, reply);
+            final var deepReply = createComment(user, post, nestedReply1);
+
+            // When
+            final var result = commentRepository.findThreadByPostId(post.id(), 8, 3).toList();
+
+            // Then
+            assertThat(result)
+                .extracting(CommentThreadNode::depth)
+                .containsExactly(1, 2, 3);
+
+            assertThat(result)
+                .extracting(CommentThreadNode::comment)
+                .contains(root, reply)
+                .containsAnyOf(nestedReply1, nestedReply2)
+                .doesNotContain(deepReply);
+        }
+
+        @Test
+        void should_not_return_deleted_comments_along_with_their_replies() {
+            // Given
+            final var user = createUser(ConstantsKt.getZERO_UUID_VAL());
+            final var post = createPost(ConstantsKt.getOMNI_UUID_VAL());
+
+            final var root1 = createComment(user, post);
+            final var root2 = commentRepository.save(createComment(user, post).toBuilder().deleted(true).build());
+            final var reply = createComment(user, post, root2);
+
+            // When
+            final var result = commentRepository.findThreadByPostId(post.id(), 8, 10).toList();
+
+            // Then
+            assertThat(result)
+                .extracting(CommentThreadNode::comment)
+                .containsExactly(root1)
+                .doesNotContain(root2, reply);
+        }
+
+        @Test
+        void should_return_comments_ordered_by_depth_along_with_their_depth() {
+            // Given
+            final var user = createUser(ConstantsKt.getZERO_UUID_VAL());
+            final var post = createPost(ConstantsKt.getOMNI_UUID_VAL());
+
+            final var root1 = createComment(user, post);
+            final var root2 = createComment(user, post);
+            final var root2Reply = createComment(user, post, root2);
+            final var root1Reply = createComment(user, post, root1);
+            final var nestedReply = createComment(user, post, root2Reply);
+
+            // When
+            final var result = commentRepository.findThreadByPostId(post.id(), 8, 4).toList();
+
+            // Then
+            assertThat(result)
+                .extracting(CommentThreadNode::depth)
+                .containsExactly(1, 1, 2, 2);
+
+            assertThat(result)
+                .extracting(CommentThreadNode::comment)
+                .containsExactlyInAnyOrder(root1, root2, root2Reply, root1Reply)
+                .doesNotContain(nestedReply);
+        }
+    }
+
+    @Nested
+    @DisplayName("CommentRepository :: existsByPostIdAndPrntId")
+    class ExistsByPostIdAndPrntIdTest {
+        @Test
+        void should_return_true_for_existing_comment_of_the_given_post() {
+            // Given
+            final var user = createUser(ConstantsKt.getZERO_UUID_VAL());
+            final var post = createPost(ConstantsKt.getOMNI_UUID_VAL());
+            final var comment = createComment(user, post);
+
+            // When
+            final var result = commentRepository.existsByPostIdAndPrntId(post.id(), comment.id());
+
+            // Then
+            assertThat(result)
+                .isTrue();
+        }
+
+        @Test
+        void should_return_false_for_comment_of_another_post() {
+            // Given
+            final var user = createUser(ConstantsKt.getZERO_UUID_VAL());
+            final var post1 = createPost(ConstantsKt.getTEST_1_UUID_VAL());
+            final var post2 = createPost(ConstantsKt.getTEST_2_UUID_VAL());
+            final var comment = createComment(user, post1);
+
+            // When
+            final var result = commentRepository.existsByPostIdAndPrntId(post2.id(), comment.id());
+
+            // Then
+            assertThat(result)
+                .isFalse();
+        }
+
+        @Test
+        void should_return_false_for_deleted_comment() {
+            // Given
+            final var user = createUser(ConstantsKt.getZERO_UUID_VAL());
+            final var post = createPost(ConstantsKt.getOMNI_UUID_VAL());
+            final var comment = commentRepository.save(createComment(user, post).toBuilder().deleted(true).build());
+
+            // When
+            final var result = commentRepository.existsByPostIdAndPrntId(post.id(), comment.id());
+
+            // Then
+            assertThat(result)
+                .isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("CommentRepository :: countRepliesByCommentIds")
+    class CountRepliesByCommentIdsTest {
+        @Test
+        void should_return_sum_of_all_replies_counter_slots_for_a_given_comment_ids() {
+            // Given
+            final var user = createUser(ConstantsKt.getZERO_UUID_VAL());
+            final var post = createPost(ConstantsKt.getOMNI_UUID_VAL());
+
+            final var comment1 = createComment(user, post);
+            final var comment2 = createComment(user, post);
+
+            commentRepository.incrementRepliesNumber(comment1.id(), 0, 2);
+            commentRepository.incrementRepliesNumber(comment1.id(), 1, 3);
+            commentRepository.incrementRepliesNumber(comment1.id(), 1, -1);
+            commentRepository.incrementRepliesNumber(comment2.id(), 7, 1);
+
+            // When
+            final var result = commentRepository.countRepliesByCommentIds(List.of(comment1.id(), comment2.id()));
+
+            // Then
+            assertThat(result)
+                .hasSize(2)
+                .containsEntry(comment1.id(), 4)
+                .containsEntry(comment2.id(), 1);
+        }
+
+        @Test
+        void should_return_empty_map_when_comment_ids_is_empty() {
+            // Given
+            final List<UUID> commentIds = List.of();
+
+            // When
+            final var result = commentRepository.countRepliesByCommentIds(commentIds);
 
             // Then
             assertThat(result)
@@ -131,6 +403,177 @@ public class CommentRepositoryTest extends RepositoryTestBase {
         }
     }
 
+    @Nested
+    @DisplayName("CommentRepository :: countCommentWithReplies")
+    class CountCommentWithRepliesTest {
+        @Test
+        void should_return_number_of_comments_in_the_subtree_of_a_given_comment() {
+            // Given
+            final var user = createUser(ConstantsKt.getZERO_UUID_VAL());
+            final var post = createPost(ConstantsKt.getOMNI_UUID_VAL());
+
+            final var root = createComment(user, post);
+            final var reply1 = createComment(user, post, root);
+            final var reply2 = createComment(user, post, root);
+            final var nestedReply = createComment(user, post, reply1);
+            final var otherComment = createComment(user, post);
+
+            // When
+            final var result = commentRepository.countCommentWithReplies(root.id());
+
+            // Then
+            assertThat(result)
+                .isEqualTo(List.of(root, reply1, reply2, nestedReply).size());
+        }
+    }
+
+    @Nested
+    @DisplayName("CommentRepository :: reconcileCommentsNumbers / reconcileRepliesNumbers")
+    class ReconcileCountersTest {
+        @Test
+        void should_repair_counters_which_differ_from_actual_number_of_comments() {
+            // Given
+            final var user = createUser(ConstantsKt.getZERO_UUID_VAL());
+
+            final var post1 = createPost(ConstantsKt.getTEST_1_UUID_VAL());
+            final var post2 = createPost(ConstantsKt.getTEST_2_UUID_VAL());
+
+            final var post1Comment = createComment(user, post1);
+            final var post1Reply = createComment(user, post1, post1Comment);
+            final var post2Comment = createComment(user, post2);
+
+            commentRepository.incrementCommentsNumber(post1.id(), 3, 2);
+            commentRepository.incrementCommentsNumber(post2.id(), 3, 5);
+            commentRepository.incrementRepliesNumber(post2Comment.id(), 3, 1);
+
+            // When
+            final var repairedCommentsNumbers = commentRepository.reconcileCommentsNumbers();
+            final var repairedRepliesNumbers = commentRepository.reconcileRepliesNumbers();
+
+            // Then
+            assertThat(repairedCommentsNumbers)
+                .isEqualTo(1);
+
+            assertThat(repairedRepliesNumbers)
+                .isEqualTo(2);
+
+            assertThat(commentRepository.countCommentsByPostIds(List.of(post1.id(), post2.id())))
+                .containsEntry(post1.id(), 2)
+                .containsEntry(post2.id(), 1);
+
+            assertThat(commentRepository.countRepliesByCommentIds(List.of(post1Comment.id(), post2Comment.id())))
+                .containsEntry(post1Comment.id(), 1)
+                .containsEntry(post2Comment.id(), 0);
+        }
+    }
+
+    @Nested
+    @DisplayName("CommentRepository :: deleteNextChunkByPostId")
+    class DeleteNextChunkByPostIdTest {
+        @Test
+        void should_delete_comments_of_the_given_post_starting_from_replies() {
+            // Given
+            final var user = createUser(ConstantsKt.getZERO_UUID_VAL());
+
+            final var post1 = createPost(ConstantsKt.getTEST_1_UUID_VAL());
+            final var post2 = createPost(ConstantsKt.getTEST_2_UUID_VAL());
+
+            final var root = createComment(user, post1);
+            final var reply = createComment(user, post1, root);
+            final var nestedReply = createComment(user, post1, reply);
+            final var otherPostComment = createComment(user, post2);
+
+            // When
+            final var firstChunk = commentRepository.deleteNextChunkByPostId(post1.id(), 10);
+            final var remaining = commentRepository.findAll();
+
+            while (commentRepository.deleteNextChunkByPostId(post1.id(), 10) > 0) {
+                // deleting the rest of the comments level by level
+            }
+
+            // Then
+            assertThat(firstChunk)
+                .isEqualTo(1);
+
+            assertThat(remaining)
+                .containsExactlyInAnyOrder(root, reply, otherPostComment)
+                .doesNotContain(nestedReply);
+
+            assertThat(commentRepository.findAll())
+                .containsExactly(otherPostComment);
+        }
+    }
+
+    @Nested
+    @DisplayName("CommentRepository :: markNextChunkOfDeletedCommentsRepliesDeleted / deleteNextChunkOfDeletedByPostId")
+    class DeleteNextChunkOfDeletedByPostIdTest {
+        @Test
+        void should_mark_replies_of_deleted_comments_and_then_delete_them_all() {
+            // Given
+            final var user = createUser(ConstantsKt.getZERO_UUID_VAL());
+            final var post = createPost(ConstantsKt.getOMNI_UUID_VAL());
+
+            final var root1 = commentRepository.save(createComment(user, post).toBuilder().deleted(true).build());
+            final var reply = createComment(user, post, root1);
+            final var nestedReply = createComment(user, post, reply);
+            final var root2 = createComment(user, post);
+
+            // When
+            var markedNumber = 0;
+            var marked = 0;
+            do {
+                marked = commentRepository.markNextChunkOfDeletedCommentsRepliesDeleted(post.id(), 1);
+                markedNumber += marked;
+            } while (marked > 0);
+
+            var deletedNumber = 0;
+            var deleted = 0;
+            do {
+                deleted = commentRepository.deleteNextChunkOfDeletedByPostId(post.id(), 1);
+                deletedNumber += deleted;
+            } while (deleted > 0);
+
+            // Then
+            assertThat(markedNumber)
+                .isEqualTo(List.of(reply, nestedReply).size());
+
+            assertThat(deletedNumber)
+                .isEqualTo(List.of(root1, reply, nestedReply).size());
+
+            assertThat(commentRepository.findAll())
+                .containsExactly(root2);
+        }
+    }
+
+    @Nested
+    @DisplayName("CommentRepository :: anonymizeNextChunkByUserId")
+    class AnonymizeNextChunkByUserIdTest {
+        @Test
+        void should_remove_the_given_user_from_at_most_limit_comments() {
+            // Given
+            final var user1 = createUser(ConstantsKt.getTEST_1_UUID_VAL());
+            final var user2 = createUser(ConstantsKt.getTEST_2_UUID_VAL());
+            final var post = createPost(ConstantsKt.getOMNI_UUID_VAL());
+
+            createComment(user1, post);
+            createComment(user1, post);
+            createComment(user2, post);
+
+            // When
+            final var firstChunk = commentRepository.anonymizeNextChunkByUserId(user1.id(), 1);
+            final var secondChunk = commentRepository.anonymizeNextChunkByUserId(user1.id(), 1);
+            final var thirdChunk = commentRepository.anonymizeNextChunkByUserId(user1.id(), 1);
+
+            // Then
+            assertThat(List.of(firstChunk, secondChunk, thirdChunk))
+                .containsExactly(1, 1, 0);
+
+            assertThat(commentRepository.findAll())
+                .extracting(CommentEntity::userId)
+                .containsExactlyInAnyOrder(null, null, user2.id());
+        }
+    }
+
     @Nested
     @DisplayName("CommentRepository :: countCommentsByPostIds")
     class CountCommentsByPostIdsTest {
@@ -158,6 +601,13 @@ public class CommentRepositoryTest extends RepositoryTestBase {
                 createComment(user, post3)
             );
 
+            final var comments = Stream.of(post1Comments, post2Comments, post3Comments).flatMap(List::stream).toList();
+
+            // spread increments between several counter slots
+            for (var i = 0; i < comments.size(); i++) {
+                commentRepository.incrementCommentsNumber(comments.get(i).postId(), i % 2, 1);
+            }
+
             // When
             final var result = commentRepository.countCommentsByPostIds(postIds);
 
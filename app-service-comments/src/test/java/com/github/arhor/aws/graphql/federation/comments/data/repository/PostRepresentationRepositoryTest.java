@@ -2,11 +2,15 @@ package com.github.arhor.aws.graphql.federation.comments.data.repository;
 
 import com.github.arhor.aws.graphql.federation.comments.data.entity.HasComments;
 import com.github.arhor.aws.graphql.federation.comments.data.entity.HasComments.Feature;
+import com.github.arhor.aws.graphql.federation.comments.data.entity.projection.PostRepresentationWithCommentsNumber;
 import com.github.arhor.aws.graphql.federation.starter.core.data.Features;
 import com.github.arhor.aws.graphql.federation.starter.testing.ConstantsKt;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 public class PostRepresentationRepositoryTest extends RepositoryTestBase {
 
@@ -47,4 +51,25 @@ public class PostRepresentationRepositoryTest extends RepositoryTestBase {
                 it -> assertThat(it).containsExactly(Feature.COMMENTS_DISABLED)
             );
     }
+
+    @Test
+    void should_return_posts_along_with_their_comments_numbers() {
+        // Given
+        final var commentedPostId = createPost(ConstantsKt.getTEST_1_UUID_VAL()).id();
+        final var otherPostId = createPost(ConstantsKt.getTEST_2_UUID_VAL()).id();
+
+        commentRepository.incrementCommentsNumber(commentedPostId, 0, 2);
+        commentRepository.incrementCommentsNumber(commentedPostId, 1, 1);
+
+        // When
+        final var result = postRepository.findAllWithCommentsNumberByIdIn(List.of(commentedPostId, otherPostId));
+
+        // Then
+        assertThat(result)
+            .extracting(PostRepresentationWithCommentsNumber::id, PostRepresentationWithCommentsNumber::commentsNumber)
+            .containsExactlyInAnyOrder(
+                tuple(commentedPostId, 3),
+                tuple(otherPostId, null)
+            );
+    }
 }
@@ -0,0 +1,180 @@
+package com.github.arhor.aws.graphql.federation.comments.data.repository;
+
+import com.github.arhor.aws.graphql.federation.comments.data.entity.callback.CommentEntityCallback;
+import com.github.arhor.aws.graphql.federation.comments.data.repository.mapping.CommentThreadNodeRowMapper;
+import com.github.arhor.aws.graphql.federation.comments.data.repository.mapping.CommentsNumberByPostIdResultSetExtractor;
+import com.github.arhor.aws.graphql.federation.comments.data.repository.mapping.RepliesNumberByCommentIdResultSetExtractor;
+import com.github.arhor.aws.graphql.federation.starter.testing.ConfigureQueryPlanGuard;
+import com.github.arhor.aws.graphql.federation.starter.testing.QueryPlanGuard;
+import com.github.arhor.aws.graphql.federation.starter.testing.QueryPlanRules;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ContextConfiguration(
+    classes = {
+        CommentEntityCallback.class,
+        CommentThreadNodeRowMapper.class,
+        CommentsNumberByPostIdResultSetExtractor.class,
+        ConfigureQueryPlanGuard.class,
+        RepliesNumberByCommentIdResultSetExtractor.class,
+    }
+)
+class QueryPlanTest extends RepositoryTestBase {
+
+    private static final QueryPlanRules RULES =
+        new QueryPlanRules()
+            .withExcludedQueries(
+                // maintenance jobs intentionally scan the whole comments table
+                "CommentEntity.reconcileCommentsNumbers",
+                "CommentEntity.reconcileRepliesNumbers"
+            );
+
+    @Autowired
+    private QueryPlanGuard queryPlanGuard;
+
+    @BeforeEach
+    void setUp() {
+        // each user and post has 10 comments, every second comment is a reply to the previous comment of the post
+        queryPlanGuard.seed(
+            RULES,
+            """
+                INSERT INTO user_representations (id, features)
+                     SELECT CAST('00000000-0000-0000-0001-' || LPAD(TO_HEX(i), 12, '0') AS UUID), 0
+                       FROM generate_series(1, :volume / 10) AS i
+                """,
+            """
+                INSERT INTO post_representations (id, features)
+                     SELECT CAST('00000000-0000-0000-0002-' || LPAD(TO_HEX(i), 12, '0') AS UUID), 0
+                       FROM generate_series(1, :volume / 10) AS i
+                """,
+            """
+                INSERT INTO comments (id, user_id, post_id, prnt_id, content, version, created_date_time)
+                     SELECT CAST('00000000-0000-0000-0003-' || LPAD(TO_HEX(i), 12, '0') AS UUID)
+                          , CAST('00000000-0000-0000-0001-' || LPAD(TO_HEX(i % (:volume / 10) + 1), 12, '0') AS UUID)
+                          , CAST('00000000-0000-0000-0002-' || LPAD(TO_HEX(i % (:volume / 10) + 1), 12, '0') AS UUID)
+                          , CASE
+                                WHEN i > :volume / 10 AND i % 2 = 0
+                                THEN CAST('00000000-0000-0000-0003-' || LPAD(TO_HEX(i - :volume / 10), 12, '0') AS UUID)
+                            END
+                          , 'comment-' || i
+                          , 0
+                          , TIMESTAMP '2024-01-01' + i * INTERVAL '1 minute'
+                       FROM generate_series(1, :volume) AS i
+                """,
+            """
+                INSERT INTO post_comments_counters (post_id, slot, value)
+                     SELECT c.post_id, 0, COUNT(*)
+                       FROM comments c
+                   GROUP BY c.post_id
+                """,
+            """
+                INSERT INTO comment_replies_counters (comment_id, slot, value)
+                     SELECT c.prnt_id, 0, COUNT(*)
+                       FROM comments c
+                      WHERE c.prnt_id IS NOT NULL
+                   GROUP BY c.prnt_id
+                """
+        );
+    }
+
+    @TestFactory
+    List<DynamicTest> should_use_efficient_plans_for_all_named_queries() {
+        final var userIds = ids(1, 1, 2, 3);
+        final var postIds = ids(2, 1, 2, 3);
+        final var commentIds = ids(3, 1, 2, 3);
+
+        final var params = new HashMap<String, Map<String, Object>>();
+
+        params.put("CommentEntity.countCommentsByPostIds", Map.of("postIds", postIds));
+        params.put("CommentEntity.countRepliesByCommentIds", Map.of("commentIds", commentIds));
+        params.put("CommentEntity.countCommentWithReplies", Map.of("id", commentIds.getFirst()));
+        params.put("CommentEntity.incrementCommentsNumber", Map.of("postId", postIds.getFirst(), "slot", 1, "delta", 1));
+        params.put("CommentEntity.incrementRepliesNumber", Map.of("commentId", commentIds.getFirst(), "slot", 1, "delta", 1));
+        params.put("CommentEntity.tryLockCountersReconciliation", Map.of());
+        params.put("CommentEntity.findPageByPrntIdNullAndPostIdIn", pageParams("postIds", postIds));
+        params.put("CommentEntity.findPageByUserIdIn", pageParams("userIds", userIds));
+        params.put("CommentEntity.findPageByPrntIdIn", pageParams("prntIds", commentIds));
+        params.put("CommentEntity.findThreadByPostId", Map.of("postId", postIds.getFirst(), "maxDepth", 8, "maxNodes", 500));
+        params.put("CommentEntity.existsByPostIdAndPrntId", Map.of("postId", postIds.getFirst(), "prntId", commentIds.getFirst()));
+        params.put("CommentEntity.deleteNextChunkByPostId", Map.of("postId", postIds.getFirst(), "limit", 500));
+        params.put("CommentEntity.markNextChunkOfDeletedCommentsRepliesDeleted", Map.of("postId", postIds.getFirst(), "limit", 500));
+        params.put("CommentEntity.deleteNextChunkOfDeletedByPostId", Map.of("postId", postIds.getFirst(), "limit", 500));
+        params.put("CommentEntity.anonymizeNextChunkByUserId", Map.of("userId", userIds.getFirst(), "limit", 500));
+        params.put("UserRepresentation.insertAllIgnoringExisting", Map.of("ids", userIds));
+        params.put("UserRepresentation.markDeletedByIdIn", Map.of("ids", userIds));
+        params.put("PostRepresentation.insertAllIgnoringExisting", Map.of("ids", postIds));
+        params.put("PostRepresentation.markDeletedByIdIn", Map.of("ids", postIds));
+        params.put("PostRepresentation.findAllWithCommentsNumberByIdIn", Map.of("ids", postIds));
+
+        return queryPlanGuard.verifyNamedQueries(params, RULES);
+    }
+
+    @Test
+    void should_stop_building_comments_thread_as_soon_as_max_nodes_are_visited() {
+        // Given
+        final var params = Map.<String, Object>of("postId", ids(2, 1).getFirst(), "maxDepth", 32, "maxNodes", 3);
+
+        // When
+        final var visitedRows = queryPlanGuard.countProducedRows(
+            "CommentEntity.findThreadByPostId",
+            params,
+            "Recursive Union"
+        );
+
+        // Then
+        // the first post has a single chain of 10 comments, so only 3 levels must be visited
+        assertThat(visitedRows)
+            .isEqualTo(3);
+    }
+
+    @Test
+    void should_use_efficient_plans_for_derived_queries() {
+        // Given
+        final var commentId = ids(3, 1).getFirst();
+
+        // When
+        final var statements = queryPlanGuard.captureStatements(() -> {
+            commentRepository.findById(commentId);
+        });
+
+        // Then
+        for (final var statement : statements) {
+            queryPlanGuard.verifyStatement(statement.getSql(), statement, RULES);
+        }
+    }
+
+    private static Map<String, Object> pageParams(final String idsParam, final List<UUID> ids) {
+        final var params = new HashMap<String, Object>();
+
+        params.put(idsParam, ids);
+        params.put("limit", 21);
+        params.put("afterCreatedDateTime", null);
+        params.put("afterId", null);
+        params.put("withContent", true);
+
+        return params;
+    }
+
+    /**
+     * @param kind    the kind of seeded entity: 1 - user, 2 - post, 3 - comment
+     * @param numbers the ordinal numbers of seeded entities
+     * @return identifiers of the seeded entities
+     */
+    private static List<UUID> ids(final long kind, final long... numbers) {
+        return Arrays.stream(numbers)
+            .mapToObj((number) -> new UUID(0L, (kind << 48) | number))
+            .toList();
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.arhor.aws.graphql.federation.comments.data.repository;
+
+import com.github.arhor.aws.graphql.federation.comments.data.entity.UserRepresentation;
+import com.github.arhor.aws.graphql.federation.starter.testing.ConfigureQueryPlanGuard;
+import com.github.arhor.aws.graphql.federation.starter.testing.QueryPlanGuard;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the number of statements and the throughput of applying user created events one by one, as they were
+ * consumed before, and in batches received by a single poll with one bulk insert per batch.
+ */
+@ContextConfiguration(classes = ConfigureQueryPlanGuard.class)
+class RepresentationsBatchBenchmarkTest extends RepositoryTestBase {
+
+    private static final Logger log = LoggerFactory.getLogger(RepresentationsBatchBenchmarkTest.class);
+
+    private static final int BATCHES_NUM = 50;
+    private static final int BATCH_SIZE = 10;
+
+    @Autowired
+    private QueryPlanGuard queryPlanGuard;
+
+    @Test
+    void should_apply_user_created_events_with_a_single_statement_per_batch() {
+        // When
+        final var oneByOne = measure(1, (ids) -> ids.forEach(this::createUser));
+        final var inBatch = measure(2, userRepository::insertAllIgnoringExisting);
+
+        // Then
+        log.info("User created events applied one by one: {}", oneByOne);
+        log.info("User created events applied in batches: {}", inBatch);
+
+        assertThat(oneByOne.statements())
+            .isGreaterThanOrEqualTo(BATCHES_NUM * BATCH_SIZE);
+        assertThat(inBatch.statements())
+            .isEqualTo(BATCHES_NUM);
+        assertThat(userRepository.findAllById(ids(2)))
+            .extracting(UserRepresentation::id)
+            .containsExactlyInAnyOrderElementsOf(ids(2));
+    }
+
+    /**
+     * @param kind   the kind of the users, used to keep the ids of the compared runs apart
+     * @param action action applying a batch of user created events
+     * @return the number of prepared statements and the throughput of the action
+     */
+    private Measurement measure(final long kind, final Consumer<List<UUID>> action) {
+        final var ids = ids(kind);
+        final var startedAt = System.nanoTime();
+
+        final var statements = queryPlanGuard.captureStatements(() -> {
+            for (int i = 0; i < ids.size(); i += BATCH_SIZE) {
+                action.accept(ids.subList(i, i + BATCH_SIZE));
+            }
+        });
+        final var elapsedNanos = System.nanoTime() - startedAt;
+
+        return new Measurement(statements.size(), ids.size() * 1_000_000_000L / elapsedNanos);
+    }
+
+    private static List<UUID> ids(final long kind) {
+        return IntStream.rangeClosed(1, BATCHES_NUM * BATCH_SIZE)
+            .mapToObj((number) -> new UUID(0L, (kind << 48) | number))
+            .toList();
+    }
+
+    /**
+     * @param statements        the number of statements prepared applying the events
+     * @param messagesPerSecond the number of events applied per second
+     */
+    private record Measurement(int statements, long messagesPerSecond) {
+    }
+}
@@ -2,11 +2,15 @@ package com.github.arhor.aws.graphql.federation.comments.data.repository;
 
 import com.github.arhor.aws.graphql.federation.comments.data.entity.HasComments;
 import com.github.arhor.aws.graphql.federation.comments.data.entity.HasComments.Feature;
+import com.github.arhor.aws.graphql.federation.comments.data.entity.UserRepresentation;
 import com.github.arhor.aws.graphql.federation.starter.core.data.Features;
 import com.github.arhor.aws.graphql.federation.starter.testing.ConstantsKt;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 public class UserRepresentationRepositoryTest extends RepositoryTestBase {
 
@@ -47,4 +51,42 @@ public class UserRepresentationRepositoryTest extends RepositoryTestBase {
                 it -> assertThat(it).containsExactly(Feature.COMMENTS_DISABLED)
             );
     }
+
+    @Test
+    void should_insert_missing_users_keeping_existing_ones_untouched() {
+        // Given
+        final var existingUserId = createUser(ConstantsKt.getZERO_UUID_VAL(), Feature.COMMENTS_DISABLED).id();
+        final var missingUserId = ConstantsKt.getOMNI_UUID_VAL();
+
+        // When
+        userRepository.insertAllIgnoringExisting(List.of(existingUserId, missingUserId));
+
+        // Then
+        assertThat(userRepository.findAllById(List.of(existingUserId, missingUserId)))
+            .extracting(UserRepresentation::id, HasComments::features)
+            .containsExactlyInAnyOrder(
+                tuple(existingUserId, Features.of(Feature.COMMENTS_DISABLED)),
+                tuple(missingUserId, Features.emptyOf(Feature.class))
+            );
+    }
+
+    @Test
+    void should_mark_all_users_with_passed_ids_as_deleted() {
+        // Given
+        final var user1Id = createUser(ConstantsKt.getTEST_1_UUID_VAL()).id();
+        final var user2Id = createUser(ConstantsKt.getTEST_2_UUID_VAL()).id();
+        final var user3Id = createUser(ConstantsKt.getTEST_3_UUID_VAL()).id();
+
+        // When
+        userRepository.markDeletedByIdIn(List.of(user1Id, user2Id));
+
+        // Then
+        assertThat(userRepository.findAll())
+            .extracting(UserRepresentation::id, HasComments::deleted)
+            .containsExactlyInAnyOrder(
+                tuple(user1Id, true),
+                tuple(user2Id, true),
+                tuple(user3Id, false)
+            );
+    }
 }
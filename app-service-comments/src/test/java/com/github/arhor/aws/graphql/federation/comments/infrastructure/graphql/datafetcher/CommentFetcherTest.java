@@ -1,18 +1,25 @@
 package com.github.arhor.aws.graphql.federation.comments.infrastructure.graphql.datafetcher;
 
+import com.github.arhor.aws.graphql.federation.comments.generated.graphql.DgsConstants.COMMENT;
 import com.github.arhor.aws.graphql.federation.comments.generated.graphql.DgsConstants.POST;
 import com.github.arhor.aws.graphql.federation.comments.generated.graphql.DgsConstants.USER;
 import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.Comment;
+import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.CommentPage;
 import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.CreateCommentInput;
 import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.DeleteCommentInput;
 import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.Post;
 import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.UpdateCommentInput;
 import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.User;
+import com.github.arhor.aws.graphql.federation.comments.infrastructure.graphql.dataloader.CommentRepliesBatchLoader;
 import com.github.arhor.aws.graphql.federation.comments.infrastructure.graphql.dataloader.PostCommentsBatchLoader;
+import com.github.arhor.aws.graphql.federation.comments.infrastructure.graphql.dataloader.PostCommentsNumberBatchLoader;
 import com.github.arhor.aws.graphql.federation.comments.infrastructure.graphql.dataloader.PostRepresentationBatchLoader;
+import com.github.arhor.aws.graphql.federation.comments.infrastructure.graphql.dataloader.PostRepresentationWithCommentsNumberBatchLoader;
 import com.github.arhor.aws.graphql.federation.comments.infrastructure.graphql.dataloader.UserCommentsBatchLoader;
 import com.github.arhor.aws.graphql.federation.comments.infrastructure.graphql.dataloader.UserRepresentationBatchLoader;
 import com.github.arhor.aws.graphql.federation.comments.service.CommentService;
+import com.github.arhor.aws.graphql.federation.comments.service.CommentsPageKey;
+import com.github.arhor.aws.graphql.federation.comments.service.CommentsThread;
 import com.github.arhor.aws.graphql.federation.comments.service.PostRepresentationService;
 import com.github.arhor.aws.graphql.federation.comments.service.UserRepresentationService;
 import com.github.arhor.aws.graphql.federation.starter.testing.ConstantsKt;
@@ -38,6 +45,7 @@ import java.util.concurrent.CompletableFuture;
 import static com.github.arhor.aws.graphql.federation.starter.testing.ConstantsKt.ZERO_UUID_STR;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
@@ -55,16 +63,26 @@ class CommentFetcherTest extends GraphQLTestBase {
     private static final UUID USER_ID = ConstantsKt.getZERO_UUID_VAL();
     private static final UUID POST_ID = ConstantsKt.getOMNI_UUID_VAL();
     private static final UUID COMMENT_ID = ConstantsKt.getTEST_1_UUID_VAL();
+    private static final int DEFAULT_PAGE_SIZE = 20;
 
     @MockBean
     private CommentService commentService;
 
+    @MockBean
+    private CommentRepliesBatchLoader commentRepliesBatchLoader;
+
     @MockBean
     private PostCommentsBatchLoader postCommentsBatchLoader;
 
+    @MockBean
+    private PostCommentsNumberBatchLoader postCommentsNumberBatchLoader;
+
     @MockBean
     private PostRepresentationBatchLoader postRepresentationBatchLoader;
 
+    @MockBean
+    private PostRepresentationWithCommentsNumberBatchLoader postRepresentationWithCommentsNumberBatchLoader;
+
     @MockBean
     private PostRepresentationService postRepresentationService;
 
@@ -84,8 +102,11 @@ class CommentFetcherTest extends GraphQLTestBase {
     void tearDown() {
         verifyNoMoreInteractions(
             commentService,
+            commentRepliesBatchLoader,
             postCommentsBatchLoader,
+            postCommentsNumberBatchLoader,
             postRepresentationBatchLoader,
+            postRepresentationWithCommentsNumberBatchLoader,
             postRepresentationService,
             userCommentsBatchLoader,
             userRepresentationBatchLoader,
@@ -115,14 +136,21 @@ class CommentFetcherTest extends GraphQLTestBase {
             final var expectedUser =
                 User.newBuilder()
                     .id(userRepresentation.getId())
-                    .comments(expectedComments)
+                    .comments(CommentPage.newBuilder().data(expectedComments).hasNext(false).build())
                     .build();
 
             given(userRepresentationBatchLoader.load(any()))
                 .willReturn(CompletableFuture.completedFuture(Map.of(USER_ID, userRepresentation)));
 
             given(userCommentsBatchLoader.load(any()))
-                .willReturn(CompletableFuture.completedFuture(Map.of(USER_ID, expectedComments)));
+                .willReturn(
+                    CompletableFuture.completedFuture(
+                        Map.of(
+                            new CommentsPageKey(USER_ID, DEFAULT_PAGE_SIZE, null, Set.of(COMMENT.Content)),
+                            CommentPage.newBuilder().data(expectedComments).hasNext(false).build()
+                        )
+                    )
+                );
 
             // When
             final var result = dgsQueryExecutor.executeAndExtractJsonPathAsObject(
@@ -133,10 +161,13 @@ class CommentFetcherTest extends GraphQLTestBase {
                             ... on User {
                                 id
                                 comments {
-                                    id
-                                    userId
-                                    postId
-                                    content
+                                    data {
+                                        id
+                                        userId
+                                        postId
+                                        content
+                                    }
+                                    hasNext
                                 }
                                 commentsDisabled
                             }
@@ -154,7 +185,7 @@ class CommentFetcherTest extends GraphQLTestBase {
 
             then(userCommentsBatchLoader)
                 .should()
-                .load(Set.of(USER_ID));
+                .load(Set.of(new CommentsPageKey(USER_ID, DEFAULT_PAGE_SIZE, null, Set.of(COMMENT.Content))));
 
             assertThat(result)
                 .isNotNull()
@@ -184,14 +215,21 @@ class CommentFetcherTest extends GraphQLTestBase {
             final var expectedPost =
                 Post.newBuilder()
                     .id(postRepresentation.getId())
-                    .comments(expectedComments)
+                    .comments(CommentPage.newBuilder().data(expectedComments).hasNext(false).build())
                     .build();
 
             given(postRepresentationBatchLoader.load(any()))
                 .willReturn(CompletableFuture.completedFuture(Map.of(POST_ID, postRepresentation)));
 
             given(postCommentsBatchLoader.load(any()))
-                .willReturn(CompletableFuture.completedFuture(Map.of(POST_ID, expectedComments)));
+                .willReturn(
+                    CompletableFuture.completedFuture(
+                        Map.of(
+                            new CommentsPageKey(POST_ID, DEFAULT_PAGE_SIZE, null, Set.of(COMMENT.Content)),
+                            CommentPage.newBuilder().data(expectedComments).hasNext(false).build()
+                        )
+                    )
+                );
 
             // When
             final var result = dgsQueryExecutor.executeAndExtractJsonPathAsObject(
@@ -202,10 +240,13 @@ class CommentFetcherTest extends GraphQLTestBase {
                             ... on Post {
                                 id
                                 comments {
-                                    id
-                                    userId
-                                    postId
-                                    content
+                                    data {
+                                        id
+                                        userId
+                                        postId
+                                        content
+                                    }
+                                    hasNext
                                 }
                                 commentsDisabled
                             }
@@ -222,6 +263,51 @@ class CommentFetcherTest extends GraphQLTestBase {
                 .load(Set.of(POST_ID));
 
             then(postCommentsBatchLoader)
+                .should()
+                .load(Set.of(new CommentsPageKey(POST_ID, DEFAULT_PAGE_SIZE, null, Set.of(COMMENT.Content))));
+
+            assertThat(result)
+                .isNotNull()
+                .isEqualTo(expectedPost);
+        }
+    }
+
+    @Nested
+    @DisplayName("query { post { commentsNumber } }")
+    class PostCommentsNumberQueryTest {
+        @Test
+        void should_resolve_comments_number_fetched_along_with_post_representation() {
+            // Given
+            final var expectedPost =
+                Post.newBuilder()
+                    .id(POST_ID)
+                    .commentsNumber(5)
+                    .commentsDisabled(false)
+                    .build();
+
+            given(postRepresentationWithCommentsNumberBatchLoader.load(any()))
+                .willReturn(CompletableFuture.completedFuture(Map.of(POST_ID, expectedPost)));
+
+            // When
+            final var result = dgsQueryExecutor.executeAndExtractJsonPathAsObject(
+                // language=GraphQL
+                """
+                    query ($representations: [_Any!]!) {
+                        _entities(representations: $representations) {
+                            ... on Post {
+                                id
+                                commentsNumber
+                                commentsDisabled
+                            }
+                        }
+                    }""".stripIndent(),
+                "$.data._entities[0]",
+                Map.of("representations", List.of(Map.of("__typename", POST.TYPE_NAME, POST.Id, POST_ID))),
+                Post.class
+            );
+
+            // Then
+            then(postRepresentationWithCommentsNumberBatchLoader)
                 .should()
                 .load(Set.of(POST_ID));
 
@@ -231,6 +317,84 @@ class CommentFetcherTest extends GraphQLTestBase {
         }
     }
 
+    @Nested
+    @DisplayName("query { post { thread } }")
+    class PostThreadQueryTest {
+        @Test
+        void should_return_post_thread_resolving_replies_without_calling_replies_loader() {
+            // Given
+            final var replyId = ConstantsKt.getTEST_2_UUID_VAL();
+            final var reply =
+                Comment.newBuilder()
+                    .id(replyId)
+                    .postId(POST_ID)
+                    .prntId(COMMENT_ID)
+                    .build();
+            final var comment =
+                Comment.newBuilder()
+                    .id(COMMENT_ID)
+                    .postId(POST_ID)
+                    .build();
+            final var thread = new CommentsThread(
+                List.of(comment),
+                Map.of(
+                    new CommentsPageKey(COMMENT_ID, DEFAULT_PAGE_SIZE, null, Set.of()),
+                    CommentPage.newBuilder().data(List.of(reply)).hasNext(false).build(),
+                    new CommentsPageKey(replyId, DEFAULT_PAGE_SIZE, null, Set.of()),
+                    CommentPage.newBuilder().data(List.of()).hasNext(false).build()
+                )
+            );
+            final var postRepresentation =
+                Post.newBuilder()
+                    .id(POST_ID)
+                    .build();
+
+            given(postRepresentationBatchLoader.load(any()))
+                .willReturn(CompletableFuture.completedFuture(Map.of(POST_ID, postRepresentation)));
+
+            given(commentService.getCommentsThread(any(), anyInt(), anyInt(), any()))
+                .willReturn(thread);
+
+            // When
+            final var result = dgsQueryExecutor.executeAndExtractJsonPathAsObject(
+                // language=GraphQL
+                """
+                    query ($representations: [_Any!]!) {
+                        _entities(representations: $representations) {
+                            ... on Post {
+                                thread(maxDepth: 3) {
+                                    id
+                                    replies {
+                                        data {
+                                            id
+                                            replies {
+                                                hasNext
+                                            }
+                                        }
+                                    }
+                                }
+                            }
+                        }
+                    }""".stripIndent(),
+                "$.data._entities[0].thread[0].replies.data[0].id",
+                Map.of("representations", List.of(Map.of("__typename", POST.TYPE_NAME, POST.Id, POST_ID))),
+                UUID.class
+            );
+
+            // Then
+            then(postRepresentationBatchLoader)
+                .should()
+                .load(Set.of(POST_ID));
+
+            then(commentService)
+                .should()
+                .getCommentsThread(POST_ID, 3, 500, Set.of(DEFAULT_PAGE_SIZE));
+
+            assertThat(result)
+                .isEqualTo(replyId);
+        }
+    }
+
     @Nested
     @DisplayName("mutation { createComment }")
     @WithMockCurrentUser(id = ZERO_UUID_STR)
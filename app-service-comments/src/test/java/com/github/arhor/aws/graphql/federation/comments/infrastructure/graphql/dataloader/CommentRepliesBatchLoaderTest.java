@@ -1,7 +1,8 @@
 package com.github.arhor.aws.graphql.federation.comments.infrastructure.graphql.dataloader;
 
-import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.Comment;
+import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.CommentPage;
 import com.github.arhor.aws.graphql.federation.comments.service.CommentService;
+import com.github.arhor.aws.graphql.federation.comments.service.CommentsPageKey;
 import com.github.arhor.aws.graphql.federation.starter.testing.ConstantsKt;
 import org.junit.jupiter.api.Test;
 
@@ -9,7 +10,6 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.UUID;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -23,6 +23,8 @@ import static org.mockito.Mockito.mock;
 
 class CommentRepliesBatchLoaderTest {
 
+    private static final int FIRST = 20;
+
     private final Executor executor = Executors.newVirtualThreadPerTaskExecutor();
     private final CommentService commentService = mock();
 
@@ -36,18 +38,21 @@ class CommentRepliesBatchLoaderTest {
         // Given
         final var comment1Id = ConstantsKt.getTEST_1_UUID_VAL();
         final var comment2Id = ConstantsKt.getTEST_2_UUID_VAL();
-        final var commentIds = Set.of(comment1Id, comment2Id);
+        final var keys = Set.of(
+            new CommentsPageKey(comment1Id, FIRST, null, Set.of()),
+            new CommentsPageKey(comment2Id, FIRST, null, Set.of())
+        );
 
         final var expectedResult = Map.of(
-            comment1Id, List.<Comment>of(),
-            comment2Id, List.<Comment>of()
+            new CommentsPageKey(comment1Id, FIRST, null, Set.of()), CommentPage.newBuilder().data(List.of()).build(),
+            new CommentsPageKey(comment2Id, FIRST, null, Set.of()), CommentPage.newBuilder().data(List.of()).build()
         );
 
         given(commentService.getCommentsReplies(any()))
             .willReturn(expectedResult);
 
         // When
-        final var result = commentRepliesBatchLoader.load(commentIds);
+        final var result = commentRepliesBatchLoader.load(keys);
 
         // Then
         await()
@@ -55,7 +60,7 @@ class CommentRepliesBatchLoaderTest {
             .untilAsserted(() -> {
                 then(commentService)
                     .should()
-                    .getCommentsReplies(commentIds);
+                    .getCommentsReplies(keys);
 
                 assertThat(result)
                     .isCompletedWithValue(expectedResult);
@@ -65,10 +70,10 @@ class CommentRepliesBatchLoaderTest {
     @Test
     void should_return_empty_map_when_empty_keys_set_provided() {
         // Given
-        final var postIds = Collections.<UUID>emptySet();
+        final var keys = Collections.<CommentsPageKey>emptySet();
 
         // When
-        final var result = commentRepliesBatchLoader.load(postIds);
+        final var result = commentRepliesBatchLoader.load(keys);
 
         // Then
         then(commentService)
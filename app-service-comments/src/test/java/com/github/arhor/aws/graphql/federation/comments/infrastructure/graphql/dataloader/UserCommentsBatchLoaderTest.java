@@ -1,7 +1,8 @@
 package com.github.arhor.aws.graphql.federation.comments.infrastructure.graphql.dataloader;
 
-import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.Comment;
+import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.CommentPage;
 import com.github.arhor.aws.graphql.federation.comments.service.CommentService;
+import com.github.arhor.aws.graphql.federation.comments.service.CommentsPageKey;
 import com.github.arhor.aws.graphql.federation.starter.testing.ConstantsKt;
 import org.junit.jupiter.api.Test;
 
@@ -9,7 +10,6 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.UUID;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -23,6 +23,8 @@ import static org.mockito.Mockito.mock;
 
 class UserCommentsBatchLoaderTest {
 
+    private static final int FIRST = 20;
+
     private final Executor executor = Executors.newVirtualThreadPerTaskExecutor();
     private final CommentService commentService = mock();
 
@@ -36,18 +38,21 @@ class UserCommentsBatchLoaderTest {
         // Given
         final var user1Id = ConstantsKt.getTEST_1_UUID_VAL();
         final var user2Id = ConstantsKt.getTEST_2_UUID_VAL();
-        final var userIds = Set.of(user1Id, user2Id);
+        final var keys = Set.of(
+            new CommentsPageKey(user1Id, FIRST, null, Set.of()),
+            new CommentsPageKey(user2Id, FIRST, null, Set.of())
+        );
 
         final var expectedResult = Map.of(
-            user1Id, List.<Comment>of(),
-            user2Id, List.<Comment>of()
+            new CommentsPageKey(user1Id, FIRST, null, Set.of()), CommentPage.newBuilder().data(List.of()).build(),
+            new CommentsPageKey(user2Id, FIRST, null, Set.of()), CommentPage.newBuilder().data(List.of()).build()
         );
 
         given(commentService.getCommentsByUserIds(any()))
             .willReturn(expectedResult);
 
         // When
-        final var result = userCommentsBatchLoader.load(userIds);
+        final var result = userCommentsBatchLoader.load(keys);
 
         // Then
         await()
@@ -55,7 +60,7 @@ class UserCommentsBatchLoaderTest {
             .untilAsserted(() -> {
                 then(commentService)
                     .should()
-                    .getCommentsByUserIds(userIds);
+                    .getCommentsByUserIds(keys);
 
                 assertThat(result)
                     .isCompletedWithValue(expectedResult);
@@ -65,10 +70,10 @@ class UserCommentsBatchLoaderTest {
     @Test
     void should_return_empty_map_when_empty_keys_set_provided() {
         // Given
-        final var userIds = Collections.<UUID>emptySet();
+        final var keys = Collections.<CommentsPageKey>emptySet();
 
         // When
-        final var result = userCommentsBatchLoader.load(userIds);
+        final var result = userCommentsBatchLoader.load(keys);
 
         // Then
         then(commentService)
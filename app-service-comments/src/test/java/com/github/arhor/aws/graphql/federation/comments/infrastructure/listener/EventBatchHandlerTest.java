@@ -0,0 +1,145 @@
+package com.github.arhor.aws.graphql.federation.comments.infrastructure.listener;
+
+import com.github.arhor.aws.graphql.federation.common.event.UserEvent;
+import com.github.arhor.aws.graphql.federation.starter.testing.ConstantsKt;
+import io.awspring.cloud.sqs.listener.acknowledgement.BatchAcknowledgement;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static com.github.arhor.aws.graphql.federation.starter.tracing.AttributesKt.IDEMPOTENT_KEY;
+import static com.github.arhor.aws.graphql.federation.starter.tracing.AttributesKt.TRACING_ID_KEY;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+class EventBatchHandlerTest {
+
+    private static final UUID USER_1_ID = ConstantsKt.getTEST_1_UUID_VAL();
+    private static final UUID USER_2_ID = ConstantsKt.getTEST_2_UUID_VAL();
+    private static final UUID IDEMPOTENCY_KEY_1 = ConstantsKt.getTEST_3_UUID_VAL();
+    private static final UUID IDEMPOTENCY_KEY_2 = ConstantsKt.getOMNI_UUID_VAL();
+
+    private final BatchAcknowledgement<UserEvent.Created> acknowledgement = mock();
+    private final Consumer<Map<UUID, UUID>> action = mock();
+
+    @AfterEach
+    void tearDown() {
+        verifyNoMoreInteractions(acknowledgement, action);
+    }
+
+    @Test
+    void should_apply_action_to_the_whole_batch_and_acknowledge_it() {
+        // Given
+        final var messages = List.of(
+            message(USER_1_ID, IDEMPOTENCY_KEY_1),
+            message(USER_2_ID, IDEMPOTENCY_KEY_2)
+        );
+
+        // When
+        final var result = EventBatchHandler.handle(messages, acknowledgement, UserEvent.Created::getId, action);
+
+        // Then
+        then(action)
+            .should()
+            .accept(Map.of(IDEMPOTENCY_KEY_1, USER_1_ID, IDEMPOTENCY_KEY_2, USER_2_ID));
+
+        then(acknowledgement)
+            .should()
+            .acknowledge();
+
+        assertThat(result)
+            .isEqualTo(messages);
+    }
+
+    @Test
+    void should_acknowledge_only_successfully_processed_messages_when_batch_fails() {
+        // Given
+        final var message1 = message(USER_1_ID, IDEMPOTENCY_KEY_1);
+        final var message2 = message(USER_2_ID, IDEMPOTENCY_KEY_2);
+        final var messages = List.of(message1, message2);
+
+        willThrow(new IllegalStateException("batch failed"))
+            .given(action)
+            .accept(Map.of(IDEMPOTENCY_KEY_1, USER_1_ID, IDEMPOTENCY_KEY_2, USER_2_ID));
+
+        willThrow(new IllegalStateException("message failed"))
+            .given(action)
+            .accept(Map.of(IDEMPOTENCY_KEY_2, USER_2_ID));
+
+        // When
+        final var result = EventBatchHandler.handle(messages, acknowledgement, UserEvent.Created::getId, action);
+
+        // Then
+        then(action)
+            .should()
+            .accept(Map.of(IDEMPOTENCY_KEY_1, USER_1_ID, IDEMPOTENCY_KEY_2, USER_2_ID));
+
+        then(action)
+            .should()
+            .accept(Map.of(IDEMPOTENCY_KEY_1, USER_1_ID));
+
+        then(action)
+            .should()
+            .accept(Map.of(IDEMPOTENCY_KEY_2, USER_2_ID));
+
+        then(acknowledgement)
+            .should()
+            .acknowledge(List.of(message1));
+
+        assertThat(result)
+            .containsExactly(message1);
+    }
+
+    @Test
+    void should_apply_and_acknowledge_the_rest_of_the_batch_when_message_is_malformed() {
+        // Given
+        final var message1 = message(USER_1_ID, IDEMPOTENCY_KEY_1);
+        final var message2 = MessageBuilder.withPayload(new UserEvent.Created(USER_2_ID)).build();
+        final var messages = List.of(message1, message2);
+
+        // When
+        final var result = EventBatchHandler.handle(messages, acknowledgement, UserEvent.Created::getId, action);
+
+        // Then
+        then(action)
+            .should()
+            .accept(Map.of(IDEMPOTENCY_KEY_1, USER_1_ID));
+
+        then(acknowledgement)
+            .should()
+            .acknowledge(List.of(message1));
+
+        assertThat(result)
+            .containsExactly(message1);
+    }
+
+    @Test
+    void should_not_apply_action_when_all_messages_are_malformed() {
+        // Given
+        final var messages = List.of(MessageBuilder.withPayload(new UserEvent.Created(USER_1_ID)).build());
+
+        // When
+        final var result = EventBatchHandler.handle(messages, acknowledgement, UserEvent.Created::getId, action);
+
+        // Then
+        assertThat(result)
+            .isEmpty();
+    }
+
+    private static Message<UserEvent.Created> message(final UUID userId, final UUID idempotencyKey) {
+        return MessageBuilder
+            .withPayload(new UserEvent.Created(userId))
+            .setHeader(TRACING_ID_KEY, ConstantsKt.getZERO_UUID_VAL().toString())
+            .setHeader(IDEMPOTENT_KEY, idempotencyKey)
+            .build();
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.arhor.aws.graphql.federation.comments.infrastructure.listener;
+
+import com.github.arhor.aws.graphql.federation.common.event.DomainEvent;
+import com.github.arhor.aws.graphql.federation.common.event.UserEvent;
+import com.github.arhor.aws.graphql.federation.starter.testing.ConstantsKt;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventPropagationMetricsTest {
+
+    private static final Instant CONSUMED_AT = Instant.parse("2024-01-01T12:00:00Z");
+    private static final String EVENT_TYPE = UserEvent.Type.USER_EVENT_CREATED.getCode();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EventPropagationMetrics eventPropagationMetrics = new EventPropagationMetrics(
+        meterRegistry,
+        () -> Clock.fixed(CONSUMED_AT, ZoneOffset.UTC)
+    );
+
+    @Test
+    void should_record_time_passed_since_event_was_produced() {
+        // Given
+        final var message = message(EVENT_TYPE, String.valueOf(CONSUMED_AT.minusSeconds(3).toEpochMilli()));
+
+        // When
+        eventPropagationMetrics.recordPropagationLatency(List.of(message));
+
+        // Then
+        final var timer = meterRegistry.find("domain.events.propagation.latency").tag("type", EVENT_TYPE).timer();
+
+        assertThat(timer)
+            .isNotNull();
+        assertThat(timer.count())
+            .isEqualTo(1);
+        assertThat(timer.totalTime(TimeUnit.SECONDS))
+            .isEqualTo(3.0);
+    }
+
+    @Test
+    void should_skip_messages_without_production_time() {
+        // Given
+        final var messages = List.of(
+            message(EVENT_TYPE, null),
+            message(EVENT_TYPE, "not-a-timestamp")
+        );
+
+        // When
+        eventPropagationMetrics.recordPropagationLatency(messages);
+
+        // Then
+        assertThat(meterRegistry.find("domain.events.propagation.latency").timer())
+            .isNull();
+    }
+
+    private static Message<UserEvent.Created> message(final String type, final String producedAt) {
+        return MessageBuilder
+            .withPayload(new UserEvent.Created(ConstantsKt.getTEST_1_UUID_VAL()))
+            .setHeader(DomainEvent.ATTRS_PAYLOAD_TYPE, type)
+            .setHeader(DomainEvent.ATTRS_PRODUCED_AT, producedAt)
+            .build();
+    }
+}
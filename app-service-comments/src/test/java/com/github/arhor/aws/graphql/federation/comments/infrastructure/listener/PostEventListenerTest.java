@@ -19,6 +19,7 @@ import java.util.concurrent.TimeUnit;
 import static com.github.arhor.aws.graphql.federation.starter.tracing.AttributesKt.IDEMPOTENT_KEY;
 import static com.github.arhor.aws.graphql.federation.starter.tracing.AttributesKt.TRACING_ID_KEY;
 import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.BDDMockito.then;
 
 @ContextConfiguration(classes = {PostEventListener.class})
@@ -34,6 +35,9 @@ class PostEventListenerTest extends EventListenerTestBase {
     @MockBean
     private PostRepresentationService postRepresentationService;
 
+    @MockBean
+    private EventPropagationMetrics eventPropagationMetrics;
+
     @DynamicPropertySource
     static void registerDynamicProperties(final DynamicPropertyRegistry registry) {
         registry.add("app-props.aws.sqs.post-created-events", () -> POST_CREATED_TEST_QUEUE);
@@ -47,7 +51,7 @@ class PostEventListenerTest extends EventListenerTestBase {
     }
 
     @Test
-    void should_call_createPostRepresentation_method_on_post_created_event() {
+    void should_call_createPostRepresentations_method_on_post_created_event() {
         // Given
         final var event = new PostEvent.Created(POST_ID);
 
@@ -69,15 +73,19 @@ class PostEventListenerTest extends EventListenerTestBase {
             .untilAsserted(() -> {
                 then(postRepresentationService)
                     .should()
-                    .createPostRepresentation(event.getId(), IDEMPOTENCY_KEY);
+                    .createPostRepresentations(Map.of(IDEMPOTENCY_KEY, event.getId()));
 
                 then(postRepresentationService)
                     .shouldHaveNoMoreInteractions();
+
+                then(eventPropagationMetrics)
+                    .should()
+                    .recordPropagationLatency(anyList());
             });
     }
 
     @Test
-    void should_call_deletePostRepresentation_method_on_post_deleted_event() {
+    void should_call_deletePostRepresentations_method_on_post_deleted_event() {
         // Given
         final var event = new PostEvent.Deleted(POST_ID);
 
@@ -99,7 +107,7 @@ class PostEventListenerTest extends EventListenerTestBase {
             .untilAsserted(() -> {
                 then(postRepresentationService)
                     .should()
-                    .deletePostRepresentation(event.getId(), IDEMPOTENCY_KEY);
+                    .deletePostRepresentations(Map.of(IDEMPOTENCY_KEY, event.getId()));
 
                 then(postRepresentationService)
                     .shouldHaveNoMoreInteractions();
@@ -19,6 +19,7 @@ import java.util.concurrent.TimeUnit;
 import static com.github.arhor.aws.graphql.federation.starter.tracing.AttributesKt.IDEMPOTENT_KEY;
 import static com.github.arhor.aws.graphql.federation.starter.tracing.AttributesKt.TRACING_ID_KEY;
 import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.BDDMockito.then;
 
 @ContextConfiguration(classes = {UserEventListener.class})
@@ -34,6 +35,9 @@ class UserEventListenerTest extends EventListenerTestBase {
     @MockBean
     private UserRepresentationService userRepresentationService;
 
+    @MockBean
+    private EventPropagationMetrics eventPropagationMetrics;
+
     @DynamicPropertySource
     static void registerDynamicProperties(final DynamicPropertyRegistry registry) {
         registry.add("app-props.aws.sqs.user-created-events", () -> USER_CREATED_TEST_QUEUE);
@@ -47,7 +51,7 @@ class UserEventListenerTest extends EventListenerTestBase {
     }
 
     @Test
-    void should_call_createUserRepresentation_method_on_user_created_event() {
+    void should_call_createUserRepresentations_method_on_user_created_event() {
         // Given
         final var event = new UserEvent.Created(USER_ID);
 
@@ -69,15 +73,19 @@ class UserEventListenerTest extends EventListenerTestBase {
             .untilAsserted(() -> {
                 then(userRepresentationService)
                     .should()
-                    .createUserRepresentation(event.getId(), IDEMPOTENCY_KEY);
+                    .createUserRepresentations(Map.of(IDEMPOTENCY_KEY, event.getId()));
 
                 then(userRepresentationService)
                     .shouldHaveNoMoreInteractions();
+
+                then(eventPropagationMetrics)
+                    .should()
+                    .recordPropagationLatency(anyList());
             });
     }
 
     @Test
-    void should_call_deleteUserRepresentation_method_on_user_deleted_event() {
+    void should_call_deleteUserRepresentations_method_on_user_deleted_event() {
         // Given
         final var event = new UserEvent.Deleted(USER_ID);
 
@@ -99,7 +107,7 @@ class UserEventListenerTest extends EventListenerTestBase {
             .untilAsserted(() -> {
                 then(userRepresentationService)
                     .should()
-                    .deleteUserRepresentation(event.getId(), IDEMPOTENCY_KEY);
+                    .deleteUserRepresentations(Map.of(IDEMPOTENCY_KEY, event.getId()));
 
                 then(userRepresentationService)
                     .shouldHaveNoMoreInteractions();
@@ -0,0 +1,39 @@
+package com.github.arhor.aws.graphql.federation.comments.infrastructure.scheduler;
+
+import com.github.arhor.aws.graphql.federation.comments.service.CommentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+class CommentsCountersReconcilerTest {
+
+    private final CommentService commentService = mock();
+    private final CommentsCountersReconciler commentsCountersReconciler = new CommentsCountersReconciler(
+        commentService
+    );
+
+    @AfterEach
+    void tearDown() {
+        verifyNoMoreInteractions(commentService);
+    }
+
+    @Nested
+    @DisplayName("CommentsCountersReconciler :: reconcileCommentsCounters")
+    class ReconcileCommentsCountersTest {
+        @Test
+        void should_call_CommentService_reconcileCommentsCounters() {
+            // When
+            commentsCountersReconciler.reconcileCommentsCounters();
+
+            // Then
+            then(commentService)
+                .should()
+                .reconcileCommentsCounters();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.github.arhor.aws.graphql.federation.comments.service.impl;
 
 import com.github.arhor.aws.graphql.federation.comments.data.entity.CommentEntity;
+import com.github.arhor.aws.graphql.federation.comments.data.entity.projection.CommentThreadNode;
 import com.github.arhor.aws.graphql.federation.comments.data.entity.HasComments.Feature;
 import com.github.arhor.aws.graphql.federation.comments.data.entity.PostRepresentation;
 import com.github.arhor.aws.graphql.federation.comments.data.entity.UserRepresentation;
@@ -11,13 +12,16 @@ import com.github.arhor.aws.graphql.federation.comments.generated.graphql.DgsCon
 import com.github.arhor.aws.graphql.federation.comments.generated.graphql.DgsConstants.POST;
 import com.github.arhor.aws.graphql.federation.comments.generated.graphql.DgsConstants.USER;
 import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.Comment;
+import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.CommentPage;
 import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.CreateCommentInput;
 import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.DeleteCommentInput;
 import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.UpdateCommentInput;
+import com.github.arhor.aws.graphql.federation.comments.service.CommentsPageKey;
 import com.github.arhor.aws.graphql.federation.comments.service.mapper.CommentMapper;
 import com.github.arhor.aws.graphql.federation.common.exception.EntityNotFoundException;
 import com.github.arhor.aws.graphql.federation.common.exception.EntityOperationRestrictedException;
 import com.github.arhor.aws.graphql.federation.common.exception.Operation;
+import com.github.arhor.aws.graphql.federation.starter.core.cascade.CascadeEngine;
 import com.github.arhor.aws.graphql.federation.starter.core.data.Features;
 import com.github.arhor.aws.graphql.federation.starter.security.CurrentUserDetails;
 import com.github.arhor.aws.graphql.federation.starter.testing.ConstantsKt;
@@ -26,20 +30,32 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import static com.github.arhor.aws.graphql.federation.comments.util.Caches.POST_REPRESENTATIONS;
+import static com.github.arhor.aws.graphql.federation.comments.util.Caches.USER_REPRESENTATIONS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchException;
 import static org.assertj.core.api.Assertions.from;
 import static org.assertj.core.api.InstanceOfAssertFactories.type;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 @SuppressWarnings("SequencedCollectionMethodCanBeUsed")
@@ -50,21 +66,33 @@ class CommentServiceImplTest {
     private static final UUID COMMENT_3_ID = ConstantsKt.getTEST_3_UUID_VAL();
     private static final UUID USER_ID = ConstantsKt.getZERO_UUID_VAL();
     private static final UUID POST_ID = ConstantsKt.getOMNI_UUID_VAL();
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
 
+    private final Cache usersCache = new ConcurrentMapCache(USER_REPRESENTATIONS.name());
+    private final Cache postsCache = new ConcurrentMapCache(POST_REPRESENTATIONS.name());
+    private final CacheManager cacheManager = mock();
     private final CommentRepository commentRepository = mock();
     private final CommentMapper commentMapper = mock();
     private final PostRepresentationRepository postRepository = mock();
     private final UserRepresentationRepository userRepository = mock();
+    private final CascadeEngine cascadeEngine = mock();
 
     private CommentServiceImpl commentService;
 
     @BeforeEach
     void setUp() {
+        given(cacheManager.getCache(USER_REPRESENTATIONS.name()))
+            .willReturn(usersCache);
+        given(cacheManager.getCache(POST_REPRESENTATIONS.name()))
+            .willReturn(postsCache);
+
         commentService = new CommentServiceImpl(
+            cacheManager,
             commentRepository,
             commentMapper,
             postRepository,
-            userRepository
+            userRepository,
+            cascadeEngine
         );
         commentService.initialize();
     }
@@ -75,7 +103,8 @@ class CommentServiceImplTest {
             commentRepository,
             commentMapper,
             postRepository,
-            userRepository
+            userRepository,
+            cascadeEngine
         );
     }
 
@@ -83,19 +112,19 @@ class CommentServiceImplTest {
     @DisplayName("CommentService :: getCommentsReplies")
     class GetCommentsRepliesTest {
         @Test
-        void should_return_comments_grouped_by_prnt_id() {
+        void should_return_page_of_comments_grouped_by_prnt_id() {
             // Given
-            final var commentIds = List.of(COMMENT_1_ID);
+            final var key = new CommentsPageKey(COMMENT_1_ID, 2, null, Set.of(COMMENT.Content));
 
             final var commentEntities = List.of(
-                CommentEntity.builder().id(COMMENT_2_ID).userId(USER_ID).prntId(COMMENT_1_ID).build(),
-                CommentEntity.builder().id(COMMENT_3_ID).userId(USER_ID).prntId(COMMENT_1_ID).build()
+                CommentEntity.builder().id(COMMENT_2_ID).userId(USER_ID).prntId(COMMENT_1_ID).createdDateTime(NOW).build(),
+                CommentEntity.builder().id(COMMENT_3_ID).userId(USER_ID).prntId(COMMENT_1_ID).createdDateTime(NOW).build()
             );
             final var commentDtos = commentEntities.stream()
                 .map(it -> Comment.newBuilder().id(it.id()).userId(it.userId()).prntId(it.prntId()).build())
                 .toList();
 
-            given(commentRepository.findAllByPrntIdIn(any()))
+            given(commentRepository.findPageByPrntIdIn(any(), anyInt(), any(), any(), anyBoolean()))
                 .willAnswer((__) -> commentEntities.stream());
 
             given(commentMapper.mapToDto(any()))
@@ -103,12 +132,12 @@ class CommentServiceImplTest {
                 .willAnswer((__) -> commentDtos.get(1));
 
             // When
-            var result = commentService.getCommentsReplies(commentIds);
+            var result = commentService.getCommentsReplies(List.of(key));
 
             // Then
             then(commentRepository)
                 .should()
-                .findAllByPrntIdIn(commentIds);
+                .findPageByPrntIdIn(List.of(COMMENT_1_ID), key.first() + 1, null, null, true);
 
             then(commentMapper)
                 .should()
@@ -120,21 +149,23 @@ class CommentServiceImplTest {
 
             assertThat(result)
                 .isNotNull()
-                .containsOnlyKeys(COMMENT_1_ID)
-                .hasEntrySatisfying(COMMENT_1_ID, (comments) ->
-                    assertThat(comments)
+                .containsOnlyKeys(key)
+                .hasEntrySatisfying(key, (page) ->
+                    assertThat(page)
                         .isNotNull()
-                        .containsExactlyElementsOf(commentDtos)
+                        .returns(commentDtos, from(CommentPage::getData))
+                        .returns(false, from(CommentPage::getHasNext))
+                        .returns(CommentsCursor.of(commentEntities.get(1)).encode(), from(CommentPage::getCursor))
                 );
         }
 
         @Test
-        void should_not_interact_with_repository_if_commentIds_is_empty() {
+        void should_not_interact_with_repository_if_keys_collection_is_empty() {
             // Given
-            var commentIds = Collections.<UUID>emptyList();
+            var keys = Collections.<CommentsPageKey>emptyList();
 
             // When
-            var result = commentService.getCommentsReplies(commentIds);
+            var result = commentService.getCommentsReplies(keys);
 
             // Then
             assertThat(result)
@@ -147,19 +178,19 @@ class CommentServiceImplTest {
     @DisplayName("CommentService :: getCommentsByUserIds")
     class GetCommentsByUserIdsMethodTest {
         @Test
-        void should_return_comments_grouped_by_user_id() {
+        void should_return_page_of_comments_grouped_by_user_id() {
             // Given
-            final var userIds = List.of(USER_ID);
+            final var key = new CommentsPageKey(USER_ID, 2, null, Set.of(COMMENT.Content));
 
             final var commentEntities = List.of(
-                CommentEntity.builder().id(COMMENT_1_ID).userId(USER_ID).build(),
-                CommentEntity.builder().id(COMMENT_2_ID).userId(USER_ID).build()
+                CommentEntity.builder().id(COMMENT_1_ID).userId(USER_ID).createdDateTime(NOW).build(),
+                CommentEntity.builder().id(COMMENT_2_ID).userId(USER_ID).createdDateTime(NOW).build()
             );
             final var commentDtos = commentEntities.stream()
                 .map(it -> Comment.newBuilder().id(it.id()).userId(it.userId()).build())
                 .toList();
 
-            given(commentRepository.findAllByUserIdIn(any()))
+            given(commentRepository.findPageByUserIdIn(any(), anyInt(), any(), any(), anyBoolean()))
                 .willAnswer((__) -> commentEntities.stream());
 
             given(commentMapper.mapToDto(any()))
@@ -167,12 +198,12 @@ class CommentServiceImplTest {
                 .willAnswer((__) -> commentDtos.get(1));
 
             // When
-            var result = commentService.getCommentsByUserIds(userIds);
+            var result = commentService.getCommentsByUserIds(List.of(key));
 
             // Then
             then(commentRepository)
                 .should()
-                .findAllByUserIdIn(userIds);
+                .findPageByUserIdIn(List.of(USER_ID), key.first() + 1, null, null, true);
 
             then(commentMapper)
                 .should()
@@ -184,21 +215,22 @@ class CommentServiceImplTest {
 
             assertThat(result)
                 .isNotNull()
-                .containsOnlyKeys(USER_ID)
-                .hasEntrySatisfying(USER_ID, (comments) ->
-                    assertThat(comments)
+                .containsOnlyKeys(key)
+                .hasEntrySatisfying(key, (page) ->
+                    assertThat(page)
                         .isNotNull()
-                        .containsExactlyElementsOf(commentDtos)
+                        .returns(commentDtos, from(CommentPage::getData))
+                        .returns(false, from(CommentPage::getHasNext))
                 );
         }
 
         @Test
-        void should_not_interact_with_repository_if_userIds_is_empty() {
+        void should_not_interact_with_repository_if_keys_collection_is_empty() {
             // Given
-            var userIds = Collections.<UUID>emptyList();
+            var keys = Collections.<CommentsPageKey>emptyList();
 
             // When
-            var result = commentService.getCommentsByUserIds(userIds);
+            var result = commentService.getCommentsByUserIds(keys);
 
             // Then
             assertThat(result)
@@ -211,19 +243,19 @@ class CommentServiceImplTest {
     @DisplayName("CommentService :: getCommentsByPostIds")
     class GetCommentsByPostIdsMethodTest {
         @Test
-        void should_return_comments_grouped_by_post_id() {
+        void should_return_page_of_comments_grouped_by_post_id() {
             // Given
-            final var postIds = List.of(POST_ID);
+            final var key = new CommentsPageKey(POST_ID, 2, null, Set.of(COMMENT.Content));
 
             final var commentEntities = List.of(
-                CommentEntity.builder().id(COMMENT_1_ID).postId(POST_ID).build(),
-                CommentEntity.builder().id(COMMENT_2_ID).postId(POST_ID).build()
+                CommentEntity.builder().id(COMMENT_1_ID).postId(POST_ID).createdDateTime(NOW).build(),
+                CommentEntity.builder().id(COMMENT_2_ID).postId(POST_ID).createdDateTime(NOW).build()
             );
             final var commentDtos = commentEntities.stream()
                 .map(it -> Comment.newBuilder().id(it.id()).postId(it.postId()).build())
                 .toList();
 
-            given(commentRepository.findAllByPrntIdNullAndPostIdIn(any()))
+            given(commentRepository.findPageByPrntIdNullAndPostIdIn(any(), anyInt(), any(), any(), anyBoolean()))
                 .willAnswer((__) -> commentEntities.stream());
 
             given(commentMapper.mapToDto(any()))
@@ -231,12 +263,12 @@ class CommentServiceImplTest {
                 .willAnswer((__) -> commentDtos.get(1));
 
             // When
-            var result = commentService.getCommentsByPostIds(postIds);
+            var result = commentService.getCommentsByPostIds(List.of(key));
 
             // Then
             then(commentRepository)
                 .should()
-                .findAllByPrntIdNullAndPostIdIn(postIds);
+                .findPageByPrntIdNullAndPostIdIn(List.of(POST_ID), key.first() + 1, null, null, true);
 
             then(commentMapper)
                 .should()
@@ -248,25 +280,159 @@ class CommentServiceImplTest {
 
             assertThat(result)
                 .isNotNull()
-                .containsOnlyKeys(POST_ID)
-                .hasEntrySatisfying(POST_ID, (comments) ->
-                    assertThat(comments)
+                .containsOnlyKeys(key)
+                .hasEntrySatisfying(key, (page) ->
+                    assertThat(page)
                         .isNotNull()
-                        .containsExactlyElementsOf(commentDtos)
+                        .returns(commentDtos, from(CommentPage::getData))
+                        .returns(false, from(CommentPage::getHasNext))
                 );
         }
 
         @Test
-        void should_not_interact_with_repository_if_postIds_is_empty() {
+        void should_return_only_requested_number_of_comments_and_has_next_page_flag() {
             // Given
-            var postIds = Collections.<UUID>emptyList();
+            final var cursor = new CommentsCursor(NOW, COMMENT_3_ID);
+            final var key = new CommentsPageKey(POST_ID, 1, cursor.encode(), Set.of(COMMENT.Content));
+
+            final var commentEntities = List.of(
+                CommentEntity.builder().id(COMMENT_1_ID).postId(POST_ID).createdDateTime(NOW).build(),
+                CommentEntity.builder().id(COMMENT_2_ID).postId(POST_ID).createdDateTime(NOW).build()
+            );
+            final var commentDto = Comment.newBuilder().id(COMMENT_1_ID).postId(POST_ID).build();
+
+            given(commentRepository.findPageByPrntIdNullAndPostIdIn(any(), anyInt(), any(), any(), anyBoolean()))
+                .willAnswer((__) -> commentEntities.stream());
+
+            given(commentMapper.mapToDto(any()))
+                .willReturn(commentDto);
 
             // When
-            var result = commentService.getCommentsByPostIds(postIds);
+            var result = commentService.getCommentsByPostIds(List.of(key));
 
             // Then
+            then(commentRepository)
+                .should()
+                .findPageByPrntIdNullAndPostIdIn(List.of(POST_ID), key.first() + 1, NOW, COMMENT_3_ID, true);
+
+            then(commentMapper)
+                .should()
+                .mapToDto(commentEntities.get(0));
+
             assertThat(result)
                 .isNotNull()
+                .containsOnlyKeys(key)
+                .hasEntrySatisfying(key, (page) ->
+                    assertThat(page)
+                        .isNotNull()
+                        .returns(List.of(commentDto), from(CommentPage::getData))
+                        .returns(true, from(CommentPage::getHasNext))
+                        .returns(CommentsCursor.of(commentEntities.get(0)).encode(), from(CommentPage::getCursor))
+                );
+        }
+
+        @Test
+        void should_not_interact_with_repository_if_keys_collection_is_empty() {
+            // Given
+            var keys = Collections.<CommentsPageKey>emptyList();
+
+            // When
+            var result = commentService.getCommentsByPostIds(keys);
+
+            // Then
+            assertThat(result)
+                .isNotNull()
+                .isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("CommentService :: getCommentsThread")
+    class GetCommentsThreadMethodTest {
+        @Test
+        void should_return_top_level_comments_and_pages_of_replies_for_completely_loaded_comments() {
+            // Given
+            final var maxDepth = 2;
+            final var maxNodes = 10;
+            final var pageSize = 20;
+
+            final var topLevelComment = CommentEntity.builder().id(COMMENT_1_ID).postId(POST_ID).createdDateTime(NOW).build();
+            final var reply = CommentEntity.builder().id(COMMENT_2_ID).postId(POST_ID).prntId(COMMENT_1_ID).createdDateTime(NOW).build();
+
+            final var topLevelCommentDto = Comment.newBuilder().id(COMMENT_1_ID).postId(POST_ID).build();
+            final var replyDto = Comment.newBuilder().id(COMMENT_2_ID).postId(POST_ID).prntId(COMMENT_1_ID).build();
+
+            given(commentRepository.findThreadByPostId(any(), anyInt(), anyInt()))
+                .willAnswer((__) -> Stream.of(new CommentThreadNode(topLevelComment, 1), new CommentThreadNode(reply, 2)));
+
+            given(commentMapper.mapToDto(any()))
+                .willReturn(topLevelCommentDto)
+                .willReturn(replyDto);
+
+            // When
+            final var result = commentService.getCommentsThread(POST_ID, maxDepth, maxNodes, Set.of(pageSize));
+
+            // Then
+            then(commentRepository)
+                .should()
+                .findThreadByPostId(POST_ID, maxDepth, maxNodes);
+
+            then(commentMapper)
+                .should()
+                .mapToDto(topLevelComment);
+
+            then(commentMapper)
+                .should()
+                .mapToDto(reply);
+
+            assertThat(result)
+                .isNotNull()
+                .satisfies(
+                    (thread) -> assertThat(thread.comments())
+                        .containsExactly(topLevelCommentDto),
+                    (thread) -> assertThat(thread.replies())
+                        .containsOnlyKeys(new CommentsPageKey(COMMENT_1_ID, pageSize, null, Set.of(COMMENT.Content)))
+                        .hasEntrySatisfying(new CommentsPageKey(COMMENT_1_ID, pageSize, null, Set.of(COMMENT.Content)), (page) ->
+                            assertThat(page)
+                                .returns(List.of(replyDto), from(CommentPage::getData))
+                                .returns(false, from(CommentPage::getHasNext))
+                        )
+                );
+        }
+
+        @Test
+        void should_not_return_pages_of_replies_for_comments_at_the_partially_loaded_level() {
+            // Given
+            final var maxDepth = 8;
+            final var maxNodes = 2;
+            final var pageSize = 20;
+
+            final var topLevelComment = CommentEntity.builder().id(COMMENT_1_ID).postId(POST_ID).createdDateTime(NOW).build();
+            final var reply = CommentEntity.builder().id(COMMENT_2_ID).postId(POST_ID).prntId(COMMENT_1_ID).createdDateTime(NOW).build();
+
+            given(commentRepository.findThreadByPostId(any(), anyInt(), anyInt()))
+                .willAnswer((__) -> Stream.of(new CommentThreadNode(topLevelComment, 1), new CommentThreadNode(reply, 2)));
+
+            given(commentMapper.mapToDto(any()))
+                .willReturn(Comment.newBuilder().build());
+
+            // When
+            final var result = commentService.getCommentsThread(POST_ID, maxDepth, maxNodes, Set.of(pageSize));
+
+            // Then
+            then(commentRepository)
+                .should()
+                .findThreadByPostId(POST_ID, maxDepth, maxNodes);
+
+            then(commentMapper)
+                .should()
+                .mapToDto(topLevelComment);
+
+            then(commentMapper)
+                .should()
+                .mapToDto(reply);
+
+            assertThat(result.replies())
                 .isEmpty();
         }
     }
@@ -284,12 +450,149 @@ class CommentServiceImplTest {
                     .content("test-content")
                     .build();
 
-            final var comment = CommentEntity.builder().build();
+            final var comment = CommentEntity.builder().postId(POST_ID).build();
+            final var user = UserRepresentation.builder().build();
+            final var post = PostRepresentation.builder().build();
+
+            final var expectedComment = Comment.newBuilder().build();
+
+            given(commentMapper.mapToEntity(any()))
+                .willReturn(comment);
+
+            given(userRepository.findById(any()))
+                .willReturn(Optional.of(user));
+
+            given(postRepository.findById(any()))
+                .willReturn(Optional.of(post));
+
+            given(commentRepository.save(any()))
+                .willReturn(comment);
+
+            given(commentMapper.mapToDto(any()))
+                .willReturn(expectedComment);
+
+            // When
+            final var createCommentResult = commentService.createComment(input, actor(USER_ID));
+
+            // Then
+            then(commentMapper)
+                .should()
+                .mapToEntity(input);
+
+            then(userRepository)
+                .should()
+                .findById(input.getUserId());
+
+            then(postRepository)
+                .should()
+                .findById(input.getPostId());
+
+            then(commentRepository)
+                .should()
+                .save(comment);
+
+            then(commentRepository)
+                .should()
+                .incrementCommentsNumber(eq(POST_ID), anyInt(), eq(1));
+
+            then(commentMapper)
+                .should()
+                .mapToDto(comment);
+
+            assertThat(createCommentResult)
+                .isNotNull()
+                .isEqualTo(expectedComment);
+        }
+
+        @Test
+        void should_read_user_and_post_representations_from_cache_on_subsequent_comment_creation() {
+            // Given
+            final var input =
+                CreateCommentInput.newBuilder()
+                    .userId(USER_ID)
+                    .postId(POST_ID)
+                    .content("test-content")
+                    .build();
+
+            final var comment = CommentEntity.builder().postId(POST_ID).build();
+            final var user = UserRepresentation.builder().build();
+            final var post = PostRepresentation.builder().build();
+
+            final var expectedComment = Comment.newBuilder().build();
+
+            given(commentMapper.mapToEntity(any()))
+                .willReturn(comment);
+
+            given(userRepository.findById(any()))
+                .willReturn(Optional.of(user));
+
+            given(postRepository.findById(any()))
+                .willReturn(Optional.of(post));
+
+            given(commentRepository.save(any()))
+                .willReturn(comment);
+
+            given(commentMapper.mapToDto(any()))
+                .willReturn(expectedComment);
+
+            // When
+            commentService.createComment(input, actor(USER_ID));
+            commentService.createComment(input, actor(USER_ID));
+
+            // Then
+            then(commentMapper)
+                .should(times(2))
+                .mapToEntity(input);
+
+            then(userRepository)
+                .should()
+                .findById(input.getUserId());
+
+            then(postRepository)
+                .should()
+                .findById(input.getPostId());
+
+            then(commentRepository)
+                .should(times(2))
+                .save(comment);
+
+            then(commentRepository)
+                .should(times(2))
+                .incrementCommentsNumber(eq(POST_ID), anyInt(), eq(1));
+
+            then(commentMapper)
+                .should(times(2))
+                .mapToDto(comment);
+
+            assertThat(usersCache.get(USER_ID))
+                .isNotNull()
+                .returns(user, from(Cache.ValueWrapper::get));
+
+            assertThat(postsCache.get(POST_ID))
+                .isNotNull()
+                .returns(post, from(Cache.ValueWrapper::get));
+        }
+
+        @Test
+        void should_increment_replies_number_of_the_parent_comment_when_reply_is_created() {
+            // Given
+            final var input =
+                CreateCommentInput.newBuilder()
+                    .userId(USER_ID)
+                    .postId(POST_ID)
+                    .prntId(COMMENT_1_ID)
+                    .content("test-content")
+                    .build();
+
+            final var comment = CommentEntity.builder().postId(POST_ID).prntId(COMMENT_1_ID).build();
             final var user = UserRepresentation.builder().build();
             final var post = PostRepresentation.builder().build();
 
             final var expectedComment = Comment.newBuilder().build();
 
+            given(commentRepository.existsByPostIdAndPrntId(any(), any()))
+                .willReturn(true);
+
             given(commentMapper.mapToEntity(any()))
                 .willReturn(comment);
 
@@ -309,6 +612,10 @@ class CommentServiceImplTest {
             final var createCommentResult = commentService.createComment(input, actor(USER_ID));
 
             // Then
+            then(commentRepository)
+                .should()
+                .existsByPostIdAndPrntId(POST_ID, COMMENT_1_ID);
+
             then(commentMapper)
                 .should()
                 .mapToEntity(input);
@@ -325,6 +632,14 @@ class CommentServiceImplTest {
                 .should()
                 .save(comment);
 
+            then(commentRepository)
+                .should()
+                .incrementCommentsNumber(eq(POST_ID), anyInt(), eq(1));
+
+            then(commentRepository)
+                .should()
+                .incrementRepliesNumber(eq(COMMENT_1_ID), anyInt(), eq(1));
+
             then(commentMapper)
                 .should()
                 .mapToDto(comment);
@@ -333,6 +648,43 @@ class CommentServiceImplTest {
                 .isNotNull()
                 .isEqualTo(expectedComment);
         }
+
+        @Test
+        void should_throw_EntityNotFoundException_when_parent_comment_is_missing_or_deleted() {
+            // Given
+            final var input =
+                CreateCommentInput.newBuilder()
+                    .userId(USER_ID)
+                    .postId(POST_ID)
+                    .prntId(COMMENT_1_ID)
+                    .content("test-content")
+                    .build();
+
+            final var expectedEntity = COMMENT.TYPE_NAME;
+            final var expectedCondition = COMMENT.PostId + " = " + POST_ID + " and " + COMMENT.PrntId + " = " + COMMENT_1_ID;
+            final var expectedOperation = Operation.CREATE;
+
+            given(commentRepository.existsByPostIdAndPrntId(any(), any()))
+                .willReturn(false);
+
+            // When
+            final var result = catchException(() -> commentService.createComment(input, actor(USER_ID)));
+
+            // Then
+            then(commentRepository)
+                .should()
+                .existsByPostIdAndPrntId(POST_ID, COMMENT_1_ID);
+
+            then(commentRepository)
+                .shouldHaveNoMoreInteractions();
+
+            assertThat(result)
+                .isNotNull()
+                .asInstanceOf(type(EntityNotFoundException.class))
+                .returns(expectedEntity, from(EntityNotFoundException::getEntity))
+                .returns(expectedCondition, from(EntityNotFoundException::getCondition))
+                .returns(expectedOperation, from(EntityNotFoundException::getOperation));
+        }
     }
 
     @Nested
@@ -621,13 +973,23 @@ class CommentServiceImplTest {
         void should_return_result_with_success_true_when_comment_is_deleted() {
             // Given
             final var input = DeleteCommentInput.newBuilder().id(COMMENT_1_ID).build();
-            final var comment = CommentEntity.builder().userId(USER_ID).postId(POST_ID).build();
+            final var comment =
+                CommentEntity.builder()
+                    .id(COMMENT_1_ID)
+                    .userId(USER_ID)
+                    .postId(POST_ID)
+                    .prntId(COMMENT_2_ID)
+                    .build();
             final var user = UserRepresentation.builder().id(USER_ID).build();
             final var post = PostRepresentation.builder().id(POST_ID).build();
+            final var deletedNumber = 3;
 
             given(commentRepository.findById(any()))
                 .willReturn(Optional.of(comment));
 
+            given(commentRepository.countCommentWithReplies(any()))
+                .willReturn(deletedNumber);
+
             given(userRepository.findById(any()))
                 .willReturn(Optional.of(user));
 
@@ -652,7 +1014,23 @@ class CommentServiceImplTest {
 
             then(commentRepository)
                 .should()
-                .delete(comment);
+                .countCommentWithReplies(COMMENT_1_ID);
+
+            then(commentRepository)
+                .should()
+                .save(comment.toBuilder().deleted(true).build());
+
+            then(cascadeEngine)
+                .should()
+                .schedule(CommentSubtreesDeletionHandler.TYPE, POST_ID);
+
+            then(commentRepository)
+                .should()
+                .incrementCommentsNumber(eq(POST_ID), anyInt(), eq(-deletedNumber));
+
+            then(commentRepository)
+                .should()
+                .incrementRepliesNumber(eq(COMMENT_2_ID), anyInt(), eq(-1));
 
             assertThat(result)
                 .isTrue();
@@ -677,6 +1055,84 @@ class CommentServiceImplTest {
             assertThat(result)
                 .isFalse();
         }
+
+        @Test
+        void should_return_result_with_success_false_when_comment_is_already_deleted() {
+            // Given
+            final var input = DeleteCommentInput.newBuilder().id(COMMENT_1_ID).build();
+            final var comment =
+                CommentEntity.builder()
+                    .id(COMMENT_1_ID)
+                    .userId(USER_ID)
+                    .postId(POST_ID)
+                    .deleted(true)
+                    .build();
+
+            given(commentRepository.findById(any()))
+                .willReturn(Optional.of(comment));
+
+            // When
+            final var result = commentService.deleteComment(input, actor(USER_ID));
+
+            // Then
+            then(commentRepository)
+                .should()
+                .findById(input.getId());
+
+            then(cascadeEngine)
+                .shouldHaveNoInteractions();
+
+            assertThat(result)
+                .isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("CommentService :: reconcileCommentsCounters")
+    class ReconcileCommentsCountersMethodTest {
+        @Test
+        void should_reconcile_comments_and_replies_counters_when_lock_is_acquired() {
+            // Given
+            given(commentRepository.tryLockCountersReconciliation())
+                .willReturn(true);
+
+            given(commentRepository.reconcileCommentsNumbers())
+                .willReturn(1);
+
+            given(commentRepository.reconcileRepliesNumbers())
+                .willReturn(0);
+
+            // When
+            commentService.reconcileCommentsCounters();
+
+            // Then
+            then(commentRepository)
+                .should()
+                .tryLockCountersReconciliation();
+
+            then(commentRepository)
+                .should()
+                .reconcileCommentsNumbers();
+
+            then(commentRepository)
+                .should()
+                .reconcileRepliesNumbers();
+        }
+
+        @Test
+        void should_skip_reconciliation_when_lock_is_held_by_another_transaction() {
+            // Given
+            given(commentRepository.tryLockCountersReconciliation())
+                .willReturn(false);
+
+            // When
+            commentService.reconcileCommentsCounters();
+
+            // Then
+            then(commentRepository)
+                .should()
+                .tryLockCountersReconciliation();
+        }
     }
 
     private CurrentUserDetails actor(final UUID userId) {
@@ -9,7 +9,10 @@ import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.
 import com.github.arhor.aws.graphql.federation.common.exception.EntityConditionException;
 import com.github.arhor.aws.graphql.federation.common.exception.EntityNotFoundException;
 import com.github.arhor.aws.graphql.federation.common.exception.Operation;
+import com.github.arhor.aws.graphql.federation.starter.core.cascade.CascadeEngine;
 import com.github.arhor.aws.graphql.federation.starter.core.data.Features;
+import com.github.arhor.aws.graphql.federation.starter.core.idempotency.IdempotencyStore;
+import com.github.arhor.aws.graphql.federation.starter.testing.InMemoryIdempotencyStore;
 import com.github.arhor.aws.graphql.federation.starter.testing.ConstantsKt;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -26,7 +29,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
-import static com.github.arhor.aws.graphql.federation.comments.util.Caches.IDEMPOTENT_ID_SET;
+import static com.github.arhor.aws.graphql.federation.comments.util.Caches.POST_REPRESENTATIONS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchException;
 import static org.assertj.core.api.Assertions.from;
@@ -42,18 +45,20 @@ class PostRepresentationServiceImplTest {
     private static final UUID POST_ID = ConstantsKt.getTEST_1_UUID_VAL();
     private static final UUID IDEMPOTENCY_KEY = ConstantsKt.getTEST_2_UUID_VAL();
 
-    private final Cache cache = new ConcurrentMapCache(IDEMPOTENT_ID_SET.name());
+    private final Cache postsCache = new ConcurrentMapCache(POST_REPRESENTATIONS.name());
     private final CacheManager cacheManager = mock();
+    private final IdempotencyStore idempotencyStore = new InMemoryIdempotencyStore();
+    private final CascadeEngine cascadeEngine = mock();
     private final PostRepresentationRepository postRepository = mock();
 
     private PostRepresentationServiceImpl postService;
 
     @BeforeEach
     void setUp() {
-        when(cacheManager.getCache(IDEMPOTENT_ID_SET.name()))
-            .thenReturn(cache);
+        when(cacheManager.getCache(POST_REPRESENTATIONS.name()))
+            .thenReturn(postsCache);
 
-        postService = new PostRepresentationServiceImpl(cacheManager, postRepository);
+        postService = new PostRepresentationServiceImpl(cacheManager, idempotencyStore, cascadeEngine, postRepository);
         postService.initialize();
     }
 
@@ -158,10 +163,12 @@ class PostRepresentationServiceImplTest {
     @DisplayName("PostService :: deletePostRepresentation")
     class DeletePostRepresentationTest {
         @Test
-        void should_call_postRepository_deleteById_only_once_with_the_same_idempotencyKey() {
+        void should_mark_post_deleted_and_schedule_its_comments_processing_only_once_with_the_same_idempotencyKey() {
             // Given
             final var numberOfCalls = 3;
 
+            postsCache.put(POST_ID, PostRepresentation.builder().id(POST_ID).build());
+
             // When
             for (int i = 0; i < numberOfCalls; i++) {
                 postService.deletePostRepresentation(POST_ID, IDEMPOTENCY_KEY);
@@ -170,7 +177,78 @@ class PostRepresentationServiceImplTest {
             // Then
             then(postRepository)
                 .should()
-                .deleteById(POST_ID);
+                .markDeletedByIdIn(Set.of(POST_ID));
+
+            then(cascadeEngine)
+                .should()
+                .schedule(PostCommentsDeletionHandler.TYPE, POST_ID);
+
+            then(postRepository)
+                .shouldHaveNoMoreInteractions();
+
+            assertThat(postsCache.get(POST_ID))
+                .isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("PostService :: createPostRepresentations")
+    class CreatePostRepresentationsTest {
+        @Test
+        void should_insert_only_posts_with_not_processed_idempotency_keys_in_a_single_call() {
+            // Given
+            final var processedPostId = ConstantsKt.getZERO_UUID_VAL();
+            final var processedKey = ConstantsKt.getOMNI_UUID_VAL();
+
+            postService.createPostRepresentations(Map.of(processedKey, processedPostId));
+            postsCache.put(POST_ID, null);
+
+            // When
+            postService.createPostRepresentations(
+                Map.of(
+                    processedKey, processedPostId,
+                    IDEMPOTENCY_KEY, POST_ID
+                )
+            );
+
+            // Then
+            then(postRepository)
+                .should()
+                .insertAllIgnoringExisting(Set.of(processedPostId));
+
+            then(postRepository)
+                .should()
+                .insertAllIgnoringExisting(Set.of(POST_ID));
+
+            then(postRepository)
+                .shouldHaveNoMoreInteractions();
+
+            assertThat(postsCache.get(POST_ID))
+                .isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("PostService :: deletePostRepresentations")
+    class DeletePostRepresentationsTest {
+        @Test
+        void should_delete_posts_only_once_with_the_same_idempotency_keys() {
+            // Given
+            final var numberOfCalls = 3;
+
+            // When
+            for (int i = 0; i < numberOfCalls; i++) {
+                postService.deletePostRepresentations(Map.of(IDEMPOTENCY_KEY, POST_ID));
+            }
+
+            // Then
+            then(postRepository)
+                .should()
+                .markDeletedByIdIn(Set.of(POST_ID));
+
+            then(cascadeEngine)
+                .should()
+                .schedule(PostCommentsDeletionHandler.TYPE, Set.of(POST_ID));
 
             then(postRepository)
                 .shouldHaveNoMoreInteractions();
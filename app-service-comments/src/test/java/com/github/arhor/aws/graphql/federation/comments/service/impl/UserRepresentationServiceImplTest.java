@@ -9,7 +9,10 @@ import com.github.arhor.aws.graphql.federation.comments.generated.graphql.types.
 import com.github.arhor.aws.graphql.federation.common.exception.EntityConditionException;
 import com.github.arhor.aws.graphql.federation.common.exception.EntityNotFoundException;
 import com.github.arhor.aws.graphql.federation.common.exception.Operation;
+import com.github.arhor.aws.graphql.federation.starter.core.cascade.CascadeEngine;
 import com.github.arhor.aws.graphql.federation.starter.core.data.Features;
+import com.github.arhor.aws.graphql.federation.starter.core.idempotency.IdempotencyStore;
+import com.github.arhor.aws.graphql.federation.starter.testing.InMemoryIdempotencyStore;
 import com.github.arhor.aws.graphql.federation.starter.testing.ConstantsKt;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -18,6 +21,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Collections;
 import java.util.List;
@@ -26,7 +31,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
-import static com.github.arhor.aws.graphql.federation.comments.util.Caches.IDEMPOTENT_ID_SET;
+import static com.github.arhor.aws.graphql.federation.comments.util.Caches.USER_REPRESENTATIONS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchException;
 import static org.assertj.core.api.Assertions.from;
@@ -41,18 +46,20 @@ class UserRepresentationServiceImplTest {
     private static final UUID USER_ID = ConstantsKt.getTEST_1_UUID_VAL();
     private static final UUID IDEMPOTENCY_KEY = ConstantsKt.getTEST_2_UUID_VAL();
 
-    private final Cache cache = new ConcurrentMapCache(IDEMPOTENT_ID_SET.name());
+    private final Cache usersCache = new ConcurrentMapCache(USER_REPRESENTATIONS.name());
     private final CacheManager cacheManager = mock();
+    private final IdempotencyStore idempotencyStore = new InMemoryIdempotencyStore();
+    private final CascadeEngine cascadeEngine = mock();
     private final UserRepresentationRepository userRepository = mock();
 
     private UserRepresentationServiceImpl userService;
 
     @BeforeEach
     void setUp() {
-        given(cacheManager.getCache(IDEMPOTENT_ID_SET.name()))
-            .willReturn(cache);
+        given(cacheManager.getCache(USER_REPRESENTATIONS.name()))
+            .willReturn(usersCache);
 
-        userService = new UserRepresentationServiceImpl(cacheManager, userRepository);
+        userService = new UserRepresentationServiceImpl(cacheManager, idempotencyStore, cascadeEngine, userRepository);
         userService.initialize();
     }
 
@@ -158,10 +165,12 @@ class UserRepresentationServiceImplTest {
     @DisplayName("UserService :: deleteUserRepresentation")
     class DeleteUserRepresentationTest {
         @Test
-        void should_call_userRepository_deleteById_only_once_with_the_same_idempotencyKey() {
+        void should_mark_user_deleted_and_schedule_its_comments_processing_only_once_with_the_same_idempotencyKey() {
             // Given
             final var numberOfCalls = 3;
 
+            usersCache.put(USER_ID, UserRepresentation.builder().id(USER_ID).build());
+
             // When
             for (int i = 0; i < numberOfCalls; i++) {
                 userService.deleteUserRepresentation(USER_ID, IDEMPOTENCY_KEY);
@@ -170,7 +179,102 @@ class UserRepresentationServiceImplTest {
             // Then
             then(userRepository)
                 .should()
-                .deleteById(USER_ID);
+                .markDeletedByIdIn(Set.of(USER_ID));
+
+            then(cascadeEngine)
+                .should()
+                .schedule(UserCommentsAnonymizationHandler.TYPE, USER_ID);
+
+            then(userRepository)
+                .shouldHaveNoMoreInteractions();
+
+            assertThat(usersCache.get(USER_ID))
+                .isNull();
+        }
+
+        @Test
+        void should_evict_user_from_cache_only_after_transaction_commit() {
+            // Given
+            usersCache.put(USER_ID, UserRepresentation.builder().id(USER_ID).build());
+
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                // When
+                userService.deleteUserRepresentation(USER_ID, IDEMPOTENCY_KEY);
+
+                // Then
+                assertThat(usersCache.get(USER_ID))
+                    .isNotNull();
+
+                TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+
+                assertThat(usersCache.get(USER_ID))
+                    .isNull();
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("UserService :: createUserRepresentations")
+    class CreateUserRepresentationsTest {
+        @Test
+        void should_insert_only_users_with_not_processed_idempotency_keys_in_a_single_call() {
+            // Given
+            final var processedUserId = ConstantsKt.getZERO_UUID_VAL();
+            final var processedKey = ConstantsKt.getOMNI_UUID_VAL();
+
+            userService.createUserRepresentations(Map.of(processedKey, processedUserId));
+            usersCache.put(USER_ID, null);
+
+            // When
+            userService.createUserRepresentations(
+                Map.of(
+                    processedKey, processedUserId,
+                    IDEMPOTENCY_KEY, USER_ID
+                )
+            );
+
+            // Then
+            then(userRepository)
+                .should()
+                .insertAllIgnoringExisting(Set.of(processedUserId));
+
+            then(userRepository)
+                .should()
+                .insertAllIgnoringExisting(Set.of(USER_ID));
+
+            then(userRepository)
+                .shouldHaveNoMoreInteractions();
+
+            assertThat(usersCache.get(USER_ID))
+                .isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("UserService :: deleteUserRepresentations")
+    class DeleteUserRepresentationsTest {
+        @Test
+        void should_delete_users_only_once_with_the_same_idempotency_keys() {
+            // Given
+            final var numberOfCalls = 3;
+
+            // When
+            for (int i = 0; i < numberOfCalls; i++) {
+                userService.deleteUserRepresentations(Map.of(IDEMPOTENCY_KEY, USER_ID));
+            }
+
+            // Then
+            then(userRepository)
+                .should()
+                .markDeletedByIdIn(Set.of(USER_ID));
+
+            then(cascadeEngine)
+                .should()
+                .schedule(UserCommentsAnonymizationHandler.TYPE, Set.of(USER_ID));
 
             then(userRepository)
                 .shouldHaveNoMoreInteractions();
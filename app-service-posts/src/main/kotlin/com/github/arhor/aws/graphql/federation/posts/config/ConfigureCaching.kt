@@ -26,10 +26,19 @@ class ConfigureCaching {
                 .build()
         )
         it.registerCustomCache(
-            Caches.IDEMPOTENT_ID_SET.name,
+            Caches.USER_REPRESENTATIONS.name,
             Caffeine.newBuilder()
                 .maximumSize(10_000)
-                .expireAfterAccess(Duration.ofMinutes(30))
+                .expireAfterWrite(Duration.ofMinutes(1))
+                .recordStats()
+                .build()
+        )
+        it.registerCustomCache(
+            Caches.TAGS.name,
+            Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterAccess(Duration.ofHours(1))
+                .recordStats()
                 .build()
         )
     }
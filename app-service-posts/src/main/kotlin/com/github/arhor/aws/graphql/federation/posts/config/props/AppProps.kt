@@ -10,6 +10,7 @@ import jakarta.validation.constraints.NotNull
 import org.springframework.boot.context.properties.ConfigurationProperties
 import org.springframework.validation.annotation.Validated
 import java.math.BigDecimal
+import java.time.Duration
 
 @Validated
 @ConfigurationProperties(prefix = "app-props")
@@ -21,6 +22,9 @@ data class AppProps(
     @field:Valid
     @field:NotNull
     val retry: Retry?,
+
+    @field:Valid
+    val outbox: Outbox = Outbox(),
 ) {
     data class Aws(
         @field:Valid
@@ -62,4 +66,42 @@ data class AppProps(
         @field:DecimalMax((3.0).toString())
         val multiplier: BigDecimal = (1.5).toBigDecimal(),
     )
+
+    data class Outbox(
+        /**
+         * Time claimed messages stay invisible for the other relays, messages not published within it are claimed
+         * and published again.
+         */
+        val lease: Duration = Duration.ofMinutes(1),
+
+        /**
+         * Number of messages of a single type the relay starts claiming with, the batch is never shrunk below it.
+         */
+        @field:Min(1)
+        val minBatchSize: Int = 10,
+
+        /**
+         * Upper bound for the batch grown by the relay while the backlog is drained fast enough.
+         */
+        @field:Min(1)
+        val maxBatchSize: Int = 500,
+
+        /**
+         * Time to publish a batch the relay aims at, the batch is grown when it is published faster and shrunk when
+         * it is published slower.
+         */
+        val targetLatency: Duration = Duration.ofSeconds(1),
+
+        /**
+         * Maximum number of SNS publish requests in flight.
+         */
+        @field:Min(1)
+        @field:Max(100)
+        val maxConcurrentPublishes: Int = 5,
+
+        /**
+         * Interval the outbox backlog metrics are refreshed with.
+         */
+        val backlogCheckInterval: Duration = Duration.ofSeconds(15),
+    )
 }
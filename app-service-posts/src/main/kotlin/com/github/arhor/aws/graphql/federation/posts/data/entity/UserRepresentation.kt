@@ -21,6 +21,9 @@ data class UserRepresentation @PersistenceCreator constructor(
     @Column("features")
     val features: Features<Feature> = Features(items = EnumSet.noneOf(Feature::class.java)),
 
+    @Column("deleted")
+    val deleted: Boolean = false,
+
     @Transient
     val shouldBePersisted: Boolean = false,
 ) : Persistable<UUID> {
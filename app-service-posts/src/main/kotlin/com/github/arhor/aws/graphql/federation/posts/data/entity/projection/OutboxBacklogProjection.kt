@@ -0,0 +1,9 @@
+package com.github.arhor.aws.graphql.federation.posts.data.entity.projection
+
+import java.time.LocalDateTime
+
+data class OutboxBacklogProjection(
+    val type: String,
+    val depth: Long,
+    val oldestCreatedDateTime: LocalDateTime,
+)
@@ -1,11 +1,23 @@
 package com.github.arhor.aws.graphql.federation.posts.data.entity.projection
 
 import com.github.arhor.aws.graphql.federation.posts.data.entity.PostEntity
+import java.time.LocalDateTime
 import java.util.UUID
 
 data class PostProjection(
     val id: UUID,
     val userId: UUID?,
     val title: String,
-    val content: String,
+    /**
+     * Post content, selected only when it is requested by the client.
+     */
+    val content: String?,
+    /**
+     * Tag names, selected only by the queries fetching posts along with their tags.
+     */
+    val tags: List<String>? = null,
+    /**
+     * Post creation date-time, selected only by the queries paging posts by cursor.
+     */
+    val createdDateTime: LocalDateTime? = null,
 )
@@ -2,20 +2,81 @@ package com.github.arhor.aws.graphql.federation.posts.data.repository
 
 import com.github.arhor.aws.graphql.federation.posts.data.entity.PostEntity
 import com.github.arhor.aws.graphql.federation.posts.data.entity.projection.PostProjection
+import org.springframework.data.jdbc.repository.query.Modifying
 import org.springframework.data.jdbc.repository.query.Query
 import org.springframework.data.repository.ListCrudRepository
 import org.springframework.data.repository.PagingAndSortingRepository
+import java.time.LocalDateTime
 import java.util.UUID
 import java.util.stream.Stream
 
-interface PostRepository : ListCrudRepository<PostEntity, UUID>, PagingAndSortingRepository<PostEntity, UUID> {
+interface PostRepository :
+    ListCrudRepository<PostEntity, UUID>,
+    PagingAndSortingRepository<PostEntity, UUID>,
+    PostWriteRepository {
 
-    @Query(name = "PostProjection.findAllByUserIdIn")
-    fun findAllByUserIdIn(userIds: Collection<UUID>): List<PostProjection>
+    /**
+     * Loads at most [limit] most recent posts of each user, starting after the post at the position given by
+     * [afterCreatedDateTime] and [afterId] when they are not `null`. Posts of each user are loaded in the
+     * `created_date_time DESC, id` order.
+     */
+    @Query(name = "PostProjection.findPageByUserIdIn")
+    fun findPageByUserIdIn(
+        userIds: Collection<UUID>,
+        afterCreatedDateTime: LocalDateTime?,
+        afterId: UUID?,
+        limit: Int,
+        withContent: Boolean,
+    ): List<PostProjection>
+
+    @Query(name = "PostProjection.findPage")
+    fun findPage(limit: Int, offset: Long, withContent: Boolean, withTags: Boolean): Stream<PostProjection>
 
     @Query(name = "PostProjection.findPageByTagsContaining")
-    fun findPageByTagsContaining(tags: Collection<String>, limit: Int, offset: Long): Stream<PostProjection>
+    fun findPageByTagsContaining(
+        tags: Collection<String>,
+        limit: Int,
+        offset: Long,
+        withContent: Boolean,
+        withTags: Boolean,
+    ): Stream<PostProjection>
+
+    /**
+     * Loads at most [limit] posts following the post identified by [afterCreatedDateTime] and [afterId] in the
+     * `created_date_time, id` order, or the first posts when both are `null`.
+     */
+    @Query(name = "PostProjection.findPageAfter")
+    fun findPageAfter(
+        afterCreatedDateTime: LocalDateTime?,
+        afterId: UUID?,
+        limit: Int,
+        withContent: Boolean,
+        withTags: Boolean,
+    ): Stream<PostProjection>
+
+    /**
+     * The same as [findPageAfter], but only posts containing all the given [tags] are loaded.
+     */
+    @Query(name = "PostProjection.findPageAfterByTagsContaining")
+    fun findPageAfterByTagsContaining(
+        tags: Collection<String>,
+        afterCreatedDateTime: LocalDateTime?,
+        afterId: UUID?,
+        limit: Int,
+        withContent: Boolean,
+        withTags: Boolean,
+    ): Stream<PostProjection>
+
+    /**
+     * Loads posts by the given IDs in the `created_date_time, id` order.
+     */
+    @Query(name = "PostProjection.findAllByIdIn")
+    fun findAllByIdIn(ids: Collection<UUID>, withContent: Boolean, withTags: Boolean): Stream<PostProjection>
 
     @Query(name = "PostProjection.countByTagsContaining")
     fun countByTagsContaining(tags: Collection<String>): Long
+
+    @Modifying
+    @Query(name = "PostEntity.anonymizeNextChunkByUserId")
+    fun anonymizeNextChunkByUserId(userId: UUID, limit: Int): Int
 }
@@ -0,0 +1,19 @@
+package com.github.arhor.aws.graphql.federation.posts.data.repository
+
+import com.github.arhor.aws.graphql.federation.posts.data.entity.PostEntity
+
+/**
+ * Custom write path for the post aggregate, that avoids rewriting unchanged `posts_has_tags` rows.
+ */
+interface PostWriteRepository {
+
+    /**
+     * Updates the post, inserting and deleting only the tag references which differ between the given states.
+     *
+     * @param previous the state of the post loaded from the database
+     * @param current  the state of the post to persist
+     * @return the persisted state of the post with incremented version
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the post was updated concurrently
+     */
+    fun update(previous: PostEntity, current: PostEntity): PostEntity
+}
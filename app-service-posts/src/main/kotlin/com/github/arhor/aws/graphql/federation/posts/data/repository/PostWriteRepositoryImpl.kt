@@ -0,0 +1,76 @@
+package com.github.arhor.aws.graphql.federation.posts.data.repository
+
+import com.github.arhor.aws.graphql.federation.posts.data.entity.PostEntity
+import org.springframework.dao.OptimisticLockingFailureException
+import org.springframework.data.auditing.DateTimeProvider
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations
+import java.time.LocalDateTime
+
+class PostWriteRepositoryImpl(
+    private val jdbcOperations: NamedParameterJdbcOperations,
+    private val dateTimeProvider: DateTimeProvider,
+) : PostWriteRepository {
+
+    override fun update(previous: PostEntity, current: PostEntity): PostEntity {
+        val postId = requireNotNull(current.id) { "Post must be persisted to be updated" }
+        val version = requireNotNull(previous.version) { "Post must have a version to be updated" }
+        val updatedDateTime = dateTimeProvider.now.map(LocalDateTime::from).orElseGet(LocalDateTime::now)
+
+        val updatedRows = jdbcOperations.update(
+            UPDATE_POST,
+            mapOf(
+                "id" to postId,
+                "title" to current.title,
+                "content" to current.content,
+                "version" to version,
+                "updatedDateTime" to updatedDateTime,
+            )
+        )
+        if (updatedRows == 0) {
+            throw OptimisticLockingFailureException("Post with id $postId and version $version is not found")
+        }
+        if (current.tags != previous.tags) {
+            val removedTagIds = (previous.tags - current.tags).map { it.tagId }
+            val addedTagIds = (current.tags - previous.tags).map { it.tagId }
+
+            if (removedTagIds.isNotEmpty()) {
+                jdbcOperations.update(DELETE_POST_TAGS, mapOf("postId" to postId, "tagIds" to removedTagIds))
+            }
+            if (addedTagIds.isNotEmpty()) {
+                jdbcOperations.batchUpdate(
+                    INSERT_POST_TAG,
+                    addedTagIds.map { MapSqlParameterSource(mapOf("postId" to postId, "tagId" to it)) }.toTypedArray()
+                )
+            }
+        }
+        return current.copy(version = version + 1, updatedDateTime = updatedDateTime)
+    }
+
+    companion object {
+        // language=SQL
+        private const val UPDATE_POST = """
+            UPDATE posts
+               SET title = :title
+                 , content = :content
+                 , version = version + 1
+                 , updated_date_time = :updatedDateTime
+             WHERE id = :id
+               AND version = :version
+        """
+
+        // language=SQL
+        private const val DELETE_POST_TAGS = """
+            DELETE
+              FROM posts_has_tags
+             WHERE post_id = :postId
+               AND tag_id IN (:tagIds)
+        """
+
+        // language=SQL
+        private const val INSERT_POST_TAG = """
+            INSERT INTO posts_has_tags (post_id, tag_id)
+                 VALUES (:postId, :tagId)
+        """
+    }
+}
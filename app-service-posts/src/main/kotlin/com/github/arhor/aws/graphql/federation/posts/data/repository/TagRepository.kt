@@ -15,4 +15,13 @@ interface TagRepository : ListCrudRepository<TagEntity, UUID> {
     fun findAllByPostIdIn(postIds: Collection<UUID>): Map<UUID, List<String>>
 
     fun findAllByNameIn(tagNames: Collection<String>): List<TagEntity>
+
+    /**
+     * Inserts missing tags and returns all the tags with the given names within a single statement.
+     *
+     * Tags inserted concurrently by other transactions, which are not yet committed at the moment the statement
+     * starts, are neither inserted nor returned.
+     */
+    @Query(name = "TagEntity.upsertAllByNameIn")
+    fun upsertAllByNameIn(names: Collection<String>): List<TagEntity>
 }
@@ -1,7 +1,18 @@
 package com.github.arhor.aws.graphql.federation.posts.data.repository
 
 import com.github.arhor.aws.graphql.federation.posts.data.entity.UserRepresentation
+import org.springframework.data.jdbc.repository.query.Modifying
+import org.springframework.data.jdbc.repository.query.Query
 import org.springframework.data.repository.CrudRepository
 import java.util.UUID
 
-interface UserRepresentationRepository : CrudRepository<UserRepresentation, UUID>
+interface UserRepresentationRepository : CrudRepository<UserRepresentation, UUID> {
+
+    @Modifying
+    @Query(name = "UserRepresentation.insertAllIgnoringExisting")
+    fun insertAllIgnoringExisting(ids: Collection<UUID>)
+
+    @Modifying
+    @Query(name = "UserRepresentation.markDeletedByIdIn")
+    fun markDeletedByIdIn(ids: Collection<UUID>)
+}
@@ -1,15 +1,26 @@
 package com.github.arhor.aws.graphql.federation.posts.infrastructure.graphql.datafetcher
 
+import com.github.arhor.aws.graphql.federation.posts.generated.graphql.DgsConstants.POST
+import com.github.arhor.aws.graphql.federation.posts.generated.graphql.DgsConstants.POSTCONNECTION
+import com.github.arhor.aws.graphql.federation.posts.generated.graphql.DgsConstants.POSTPAGE
 import com.github.arhor.aws.graphql.federation.posts.generated.graphql.DgsConstants.USER
+import com.github.arhor.aws.graphql.federation.posts.generated.graphql.DgsConstants.USERPOSTPAGE
 import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.CreatePostInput
 import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.DeletePostInput
 import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.Post
+import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.PostConnection
 import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.PostPage
+import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.PostsConnectionInput
 import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.PostsLookupInput
 import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.UpdatePostInput
 import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.User
+import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.UserPostPage
 import com.github.arhor.aws.graphql.federation.posts.infrastructure.graphql.dataloader.PostBatchLoader
+import com.github.arhor.aws.graphql.federation.posts.infrastructure.graphql.dataloader.TagBatchLoader
 import com.github.arhor.aws.graphql.federation.posts.service.PostService
+import com.github.arhor.aws.graphql.federation.posts.service.UserPostsKey
+import com.github.arhor.aws.graphql.federation.starter.graphql.LookaheadField
+import com.github.arhor.aws.graphql.federation.starter.graphql.PrunableFields
 import com.github.arhor.aws.graphql.federation.starter.security.CurrentUserDetails
 import com.github.arhor.aws.graphql.federation.starter.tracing.Trace
 import com.netflix.graphql.dgs.DgsComponent
@@ -36,15 +47,38 @@ class PostFetcher(
         postService.getPostById(id)
 
     @DgsQuery
-    fun posts(@InputArgument input: PostsLookupInput): PostPage =
-        postService.getPostPage(input)
+    fun posts(@InputArgument input: PostsLookupInput, dfe: DgsDataFetchingEnvironment): PostPage {
+        val fields = PAGE_POSTS_FIELDS.selectedIn(dfe)
+        val postPage = postService.getPostPage(input, fields)
+
+        if (POST.Tags in fields) {
+            PAGE_POSTS_TAGS.prime(dfe, postPage.data.orEmpty().associate { it.id to it.tags.orEmpty() })
+        }
+        return postPage
+    }
+
+    @DgsQuery
+    fun postsConnection(@InputArgument input: PostsConnectionInput, dfe: DgsDataFetchingEnvironment): PostConnection {
+        val fields = CONNECTION_POSTS_FIELDS.selectedIn(dfe)
+        val withTotal = dfe.selectionSet.contains(POSTCONNECTION.Total)
+        val connection = postService.getPostConnection(input, fields, withTotal)
+
+        if (POST.Tags in fields) {
+            CONNECTION_POSTS_TAGS.prime(dfe, connection.data.orEmpty().associate { it.id to it.tags.orEmpty() })
+        }
+        return connection
+    }
 
     @DgsData(parentType = USER.TYPE_NAME, field = USER.Posts)
-    fun userPosts(dfe: DgsDataFetchingEnvironment): CompletableFuture<List<Post>> {
-        val loader = dfe.getDataLoader<UUID, List<Post>>(PostBatchLoader::class.java)
+    fun userPosts(
+        @InputArgument first: Int,
+        @InputArgument after: String?,
+        dfe: DgsDataFetchingEnvironment,
+    ): CompletableFuture<UserPostPage> {
+        val loader = dfe.getDataLoader<UserPostsKey, UserPostPage>(PostBatchLoader::class.java)
         val source = dfe.getSource<User>()
 
-        return loader.load(source.id)
+        return loader.load(UserPostsKey(source.id, first, after, USER_POSTS_FIELDS.selectedIn(dfe)))
     }
 
     /* ---------- Mutations ---------- */
@@ -72,4 +106,13 @@ class PostFetcher(
         @AuthenticationPrincipal actor: CurrentUserDetails,
     ): Boolean =
         postService.deletePost(input, actor)
+
+    companion object {
+        private val PAGE_POSTS_TAGS = LookaheadField("${POSTPAGE.Data}/${POST.Tags}", TagBatchLoader::class.java)
+        private val PAGE_POSTS_FIELDS = PrunableFields(POSTPAGE.Data, setOf(POST.Content, POST.Tags))
+        private val CONNECTION_POSTS_TAGS =
+            LookaheadField("${POSTCONNECTION.Data}/${POST.Tags}", TagBatchLoader::class.java)
+        private val CONNECTION_POSTS_FIELDS = PrunableFields(POSTCONNECTION.Data, setOf(POST.Content, POST.Tags))
+        private val USER_POSTS_FIELDS = PrunableFields(USERPOSTPAGE.Data, setOf(POST.Content))
+    }
 }
@@ -0,0 +1,39 @@
+package com.github.arhor.aws.graphql.federation.posts.infrastructure.listener
+
+import com.github.arhor.aws.graphql.federation.common.event.DomainEvent
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.Timer
+import jakarta.validation.ClockProvider
+import org.springframework.messaging.Message
+import org.springframework.stereotype.Component
+import java.time.Duration
+
+/**
+ * Records the time passed since the events were produced by the other services until they are applied.
+ */
+@Component
+class EventPropagationMetrics(
+    private val meterRegistry: MeterRegistry,
+    private val clockProvider: ClockProvider,
+) {
+
+    fun recordPropagationLatency(messages: Collection<Message<*>>) {
+        val consumedAt = clockProvider.clock.millis()
+
+        for (message in messages) {
+            val type = message.headers[DomainEvent.ATTRS_PAYLOAD_TYPE]?.toString() ?: continue
+            val producedAt = message.headers[DomainEvent.ATTRS_PRODUCED_AT]?.toString()?.toLongOrNull() ?: continue
+
+            Timer.builder(PROPAGATION_LATENCY_METRIC)
+                .tag(TYPE_TAG, type)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(Duration.ofMillis((consumedAt - producedAt).coerceAtLeast(0)))
+        }
+    }
+
+    companion object {
+        private const val PROPAGATION_LATENCY_METRIC = "domain.events.propagation.latency"
+        private const val TYPE_TAG = "type"
+    }
+}
@@ -7,8 +7,9 @@ import com.github.arhor.aws.graphql.federation.starter.tracing.TRACING_ID_KEY
 import com.github.arhor.aws.graphql.federation.starter.tracing.Trace
 import com.github.arhor.aws.graphql.federation.starter.tracing.withExtendedMDC
 import io.awspring.cloud.sqs.annotation.SqsListener
-import org.springframework.messaging.handler.annotation.Header
-import org.springframework.messaging.handler.annotation.Payload
+import io.awspring.cloud.sqs.listener.acknowledgement.BatchAcknowledgement
+import org.slf4j.LoggerFactory
+import org.springframework.messaging.Message
 import org.springframework.stereotype.Component
 import java.util.UUID
 
@@ -16,33 +17,90 @@ import java.util.UUID
 @Component
 class UserEventListener(
     private val userRepresentationService: UserRepresentationService,
+    private val eventPropagationMetrics: EventPropagationMetrics,
 ) {
 
-    @SqsListener("\${app-props.aws.sqs.user-created-events}")
-    fun onUserCreatedEvent(
-        @Payload event: UserEvent.Created,
-        @Header(TRACING_ID_KEY) traceId: UUID,
-        @Header(IDEMPOTENT_KEY) idempotencyKey: UUID,
+    @SqsListener(value = ["\${app-props.aws.sqs.user-created-events}"], acknowledgementMode = "MANUAL")
+    fun onUserCreatedEvents(
+        messages: List<Message<UserEvent.Created>>,
+        acknowledgement: BatchAcknowledgement<UserEvent.Created>,
     ) {
-        withExtendedMDC(traceId) {
-            userRepresentationService.createUserRepresentation(
-                userId = event.id,
-                idempotencyKey = idempotencyKey,
-            )
-        }
+        handleInBatch(messages, acknowledgement, { it.id }, userRepresentationService::createUserRepresentations)
+    }
+
+    @SqsListener(value = ["\${app-props.aws.sqs.user-deleted-events}"], acknowledgementMode = "MANUAL")
+    fun onUserDeletedEvents(
+        messages: List<Message<UserEvent.Deleted>>,
+        acknowledgement: BatchAcknowledgement<UserEvent.Deleted>,
+    ) {
+        handleInBatch(messages, acknowledgement, { it.id }, userRepresentationService::deleteUserRepresentations)
     }
 
-    @SqsListener("\${app-props.aws.sqs.user-deleted-events}")
-    fun onUserDeletedEvent(
-        @Payload event: UserEvent.Deleted,
-        @Header(TRACING_ID_KEY) traceId: UUID,
-        @Header(IDEMPOTENT_KEY) idempotencyKey: UUID,
+    /**
+     * Applies the whole batch with a single call, falling back to per-message processing when the batch fails,
+     * so that only failed messages are left unacknowledged and redelivered. Messages without usable idempotency key
+     * or entity id are logged and left unacknowledged without preventing the rest of the batch from being applied.
+     */
+    private fun <T> handleInBatch(
+        messages: List<Message<T>>,
+        acknowledgement: BatchAcknowledgement<T>,
+        entityId: (T) -> UUID,
+        action: (Map<UUID, UUID>) -> Unit,
     ) {
-        withExtendedMDC(traceId) {
-            userRepresentationService.deleteUserRepresentation(
-                userId = event.id,
-                idempotencyKey = idempotencyKey,
-            )
+        val entityIdsByIdempotencyKey = LinkedHashMap<UUID, UUID>(messages.size)
+        val applicable = messages.filter { message ->
+            try {
+                entityIdsByIdempotencyKey[message.idempotencyKey] = entityId(message.payload)
+                true
+            } catch (messageError: Exception) {
+                logger.error("Skipping malformed message {}", message.headers.id, messageError)
+                false
+            }
+        }
+        if (applicable.isEmpty()) {
+            return
+        }
+        try {
+            action(entityIdsByIdempotencyKey)
+            if (applicable.size == messages.size) {
+                acknowledgement.acknowledge()
+            } else {
+                acknowledgement.acknowledge(applicable)
+            }
+            eventPropagationMetrics.recordPropagationLatency(applicable)
+        } catch (batchError: Exception) {
+            logger.warn("Failed to process batch of {} messages, processing them one by one", applicable.size, batchError)
+
+            val processed = applicable.filter { message ->
+                try {
+                    withExtendedMDC(message.traceId) {
+                        action(mapOf(message.idempotencyKey to entityId(message.payload)))
+                    }
+                    true
+                } catch (messageError: Exception) {
+                    logger.error("Failed to process message {}", message.headers.id, messageError)
+                    false
+                }
+            }
+            acknowledgement.acknowledge(processed)
+            eventPropagationMetrics.recordPropagationLatency(processed)
         }
     }
+
+    private val Message<*>.idempotencyKey: UUID
+        get() = header(IDEMPOTENT_KEY)
+
+    private val Message<*>.traceId: UUID
+        get() = header(TRACING_ID_KEY)
+
+    private fun Message<*>.header(name: String): UUID =
+        when (val value = headers[name]) {
+            null -> throw IllegalStateException("Message header '$name' is missing")
+            is UUID -> value
+            else -> UUID.fromString(value.toString())
+        }
+
+    companion object {
+        private val logger = LoggerFactory.getLogger(this::class.java.enclosingClass)
+    }
 }
@@ -1,22 +1,139 @@
 package com.github.arhor.aws.graphql.federation.posts.infrastructure.scheduler
 
 import com.github.arhor.aws.graphql.federation.common.event.PostEvent
+import com.github.arhor.aws.graphql.federation.starter.core.notification.PgNotificationHandler
+import com.github.arhor.aws.graphql.federation.posts.config.props.AppProps
 import com.github.arhor.aws.graphql.federation.posts.service.OutboxMessageService
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics
+import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.DisposableBean
+import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.scheduling.annotation.Scheduled
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory
 import org.springframework.stereotype.Component
+import java.time.Duration
+import java.util.concurrent.ArrayBlockingQueue
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.Executor
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
 
+/**
+ * Releases outbox messages as soon as the database notifies about the inserted ones, the scheduled processing is
+ * kept as a safety net for the notifications lost or not enabled.
+ *
+ * A single relay drains the outbox while the backlog is non-empty, releasing one batch of each event type per round.
+ * The batch of each type is doubled while it is published within the target latency and halved when it is not.
+ * The relay runs on the dedicated single-thread executor, neither the scheduler nor the notification listener threads
+ * are held while the outbox is drained.
+ */
 @Component
 class PostEventProcessor(
+    private val appProps: AppProps,
     private val outboxMessageService: OutboxMessageService,
-) {
+    private val executor: Executor,
+) : PgNotificationHandler, DisposableBean {
+
+    /**
+     * The executor is created by the processor, otherwise exposed as a bean it would replace the default application
+     * task executor.
+     */
+    @Autowired
+    constructor(
+        appProps: AppProps,
+        outboxMessageService: OutboxMessageService,
+        meterRegistry: MeterRegistry,
+    ) : this(
+        appProps = appProps,
+        outboxMessageService = outboxMessageService,
+        executor = createExecutor(meterRegistry),
+    )
+
+    private val batchSizes = ConcurrentHashMap<PostEvent.Type, Int>()
+    private val drainRequested = AtomicBoolean()
+
+    override val channel = OUTBOX_MESSAGES_CHANNEL
 
     @Scheduled(cron = "\${app-props.outbox-messages-processing-cron}")
-    fun processPostCreatedEvents() {
-        outboxMessageService.releaseOutboxMessagesOfType(PostEvent.Type.POST_EVENT_CREATED)
+    fun processPostEvents() {
+        requestDrain()
     }
 
-    @Scheduled(cron = "\${app-props.outbox-messages-processing-cron}")
-    fun processPostDeletedEvents() {
-        outboxMessageService.releaseOutboxMessagesOfType(PostEvent.Type.POST_EVENT_DELETED)
+    override fun onNotification(payload: String?) {
+        requestDrain()
+    }
+
+    override fun destroy() {
+        (executor as? ExecutorService)?.shutdown()
+    }
+
+    /**
+     * Requests made while the draining is pending are covered by it, so at most one drain is queued behind the
+     * running one.
+     */
+    private fun requestDrain() {
+        if (!drainRequested.getAndSet(true)) {
+            executor.execute {
+                drainRequested.set(false)
+                drainOutbox()
+            }
+        }
+    }
+
+    private fun drainOutbox() {
+        var pendingTypes = PostEvent.Type.entries.toList()
+
+        while (pendingTypes.isNotEmpty()) {
+            pendingTypes = pendingTypes.filter(::releaseNextBatch)
+        }
+    }
+
+    /**
+     * @return `true` if the whole batch is published, so more messages of the given type might be waiting
+     */
+    private fun releaseNextBatch(type: PostEvent.Type): Boolean {
+        val outbox = appProps.outbox
+        val batchSize = batchSizes.getOrDefault(type, outbox.minBatchSize)
+
+        val start = System.nanoTime()
+        val published = try {
+            outboxMessageService.releaseOutboxMessagesOfType(type, batchSize)
+        } catch (e: Exception) {
+            logger.error("Failed to release outbox messages of type {}", type.code, e)
+            return false
+        }
+        val latency = Duration.ofNanos(System.nanoTime() - start)
+
+        batchSizes[type] = when {
+            latency > outbox.targetLatency -> (batchSize / 2).coerceAtLeast(outbox.minBatchSize)
+            published == batchSize -> (batchSize * 2).coerceAtMost(outbox.maxBatchSize)
+            else -> batchSize
+        }
+        return published == batchSize
+    }
+
+    companion object {
+        private const val OUTBOX_MESSAGES_CHANNEL = "outbox_messages"
+        private const val EXECUTOR_NAME = "outbox-relay"
+
+        private val logger = LoggerFactory.getLogger(this::class.java.enclosingClass)
+
+        private fun createExecutor(meterRegistry: MeterRegistry): ExecutorService {
+            val executor = ThreadPoolExecutor(
+                1,
+                1,
+                0L,
+                TimeUnit.MILLISECONDS,
+                ArrayBlockingQueue(1),
+                CustomizableThreadFactory("$EXECUTOR_NAME-"),
+                ThreadPoolExecutor.AbortPolicy(),
+            )
+            ExecutorServiceMetrics(executor, EXECUTOR_NAME, emptyList()).bindTo(meterRegistry)
+
+            return executor
+        }
     }
 }
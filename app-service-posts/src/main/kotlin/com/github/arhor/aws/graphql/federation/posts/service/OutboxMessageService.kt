@@ -4,5 +4,11 @@ import com.github.arhor.aws.graphql.federation.common.event.PostEvent
 
 interface OutboxMessageService {
     fun storeAsOutboxMessage(event: PostEvent)
-    fun releaseOutboxMessagesOfType(eventType: PostEvent.Type)
+
+    /**
+     * Publishes at most [limit] oldest outbox messages of the given type.
+     *
+     * @return number of the messages published
+     */
+    fun releaseOutboxMessagesOfType(eventType: PostEvent.Type, limit: Int): Int
 }
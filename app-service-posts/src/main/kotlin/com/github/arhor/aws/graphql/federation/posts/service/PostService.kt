@@ -3,9 +3,12 @@ package com.github.arhor.aws.graphql.federation.posts.service
 import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.CreatePostInput
 import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.DeletePostInput
 import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.Post
+import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.PostConnection
 import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.PostPage
+import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.PostsConnectionInput
 import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.PostsLookupInput
 import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.UpdatePostInput
+import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.UserPostPage
 import com.github.arhor.aws.graphql.federation.starter.security.CurrentUserDetails
 import java.util.UUID
 
@@ -25,18 +28,29 @@ interface PostService {
     /**
      * Retrieves a list of posts based on the provided input criteria.
      *
-     * @param input the input object containing the criteria for retrieving posts
+     * @param input  the input object containing the criteria for retrieving posts
+     * @param fields the optional post fields to fetch, e.g. `content` or `tags`, others are left empty
      * @return a list of posts matching the criteria
      */
-    fun getPostPage(input: PostsLookupInput): PostPage
+    fun getPostPage(input: PostsLookupInput, fields: Set<String>): PostPage
 
     /**
-     * Retrieves posts for the specified user IDs.
+     * Retrieves a page of posts following the cursor in the creation date-time order.
      *
-     * @param userIds the set of user IDs to retrieve posts for
-     * @return a map where the key is the user ID and the value is a list of posts associated with that user
+     * @param input     the input object containing the cursor and the criteria for retrieving posts
+     * @param fields    the optional post fields to fetch, e.g. `content` or `tags`, others are left empty
+     * @param withTotal whether the exact total number of posts matching the criteria should be counted
+     * @return a page of posts along with the cursor of its last post
      */
-    fun getPostsByUserIds(userIds: Set<UUID>): Map<UUID, List<Post>>
+    fun getPostConnection(input: PostsConnectionInput, fields: Set<String>, withTotal: Boolean): PostConnection
+
+    /**
+     * Retrieves a page of the most recent posts for each of the specified user IDs.
+     *
+     * @param keys the set of user IDs along with the page arguments and the optional post fields to fetch
+     * @return a map where the key is the requested key and the value is a page of posts associated with the user
+     */
+    fun getPostsByUserIds(keys: Set<UserPostsKey>): Map<UserPostsKey, UserPostPage>
 
     /**
      * Creates a new post.
@@ -0,0 +1,18 @@
+package com.github.arhor.aws.graphql.federation.posts.service
+
+import java.util.UUID
+
+/**
+ * Identifies a single page of the most recent posts of a user loaded with a particular set of the optional fields.
+ *
+ * @param userId the ID of the user posts belong to
+ * @param first  the maximum number of posts in the page
+ * @param after  the opaque cursor of the post after which the page starts, may be `null`
+ * @param fields names of the optional post fields requested by the client, e.g. `content`
+ */
+data class UserPostsKey(
+    val userId: UUID,
+    val first: Int,
+    val after: String?,
+    val fields: Set<String>,
+)
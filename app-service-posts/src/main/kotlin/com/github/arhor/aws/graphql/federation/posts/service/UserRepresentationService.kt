@@ -20,13 +20,28 @@ interface UserRepresentationService {
     fun createUserRepresentation(userId: UUID, idempotencyKey: UUID)
 
     /**
-     * Deletes an existing user representation.
+     * Deletes an existing user representation. Representation is marked as deleted immediately, while
+     * the user is removed from their posts in the background.
      *
      * @param userId         the UUID of the user whose representation is to be deleted
      * @param idempotencyKey the UUID used to ensure idempotency of the deletion operation
      */
     fun deleteUserRepresentation(userId: UUID, idempotencyKey: UUID)
 
+    /**
+     * Creates user representations in bulk, skipping the ones with already processed idempotency keys.
+     *
+     * @param userIdsByIdempotencyKey the UUIDs of the users keyed by the idempotency keys of the creation operations
+     */
+    fun createUserRepresentations(userIdsByIdempotencyKey: Map<UUID, UUID>)
+
+    /**
+     * Deletes existing user representations in bulk, skipping the ones with already processed idempotency keys.
+     *
+     * @param userIdsByIdempotencyKey the UUIDs of the users keyed by the idempotency keys of the deletion operations
+     */
+    fun deleteUserRepresentations(userIdsByIdempotencyKey: Map<UUID, UUID>)
+
     /**
      * Switches the posts for the user based on the provided input.
      *
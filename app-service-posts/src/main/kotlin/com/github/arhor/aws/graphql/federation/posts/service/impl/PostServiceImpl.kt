@@ -17,16 +17,26 @@ import com.github.arhor.aws.graphql.federation.posts.generated.graphql.DgsConsta
 import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.CreatePostInput
 import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.DeletePostInput
 import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.Post
+import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.PostConnection
 import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.PostPage
+import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.PostsConnectionInput
 import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.PostsLookupInput
 import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.TagInput
 import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.UpdatePostInput
+import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.UserPostPage
 import com.github.arhor.aws.graphql.federation.posts.service.PostService
+import com.github.arhor.aws.graphql.federation.posts.service.UserPostsKey
 import com.github.arhor.aws.graphql.federation.posts.service.mapping.PostMapper
+import com.github.arhor.aws.graphql.federation.posts.util.Caches
+import com.github.arhor.aws.graphql.federation.posts.util.get
 import com.github.arhor.aws.graphql.federation.starter.security.CurrentUserDetails
 import com.github.arhor.aws.graphql.federation.starter.security.ensureAccessAllowed
 import com.github.arhor.aws.graphql.federation.starter.tracing.Trace
+import jakarta.annotation.PostConstruct
 import org.slf4j.LoggerFactory
+import org.springframework.cache.Cache
+import org.springframework.cache.CacheManager
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator
 import org.springframework.context.ApplicationEventPublisher
 import org.springframework.dao.OptimisticLockingFailureException
 import org.springframework.data.domain.PageImpl
@@ -40,12 +50,24 @@ import java.util.UUID
 @Service
 class PostServiceImpl(
     private val appEventPublisher: ApplicationEventPublisher,
+    private val cacheManager: CacheManager,
     private val postMapper: PostMapper,
     private val postRepository: PostRepository,
     private val tagRepository: TagRepository,
     private val userRepository: UserRepresentationRepository,
+    private val tagIndex: PostTagIndex? = null,
 ) : PostService {
 
+    private lateinit var usersCache: Cache
+    private lateinit var tagsCache: Cache
+
+    @PostConstruct
+    fun initialize() {
+        usersCache = cacheManager[Caches.USER_REPRESENTATIONS]
+        // tags inserted within the current transaction must not be cached when it is rolled back
+        tagsCache = TransactionAwareCacheDecorator(cacheManager[Caches.TAGS])
+    }
+
     @Transactional(readOnly = true)
     override fun getPostById(id: UUID): Post {
         return postRepository.findByIdOrNull(id)?.let(postMapper::mapToPost)
@@ -57,23 +79,126 @@ class PostServiceImpl(
     }
 
     @Transactional(readOnly = true)
-    override fun getPostPage(input: PostsLookupInput): PostPage {
-        return if (input.tags == null) {
-            findPostsPageWithoutFilters(input)
-        } else {
-            findPostsPageByTags(input)
+    override fun getPostPage(input: PostsLookupInput, fields: Set<String>): PostPage {
+        val pageable = PageRequest.of(input.page, input.size)
+        val withContent = POST.Content in fields
+        val withTags = POST.Tags in fields
+        val tagNames = input.tags?.toSet { it.name }
+
+        val indexedPostIds = tagNames?.let { tagIndex?.findPostIds(it, pageable.offset, pageable.pageSize) }
+
+        val posts = when {
+            indexedPostIds != null -> postRepository.findAllByIdIn(indexedPostIds, withContent, withTags)
+            tagNames == null -> postRepository.findPage(pageable.pageSize, pageable.offset, withContent, withTags)
+            else -> postRepository.findPageByTagsContaining(
+                tagNames,
+                pageable.pageSize,
+                pageable.offset,
+                withContent,
+                withTags,
+            )
+        }
+        return posts.use { stream ->
+            val data = stream.toList()
+            val total = when (tagNames) {
+                null -> postRepository.count()
+                else -> countByTagsContaining(tagNames)
+            }
+            postMapper.mapToPostPageFromProjection(PageImpl(data, pageable, total))
         }
     }
 
     @Transactional(readOnly = true)
-    override fun getPostsByUserIds(userIds: Set<UUID>): Map<UUID, List<Post>> = when {
-        userIds.isNotEmpty() -> {
-            postRepository
-                .findAllByUserIdIn(userIds)
-                .groupBy({ it.userId!! }, postMapper::mapToPost)
+    override fun getPostConnection(
+        input: PostsConnectionInput,
+        fields: Set<String>,
+        withTotal: Boolean,
+    ): PostConnection {
+        val cursor = PostsCursor.decode(input.after)
+        val withContent = POST.Content in fields
+        val withTags = POST.Tags in fields
+        val tagNames = input.tags?.toSet { it.name }
+
+        // one extra post is requested to find out whether there is a next page
+        val limit = input.first + 1
+
+        val indexedPostIds = tagNames?.let { tagIndex?.findPostIdsAfter(it, cursor?.id, limit) }
+
+        val posts = when {
+            indexedPostIds != null -> postRepository.findAllByIdIn(indexedPostIds, withContent, withTags)
+            tagNames == null -> postRepository.findPageAfter(
+                cursor?.createdDateTime,
+                cursor?.id,
+                limit,
+                withContent,
+                withTags,
+            )
+
+            else -> postRepository.findPageAfterByTagsContaining(
+                tagNames,
+                cursor?.createdDateTime,
+                cursor?.id,
+                limit,
+                withContent,
+                withTags,
+            )
         }
+        val data = posts.use { it.toList() }
+        val hasNext = data.size > input.first
+        val page = if (hasNext) data.subList(0, input.first) else data
+
+        return PostConnection(
+            data = page.map(postMapper::mapToPost),
+            cursor = page.lastOrNull()?.let { PostsCursor.of(it).encode() },
+            hasNext = hasNext,
+            total = when {
+                !withTotal -> null
+                tagNames == null -> postRepository.count().toInt()
+                else -> countByTagsContaining(tagNames).toInt()
+            },
+        )
+    }
 
-        else -> emptyMap()
+    @Transactional(readOnly = true)
+    override fun getPostsByUserIds(keys: Set<UserPostsKey>): Map<UserPostsKey, UserPostPage> {
+        if (keys.isEmpty()) {
+            return emptyMap()
+        }
+        val result = HashMap<UserPostsKey, UserPostPage>(keys.size)
+
+        // keys requested within the same field selection share page arguments, so usually it's a single query,
+        // while a cursor issued for the posts of another user is ignored
+        val keysByArgs = keys.groupBy { key ->
+            val after = UserPostsCursor.decode(key.after)?.takeIf { it.userId == key.userId }
+            Triple(key.first, after, key.fields)
+        }
+        for ((args, argsKeys) in keysByArgs) {
+            val (first, cursor, fields) = args
+            val postsByUserId =
+                postRepository
+                    .findPageByUserIdIn(
+                        userIds = argsKeys.map { it.userId },
+                        afterCreatedDateTime = cursor?.createdDateTime,
+                        afterId = cursor?.id,
+                        // one extra post of each user tells whether there is a next page
+                        limit = first + 1,
+                        withContent = POST.Content in fields,
+                    )
+                    .groupBy { it.userId!! }
+
+            for (key in argsKeys) {
+                val posts = postsByUserId[key.userId].orEmpty()
+                val hasNext = posts.size > first
+                val page = if (hasNext) posts.subList(0, first) else posts
+
+                result[key] = UserPostPage(
+                    data = page.map(postMapper::mapToPost),
+                    cursor = page.lastOrNull()?.let { UserPostsCursor.of(it).encode() },
+                    hasNext = hasNext,
+                )
+            }
+        }
+        return result
     }
 
     @Transactional
@@ -82,9 +207,12 @@ class PostServiceImpl(
 
         ensureOperationAllowed(actor.id, currentOperation)
 
-        return postMapper.mapToEntity(input = input, userId = actor.id, tags = convertToRefs(input.tags))
+        val tagNames = normalizeTags(input.tags)
+
+        return postMapper.mapToEntity(input = input, userId = actor.id, tags = convertToRefs(tagNames))
             .let(postRepository::save)
             .also { appEventPublisher.publishEvent(PostEvent.Created(id = it.id!!)) }
+            .also { tagIndex?.onPostSaved(it.id!!, tagNames.orEmpty()) }
             .let(postMapper::mapToPost)
     }
 
@@ -100,14 +228,21 @@ class PostServiceImpl(
 
         ensureOperationAllowed(initialState.userId!!, currentOperation, actor)
 
+        val tagNames = normalizeTags(input.tags)
+
         val currentState = initialState.copy(
             title = input.title ?: initialState.title,
             content = input.content ?: initialState.content,
-            tags = convertToRefs(input.tags) ?: initialState.tags
+            tags = convertToRefs(tagNames) ?: initialState.tags
         )
         return postMapper.mapToPost(
             entity = when (currentState != initialState) {
-                true -> trySaveHandlingConcurrentUpdates(currentState)
+                true -> tryUpdateHandlingConcurrentUpdates(initialState, currentState).also {
+                    if (tagNames != null) {
+                        tagIndex?.onPostSaved(it.id!!, tagNames)
+                    }
+                }
+
                 else -> initialState
             }
         )
@@ -123,52 +258,62 @@ class PostServiceImpl(
 
         postRepository.delete(post)
         appEventPublisher.publishEvent(PostEvent.Deleted(id = post.id!!))
+        tagIndex?.onPostDeleted(post.id)
 
         return true
     }
 
-    private fun findPostsPageWithoutFilters(input: PostsLookupInput): PostPage {
-        return postRepository
-            .findAll(PageRequest.of(input.page, input.size))
-            .let { postMapper.mapToPostPageFromEntity(it) }
-    }
+    private fun countByTagsContaining(tagNames: Set<String>): Long =
+        tagIndex?.countPosts(tagNames)
+            ?: postRepository.countByTagsContaining(tagNames)
 
-    private fun findPostsPageByTags(input: PostsLookupInput): PostPage {
-        val tagNames = input.tags!!.toSet { it.name }
-        val pageable = PageRequest.of(input.page, input.size)
+    private fun normalizeTags(tags: List<TagInput>?): List<String>? =
+        tags?.map { normalizeTag(it.name) }
 
-        return postRepository.findPageByTagsContaining(tagNames, pageable.pageSize, pageable.offset).use { stream ->
-            val data = stream.toList()
-            val page = PageImpl(data, pageable, postRepository.countByTagsContaining(tagNames))
-
-            postMapper.mapToPostPageFromProjection(page)
-        }
-    }
-
-    private fun convertToRefs(tags: List<TagInput>?): Set<TagRef>? =
+    private fun convertToRefs(tagNames: List<String>?): Set<TagRef>? =
         when {
-            tags == null -> {
+            tagNames == null -> {
                 null
             }
 
-            tags.isEmpty() -> {
+            tagNames.isEmpty() -> {
                 emptySet()
             }
 
             else -> {
-                val tagNames = tags.map { normalizeTag(it.name) }
-
-                val presentTags = tagRepository.findAllByNameIn(tagNames)
-                val missingTags = (tagNames - presentTags.toSet { it.name }).map { TagEntity(name = it) }
-                val createdTags = tagRepository.saveAll(missingTags)
-
-                HashSet<TagRef>(presentTags.size + createdTags.size).apply {
-                    presentTags.forEach { add(TagRef.from(it)) }
-                    createdTags.forEach { add(TagRef.from(it)) }
+                val tagIds = HashMap<String, UUID>(tagNames.size)
+                val missingNames = ArrayList<String>(tagNames.size)
+
+                for (name in tagNames.toSet()) {
+                    when (val tagId = tagsCache.get(name, UUID::class.java)) {
+                        null -> missingNames.add(name)
+                        else -> tagIds[name] = tagId
+                    }
+                }
+                if (missingNames.isNotEmpty()) {
+                    for (tag in resolveTags(missingNames)) {
+                        tagIds[tag.name] = tag.id!!
+                        tagsCache.put(tag.name.intern(), tag.id)
+                    }
                 }
+                tagIds.values.toSet(::TagRef)
             }
         }
 
+    /**
+     * Resolves tags by names inserting the missing ones, so that a single statement is usually enough.
+     */
+    private fun resolveTags(names: List<String>): List<TagEntity> {
+        val resolvedTags = tagRepository.upsertAllByNameIn(names)
+
+        // tags created by concurrent transactions committed after the upsert started are not visible to it
+        if (resolvedTags.size < names.size) {
+            val unresolvedNames = names - resolvedTags.toSet { it.name }
+            return resolvedTags + tagRepository.findAllByNameIn(unresolvedNames)
+        }
+        return resolvedTags
+    }
+
     private fun ensureOperationAllowed(
         userId: UUID,
         operation: Operation,
@@ -182,7 +327,8 @@ class PostServiceImpl(
 
     private fun ensureUserPostsEnabled(userId: UUID, operation: Operation) {
         val user =
-            userRepository.findByIdOrNull(userId)
+            usersCache.get(userId) { userRepository.findByIdOrNull(userId) }
+                ?.takeUnless { it.deleted }
                 ?: throw EntityNotFoundException(
                     entity = POST.TYPE_NAME,
                     condition = "${USER.TYPE_NAME} with ${USER.Id} = $userId is not found",
@@ -198,15 +344,15 @@ class PostServiceImpl(
         }
     }
 
-    private fun trySaveHandlingConcurrentUpdates(entity: PostEntity): PostEntity {
+    private fun tryUpdateHandlingConcurrentUpdates(initialState: PostEntity, currentState: PostEntity): PostEntity {
         return try {
-            postRepository.save(entity)
+            postRepository.update(initialState, currentState)
         } catch (e: OptimisticLockingFailureException) {
             logger.error(e.message, e)
 
             throw EntityOperationRestrictedException(
                 entity = POST.TYPE_NAME,
-                condition = "${POST.Id} = ${entity.id} (updated concurrently)",
+                condition = "${POST.Id} = ${currentState.id} (updated concurrently)",
                 operation = Operation.UPDATE,
                 cause = e,
             )
@@ -0,0 +1,233 @@
+package com.github.arhor.aws.graphql.federation.posts.service.impl
+
+import com.github.arhor.aws.graphql.federation.posts.data.repository.PostRepository
+import org.roaringbitmap.FastAggregation
+import org.roaringbitmap.RoaringBitmap
+import org.slf4j.LoggerFactory
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty
+import org.springframework.boot.context.event.ApplicationReadyEvent
+import org.springframework.context.event.EventListener
+import org.springframework.stereotype.Component
+import org.springframework.transaction.support.TransactionOperations
+import org.springframework.transaction.support.TransactionSynchronization
+import org.springframework.transaction.support.TransactionSynchronizationManager
+import java.util.UUID
+import java.util.concurrent.locks.ReentrantReadWriteLock
+import kotlin.concurrent.read
+import kotlin.concurrent.write
+
+/**
+ * In-memory index answering "posts having all the given tags" without joining and grouping `posts_has_tags`.
+ *
+ * Each post gets an ordinal following the `created_date_time, id` order, and each tag is mapped to a compressed
+ * bitmap of the ordinals of its posts, so that multi-tag filters become bitmap intersections, and the intersection
+ * is paged by skipping ordinals up to the one of the cursor post.
+ *
+ * The index is built on application startup and kept current by the post changes made within the current node only,
+ * so it is meant for single-node deployments or the ones where the tags filter may lag behind other nodes. Until the
+ * index is built, as well as for the cursor posts unknown to it, lookups return `null` and the callers should fall
+ * back to the database queries. Post changes committed while the index is built are buffered and replayed on top of
+ * the built index, so the ones already visible to the initial query are applied idempotently.
+ */
+@Component
+@ConditionalOnProperty(prefix = "tag-index", name = ["enabled"], havingValue = "true")
+class PostTagIndex(
+    private val postRepository: PostRepository,
+    private val transactionOperations: TransactionOperations,
+) {
+    private val lock = ReentrantReadWriteLock()
+    private val ordinals = HashMap<UUID, Int>()
+    private val postIds = ArrayList<UUID?>()
+    private val postTags = ArrayList<Set<String>>()
+    private val tagBitmaps = HashMap<String, RoaringBitmap>()
+    private val pendingChanges = ArrayList<() -> Unit>()
+
+    @Volatile
+    private var ready = false
+
+    @EventListener(ApplicationReadyEvent::class)
+    fun initialize() {
+        transactionOperations.executeWithoutResult {
+            postRepository
+                .findPageAfter(null, null, Int.MAX_VALUE, withContent = false, withTags = true)
+                .use { posts ->
+                    lock.write {
+                        for (post in posts) {
+                            appendPost(post.id, post.tags.orEmpty())
+                        }
+                        for (change in pendingChanges) {
+                            change()
+                        }
+                        pendingChanges.clear()
+                        ready = true
+                    }
+                }
+        }
+        logger.info("Tag index is built: {} posts, {} tags", ordinals.size, tagBitmaps.size)
+    }
+
+    /**
+     * @param tags  the tag names all of which the posts must have
+     * @param after the ID of the post after which the page starts, or `null` to start from the first post
+     * @param limit the maximum number of post IDs to return
+     * @return IDs of the matching posts in the `created_date_time, id` order, or `null` if the index cannot answer
+     */
+    fun findPostIdsAfter(tags: Collection<String>, after: UUID?, limit: Int): List<UUID>? {
+        if (!ready) {
+            return null
+        }
+        return lock.read { findPostIdsAfterUnderLock(tags, after, limit) }
+    }
+
+    /**
+     * @param tags   the tag names all of which the posts must have
+     * @param offset the number of matching posts to skip
+     * @param limit  the maximum number of post IDs to return
+     * @return IDs of the matching posts in the `created_date_time, id` order, or `null` if the index cannot answer
+     */
+    fun findPostIds(tags: Collection<String>, offset: Long, limit: Int): List<UUID>? {
+        if (!ready) {
+            return null
+        }
+        return lock.read { findPostIdsUnderLock(tags, offset, limit) }
+    }
+
+    /**
+     * @param tags the tag names all of which the posts must have
+     * @return number of the matching posts, or `null` if the index cannot answer
+     */
+    fun countPosts(tags: Collection<String>): Long? {
+        if (!ready) {
+            return null
+        }
+        return lock.read { intersect(tags).longCardinality }
+    }
+
+    /**
+     * Replaces tags of the post once the current transaction is committed, appending the post to the end of the
+     * ordering if it is not indexed yet.
+     */
+    fun onPostSaved(postId: UUID, tags: Collection<String>) {
+        afterCommit {
+            applyOrBuffer {
+                when (val ordinal = ordinals[postId]) {
+                    null -> appendPost(postId, tags)
+                    else -> {
+                        removeOrdinal(ordinal)
+                        addOrdinal(ordinal, tags)
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the post from the index once the current transaction is committed.
+     */
+    fun onPostDeleted(postId: UUID) {
+        afterCommit {
+            applyOrBuffer {
+                ordinals.remove(postId)?.let {
+                    removeOrdinal(it)
+                    postIds[it] = null
+                }
+            }
+        }
+    }
+
+    private fun findPostIdsAfterUnderLock(tags: Collection<String>, after: UUID?, limit: Int): List<UUID>? {
+        val from = when (after) {
+            null -> 0
+            else -> ordinals[after]?.plus(1) ?: return null
+        }
+        val iterator = intersect(tags).intIterator.apply { advanceIfNeeded(from) }
+
+        return collectPostIds(limit) { if (iterator.hasNext()) iterator.next() else null }
+    }
+
+    private fun findPostIdsUnderLock(tags: Collection<String>, offset: Long, limit: Int): List<UUID> {
+        val matching = intersect(tags)
+
+        if (offset >= matching.longCardinality) {
+            return emptyList()
+        }
+        val iterator = matching.intIterator.apply { advanceIfNeeded(matching.select(offset.toInt())) }
+
+        return collectPostIds(limit) { if (iterator.hasNext()) iterator.next() else null }
+    }
+
+    private fun intersect(tags: Collection<String>): RoaringBitmap {
+        val bitmaps = tags.toSet().map { tagBitmaps[it] ?: return RoaringBitmap() }
+        return when (bitmaps.size) {
+            0 -> RoaringBitmap()
+            1 -> bitmaps.single()
+            else -> FastAggregation.and(bitmaps.iterator())
+        }
+    }
+
+    private inline fun collectPostIds(limit: Int, nextOrdinal: () -> Int?): List<UUID> {
+        val result = ArrayList<UUID>(minOf(limit, DEFAULT_PAGE_CAPACITY))
+        while (result.size < limit) {
+            val ordinal = nextOrdinal() ?: break
+            postIds[ordinal]?.let(result::add)
+        }
+        return result
+    }
+
+    private fun appendPost(postId: UUID, tags: Collection<String>) {
+        val ordinal = postIds.size
+        postIds.add(postId)
+        postTags.add(emptySet())
+        ordinals[postId] = ordinal
+        addOrdinal(ordinal, tags)
+    }
+
+    private fun addOrdinal(ordinal: Int, tags: Collection<String>) {
+        val tagSet = tags.toSet()
+        for (tag in tagSet) {
+            tagBitmaps.getOrPut(tag, ::RoaringBitmap).add(ordinal)
+        }
+        postTags[ordinal] = tagSet
+    }
+
+    /**
+     * Removes the ordinal only from the bitmaps of the tags the post had, instead of scanning every tag bitmap under
+     * the write lock.
+     */
+    private fun removeOrdinal(ordinal: Int) {
+        for (tag in postTags[ordinal]) {
+            val bitmap = tagBitmaps[tag] ?: continue
+            if (bitmap.checkedRemove(ordinal) && bitmap.isEmpty) {
+                tagBitmaps.remove(tag)
+            }
+        }
+        postTags[ordinal] = emptySet()
+    }
+
+    private fun applyOrBuffer(change: () -> Unit) {
+        lock.write {
+            if (ready) {
+                change()
+            } else {
+                pendingChanges += change
+            }
+        }
+    }
+
+    private fun afterCommit(action: () -> Unit) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                object : TransactionSynchronization {
+                    override fun afterCommit() = action()
+                }
+            )
+        } else {
+            action()
+        }
+    }
+
+    companion object {
+        private const val DEFAULT_PAGE_CAPACITY = 100
+        private val logger = LoggerFactory.getLogger(this::class.java.enclosingClass)
+    }
+}
@@ -0,0 +1,52 @@
+package com.github.arhor.aws.graphql.federation.posts.service.impl
+
+import com.github.arhor.aws.graphql.federation.posts.data.entity.projection.PostProjection
+import java.time.LocalDateTime
+import java.time.format.DateTimeParseException
+import java.util.Base64
+import java.util.UUID
+
+/**
+ * Position of a post in the `created_date_time, id` ordering, exposed to the clients as an opaque string.
+ *
+ * @property createdDateTime the creation date-time of the post
+ * @property id              the ID of the post
+ */
+internal data class PostsCursor(val createdDateTime: LocalDateTime, val id: UUID) {
+
+    fun encode(): String {
+        val value = "$createdDateTime$SEPARATOR$id"
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.toByteArray(Charsets.UTF_8))
+    }
+
+    companion object {
+        private const val SEPARATOR = "|"
+
+        fun of(projection: PostProjection): PostsCursor =
+            PostsCursor(
+                createdDateTime = requireNotNull(projection.createdDateTime) { "Post creation date-time is missing" },
+                id = projection.id,
+            )
+
+        fun decode(value: String?): PostsCursor? {
+            if (value == null) {
+                return null
+            }
+            return try {
+                val decoded = String(Base64.getUrlDecoder().decode(value), Charsets.UTF_8)
+                val separatorIndex = decoded.indexOf(SEPARATOR)
+
+                PostsCursor(
+                    createdDateTime = LocalDateTime.parse(decoded.substring(0, separatorIndex)),
+                    id = UUID.fromString(decoded.substring(separatorIndex + 1)),
+                )
+            } catch (e: IllegalArgumentException) {
+                throw IllegalArgumentException("Invalid posts cursor: $value", e)
+            } catch (e: IndexOutOfBoundsException) {
+                throw IllegalArgumentException("Invalid posts cursor: $value", e)
+            } catch (e: DateTimeParseException) {
+                throw IllegalArgumentException("Invalid posts cursor: $value", e)
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.github.arhor.aws.graphql.federation.posts.service.impl
+
+import com.github.arhor.aws.graphql.federation.posts.data.repository.PostRepository
+import com.github.arhor.aws.graphql.federation.posts.data.repository.UserRepresentationRepository
+import com.github.arhor.aws.graphql.federation.starter.core.cascade.CascadeTaskHandler
+import org.springframework.stereotype.Component
+import java.util.UUID
+
+/**
+ * Removes the deleted user from their posts chunk by chunk, and then deletes the user itself.
+ */
+@Component
+class UserPostsAnonymizationHandler(
+    private val postRepository: PostRepository,
+    private val userRepository: UserRepresentationRepository,
+) : CascadeTaskHandler {
+
+    override val type: String
+        get() = TYPE
+
+    override fun processChunk(targetId: UUID, chunkSize: Int): Int =
+        postRepository.anonymizeNextChunkByUserId(targetId, chunkSize)
+
+    override fun complete(targetId: UUID) {
+        userRepository.deleteById(targetId)
+    }
+
+    companion object {
+        const val TYPE = "USER_POSTS_ANONYMIZATION"
+    }
+}
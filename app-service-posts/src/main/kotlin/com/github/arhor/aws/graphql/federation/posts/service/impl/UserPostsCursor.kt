@@ -0,0 +1,56 @@
+package com.github.arhor.aws.graphql.federation.posts.service.impl
+
+import com.github.arhor.aws.graphql.federation.posts.data.entity.projection.PostProjection
+import java.time.LocalDateTime
+import java.time.format.DateTimeParseException
+import java.util.Base64
+import java.util.UUID
+
+/**
+ * Position of a post in the `created_date_time DESC, id` ordering of the user posts, exposed to the clients as an
+ * opaque string. Carries the ID of the post author, so that the cursor is applied only to the posts of that user.
+ *
+ * @property userId          the ID of the user the post belongs to
+ * @property createdDateTime the creation date-time of the post
+ * @property id              the ID of the post
+ */
+internal data class UserPostsCursor(val userId: UUID, val createdDateTime: LocalDateTime, val id: UUID) {
+
+    fun encode(): String {
+        val value = "$userId$SEPARATOR$createdDateTime$SEPARATOR$id"
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.toByteArray(Charsets.UTF_8))
+    }
+
+    companion object {
+        private const val SEPARATOR = "|"
+
+        fun of(projection: PostProjection): UserPostsCursor =
+            UserPostsCursor(
+                userId = requireNotNull(projection.userId) { "Post author is missing" },
+                createdDateTime = requireNotNull(projection.createdDateTime) { "Post creation date-time is missing" },
+                id = projection.id,
+            )
+
+        fun decode(value: String?): UserPostsCursor? {
+            if (value == null) {
+                return null
+            }
+            return try {
+                val decoded = String(Base64.getUrlDecoder().decode(value), Charsets.UTF_8)
+                val parts = decoded.split(SEPARATOR)
+
+                require(parts.size == 3) { "Unexpected number of cursor parts: ${parts.size}" }
+
+                UserPostsCursor(
+                    userId = UUID.fromString(parts[0]),
+                    createdDateTime = LocalDateTime.parse(parts[1]),
+                    id = UUID.fromString(parts[2]),
+                )
+            } catch (e: IllegalArgumentException) {
+                throw IllegalArgumentException("Invalid user posts cursor: $value", e)
+            } catch (e: DateTimeParseException) {
+                throw IllegalArgumentException("Invalid user posts cursor: $value", e)
+            }
+        }
+    }
+}
@@ -11,10 +11,13 @@ import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.Use
 import com.github.arhor.aws.graphql.federation.posts.service.UserRepresentationService
 import com.github.arhor.aws.graphql.federation.posts.util.Caches
 import com.github.arhor.aws.graphql.federation.posts.util.get
+import com.github.arhor.aws.graphql.federation.starter.core.cascade.CascadeEngine
+import com.github.arhor.aws.graphql.federation.starter.core.idempotency.IdempotencyStore
 import com.github.arhor.aws.graphql.federation.starter.tracing.Trace
 import jakarta.annotation.PostConstruct
 import org.springframework.cache.Cache
 import org.springframework.cache.CacheManager
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator
 import org.springframework.data.repository.findByIdOrNull
 import org.springframework.stereotype.Service
 import java.util.UUID
@@ -23,14 +26,17 @@ import java.util.UUID
 @Service
 class UserRepresentationServiceImpl(
     private val cacheManager: CacheManager,
+    private val idempotencyStore: IdempotencyStore,
+    private val cascadeEngine: CascadeEngine,
     private val userRepository: UserRepresentationRepository,
 ) : UserRepresentationService {
 
-    private lateinit var cache: Cache
+    private lateinit var usersCache: Cache
 
     @PostConstruct
     fun initialize() {
-        cache = cacheManager[Caches.IDEMPOTENT_ID_SET]
+        // entries must not be updated before the representation change is committed
+        usersCache = TransactionAwareCacheDecorator(cacheManager[Caches.USER_REPRESENTATIONS])
     }
 
     override fun findUsersRepresentationsInBatch(userIds: Set<UUID>): Map<UUID, User> {
@@ -38,6 +44,9 @@ class UserRepresentationServiceImpl(
         val users = userRepository.findAllById(userIds)
 
         for (user in users) {
+            if (user.deleted) {
+                continue
+            }
             result[user.id] = User(
                 id = user.id,
                 postsDisabled = user.features.check(Feature.POSTS_DISABLED),
@@ -50,19 +59,40 @@ class UserRepresentationServiceImpl(
     }
 
     override fun createUserRepresentation(userId: UUID, idempotencyKey: UUID) {
-        cache.get(idempotencyKey) {
+        idempotencyStore.executeOnce(idempotencyKey) {
             userRepository.save(
                 UserRepresentation(
                     id = userId,
                     shouldBePersisted = true,
                 )
-            )
+            ).also { usersCache.put(userId, it) }
         }
     }
 
     override fun deleteUserRepresentation(userId: UUID, idempotencyKey: UUID) {
-        cache.get(idempotencyKey) {
-            userRepository.deleteById(userId)
+        idempotencyStore.executeOnce(idempotencyKey) {
+            userRepository.markDeletedByIdIn(setOf(userId))
+            cascadeEngine.schedule(UserPostsAnonymizationHandler.TYPE, userId)
+            usersCache.evict(userId)
+        }
+    }
+
+    override fun createUserRepresentations(userIdsByIdempotencyKey: Map<UUID, UUID>) {
+        idempotencyStore.executeOnce(userIdsByIdempotencyKey.keys) { idempotencyKeys ->
+            val userIds = idempotencyKeys.mapTo(HashSet()) { userIdsByIdempotencyKey.getValue(it) }
+
+            userRepository.insertAllIgnoringExisting(userIds)
+            userIds.forEach(usersCache::evict)
+        }
+    }
+
+    override fun deleteUserRepresentations(userIdsByIdempotencyKey: Map<UUID, UUID>) {
+        idempotencyStore.executeOnce(userIdsByIdempotencyKey.keys) { idempotencyKeys ->
+            val userIds = idempotencyKeys.mapTo(HashSet()) { userIdsByIdempotencyKey.getValue(it) }
+
+            userRepository.markDeletedByIdIn(userIds)
+            cascadeEngine.schedule(UserPostsAnonymizationHandler.TYPE, userIds)
+            userIds.forEach(usersCache::evict)
         }
     }
 
@@ -72,6 +102,7 @@ class UserRepresentationServiceImpl(
 
         val user =
             userRepository.findByIdOrNull(userId)
+                ?.takeUnless { it.deleted }
                 ?: throw EntityNotFoundException(
                     USER.TYPE_NAME,
                     "${USER.Id} = $userId",
@@ -85,7 +116,7 @@ class UserRepresentationServiceImpl(
                 } else {
                     user.copy(features = user.features - Feature.POSTS_DISABLED)
                 }
-            )
+            ).also { usersCache.put(userId, it) }
             true
         } else {
             false
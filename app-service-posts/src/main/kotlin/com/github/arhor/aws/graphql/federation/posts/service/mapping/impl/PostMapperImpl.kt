@@ -37,7 +37,8 @@ class PostMapperImpl : PostMapper {
             id = projection.id,
             userId = projection.userId,
             title = projection.title,
-            content = projection.content,
+            content = projection.content.orEmpty(),
+            tags = projection.tags,
         )
     }
 
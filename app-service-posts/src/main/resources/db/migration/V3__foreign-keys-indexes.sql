@@ -0,0 +1,5 @@
+CREATE INDEX IF NOT EXISTS "IDX__posts__user_id"
+    ON "posts" ("user_id");
+
+CREATE INDEX IF NOT EXISTS "IDX__posts_has_tags__tag_id"
+    ON "posts_has_tags" ("tag_id");
@@ -0,0 +1,2 @@
+CREATE INDEX IF NOT EXISTS "IDX__posts__created_date_time__id"
+    ON "posts" ("created_date_time", "id");
@@ -0,0 +1,14 @@
+CREATE OR REPLACE FUNCTION notify_outbox_messages_inserted() RETURNS TRIGGER AS
+$$
+BEGIN
+    -- notifications with the same payload are collapsed within a transaction, so there is one per message type
+    PERFORM pg_notify('outbox_messages', NEW.type);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER TRG__outbox_messages__notify
+    AFTER INSERT
+    ON "outbox_messages"
+    FOR EACH ROW
+EXECUTE FUNCTION notify_outbox_messages_inserted();
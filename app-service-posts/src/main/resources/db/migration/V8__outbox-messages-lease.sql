@@ -0,0 +1,5 @@
+ALTER TABLE "outbox_messages"
+    ADD COLUMN IF NOT EXISTS "locked_until" TIMESTAMP NULL;
+
+CREATE INDEX IF NOT EXISTS IDX__outbox_messages__type__created_date_time
+    ON "outbox_messages" ("type", "created_date_time" ASC);
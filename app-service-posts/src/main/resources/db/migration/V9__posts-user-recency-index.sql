@@ -0,0 +1,4 @@
+CREATE INDEX IF NOT EXISTS "IDX__posts__user_id__created_date_time__id"
+    ON "posts" ("user_id", "created_date_time" DESC, "id");
+
+DROP INDEX IF EXISTS "IDX__posts__user_id";
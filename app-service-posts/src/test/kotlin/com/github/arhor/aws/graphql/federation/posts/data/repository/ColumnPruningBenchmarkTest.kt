@@ -0,0 +1,113 @@
+package com.github.arhor.aws.graphql.federation.posts.data.repository
+
+import com.sun.management.ThreadMXBean as AllocationsMXBean
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.core.io.ClassPathResource
+import org.springframework.core.io.support.PropertiesLoaderUtils
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate
+import java.lang.management.ManagementFactory
+
+/**
+ * Compares the amount of data transferred from the database and allocated on the heap fetching a page of posts
+ * with and without `content` column, which is pruned when the client does not request it.
+ */
+class ColumnPruningBenchmarkTest : RepositoryTestBase() {
+
+    @Autowired
+    private lateinit var jdbcTemplate: NamedParameterJdbcTemplate
+
+    @Autowired
+    private lateinit var postRepository: PostRepository
+
+    @BeforeEach
+    fun setUp() {
+        jdbcTemplate.update(
+            """
+            INSERT INTO user_representations (id, features)
+                 VALUES (CAST('00000000-0000-0000-0001-000000000001' AS UUID), 0)
+            """,
+            emptyMap<String, Any>()
+        )
+        jdbcTemplate.update(
+            """
+            INSERT INTO posts (id, user_id, title, content, version, created_date_time)
+                 SELECT CAST('00000000-0000-0000-0002-' || LPAD(TO_HEX(i), 12, '0') AS UUID)
+                      , CAST('00000000-0000-0000-0001-000000000001' AS UUID)
+                      , 'title-' || i
+                      , RPAD('content-' || i, :contentLength, '-')
+                      , 0
+                      , TIMESTAMP '2024-01-01' + i * INTERVAL '1 minute'
+                   FROM generate_series(1, :pageSize) AS i
+            """,
+            mapOf("contentLength" to CONTENT_LENGTH, "pageSize" to PAGE_SIZE)
+        )
+    }
+
+    @Test
+    fun `should transfer and allocate less data fetching posts page without content`() {
+        // When
+        val full = measure(withContent = true)
+        val pruned = measure(withContent = false)
+
+        // Then
+        logger.info("Posts page with content: {}", full)
+        logger.info("Posts page without content: {}", pruned)
+
+        assertThat(pruned.wireBytes)
+            .isLessThan(full.wireBytes / 10)
+        assertThat(pruned.heapBytes)
+            .isLessThan(full.heapBytes)
+    }
+
+    private fun measure(withContent: Boolean): Measurement {
+        val params = mapOf(
+            "limit" to PAGE_SIZE,
+            "offset" to 0L,
+            "withContent" to withContent,
+            "withTags" to false,
+        )
+        val wireBytes = jdbcTemplate.queryForObject(
+            "SELECT SUM(pg_column_size(q.*)) FROM (${FIND_PAGE_QUERY}) AS q",
+            params,
+            Long::class.java
+        )!!
+
+        // warm-up runs exclude statement preparation and class loading from the measurement
+        repeat(WARM_UP_RUNS) { fetchPage(withContent) }
+
+        val allocations = ManagementFactory.getThreadMXBean() as AllocationsMXBean
+        val threadId = Thread.currentThread().id
+        val allocatedBefore = allocations.getThreadAllocatedBytes(threadId)
+        fetchPage(withContent)
+        val heapBytes = allocations.getThreadAllocatedBytes(threadId) - allocatedBefore
+
+        return Measurement(wireBytes, heapBytes)
+    }
+
+    private fun fetchPage(withContent: Boolean) =
+        postRepository
+            .findPage(PAGE_SIZE, 0, withContent, withTags = false)
+            .use { it.toList() }
+
+    /**
+     * @param wireBytes the size of the rows returned by the database
+     * @param heapBytes the number of bytes allocated by the current thread fetching the rows
+     */
+    private data class Measurement(val wireBytes: Long, val heapBytes: Long)
+
+    companion object {
+        private const val PAGE_SIZE = 100
+        private const val CONTENT_LENGTH = 4096
+        private const val WARM_UP_RUNS = 3
+
+        private val FIND_PAGE_QUERY = PropertiesLoaderUtils
+            .loadProperties(ClassPathResource("META-INF/jdbc-named-queries.properties"))
+            .getProperty("PostProjection.findPage")
+
+        private val logger = LoggerFactory.getLogger(this::class.java.enclosingClass)
+    }
+}
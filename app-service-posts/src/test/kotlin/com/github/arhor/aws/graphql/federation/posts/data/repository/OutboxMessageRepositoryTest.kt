@@ -4,6 +4,7 @@ import com.github.arhor.aws.graphql.federation.posts.data.entity.OutboxMessageEn
 import com.github.arhor.aws.graphql.federation.posts.data.entity.callback.OutboxMessageEntityCallback
 import com.github.arhor.aws.graphql.federation.starter.testing.ZERO_UUID_VAL
 import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.from
 import org.junit.jupiter.api.Test
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.test.context.ContextConfiguration
@@ -15,42 +16,91 @@ class OutboxMessageRepositoryTest : RepositoryTestBase() {
     private lateinit var outboxMessageRepository: OutboxMessageRepository
 
     @Test
-    fun `should deque existing outbox events removing them from the DB`() {
+    fun `should claim oldest outbox messages hiding them from the next claims until the lease expires`() {
         // Given
-        val expectedEventType = "test-event"
         val expectedSizeOfBatch = 5
-        val expectedEventsAtAll = expectedSizeOfBatch * 2
-
-        val outboxEvents = outboxMessageRepository.saveAll(
-            (1..expectedEventsAtAll).map {
-                OutboxMessageEntity(
-                    type = "test-event",
-                    data = emptyMap(),
-                    traceId = ZERO_UUID_VAL,
-                )
-            }
-        )
+        val outboxEvents = createOutboxEvents(num = expectedSizeOfBatch * 2)
 
         // When
-        val allOutboxEventsBefore = outboxMessageRepository.findAll()
-        val outboxEvents1 = outboxMessageRepository.dequeueOldest(expectedEventType, expectedSizeOfBatch)
-        val outboxEvents2 = outboxMessageRepository.dequeueOldest(expectedEventType, expectedSizeOfBatch)
+        val outboxEvents1 = outboxMessageRepository.claimOldest(TEST_EVENT, expectedSizeOfBatch, LEASE_SECONDS)
+        val outboxEvents2 = outboxMessageRepository.claimOldest(TEST_EVENT, expectedSizeOfBatch, LEASE_SECONDS)
+        val outboxEvents3 = outboxMessageRepository.claimOldest(TEST_EVENT, expectedSizeOfBatch, LEASE_SECONDS)
         val allOutboxEventsAfter = outboxMessageRepository.findAll()
 
         // Then
-        assertThat(allOutboxEventsBefore)
-            .containsExactlyElementsOf(outboxEvents)
-
         assertThat(outboxEvents1)
             .hasSize(expectedSizeOfBatch)
+            .doesNotContainAnyElementsOf(outboxEvents2)
 
-        assertThat(outboxEvents2)
-            .hasSize(expectedSizeOfBatch)
+        assertThat(outboxEvents1 + outboxEvents2)
+            .containsExactlyInAnyOrderElementsOf(outboxEvents)
 
-        assertThat(outboxEvents1)
-            .doesNotContainAnyElementsOf(outboxEvents2)
+        assertThat(outboxEvents3)
+            .isEmpty()
 
         assertThat(allOutboxEventsAfter)
-            .isEmpty()
+            .containsExactlyInAnyOrderElementsOf(outboxEvents)
+    }
+
+    @Test
+    fun `should claim outbox messages again once their lease is expired`() {
+        // Given
+        val outboxEvents = createOutboxEvents(num = 3)
+
+        // When
+        val outboxEvents1 = outboxMessageRepository.claimOldest(TEST_EVENT, outboxEvents.size, EXPIRED_LEASE_SECONDS)
+        val outboxEvents2 = outboxMessageRepository.claimOldest(TEST_EVENT, outboxEvents.size, EXPIRED_LEASE_SECONDS)
+
+        // Then
+        assertThat(outboxEvents1)
+            .containsExactlyInAnyOrderElementsOf(outboxEvents)
+
+        assertThat(outboxEvents2)
+            .containsExactlyInAnyOrderElementsOf(outboxEvents)
+    }
+
+    @Test
+    fun `should delete only outbox messages with the given ids`() {
+        // Given
+        val outboxEvents = createOutboxEvents(num = 3)
+
+        // When
+        outboxMessageRepository.deleteAllByIdIn(outboxEvents.take(2).map { it.id!! })
+
+        // Then
+        assertThat(outboxMessageRepository.findAll())
+            .containsExactly(outboxEvents.last())
+    }
+
+    @Test
+    fun `should find backlog depth and oldest message creation time of the given types`() {
+        // Given
+        val outboxEvents = createOutboxEvents(num = 3)
+
+        // When
+        val result = outboxMessageRepository.findBacklogByTypeIn(listOf(TEST_EVENT, "other-test-event"))
+
+        // Then
+        assertThat(result)
+            .singleElement()
+            .returns(TEST_EVENT, from { it.type })
+            .returns(3L, from { it.depth })
+            .returns(outboxEvents.minOf { it.createdDateTime!! }, from { it.oldestCreatedDateTime })
+    }
+
+    private fun createOutboxEvents(num: Int) = outboxMessageRepository.saveAll(
+        (1..num).map {
+            OutboxMessageEntity(
+                type = TEST_EVENT,
+                data = emptyMap(),
+                traceId = ZERO_UUID_VAL,
+            )
+        }
+    ).toList()
+
+    companion object {
+        private const val TEST_EVENT = "test-event"
+        private const val LEASE_SECONDS = 60L
+        private const val EXPIRED_LEASE_SECONDS = -1L
     }
 }
@@ -51,7 +51,7 @@ class PostRepositoryTest : RepositoryTestBase() {
             // When
             val result =
                 postRepository
-                    .findPageByTagsContaining(tags.toSet { it.name }, 20, 0)
+                    .findPageByTagsContaining(tags.toSet { it.name }, 20, 0, withContent = true, withTags = false)
                     .use { it.toList() }
 
             // Then
@@ -71,7 +71,7 @@ class PostRepositoryTest : RepositoryTestBase() {
             // When
             val result =
                 postRepository
-                    .findPageByTagsContaining(tags = emptySet(), limit = 20, offset = 0)
+                    .findPageByTagsContaining(tags = emptySet(), limit = 20, offset = 0, withContent = true, withTags = false)
                     .use { it.toList() }
 
             // Then
@@ -81,6 +81,147 @@ class PostRepositoryTest : RepositoryTestBase() {
         }
     }
 
+    @Nested
+    @DisplayName("PostRepository :: findPageByTagsContaining (optional columns)")
+    inner class FindPageByTagsContainingOptionalColumnsTest {
+        @Test
+        fun `should return list containing expected posts data along with their tags`() {
+            // Given
+            val user = createUser()
+            val tags = createTags("test-1", "test-2", "test-3")
+
+            createPost(user, listOf(tags[0]), 1)
+            createPost(user, listOf(tags[1], tags[2]), 2)
+            val post = createPost(user, tags, 3)
+
+            // When
+            val result =
+                postRepository
+                    .findPageByTagsContaining(setOf("test-1", "test-2"), 20, 0, withContent = true, withTags = true)
+                    .use { it.toList() }
+
+            // Then
+            assertThat(result.map { it.id })
+                .containsExactly(post.id)
+            assertThat(result.single().tags)
+                .containsExactlyInAnyOrder("test-1", "test-2", "test-3")
+        }
+
+        @Test
+        fun `should not fetch content and tags when they are not requested`() {
+            // Given
+            val user = createUser()
+            val tags = createTags("test-1")
+            val post = createPost(user, tags, 1)
+
+            // When
+            val result =
+                postRepository
+                    .findPageByTagsContaining(setOf("test-1"), 20, 0, withContent = false, withTags = false)
+                    .use { it.toList() }
+
+            // Then
+            assertThat(result)
+                .containsExactly(post.toProjection().copy(content = null))
+        }
+    }
+
+    @Nested
+    @DisplayName("PostRepository :: findPage")
+    inner class FindPageTest {
+        @Test
+        fun `should return page of posts with only requested optional columns`() {
+            // Given
+            val user = createUser()
+            val tags = createTags("test-1")
+            val post = createPost(user, tags, 1)
+
+            // When
+            val result =
+                postRepository
+                    .findPage(limit = 20, offset = 0, withContent = false, withTags = true)
+                    .use { it.toList() }
+
+            // Then
+            assertThat(result)
+                .containsExactly(post.toProjection().copy(content = null, tags = listOf("test-1")))
+        }
+    }
+
+    @Nested
+    @DisplayName("PostRepository :: findPageAfter")
+    inner class FindPageAfterTest {
+        @Test
+        fun `should return all posts page by page in creation order without duplicates`() {
+            // Given
+            val user = createUser()
+            val posts = createPosts(user, num = 5)
+
+            // When
+            val page1 =
+                postRepository
+                    .findPageAfter(null, null, limit = 3, withContent = false, withTags = false)
+                    .use { it.toList() }
+            val last = page1.last()
+            val page2 =
+                postRepository
+                    .findPageAfter(last.createdDateTime, last.id, limit = 3, withContent = false, withTags = false)
+                    .use { it.toList() }
+
+            // Then
+            assertThat(page1)
+                .hasSize(3)
+                .allSatisfy { assertThat(it.createdDateTime).isNotNull() }
+            assertThat(page2)
+                .hasSize(2)
+            assertThat((page1 + page2).map { it.id })
+                .doesNotHaveDuplicates()
+                .containsExactlyInAnyOrderElementsOf(posts.map { it.id })
+            assertThat((page1 + page2).map { it.createdDateTime })
+                .isSorted()
+        }
+    }
+
+    @Nested
+    @DisplayName("PostRepository :: findPageAfterByTagsContaining")
+    inner class FindPageAfterByTagsContainingTest {
+        @Test
+        fun `should return only posts containing all required tags after passed cursor`() {
+            // Given
+            val user = createUser()
+            val tags = createTags("test-1", "test-2")
+
+            createPost(user, listOf(tags[0]), 1)
+            val post2 = createPost(user, tags, 2)
+            val post3 = createPost(user, tags, 3)
+
+            val first =
+                postRepository
+                    .findPageAfterByTagsContaining(setOf("test-1", "test-2"), null, null, 1, true, true)
+                    .use { it.toList() }
+                    .single()
+
+            // When
+            val result =
+                postRepository
+                    .findPageAfterByTagsContaining(
+                        tags = setOf("test-1", "test-2"),
+                        afterCreatedDateTime = first.createdDateTime,
+                        afterId = first.id,
+                        limit = 20,
+                        withContent = true,
+                        withTags = true,
+                    )
+                    .use { it.toList() }
+
+            // Then
+            assertThat(listOf(first.id) + result.map { it.id })
+                .containsExactlyInAnyOrder(post2.id, post3.id)
+            assertThat(result.single().tags)
+                .containsExactlyInAnyOrder("test-1", "test-2")
+        }
+    }
+
     @Nested
     @DisplayName("PostRepository :: countByTagsContaining")
     inner class CountByTagsContainingTest {
@@ -119,21 +260,88 @@ class PostRepositoryTest : RepositoryTestBase() {
     }
 
     @Nested
-    @DisplayName("PostRepository :: findAllByUserIdIn")
-    inner class FindAllByUserIdInTest {
+    @DisplayName("PostRepository :: findPageByUserIdIn")
+    inner class FindPageByUserIdInTest {
         @Test
-        fun `should return list containing expected posts data`() {
+        fun `should return list containing the most recent posts of the user first`() {
             // Given
             val user = createUser()
-            val expectedPosts = createPosts(user).map { it.toProjection() }
+            val expectedPosts =
+                (1L..3L)
+                    .map { createPost(user, num = it) }
+                    .sortedByDescending { it.createdDateTime }
+                    .map { it.toProjection() }
 
             // When
-            val result = postRepository.findAllByUserIdIn(expectedPosts.map { it.userId!! })
+            val result = postRepository.findPageByUserIdIn(listOf(user.id), null, null, limit = 20, withContent = true)
 
             // Then
             assertThat(result)
-                .isNotNull()
-                .isNotEmpty()
+                .allSatisfy { assertThat(it.createdDateTime).isNotNull() }
+                .usingRecursiveFieldByFieldElementComparatorIgnoringFields(PostProjection::createdDateTime.name)
+                .containsExactlyElementsOf(expectedPosts)
+        }
+
+        @Test
+        fun `should return at most limit posts per user starting after the given position`() {
+            // Given
+            val user = createUser()
+            val expectedPosts =
+                (1L..5L)
+                    .map { createPost(user, num = it) }
+                    .sortedByDescending { it.createdDateTime }
+                    .map { it.toProjection() }
+
+            // When
+            val firstPage = postRepository.findPageByUserIdIn(listOf(user.id), null, null, 2, withContent = true)
+            val last = firstPage.last()
+            val nextPage = postRepository.findPageByUserIdIn(listOf(user.id), last.createdDateTime, last.id, 2, true)
+
+            // Then
+            assertThat(firstPage)
+                .usingRecursiveFieldByFieldElementComparatorIgnoringFields(PostProjection::createdDateTime.name)
+                .containsExactlyElementsOf(expectedPosts.subList(0, 2))
+            assertThat(nextPage)
+                .usingRecursiveFieldByFieldElementComparatorIgnoringFields(PostProjection::createdDateTime.name)
+                .containsExactlyElementsOf(expectedPosts.subList(2, 4))
+        }
+
+        @Test
+        fun `should continue after the given position even when the post at it was deleted`() {
+            // Given
+            val user = createUser()
+            val expectedPosts =
+                (1L..3L)
+                    .map { createPost(user, num = it) }
+                    .sortedByDescending { it.createdDateTime }
+                    .map { it.toProjection() }
+
+            val firstPage = postRepository.findPageByUserIdIn(listOf(user.id), null, null, 1, withContent = true)
+            val last = firstPage.last()
+
+            postRepository.deleteById(last.id)
+
+            // When
+            val result = postRepository.findPageByUserIdIn(listOf(user.id), last.createdDateTime, last.id, 20, true)
+
+            // Then
+            assertThat(result)
+                .usingRecursiveFieldByFieldElementComparatorIgnoringFields(PostProjection::createdDateTime.name)
+                .containsExactlyElementsOf(expectedPosts.subList(1, 3))
+        }
+
+        @Test
+        fun `should return posts without content when it is not requested`() {
+            // Given
+            val user = createUser()
+            val expectedPosts = createPosts(user).map { it.toProjection().copy(content = null) }
+
+            // When
+            val result = postRepository.findPageByUserIdIn(listOf(user.id), null, null, 20, withContent = false)
+
+            // Then
+            assertThat(result)
+                .usingRecursiveFieldByFieldElementComparatorIgnoringFields(PostProjection::createdDateTime.name)
                 .containsExactlyInAnyOrderElementsOf(expectedPosts)
         }
 
@@ -144,7 +352,7 @@ class PostRepositoryTest : RepositoryTestBase() {
             createPosts(user)
 
             // When
-            val result = postRepository.findAllByUserIdIn(emptyList())
+            val result = postRepository.findPageByUserIdIn(emptyList(), null, null, limit = 20, withContent = true)
 
             // Then
             assertThat(result)
@@ -153,17 +361,13 @@ class PostRepositoryTest : RepositoryTestBase() {
         }
 
         @Test
-        fun `should return empty list when offset is greater then number of existing posts`() {
+        fun `should return empty list when there are no posts of the given users`() {
             // Given
-            userRepository.save(
-                UserRepresentation(
-                    id = USER_ID,
-                    shouldBePersisted = true,
-                )
-            ).also(::createPosts)
+            val user = createUser()
+            createPosts(user)
 
             // When
-            val result = postRepository.findAllByUserIdIn(listOf(OMNI_UUID_VAL))
+            val result = postRepository.findPageByUserIdIn(listOf(OMNI_UUID_VAL), null, null, 20, withContent = true)
 
             // Then
             assertThat(result)
@@ -172,6 +376,27 @@ class PostRepositoryTest : RepositoryTestBase() {
         }
     }
 
+    @Nested
+    @DisplayName("PostRepository :: anonymizeNextChunkByUserId")
+    inner class AnonymizeNextChunkByUserIdTest {
+        @Test
+        fun `should remove the given user from at most limit posts`() {
+            // Given
+            val user = createUser()
+            createPosts(user, num = 3)
+
+            // When
+            val chunks = List(3) { postRepository.anonymizeNextChunkByUserId(user.id, 2) }
+
+            // Then
+            assertThat(chunks)
+                .containsExactly(2, 1, 0)
+
+            assertThat(postRepository.findAll().map { it.userId })
+                .containsOnlyNulls()
+        }
+    }
+
     private fun createUser() = userRepository.save(
         UserRepresentation(
             id = USER_ID,
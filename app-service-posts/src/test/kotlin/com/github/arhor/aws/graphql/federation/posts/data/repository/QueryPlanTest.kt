@@ -0,0 +1,186 @@
+package com.github.arhor.aws.graphql.federation.posts.data.repository
+
+import com.github.arhor.aws.graphql.federation.posts.data.entity.callback.OutboxMessageEntityCallback
+import com.github.arhor.aws.graphql.federation.posts.data.entity.callback.PostEntityCallback
+import com.github.arhor.aws.graphql.federation.posts.data.entity.callback.TagEntityCallback
+import com.github.arhor.aws.graphql.federation.starter.testing.ConfigureQueryPlanGuard
+import com.github.arhor.aws.graphql.federation.starter.testing.QueryPlanGuard
+import com.github.arhor.aws.graphql.federation.starter.testing.QueryPlanRules
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.DynamicTest
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestFactory
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.test.context.ContextConfiguration
+import java.time.LocalDateTime
+import java.util.UUID
+
+@ContextConfiguration(
+    classes = [
+        ConfigureQueryPlanGuard::class,
+        OutboxMessageEntityCallback::class,
+        PostEntityCallback::class,
+        TagEntityCallback::class,
+    ]
+)
+class QueryPlanTest : RepositoryTestBase() {
+
+    @Autowired
+    private lateinit var queryPlanGuard: QueryPlanGuard
+
+    @Autowired
+    private lateinit var postRepository: PostRepository
+
+    @Autowired
+    private lateinit var tagRepository: TagRepository
+
+    @BeforeEach
+    fun setUp() {
+        // each user has 10 posts, each tag is assigned to 2% of posts, each post has 2 tags
+        queryPlanGuard.seed(
+            RULES,
+            """
+            INSERT INTO user_representations (id, features)
+                 SELECT CAST('00000000-0000-0000-0001-' || LPAD(TO_HEX(i), 12, '0') AS UUID), 0
+                   FROM generate_series(1, :volume / 10) AS i
+            """,
+            """
+            INSERT INTO posts (id, user_id, title, content, version, created_date_time)
+                 SELECT CAST('00000000-0000-0000-0002-' || LPAD(TO_HEX(i), 12, '0') AS UUID)
+                      , CAST('00000000-0000-0000-0001-' || LPAD(TO_HEX(i % (:volume / 10) + 1), 12, '0') AS UUID)
+                      , 'title-' || i
+                      , 'content-' || i
+                      , 0
+                      , TIMESTAMP '2024-01-01' + i * INTERVAL '1 minute'
+                   FROM generate_series(1, :volume) AS i
+            """,
+            """
+            INSERT INTO tags (id, name)
+                 SELECT CAST('00000000-0000-0000-0003-' || LPAD(TO_HEX(i), 12, '0') AS UUID)
+                      , 'tag-' || i
+                   FROM generate_series(1, :volume / 100) AS i
+            """,
+            """
+            INSERT INTO posts_has_tags (post_id, tag_id)
+                 SELECT CAST('00000000-0000-0000-0002-' || LPAD(TO_HEX(i), 12, '0') AS UUID)
+                      , CAST('00000000-0000-0000-0003-' || LPAD(TO_HEX((i + j) % (:volume / 100) + 1), 12, '0') AS UUID)
+                   FROM generate_series(1, :volume) AS i
+             CROSS JOIN generate_series(0, 1) AS j
+            """,
+            """
+            INSERT INTO outbox_messages (id, type, data, trace_id, created_date_time)
+                 SELECT CAST('00000000-0000-0000-0004-' || LPAD(TO_HEX(i), 12, '0') AS UUID)
+                      , 'test-event-' || (i % 20)
+                      , CAST('{}' AS JSONB)
+                      , CAST('00000000-0000-0000-0000-000000000000' AS UUID)
+                      , TIMESTAMP '2024-01-01' + i * INTERVAL '1 second'
+                   FROM generate_series(1, :volume) AS i
+            """,
+        )
+    }
+
+    @TestFactory
+    fun `should use efficient plans for all named queries`(): List<DynamicTest> {
+        val userIds = ids(kind = 1, 1, 2, 3)
+        val postIds = ids(kind = 2, 1, 2, 3)
+        val tags = listOf("tag-1", "tag-2")
+
+        return queryPlanGuard.verifyNamedQueries(
+            params = mapOf(
+                "TagEntity.findAllByPostIdIn" to mapOf("postIds" to postIds),
+                "TagEntity.upsertAllByNameIn" to mapOf("names" to tags + "tag-new"),
+                "PostProjection.findPageByUserIdIn" to mapOf(
+                    "userIds" to userIds,
+                    "afterCreatedDateTime" to LocalDateTime.parse("2024-01-01T00:10:00"),
+                    "afterId" to postIds.first(),
+                    "limit" to 20,
+                    "withContent" to true,
+                ),
+                "PostProjection.findPage" to mapOf(
+                    "limit" to 20,
+                    "offset" to 0L,
+                    "withContent" to true,
+                    "withTags" to true,
+                ),
+                "PostProjection.findPageByTagsContaining" to mapOf(
+                    "tags" to tags,
+                    "limit" to 20,
+                    "offset" to 0L,
+                    "withContent" to true,
+                    "withTags" to true,
+                ),
+                "PostProjection.findPageAfter" to mapOf(
+                    "afterCreatedDateTime" to LocalDateTime.parse("2024-01-01T00:10:00"),
+                    "afterId" to postIds.first(),
+                    "limit" to 21,
+                    "withContent" to true,
+                    "withTags" to true,
+                ),
+                "PostProjection.findPageAfterByTagsContaining" to mapOf(
+                    "tags" to tags,
+                    "afterCreatedDateTime" to LocalDateTime.parse("2024-01-01T00:10:00"),
+                    "afterId" to postIds.first(),
+                    "limit" to 21,
+                    "withContent" to true,
+                    "withTags" to true,
+                ),
+                "PostProjection.findAllByIdIn" to mapOf("ids" to postIds, "withContent" to true, "withTags" to true),
+                "PostProjection.countByTagsContaining" to mapOf("tags" to tags),
+                "OutboxMessageEntity.claimOldest" to mapOf(
+                    "messageType" to "test-event-1",
+                    "messagesNum" to 50,
+                    "leaseSeconds" to 60L,
+                ),
+                "OutboxMessageEntity.deleteAllByIdIn" to mapOf("ids" to postIds),
+                "OutboxBacklogProjection.findAllByTypeIn" to mapOf("types" to listOf("test-event-1")),
+                "UserRepresentation.insertAllIgnoringExisting" to mapOf("ids" to userIds),
+                "UserRepresentation.markDeletedByIdIn" to mapOf("ids" to userIds),
+                "PostEntity.anonymizeNextChunkByUserId" to mapOf("userId" to userIds.first(), "limit" to 500),
+            ),
+            rules = RULES,
+        )
+    }
+
+    @Test
+    fun `should use efficient plans for derived queries`() {
+        // Given
+        val postId = ids(kind = 2, 1).first()
+
+        // When
+        val statements = queryPlanGuard.captureStatements {
+            postRepository.findById(postId)
+            tagRepository.findAllByNameIn(listOf("tag-1", "tag-2"))
+        }
+
+        // Then
+        for (statement in statements) {
+            queryPlanGuard.verifyStatement(statement.sql, statement, RULES)
+        }
+    }
+
+    @Test
+    fun `should load a page of posts with a single statement regardless of the page size`() {
+        // When
+        val statements = queryPlanGuard.captureStatements {
+            postRepository.findPage(limit = 101, offset = 0, withContent = true, withTags = true).use { it.count() }
+        }
+
+        // Then
+        assertThat(statements)
+            .hasSize(1)
+    }
+
+    /**
+     * @param kind    the kind of seeded entity: 1 - user, 2 - post, 3 - tag
+     * @param numbers the ordinal numbers of seeded entities
+     * @return identifiers of the seeded entities
+     */
+    private fun ids(kind: Long, vararg numbers: Long): List<UUID> =
+        numbers.map { UUID(0L, (kind shl 48) or it) }
+
+    companion object {
+        // seeded tags dictionary fits a single page, so it is cheaper to scan it than to use an index
+        private val RULES = QueryPlanRules(allowedSeqScans = setOf("tags"))
+    }
+}
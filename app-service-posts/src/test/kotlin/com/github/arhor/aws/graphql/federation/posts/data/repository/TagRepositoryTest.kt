@@ -0,0 +1,54 @@
+package com.github.arhor.aws.graphql.federation.posts.data.repository
+
+import com.github.arhor.aws.graphql.federation.posts.data.entity.TagEntity
+import com.github.arhor.aws.graphql.federation.posts.data.entity.callback.TagEntityCallback
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.DisplayName
+import org.junit.jupiter.api.Nested
+import org.junit.jupiter.api.Test
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.test.context.ContextConfiguration
+
+@ContextConfiguration(classes = [TagEntityCallback::class])
+class TagRepositoryTest : RepositoryTestBase() {
+
+    @Autowired
+    private lateinit var tagRepository: TagRepository
+
+    @Nested
+    @DisplayName("TagRepository :: upsertAllByNameIn")
+    inner class UpsertAllByNameInTest {
+        @Test
+        fun `should return existing tags along with inserted missing ones`() {
+            // Given
+            val existingTag = tagRepository.save(TagEntity(name = "test-1"))
+
+            // When
+            val result = tagRepository.upsertAllByNameIn(listOf("test-1", "test-2"))
+
+            // Then
+            assertThat(result)
+                .extracting(TagEntity::name)
+                .containsExactlyInAnyOrder("test-1", "test-2")
+            assertThat(result)
+                .contains(existingTag)
+            assertThat(tagRepository.findAll())
+                .containsExactlyInAnyOrderElementsOf(result)
+        }
+
+        @Test
+        fun `should not insert duplicates when all tags already exist`() {
+            // Given
+            val existingTags = tagRepository.saveAll(listOf(TagEntity(name = "test-1"), TagEntity(name = "test-2")))
+
+            // When
+            val result = tagRepository.upsertAllByNameIn(listOf("test-1", "test-2"))
+
+            // Then
+            assertThat(result)
+                .containsExactlyInAnyOrderElementsOf(existingTags)
+            assertThat(tagRepository.count())
+                .isEqualTo(2)
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.github.arhor.aws.graphql.federation.posts.data.repository
+
+import com.github.arhor.aws.graphql.federation.common.toSet
+import com.github.arhor.aws.graphql.federation.posts.data.entity.PostEntity
+import com.github.arhor.aws.graphql.federation.posts.data.entity.TagEntity
+import com.github.arhor.aws.graphql.federation.posts.data.entity.TagRef
+import com.github.arhor.aws.graphql.federation.posts.data.entity.UserRepresentation
+import com.github.arhor.aws.graphql.federation.posts.data.entity.callback.PostEntityCallback
+import com.github.arhor.aws.graphql.federation.posts.data.entity.callback.TagEntityCallback
+import com.github.arhor.aws.graphql.federation.starter.testing.ZERO_UUID_VAL
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.data.repository.findByIdOrNull
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate
+import org.springframework.test.context.ContextConfiguration
+
+/**
+ * Compares the number of `posts_has_tags` rows written updating a post with the aggregate `save` rewriting all the
+ * tag references, and with the custom `update` writing only the changed ones.
+ */
+@ContextConfiguration(
+    classes = [
+        PostEntityCallback::class,
+        TagEntityCallback::class,
+    ]
+)
+class TagsSyncBenchmarkTest : RepositoryTestBase() {
+
+    @Autowired
+    private lateinit var jdbcTemplate: NamedParameterJdbcTemplate
+
+    @Autowired
+    private lateinit var postRepository: PostRepository
+
+    @Autowired
+    private lateinit var tagRepository: TagRepository
+
+    @Autowired
+    private lateinit var userRepository: UserRepresentationRepository
+
+    private lateinit var tags: List<TagEntity>
+    private lateinit var post: PostEntity
+
+    @BeforeEach
+    fun setUp() {
+        val user = userRepository.save(UserRepresentation(id = ZERO_UUID_VAL, shouldBePersisted = true))
+
+        tags = tagRepository.saveAll((0..TAGS_NUM).map { TagEntity(name = "tag-$it") })
+        post = postRepository.save(
+            PostEntity(
+                userId = user.id,
+                title = "title",
+                content = "content",
+                tags = tags.take(TAGS_NUM).toSet(TagRef::from),
+            )
+        )
+    }
+
+    @Test
+    fun `should not rewrite tag references when only title is updated`() {
+        // When
+        val rowsWrittenBySave = countRowsWritten {
+            postRepository.save(reload().copy(title = "title-saved"))
+        }
+        val rowsWrittenByUpdate = countRowsWritten {
+            reload().let { postRepository.update(it, it.copy(title = "title-updated")) }
+        }
+
+        // Then
+        logger.info("posts_has_tags rows written on title update by save: {}", rowsWrittenBySave)
+        logger.info("posts_has_tags rows written on title update by update: {}", rowsWrittenByUpdate)
+
+        assertThat(rowsWrittenBySave)
+            .isEqualTo(TAGS_NUM * 2L)
+        assertThat(rowsWrittenByUpdate)
+            .isZero()
+        assertThat(reload())
+            .returns("title-updated", PostEntity::title)
+            .returns(post.tags, PostEntity::tags)
+    }
+
+    @Test
+    fun `should write only changed tag references when one tag is replaced`() {
+        // Given
+        val expectedTags = tags.drop(1).toSet(TagRef::from)
+
+        // When
+        val rowsWrittenByUpdate = countRowsWritten {
+            reload().let { postRepository.update(it, it.copy(tags = expectedTags)) }
+        }
+
+        // Then
+        logger.info("posts_has_tags rows written on single tag replacement by update: {}", rowsWrittenByUpdate)
+
+        assertThat(rowsWrittenByUpdate)
+            .isEqualTo(2)
+        assertThat(reload().tags)
+            .isEqualTo(expectedTags)
+    }
+
+    private fun reload() = postRepository.findByIdOrNull(post.id!!)!!
+
+    private fun countRowsWritten(action: () -> Unit): Long {
+        val before = rowsWritten()
+        action()
+        return rowsWritten() - before
+    }
+
+    private fun rowsWritten(): Long =
+        jdbcTemplate.queryForObject(
+            """
+            SELECT COALESCE(SUM(s.n_tup_ins + s.n_tup_upd + s.n_tup_del), 0)
+              FROM pg_stat_xact_user_tables s
+             WHERE s.relname = 'posts_has_tags'
+            """,
+            emptyMap<String, Any>(),
+            Long::class.java
+        )!!
+
+    companion object {
+        private const val TAGS_NUM = 15
+        private val logger = LoggerFactory.getLogger(this::class.java.enclosingClass)
+    }
+}
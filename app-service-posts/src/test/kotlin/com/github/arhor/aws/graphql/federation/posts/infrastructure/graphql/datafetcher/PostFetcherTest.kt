@@ -6,6 +6,10 @@ import com.github.arhor.aws.graphql.federation.posts.generated.graphql.DgsConsta
 import com.github.arhor.aws.graphql.federation.posts.generated.graphql.DgsConstants.QUERY
 import com.github.arhor.aws.graphql.federation.posts.generated.graphql.DgsConstants.USER
 import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.Post
+import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.PostConnection
+import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.PostPage
+import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.PostsConnectionInput
+import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.PostsLookupInput
 import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.User
 import com.github.arhor.aws.graphql.federation.posts.infrastructure.graphql.dataloader.TagBatchLoader
 import com.github.arhor.aws.graphql.federation.posts.infrastructure.graphql.dataloader.UserRepresentationBatchLoader
@@ -151,6 +155,137 @@ class PostFetcherTest : GraphQLTestBase() {
         }
     }
 
+    @Nested
+    @DisplayName("query { posts }")
+    inner class PostsQueryTest {
+        @Test
+        fun `should fetch posts page without optional fields when they are not requested`() {
+            // Given
+            val expectedPost = Post(id = POST_ID, title = "test-title", content = "")
+
+            every { postService.getPostPage(any(), any()) } returns PostPage(data = listOf(expectedPost))
+
+            // When
+            val result = dgsQueryExecutor.executeAndExtractJsonPathAsObject(
+                """
+                query {
+                    posts {
+                        data {
+                            id
+                            title
+                        }
+                    }
+                }""".trimIndent(),
+                "$.data.posts.data[0].title",
+                String::class.java
+            )
+
+            // Then
+            verify(exactly = 1) { postService.getPostPage(PostsLookupInput(), emptySet()) }
+
+            assertThat(result)
+                .isEqualTo(expectedPost.title)
+        }
+
+        @Test
+        fun `should fetch posts page with content when it is requested`() {
+            // Given
+            val expectedPost = Post(id = POST_ID, title = "test-title", content = "test-content")
+
+            every { postService.getPostPage(any(), any()) } returns PostPage(data = listOf(expectedPost))
+
+            // When
+            val result = dgsQueryExecutor.executeAndExtractJsonPathAsObject(
+                """
+                query {
+                    posts {
+                        data {
+                            id
+                            content
+                        }
+                    }
+                }""".trimIndent(),
+                "$.data.posts.data[0].content",
+                String::class.java
+            )
+
+            // Then
+            verify(exactly = 1) { postService.getPostPage(PostsLookupInput(), setOf(POST.Content)) }
+
+            assertThat(result)
+                .isEqualTo(expectedPost.content)
+        }
+    }
+
+    @Nested
+    @DisplayName("query { postsConnection }")
+    inner class PostsConnectionQueryTest {
+        @Test
+        fun `should fetch posts connection without total when it is not requested`() {
+            // Given
+            val expectedPost = Post(id = POST_ID, title = "test-title", content = "")
+
+            every { postService.getPostConnection(any(), any(), any()) } returns PostConnection(
+                data = listOf(expectedPost),
+                cursor = "test-cursor",
+                hasNext = true,
+            )
+
+            // When
+            val result = dgsQueryExecutor.executeAndExtractJsonPathAsObject(
+                """
+                query {
+                    postsConnection(input: { first: 1, after: "prev-cursor" }) {
+                        data {
+                            id
+                            title
+                        }
+                        cursor
+                        hasNext
+                    }
+                }""".trimIndent(),
+                "$.data.postsConnection.cursor",
+                String::class.java
+            )
+
+            // Then
+            verify(exactly = 1) {
+                postService.getPostConnection(PostsConnectionInput(first = 1, after = "prev-cursor"), emptySet(), false)
+            }
+
+            assertThat(result)
+                .isEqualTo("test-cursor")
+        }
+
+        @Test
+        fun `should fetch posts connection with total when it is requested`() {
+            // Given
+            every { postService.getPostConnection(any(), any(), any()) } returns PostConnection(
+                data = emptyList(),
+                hasNext = false,
+                total = 0,
+            )
+
+            // When
+            val result = dgsQueryExecutor.executeAndExtractJsonPathAsObject(
+                """
+                query {
+                    postsConnection {
+                        total
+                    }
+                }""".trimIndent(),
+                "$.data.postsConnection.total",
+                Int::class.javaObjectType
+            )
+
+            // Then
+            verify(exactly = 1) { postService.getPostConnection(PostsConnectionInput(), emptySet(), true) }
+
+            assertThat(result)
+                .isEqualTo(0)
+        }
+    }
+
     @Nested
     @DisplayName("query { user { posts } }")
     inner class UserPostsQueryTest {
@@ -1,7 +1,10 @@
 package com.github.arhor.aws.graphql.federation.posts.infrastructure.graphql.dataloader
 
+import com.github.arhor.aws.graphql.federation.posts.generated.graphql.DgsConstants.POST
 import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.Post
+import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.UserPostPage
 import com.github.arhor.aws.graphql.federation.posts.service.PostService
+import com.github.arhor.aws.graphql.federation.posts.service.UserPostsKey
 import com.github.arhor.aws.graphql.federation.starter.testing.TEST_1_UUID_VAL
 import com.github.arhor.aws.graphql.federation.starter.testing.TEST_2_UUID_VAL
 import com.github.arhor.aws.graphql.federation.starter.testing.TEST_3_UUID_VAL
@@ -14,7 +17,6 @@ import org.assertj.core.api.Assertions.from
 import org.junit.jupiter.api.AfterEach
 import org.junit.jupiter.api.Test
 import java.time.Duration
-import java.util.UUID
 import java.util.concurrent.Executors
 
 class PostBatchLoaderTest {
@@ -35,7 +37,7 @@ class PostBatchLoaderTest {
     @Test
     fun `should return completed future with empty map when empty set of keys provided`() {
         // Given
-        val keys = emptySet<UUID>()
+        val keys = emptySet<UserPostsKey>()
 
         // When
         val result = postBatchLoader.load(keys)
@@ -49,8 +51,13 @@ class PostBatchLoaderTest {
     @Test
     fun `should return expected result calling getPostsByUserIds exactly once with expected keys`() {
         // Given
-        val keys = setOf(TEST_1_UUID_VAL, TEST_2_UUID_VAL, TEST_3_UUID_VAL)
-        val expectedPayload = keys.associateWith { listOf(Post(id = it, title = "test", content = "test")) }
+        val keys =
+            setOf(TEST_1_UUID_VAL, TEST_2_UUID_VAL, TEST_3_UUID_VAL)
+                .map { UserPostsKey(it, first = 20, after = null, fields = setOf(POST.Content)) }
+                .toSet()
+        val expectedPayload = keys.associateWith {
+            UserPostPage(data = listOf(Post(id = it.userId, title = "test", content = "test")), hasNext = false)
+        }
 
         every { postService.getPostsByUserIds(any()) } returns expectedPayload
 
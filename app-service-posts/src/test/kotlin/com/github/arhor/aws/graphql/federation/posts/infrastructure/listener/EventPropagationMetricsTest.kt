@@ -0,0 +1,69 @@
+package com.github.arhor.aws.graphql.federation.posts.infrastructure.listener
+
+import com.github.arhor.aws.graphql.federation.common.event.DomainEvent
+import com.github.arhor.aws.graphql.federation.common.event.UserEvent
+import com.github.arhor.aws.graphql.federation.starter.testing.ZERO_UUID_VAL
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import jakarta.validation.ClockProvider
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.springframework.messaging.Message
+import org.springframework.messaging.support.MessageBuilder
+import java.time.Clock
+import java.time.Instant
+import java.time.ZoneOffset
+import java.util.concurrent.TimeUnit
+
+class EventPropagationMetricsTest {
+
+    private val meterRegistry = SimpleMeterRegistry()
+    private val eventPropagationMetrics = EventPropagationMetrics(
+        meterRegistry,
+        ClockProvider { Clock.fixed(CONSUMED_AT, ZoneOffset.UTC) },
+    )
+
+    @Test
+    fun `should record time passed since event was produced`() {
+        // Given
+        val message = message(producedAt = CONSUMED_AT.minusSeconds(3).toEpochMilli().toString())
+
+        // When
+        eventPropagationMetrics.recordPropagationLatency(listOf(message))
+
+        // Then
+        assertThat(meterRegistry.find("domain.events.propagation.latency").tag("type", EVENT_TYPE).timer())
+            .isNotNull()
+            .satisfies(
+                { assertThat(it!!.count()).isEqualTo(1) },
+                { assertThat(it!!.totalTime(TimeUnit.SECONDS)).isEqualTo(3.0) },
+            )
+    }
+
+    @Test
+    fun `should skip messages without production time`() {
+        // Given
+        val messages = listOf(
+            message(producedAt = null),
+            message(producedAt = "not-a-timestamp"),
+        )
+
+        // When
+        eventPropagationMetrics.recordPropagationLatency(messages)
+
+        // Then
+        assertThat(meterRegistry.find("domain.events.propagation.latency").timer())
+            .isNull()
+    }
+
+    private fun message(producedAt: String?): Message<UserEvent.Created> =
+        MessageBuilder
+            .withPayload(UserEvent.Created(id = ZERO_UUID_VAL))
+            .setHeader(DomainEvent.ATTRS_PAYLOAD_TYPE, EVENT_TYPE)
+            .setHeader(DomainEvent.ATTRS_PRODUCED_AT, producedAt)
+            .build()
+
+    companion object {
+        private val CONSUMED_AT = Instant.parse("2024-01-01T12:00:00Z")
+        private val EVENT_TYPE = UserEvent.Type.USER_EVENT_CREATED.code
+    }
+}
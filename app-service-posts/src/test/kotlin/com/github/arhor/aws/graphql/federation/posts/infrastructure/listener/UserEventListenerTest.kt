@@ -4,6 +4,7 @@ import com.github.arhor.aws.graphql.federation.common.event.UserEvent
 import com.github.arhor.aws.graphql.federation.posts.service.UserRepresentationService
 import com.github.arhor.aws.graphql.federation.starter.testing.TEST_1_UUID_VAL
 import com.github.arhor.aws.graphql.federation.starter.testing.TEST_2_UUID_VAL
+import com.github.arhor.aws.graphql.federation.starter.testing.TEST_3_UUID_VAL
 import com.github.arhor.aws.graphql.federation.starter.testing.ZERO_UUID_VAL
 import com.github.arhor.aws.graphql.federation.starter.tracing.IDEMPOTENT_KEY
 import com.github.arhor.aws.graphql.federation.starter.tracing.TRACING_ID_KEY
@@ -28,19 +29,60 @@ class UserEventListenerTest : SqsListenerTestBase() {
     @MockkBean
     private lateinit var userRepresentationService: UserRepresentationService
 
+    @MockkBean(relaxed = true)
+    private lateinit var eventPropagationMetrics: EventPropagationMetrics
+
     @AfterEach
     fun tearDown() {
         confirmVerified(userRepresentationService)
     }
 
     @Test
-    fun `should call createUserRepresentation on UserEvent#Created`() {
+    fun `should call createUserRepresentations on UserEvent#Created`() {
+        // Given
+        val event = UserEvent.Created(id = USER_ID)
+
+        every { userRepresentationService.createUserRepresentations(any()) } just runs
+
+        // When
+        sqsTemplate.send(
+            USER_CREATED_TEST_QUEUE,
+            GenericMessage(
+                event,
+                mapOf(
+                    TRACING_ID_KEY to TRACE_ID,
+                    IDEMPOTENT_KEY to IDEMPOTENCY_KEY,
+                )
+            )
+        )
+
+        // Then
+        verify(exactly = 1, timeout = 5.seconds.inWholeMilliseconds) {
+            userRepresentationService.createUserRepresentations(mapOf(IDEMPOTENCY_KEY to event.id))
+        }
+        verify(exactly = 1, timeout = 5.seconds.inWholeMilliseconds) {
+            eventPropagationMetrics.recordPropagationLatency(match { it.size == 1 })
+        }
+    }
+
+    @Test
+    fun `should call createUserRepresentations skipping UserEvent#Created without idempotency key`() {
         // Given
+        val malformedEvent = UserEvent.Created(id = OTHER_USER_ID)
         val event = UserEvent.Created(id = USER_ID)
 
-        every { userRepresentationService.createUserRepresentation(any(), any()) } just runs
+        every { userRepresentationService.createUserRepresentations(any()) } just runs
 
         // When
+        sqsTemplate.send(
+            USER_CREATED_TEST_QUEUE,
+            GenericMessage(
+                malformedEvent,
+                mapOf(
+                    TRACING_ID_KEY to TRACE_ID,
+                )
+            )
+        )
         sqsTemplate.send(
             USER_CREATED_TEST_QUEUE,
             GenericMessage(
@@ -54,16 +96,19 @@ class UserEventListenerTest : SqsListenerTestBase() {
 
         // Then
         verify(exactly = 1, timeout = 5.seconds.inWholeMilliseconds) {
-            userRepresentationService.createUserRepresentation(event.id, IDEMPOTENCY_KEY)
+            userRepresentationService.createUserRepresentations(mapOf(IDEMPOTENCY_KEY to event.id))
+        }
+        verify(exactly = 0) {
+            userRepresentationService.createUserRepresentations(match { malformedEvent.id in it.values })
         }
     }
 
     @Test
-    fun `should call deleteUserRepresentation on UserEvent#Deleted`() {
+    fun `should call deleteUserRepresentations on UserEvent#Deleted`() {
         // Given
         val event = UserEvent.Deleted(id = USER_ID)
 
-        every { userRepresentationService.deleteUserRepresentation(any(), any()) } just runs
+        every { userRepresentationService.deleteUserRepresentations(any()) } just runs
 
         // When
         sqsTemplate.send(
@@ -79,7 +124,7 @@ class UserEventListenerTest : SqsListenerTestBase() {
 
         // Then
         verify(exactly = 1, timeout = 5.seconds.inWholeMilliseconds) {
-            userRepresentationService.deleteUserRepresentation(event.id, IDEMPOTENCY_KEY)
+            userRepresentationService.deleteUserRepresentations(mapOf(IDEMPOTENCY_KEY to event.id))
         }
     }
 
@@ -88,6 +133,7 @@ class UserEventListenerTest : SqsListenerTestBase() {
         private const val USER_DELETED_TEST_QUEUE = "user-deleted-test-queue"
 
         private val USER_ID = ZERO_UUID_VAL
+        private val OTHER_USER_ID = TEST_3_UUID_VAL
         private val TRACE_ID = TEST_1_UUID_VAL
         private val IDEMPOTENCY_KEY = TEST_2_UUID_VAL
 
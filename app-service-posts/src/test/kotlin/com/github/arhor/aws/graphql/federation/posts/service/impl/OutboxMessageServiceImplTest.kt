@@ -13,8 +13,7 @@ import com.github.arhor.aws.graphql.federation.starter.tracing.Attributes
 import com.github.arhor.aws.graphql.federation.starter.tracing.IDEMPOTENT_KEY
 import com.github.arhor.aws.graphql.federation.starter.tracing.TRACING_ID_KEY
 import com.github.arhor.aws.graphql.federation.starter.tracing.useContextAttribute
-import io.awspring.cloud.sns.core.SnsNotification
-import io.awspring.cloud.sns.core.SnsOperations
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
 import io.mockk.every
 import io.mockk.just
 import io.mockk.mockk
@@ -26,11 +25,27 @@ import org.assertj.core.api.Assertions.assertThat
 import org.assertj.core.api.Assertions.from
 import org.junit.jupiter.api.DisplayName
 import org.junit.jupiter.api.Nested
+import org.junit.jupiter.api.Test
 import org.junit.jupiter.params.ParameterizedTest
 import org.junit.jupiter.params.provider.Arguments
 import org.junit.jupiter.params.provider.MethodSource
-import org.springframework.retry.RetryCallback
-import org.springframework.retry.RetryOperations
+import org.springframework.data.auditing.DateTimeProvider
+import org.springframework.messaging.MessagingException
+import org.springframework.retry.support.RetryTemplate
+import org.springframework.transaction.support.TransactionOperations
+import software.amazon.awssdk.services.sns.SnsClient
+import software.amazon.awssdk.services.sns.model.BatchResultErrorEntry
+import software.amazon.awssdk.services.sns.model.PublishBatchRequest
+import software.amazon.awssdk.services.sns.model.PublishBatchResponse
+import software.amazon.awssdk.services.sns.model.PublishBatchResultEntry
+import software.amazon.awssdk.services.sns.model.SnsException
+import java.time.LocalDateTime
+import java.time.ZoneOffset
+import java.util.Optional
+import java.util.UUID
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
 import java.util.stream.Stream
 
 private typealias OutboxEventData = TypeReference<Map<String, Any?>>
@@ -52,15 +67,24 @@ class OutboxMessageServiceImplTest {
 
     private val objectMapper = mockk<ObjectMapper>()
     private val outboxMessageRepository = mockk<OutboxMessageRepository>()
-    private val snsRetryOperations = mockk<RetryOperations>()
-    private val sns = mockk<SnsOperations>()
+    private val snsRetryOperations = RetryTemplate.builder()
+        .maxAttempts(3)
+        .noBackoff()
+        .retryOn(MessagingException::class.java)
+        .build()
+    private val snsClient = mockk<SnsClient>()
+    private val meterRegistry = SimpleMeterRegistry()
 
     private val outboxMessageService = OutboxMessageServiceImpl(
         appProps,
         objectMapper,
         outboxMessageRepository,
         snsRetryOperations,
-        sns,
+        snsClient,
+        Runnable::run,
+        TransactionOperations.withoutTransaction(),
+        meterRegistry,
+        DateTimeProvider { Optional.of(DISPATCHED_DATE_TIME) },
     )
 
     @Nested
@@ -101,7 +125,7 @@ class OutboxMessageServiceImplTest {
     inner class ReleaseOutboxMessagesOfTypeTest {
         @MethodSource(POST_EVENTS_METHOD_SOURCE)
         @ParameterizedTest
-        fun `should publish PostEvent to SNS using RetryOperations`(
+        fun `should publish PostEvent to SNS using batch API`(
             // Given
             event: PostEvent,
             eventType: PostEvent.Type,
@@ -113,56 +137,269 @@ class OutboxMessageServiceImplTest {
                 type = event.type(),
                 data = eventData,
                 traceId = TRACE_ID,
+                createdDateTime = CREATED_DATE_TIME,
             )
             val messages = listOf(message)
 
-            val expectedHeaders = event.attributes(
+            val expectedAttributes = event.attributes(
                 TRACING_ID_KEY to TRACE_ID.toString(),
                 IDEMPOTENT_KEY to MESSAGE_ID.toString(),
+                producedAt = CREATED_DATE_TIME.toInstant(ZoneOffset.UTC),
             )
 
-            val actualSnsTopicName = slot<String>()
-            val actualNotification = slot<SnsNotification<*>>()
+            val actualRequest = slot<PublishBatchRequest>()
 
-            every { outboxMessageRepository.dequeueOldest(any(), any()) } returns messages
+            every { outboxMessageRepository.claimOldest(any(), any(), any()) } returns messages
+            every { outboxMessageRepository.deleteAllByIdIn(any()) } just runs
             every { objectMapper.convertValue(any(), any<Class<PostEvent>>()) } returns event
-            every { snsRetryOperations.execute<Unit, Throwable>(any()) } answers {
-                arg<RetryCallback<*, *>>(0).doWithRetry(
-                    null
-                )
-            }
-            every { sns.sendNotification(any(), any()) } just runs
+            every { objectMapper.writeValueAsString(any()) } returns SERIALIZED_EVENT
+            every { snsClient.publishBatch(any<PublishBatchRequest>()) } answers { successfulResponse(firstArg()) }
 
             // When
-            outboxMessageService.releaseOutboxMessagesOfType(eventType)
+            outboxMessageService.releaseOutboxMessagesOfType(eventType, BATCH_SIZE)
 
             // Then
-            verify(exactly = 1) { outboxMessageRepository.dequeueOldest(eventType.code, 50) }
+            verify(exactly = 1) { outboxMessageRepository.claimOldest(eventType.code, BATCH_SIZE, 60) }
             verify(exactly = 1) { objectMapper.convertValue(eventData, eventType.type.java) }
-            verify(exactly = 1) { snsRetryOperations.execute<Unit, Throwable>(any()) }
-            verify(exactly = 1) { sns.sendNotification(capture(actualSnsTopicName), capture(actualNotification)) }
-
+            verify(exactly = 1) { objectMapper.writeValueAsString(event) }
+            verify(exactly = 1) { snsClient.publishBatch(capture(actualRequest)) }
+            verify(exactly = 1) { outboxMessageRepository.deleteAllByIdIn(listOf(MESSAGE_ID)) }
 
-            assertThat(actualSnsTopicName.captured)
+            assertThat(actualRequest.captured.topicArn())
                 .isEqualTo(TEST_POST_EVENTS)
 
-            assertThat(actualNotification.captured)
+            assertThat(actualRequest.captured.publishBatchRequestEntries())
+                .singleElement()
+                .satisfies(
+                    { assertThat(it.id()).isEqualTo(MESSAGE_ID.toString()) },
+                    { assertThat(it.message()).isEqualTo(SERIALIZED_EVENT) },
+                    {
+                        assertThat(it.messageAttributes().mapValues { attr -> attr.value.stringValue() })
+                            .isEqualTo(expectedAttributes)
+                    },
+                    { assertThat(it.messageAttributes().values).allMatch { v -> v.dataType() == "String" } },
+                )
+
+            assertThat(meterRegistry.find("outbox.messages.dispatch.latency").tag("type", event.type()).timer())
+                .isNotNull()
                 .satisfies(
-                    { assertThat(it.payload).isEqualTo(event) },
-                    { assertThat(it.headers).isEqualTo(expectedHeaders) },
+                    { assertThat(it!!.count()).isEqualTo(1) },
+                    { assertThat(it!!.totalTime(TimeUnit.SECONDS)).isEqualTo(5.0) },
                 )
+
+            assertThat(meterRegistry.find("outbox.messages.publish.latency").tag("type", eventType.code).timer())
+                .isNotNull()
+                .satisfies({ assertThat(it!!.count()).isEqualTo(1) })
+        }
+
+        @Test
+        fun `should split outbox messages into batches of 10 entries`() {
+            // Given
+            val messages = createMessages(25)
+            val actualRequests = mutableListOf<PublishBatchRequest>()
+
+            every { outboxMessageRepository.claimOldest(any(), any(), any()) } returns messages
+            every { outboxMessageRepository.deleteAllByIdIn(any()) } just runs
+            every { objectMapper.convertValue(any(), any<Class<PostEvent>>()) } returns PostEvent.Created(id = POST_ID)
+            every { objectMapper.writeValueAsString(any()) } returns SERIALIZED_EVENT
+            every { snsClient.publishBatch(capture(actualRequests)) } answers { successfulResponse(firstArg()) }
+
+            // When
+            outboxMessageService.releaseOutboxMessagesOfType(PostEvent.Type.POST_EVENT_CREATED, BATCH_SIZE)
+
+            // Then
+            verify(exactly = 3) { snsClient.publishBatch(any<PublishBatchRequest>()) }
+
+            assertThat(actualRequests.map { it.publishBatchRequestEntries().size })
+                .containsExactly(10, 10, 5)
+            assertThat(actualRequests.flatMap { it.publishBatchRequestEntries() }.map { it.id() })
+                .containsExactlyElementsOf(messages.map { it.id.toString() })
+        }
+
+        @Test
+        fun `should split outbox messages into batches not exceeding the maximum payload size`() {
+            // Given
+            val messages = createMessages(5)
+            val actualRequests = mutableListOf<PublishBatchRequest>()
+
+            every { outboxMessageRepository.claimOldest(any(), any(), any()) } returns messages
+            every { outboxMessageRepository.deleteAllByIdIn(any()) } just runs
+            every { objectMapper.convertValue(any(), any<Class<PostEvent>>()) } returns PostEvent.Created(id = POST_ID)
+            every { objectMapper.writeValueAsString(any()) } returns "x".repeat(100 * 1024)
+            every { snsClient.publishBatch(capture(actualRequests)) } answers { successfulResponse(firstArg()) }
+
+            // When
+            val result = outboxMessageService.releaseOutboxMessagesOfType(PostEvent.Type.POST_EVENT_CREATED, BATCH_SIZE)
+
+            // Then
+            verify(exactly = 3) { snsClient.publishBatch(any<PublishBatchRequest>()) }
+
+            assertThat(actualRequests.map { it.publishBatchRequestEntries().size })
+                .containsExactly(2, 2, 1)
+            assertThat(actualRequests.flatMap { it.publishBatchRequestEntries() }.map { it.id() })
+                .containsExactlyElementsOf(messages.map { it.id.toString() })
+            assertThat(result)
+                .isEqualTo(5)
         }
+
+        @Test
+        fun `should not exceed maximum number of concurrent publish requests`() {
+            // Given
+            val executor = Executors.newFixedThreadPool(4)
+            val outboxMessageService = OutboxMessageServiceImpl(
+                appProps.copy(outbox = AppProps.Outbox(maxConcurrentPublishes = 2)),
+                objectMapper,
+                outboxMessageRepository,
+                snsRetryOperations,
+                snsClient,
+                executor,
+                TransactionOperations.withoutTransaction(),
+                meterRegistry,
+                DateTimeProvider { Optional.of(DISPATCHED_DATE_TIME) },
+            )
+            val requestsInFlight = AtomicInteger()
+            val maxRequestsInFlight = AtomicInteger()
+
+            every { outboxMessageRepository.claimOldest(any(), any(), any()) } returns createMessages(BATCH_SIZE)
+            every { outboxMessageRepository.deleteAllByIdIn(any()) } just runs
+            every { objectMapper.convertValue(any(), any<Class<PostEvent>>()) } returns PostEvent.Created(id = POST_ID)
+            every { objectMapper.writeValueAsString(any()) } returns SERIALIZED_EVENT
+            every { snsClient.publishBatch(any<PublishBatchRequest>()) } answers {
+                maxRequestsInFlight.accumulateAndGet(requestsInFlight.incrementAndGet()) { a, b -> maxOf(a, b) }
+                Thread.sleep(20)
+                requestsInFlight.decrementAndGet()
+                successfulResponse(firstArg())
+            }
+
+            // When
+            val result = try {
+                outboxMessageService.releaseOutboxMessagesOfType(PostEvent.Type.POST_EVENT_CREATED, BATCH_SIZE)
+            } finally {
+                executor.shutdown()
+            }
+
+            // Then
+            verify(exactly = 5) { snsClient.publishBatch(any<PublishBatchRequest>()) }
+
+            assertThat(maxRequestsInFlight.get())
+                .isLessThanOrEqualTo(2)
+            assertThat(result)
+                .isEqualTo(BATCH_SIZE)
+        }
+
+        @Test
+        fun `should retry publishing only the failed batch entries`() {
+            // Given
+            val messages = createMessages(3)
+            val failedId = messages[1].id.toString()
+            val actualRequests = mutableListOf<PublishBatchRequest>()
+
+            every { outboxMessageRepository.claimOldest(any(), any(), any()) } returns messages
+            every { outboxMessageRepository.deleteAllByIdIn(any()) } just runs
+            every { objectMapper.convertValue(any(), any<Class<PostEvent>>()) } returns PostEvent.Created(id = POST_ID)
+            every { objectMapper.writeValueAsString(any()) } returns SERIALIZED_EVENT
+            every { snsClient.publishBatch(capture(actualRequests)) } answers {
+                responseFailing(firstArg(), failedId)
+            } andThenAnswer {
+                successfulResponse(firstArg())
+            }
+
+            // When
+            outboxMessageService.releaseOutboxMessagesOfType(PostEvent.Type.POST_EVENT_CREATED, BATCH_SIZE)
+
+            // Then
+            verify(exactly = 2) { snsClient.publishBatch(any<PublishBatchRequest>()) }
+
+            assertThat(actualRequests.last().publishBatchRequestEntries().map { it.id() })
+                .containsExactly(failedId)
+        }
+
+        @Test
+        fun `should not delete outbox messages failed to be published after all retry attempts`() {
+            // Given
+            val messages = createMessages(2)
+            val failedId = messages[0].id.toString()
+
+            every { outboxMessageRepository.claimOldest(any(), any(), any()) } returns messages
+            every { outboxMessageRepository.deleteAllByIdIn(any()) } just runs
+            every { objectMapper.convertValue(any(), any<Class<PostEvent>>()) } returns PostEvent.Created(id = POST_ID)
+            every { objectMapper.writeValueAsString(any()) } returns SERIALIZED_EVENT
+            every { snsClient.publishBatch(any<PublishBatchRequest>()) } answers {
+                responseFailing(firstArg(), failedId)
+            }
+
+            // When
+            val result = outboxMessageService.releaseOutboxMessagesOfType(PostEvent.Type.POST_EVENT_CREATED, BATCH_SIZE)
+
+            // Then
+            verify(exactly = 3) { snsClient.publishBatch(any<PublishBatchRequest>()) }
+            verify(exactly = 1) { outboxMessageRepository.deleteAllByIdIn(listOf(messages[1].id!!)) }
+
+            assertThat(result)
+                .isEqualTo(1)
+            assertThat(meterRegistry.find("outbox.messages.publish.failures").counter()?.count())
+                .isEqualTo(1.0)
+        }
+
+        @Test
+        fun `should not delete any outbox messages when none of them is published`() {
+            // Given
+            val messages = createMessages(2)
+
+            every { outboxMessageRepository.claimOldest(any(), any(), any()) } returns messages
+            every { objectMapper.convertValue(any(), any<Class<PostEvent>>()) } returns PostEvent.Created(id = POST_ID)
+            every { objectMapper.writeValueAsString(any()) } returns SERIALIZED_EVENT
+            every { snsClient.publishBatch(any<PublishBatchRequest>()) } throws SnsException.builder().build()
+
+            // When
+            val result = outboxMessageService.releaseOutboxMessagesOfType(PostEvent.Type.POST_EVENT_CREATED, BATCH_SIZE)
+
+            // Then
+            verify(exactly = 3) { snsClient.publishBatch(any<PublishBatchRequest>()) }
+            verify(exactly = 0) { outboxMessageRepository.deleteAllByIdIn(any()) }
+
+            assertThat(result)
+                .isEqualTo(0)
+            assertThat(meterRegistry.find("outbox.messages.publish.failures").counter()?.count())
+                .isEqualTo(2.0)
+        }
+    }
+
+    private fun createMessages(num: Int) = (1..num).map {
+        OutboxMessageEntity(
+            id = UUID(0, it.toLong()),
+            type = PostEvent.Type.POST_EVENT_CREATED.code,
+            data = mapOf("id" to POST_ID),
+            traceId = TRACE_ID,
+        )
+    }
+
+    private fun successfulResponse(request: PublishBatchRequest) = responseFailing(request)
+
+    private fun responseFailing(request: PublishBatchRequest, vararg failedIds: String): PublishBatchResponse {
+        val (failed, successful) = request.publishBatchRequestEntries().partition { it.id() in failedIds }
+
+        return PublishBatchResponse.builder()
+            .successful(successful.map { PublishBatchResultEntry.builder().id(it.id()).messageId(it.id()).build() })
+            .failed(failed.map { BatchResultErrorEntry.builder().id(it.id()).code("InternalError").build() })
+            .build()
     }
 
     companion object {
         private const val TEST_POST_EVENTS =
-            "test-post-events"
+            "arn:aws:sns:us-east-1:000000000000:test-post-events"
+        private const val SERIALIZED_EVENT =
+            "{}"
+        private const val BATCH_SIZE =
+            50
         private const val POST_EVENTS_METHOD_SOURCE =
             "com.github.arhor.aws.graphql.federation.posts.service.impl.OutboxMessageServiceImplTest#postEventsTestFactory"
 
         private val POST_ID = OMNI_UUID_VAL
         private val TRACE_ID = TEST_1_UUID_VAL
         private val MESSAGE_ID = TEST_2_UUID_VAL
+        private val CREATED_DATE_TIME = LocalDateTime.of(2024, 1, 1, 12, 0, 0)
+        private val DISPATCHED_DATE_TIME = CREATED_DATE_TIME.plusSeconds(5)
 
         @JvmStatic
         fun postEventsTestFactory(): Stream<Arguments> = Stream.of(
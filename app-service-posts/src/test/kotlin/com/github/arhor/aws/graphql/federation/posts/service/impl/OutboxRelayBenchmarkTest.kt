@@ -0,0 +1,156 @@
+package com.github.arhor.aws.graphql.federation.posts.service.impl
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.module.kotlin.jacksonObjectMapper
+import com.github.arhor.aws.graphql.federation.common.event.PostEvent
+import com.github.arhor.aws.graphql.federation.posts.config.props.AppProps
+import com.github.arhor.aws.graphql.federation.posts.data.entity.OutboxMessageEntity
+import com.github.arhor.aws.graphql.federation.posts.data.repository.OutboxMessageRepository
+import com.github.arhor.aws.graphql.federation.starter.tracing.IDEMPOTENT_KEY
+import com.github.arhor.aws.graphql.federation.starter.tracing.TRACING_ID_KEY
+import io.awspring.cloud.sns.core.SnsNotification
+import io.awspring.cloud.sns.core.SnsTemplate
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import io.mockk.every
+import io.mockk.just
+import io.mockk.mockk
+import io.mockk.runs
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.Tag
+import org.junit.jupiter.api.Test
+import org.slf4j.LoggerFactory
+import org.springframework.data.auditing.DateTimeProvider
+import org.springframework.messaging.converter.MappingJackson2MessageConverter
+import org.springframework.retry.support.RetryTemplate
+import org.springframework.transaction.support.TransactionOperations
+import org.testcontainers.containers.localstack.LocalStackContainer
+import org.testcontainers.containers.localstack.LocalStackContainer.Service.SNS
+import org.testcontainers.junit.jupiter.Container
+import org.testcontainers.junit.jupiter.Testcontainers
+import org.testcontainers.utility.DockerImageName
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider
+import software.amazon.awssdk.regions.Region
+import software.amazon.awssdk.services.sns.SnsClient
+import java.time.Duration
+import java.util.Optional
+import java.util.UUID
+import java.util.concurrent.Executors
+
+/**
+ * Compares the time it takes to relay outbox messages to the local SNS stand-in publishing them one by one, as it
+ * was done with `SnsTemplate`, and with the concurrent batches published by the outbox message service.
+ */
+@Tag("integration")
+@Testcontainers(disabledWithoutDocker = true)
+class OutboxRelayBenchmarkTest {
+
+    private val objectMapper: ObjectMapper = jacksonObjectMapper()
+    private val executor = Executors.newFixedThreadPool(DEFAULT_BATCHES_IN_FLIGHT)
+    private val snsClient = SnsClient.builder()
+        .endpointOverride(localStack.getEndpointOverride(SNS))
+        .region(Region.of(localStack.region))
+        .credentialsProvider(
+            StaticCredentialsProvider.create(
+                AwsBasicCredentials.create(localStack.accessKey, localStack.secretKey)
+            )
+        )
+        .build()
+
+    @AfterEach
+    fun tearDown() {
+        executor.shutdown()
+        snsClient.close()
+    }
+
+    @Test
+    fun `should relay outbox messages faster publishing them in concurrent batches`() {
+        // Given
+        val messages = createMessages()
+        val topicArn = snsClient.createTopic { it.name(TOPIC_NAME) }.topicArn()
+
+        // When
+        val sequentialTime = measure { publishOneByOne(topicArn, messages) }
+        val batchedTime = measure { publishInBatches(topicArn, messages) }
+
+        // Then
+        logger.info("Relayed {} messages one by one: {} msg/s", MESSAGES_NUM, throughput(sequentialTime))
+        logger.info("Relayed {} messages in batches: {} msg/s", MESSAGES_NUM, throughput(batchedTime))
+
+        assertThat(batchedTime)
+            .isLessThan(sequentialTime)
+    }
+
+    private fun publishOneByOne(topicArn: String, messages: List<OutboxMessageEntity>) {
+        val converter = MappingJackson2MessageConverter().also {
+            it.setSerializedPayloadClass(String::class.java)
+            it.setObjectMapper(objectMapper)
+        }
+        val sns = SnsTemplate(snsClient, converter)
+
+        for (message in messages) {
+            val event = objectMapper.convertValue(message.data, PostEvent.Created::class.java)
+            val attributes = event.attributes(
+                TRACING_ID_KEY to message.traceId.toString(),
+                IDEMPOTENT_KEY to message.id.toString(),
+            )
+            sns.sendNotification(topicArn, SnsNotification(event, attributes))
+        }
+    }
+
+    private fun publishInBatches(topicArn: String, messages: List<OutboxMessageEntity>) {
+        val pending = ArrayDeque(messages)
+        val outboxMessageRepository = mockk<OutboxMessageRepository>()
+        val outboxMessageService = OutboxMessageServiceImpl(
+            AppProps(aws = AppProps.Aws(sns = AppProps.Aws.Sns(postEvents = topicArn), sqs = null), retry = null),
+            objectMapper,
+            outboxMessageRepository,
+            RetryTemplate.defaultInstance(),
+            snsClient,
+            executor,
+            TransactionOperations.withoutTransaction(),
+            SimpleMeterRegistry(),
+            DateTimeProvider { Optional.empty() },
+        )
+        every { outboxMessageRepository.claimOldest(any(), any(), any()) } answers {
+            (1..secondArg<Int>()).mapNotNull { pending.removeFirstOrNull() }
+        }
+        every { outboxMessageRepository.deleteAllByIdIn(any()) } just runs
+        while (pending.isNotEmpty()) {
+            outboxMessageService.releaseOutboxMessagesOfType(PostEvent.Type.POST_EVENT_CREATED, MESSAGES_PER_RELEASE)
+        }
+    }
+
+    private fun createMessages() = (1..MESSAGES_NUM).map {
+        OutboxMessageEntity(
+            id = UUID.randomUUID(),
+            type = PostEvent.Type.POST_EVENT_CREATED.code,
+            data = mapOf("id" to UUID.randomUUID()),
+            traceId = UUID.randomUUID(),
+        )
+    }
+
+    private fun measure(action: () -> Unit): Duration {
+        val start = System.nanoTime()
+        action()
+        return Duration.ofNanos(System.nanoTime() - start)
+    }
+
+    private fun throughput(time: Duration) = MESSAGES_NUM * 1000 / time.toMillis().coerceAtLeast(1)
+
+    companion object {
+        private const val MESSAGES_NUM = 500
+        private const val MESSAGES_PER_RELEASE = 50
+        private const val DEFAULT_BATCHES_IN_FLIGHT = 5
+        private const val TOPIC_NAME = "benchmark-post-events"
+
+        private val logger = LoggerFactory.getLogger(this::class.java.enclosingClass)
+
+        @JvmStatic
+        @Container
+        private val localStack = LocalStackContainer(
+            DockerImageName.parse("localstack/localstack:3.4")
+        )
+    }
+}
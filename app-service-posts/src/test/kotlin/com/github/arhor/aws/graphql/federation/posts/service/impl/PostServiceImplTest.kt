@@ -6,6 +6,8 @@ import com.github.arhor.aws.graphql.federation.common.exception.EntityOperationR
 import com.github.arhor.aws.graphql.federation.common.exception.Operation
 import com.github.arhor.aws.graphql.federation.common.toSet
 import com.github.arhor.aws.graphql.federation.posts.data.entity.PostEntity
+import com.github.arhor.aws.graphql.federation.posts.data.entity.TagEntity
+import com.github.arhor.aws.graphql.federation.posts.data.entity.TagRef
 import com.github.arhor.aws.graphql.federation.posts.data.entity.UserRepresentation
 import com.github.arhor.aws.graphql.federation.posts.data.entity.UserRepresentation.Feature
 import com.github.arhor.aws.graphql.federation.posts.data.entity.projection.PostProjection
@@ -18,11 +20,17 @@ import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.Cre
 import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.DeletePostInput
 import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.Post
 import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.PostPage
+import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.PostsConnectionInput
 import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.PostsLookupInput
 import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.TagInput
 import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.UpdatePostInput
+import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.UserPostPage
+import com.github.arhor.aws.graphql.federation.posts.service.UserPostsKey
 import com.github.arhor.aws.graphql.federation.posts.service.mapping.PostMapper
+import com.github.arhor.aws.graphql.federation.posts.util.Caches
 import com.github.arhor.aws.graphql.federation.starter.core.data.Features
+import com.github.arhor.aws.graphql.federation.starter.security.CurrentUserDetails
+import com.github.arhor.aws.graphql.federation.starter.testing.OMNI_UUID_VAL
 import com.github.arhor.aws.graphql.federation.starter.testing.TEST_1_UUID_VAL
 import com.github.arhor.aws.graphql.federation.starter.testing.TEST_2_UUID_VAL
 import com.github.arhor.aws.graphql.federation.starter.testing.ZERO_UUID_VAL
@@ -37,15 +45,17 @@ import org.assertj.core.api.Assertions.catchException
 import org.assertj.core.api.Assertions.from
 import org.assertj.core.api.InstanceOfAssertFactories.type
 import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.DisplayName
 import org.junit.jupiter.api.Nested
 import org.junit.jupiter.api.Test
+import org.springframework.cache.CacheManager
+import org.springframework.cache.concurrent.ConcurrentMapCache
 import org.springframework.context.ApplicationEventPublisher
 import org.springframework.dao.OptimisticLockingFailureException
-import org.springframework.data.domain.Page
 import org.springframework.data.domain.PageImpl
 import org.springframework.data.domain.PageRequest
-import org.springframework.data.domain.Pageable
+import java.time.LocalDateTime
 import java.util.Optional
 import java.util.UUID
 import java.util.stream.Stream
@@ -58,13 +68,27 @@ class PostServiceImplTest {
     private val tagRepository = mockk<TagRepository>()
     private val userRepository = mockk<UserRepresentationRepository>()
 
-    private val postService = PostServiceImpl(
-        appEventPublisher,
-        postMapper,
-        postRepository,
-        tagRepository,
-        userRepository,
-    )
+    private val usersCache = ConcurrentMapCache(Caches.USER_REPRESENTATIONS.name)
+    private val tagsCache = ConcurrentMapCache(Caches.TAGS.name)
+    private val cacheManager = mockk<CacheManager>()
+
+    private lateinit var postService: PostServiceImpl
+
+    @BeforeEach
+    fun setUp() {
+        every { cacheManager.getCache(Caches.USER_REPRESENTATIONS.name) } returns usersCache
+        every { cacheManager.getCache(Caches.TAGS.name) } returns tagsCache
+
+        postService = PostServiceImpl(
+            appEventPublisher,
+            cacheManager,
+            postMapper,
+            postRepository,
+            tagRepository,
+            userRepository,
+        )
+        postService.initialize()
+    }
 
     @AfterEach
     fun tearDown() {
@@ -130,19 +154,22 @@ class PostServiceImplTest {
         fun `should expected page when posts exist without any filters`() {
             // Given
             val input = PostsLookupInput()
-            val dataFromDB = listOf(createPostEntity())
+            val dataFromDB = listOf(createPostProjection())
             val expectedPosts = dataFromDB.map { it.toPost() }
-            val expectedPage = PageImpl(dataFromDB)
+            val request = PageRequest.of(input.page, input.size)
+            val expectedPage = PageImpl(dataFromDB, request, 1)
 
-            every { postRepository.findAll(any<Pageable>()) } returns expectedPage
-            every { postMapper.mapToPostPageFromEntity(any()) } returns PostPage(data = expectedPosts)
+            every { postRepository.findPage(any(), any(), any(), any()) } answers { dataFromDB.stream() }
+            every { postRepository.count() } returns 1
+            every { postMapper.mapToPostPageFromProjection(any()) } returns PostPage(data = expectedPosts)
 
             // When
-            val result = postService.getPostPage(input)
+            val result = postService.getPostPage(input, setOf(POST.Content))
 
             // Then
-            verify(exactly = 1) { postRepository.findAll(PageRequest.of(input.page, input.size)) }
-            verify(exactly = 1) { postMapper.mapToPostPageFromEntity(expectedPage) }
+            verify(exactly = 1) { postRepository.findPage(request.pageSize, request.offset, true, false) }
+            verify(exactly = 1) { postRepository.count() }
+            verify(exactly = 1) { postMapper.mapToPostPageFromProjection(expectedPage) }
 
             assertThat(result.data)
                 .isEqualTo(expectedPosts)
@@ -152,17 +179,20 @@ class PostServiceImplTest {
         fun `should return empty page when no posts found without any filters`() {
             // Given
             val input = PostsLookupInput()
-            val empty = Page.empty<PostEntity>()
+            val request = PageRequest.of(input.page, input.size)
+            val empty = PageImpl(emptyList<PostProjection>(), request, 0)
 
-            every { postRepository.findAll(any<Pageable>()) } returns empty
-            every { postMapper.mapToPostPageFromEntity(any()) } returns PostPage(data = emptyList())
+            every { postRepository.findPage(any(), any(), any(), any()) } returns Stream.empty()
+            every { postRepository.count() } returns 0
+            every { postMapper.mapToPostPageFromProjection(any()) } returns PostPage(data = emptyList())
 
             // When
-            val result = postService.getPostPage(input)
+            val result = postService.getPostPage(input, emptySet())
 
             // Then
-            verify(exactly = 1) { postRepository.findAll(PageRequest.of(input.page, input.size)) }
-            verify(exactly = 1) { postMapper.mapToPostPageFromEntity(empty) }
+            verify(exactly = 1) { postRepository.findPage(request.pageSize, request.offset, false, false) }
+            verify(exactly = 1) { postRepository.count() }
+            verify(exactly = 1) { postMapper.mapToPostPageFromProjection(empty) }
 
             assertThat(result.data)
                 .isEmpty()
@@ -178,15 +208,15 @@ class PostServiceImplTest {
             val request = PageRequest.of(input.page, input.size)
             val expectedPage = PageImpl(dataFromDB, request, Long.MAX_VALUE)
 
-            every { postRepository.findPageByTagsContaining(any(), any(), any()) } answers { dataFromDB.stream() }
+            every { postRepository.findPageByTagsContaining(any(), any(), any(), any(), any()) } answers { dataFromDB.stream() }
             every { postRepository.countByTagsContaining(any()) } returns Long.MAX_VALUE
             every { postMapper.mapToPostPageFromProjection(any()) } returns PostPage(data = expectedPosts)
 
             // When
-            val result = postService.getPostPage(input)
+            val result = postService.getPostPage(input, setOf(POST.Content, POST.Tags))
 
             // Then
-            verify(exactly = 1) { postRepository.findPageByTagsContaining(tags, request.pageSize, request.offset) }
+            verify(exactly = 1) { postRepository.findPageByTagsContaining(tags, request.pageSize, request.offset, true, true) }
             verify(exactly = 1) { postRepository.countByTagsContaining(tags) }
             verify(exactly = 1) { postMapper.mapToPostPageFromProjection(expectedPage) }
 
@@ -202,15 +232,15 @@ class PostServiceImplTest {
             val request = PageRequest.of(input.page, input.size)
             val empty = PageImpl(emptyList<PostProjection>(), request, Long.MAX_VALUE)
 
-            every { postRepository.findPageByTagsContaining(any(), any(), any()) } returns Stream.empty()
+            every { postRepository.findPageByTagsContaining(any(), any(), any(), any(), any()) } returns Stream.empty()
             every { postRepository.countByTagsContaining(any()) } returns Long.MAX_VALUE
             every { postMapper.mapToPostPageFromProjection(any()) } returns PostPage(data = emptyList())
 
             // When
-            val result = postService.getPostPage(input)
+            val result = postService.getPostPage(input, emptySet())
 
             // Then
-            verify(exactly = 1) { postRepository.findPageByTagsContaining(tags, request.pageSize, request.offset) }
+            verify(exactly = 1) { postRepository.findPageByTagsContaining(tags, request.pageSize, request.offset, false, false) }
             verify(exactly = 1) { postRepository.countByTagsContaining(tags) }
             verify(exactly = 1) { postMapper.mapToPostPageFromProjection(empty) }
 
@@ -219,29 +249,148 @@ class PostServiceImplTest {
         }
     }
 
+    @Nested
+    @DisplayName("PostService :: getPostConnection")
+    inner class GetPostConnectionTest {
+        @Test
+        fun `should return first posts with cursor of the last one and without counting total`() {
+            // Given
+            val input = PostsConnectionInput(first = 1)
+            val post1Projection = createPostProjection(postId = POST_1_ID).copy(createdDateTime = CREATED_DATE_TIME)
+            val post2Projection = createPostProjection(postId = POST_2_ID).copy(createdDateTime = CREATED_DATE_TIME)
+            val post = post1Projection.toPost()
+
+            every { postRepository.findPageAfter(any(), any(), any(), any(), any()) } answers {
+                Stream.of(post1Projection, post2Projection)
+            }
+            every { postMapper.mapToPost(any<PostProjection>()) } returns post
+
+            // When
+            val result = postService.getPostConnection(input, setOf(POST.Content), withTotal = false)
+
+            // Then
+            verify(exactly = 1) { postRepository.findPageAfter(null, null, 2, true, false) }
+            verify(exactly = 1) { postMapper.mapToPost(post1Projection) }
+
+            assertThat(result.data)
+                .containsExactly(post)
+            assertThat(result.hasNext)
+                .isTrue()
+            assertThat(result.total)
+                .isNull()
+            assertThat(PostsCursor.decode(result.cursor))
+                .isEqualTo(PostsCursor(CREATED_DATE_TIME, POST_1_ID))
+        }
+
+        @Test
+        fun `should continue after passed cursor and count total when it is requested`() {
+            // Given
+            val tags = setOf("test-1", "test-2")
+            val cursor = PostsCursor(CREATED_DATE_TIME, POST_1_ID)
+            val input = PostsConnectionInput(first = 20, after = cursor.encode(), tags = tags.map { TagInput(it) })
+
+            every {
+                postRepository.findPageAfterByTagsContaining(any(), any(), any(), any(), any(), any())
+            } returns Stream.empty()
+            every { postRepository.countByTagsContaining(any()) } returns 1
+
+            // When
+            val result = postService.getPostConnection(input, emptySet(), withTotal = true)
+
+            // Then
+            verify(exactly = 1) {
+                postRepository.findPageAfterByTagsContaining(tags, CREATED_DATE_TIME, POST_1_ID, 21, false, false)
+            }
+            verify(exactly = 1) { postRepository.countByTagsContaining(tags) }
+
+            assertThat(result.data)
+                .isEmpty()
+            assertThat(result.cursor)
+                .isNull()
+            assertThat(result.hasNext)
+                .isFalse()
+            assertThat(result.total)
+                .isEqualTo(1)
+        }
+
+        @Test
+        fun `should load posts found by tag index when it is able to answer`() {
+            // Given
+            val tags = setOf("test-1", "test-2")
+            val input = PostsConnectionInput(first = 20, tags = tags.map { TagInput(it) })
+            val projection = createPostProjection().copy(createdDateTime = CREATED_DATE_TIME)
+            val post = projection.toPost()
+            val tagIndex = mockk<PostTagIndex>()
+            val indexedPostService = PostServiceImpl(
+                appEventPublisher,
+                cacheManager,
+                postMapper,
+                postRepository,
+                tagRepository,
+                userRepository,
+                tagIndex,
+            )
+
+            every { tagIndex.findPostIdsAfter(any(), any(), any()) } returns listOf(POST_1_ID)
+            every { tagIndex.countPosts(any()) } returns 1
+            every { postRepository.findAllByIdIn(any(), any(), any()) } answers { Stream.of(projection) }
+            every { postMapper.mapToPost(any<PostProjection>()) } returns post
+
+            // When
+            val result = indexedPostService.getPostConnection(input, setOf(POST.Tags), withTotal = true)
+
+            // Then
+            verify(exactly = 1) { tagIndex.findPostIdsAfter(tags, null, 21) }
+            verify(exactly = 1) { tagIndex.countPosts(tags) }
+            verify(exactly = 1) { postRepository.findAllByIdIn(listOf(POST_1_ID), false, true) }
+            verify(exactly = 1) { postMapper.mapToPost(projection) }
+
+            assertThat(result.data)
+                .containsExactly(post)
+            assertThat(result.total)
+                .isEqualTo(1)
+        }
+
+        @Test
+        fun `should throw IllegalArgumentException when passed cursor is malformed`() {
+            // Given
+            val input = PostsConnectionInput(after = "malformed-cursor")
+
+            // When
+            val result = catchException { postService.getPostConnection(input, emptySet(), withTotal = false) }
+
+            // Then
+            assertThat(result)
+                .isInstanceOf(IllegalArgumentException::class.java)
+                .hasMessageContaining("malformed-cursor")
+        }
+    }
+
     @Nested
     @DisplayName("PostService :: getPostsByUserIds")
     inner class GetPostsByUserIdsTest {
         @Test
         fun `should return expected posts grouped by user id when they exist in the repository`() {
             // Given
-            val post1Projection = createPostProjection(postId = POST_1_ID)
-            val post2Projection = createPostProjection(postId = POST_2_ID)
+            val post1Projection = createPostProjection(postId = POST_1_ID).copy(createdDateTime = CREATED_DATE_TIME)
+            val post2Projection = createPostProjection(postId = POST_2_ID).copy(createdDateTime = CREATED_DATE_TIME)
 
             val projections = listOf(post1Projection, post2Projection)
             val posts = projections.map { it.toPost() }
 
-            val expectedUserIds = projections.toSet { it.userId!! }
-            val expectedResult = posts.groupBy { it.userId }
+            val expectedKey = UserPostsKey(USER_ID, first = 20, after = null, fields = setOf(POST.Content))
+            val expectedCursor = UserPostsCursor(USER_ID, CREATED_DATE_TIME, POST_2_ID).encode()
+            val expectedPage = UserPostPage(data = posts, cursor = expectedCursor, hasNext = false)
+            val expectedResult = mapOf(expectedKey to expectedPage)
 
-            every { postRepository.findAllByUserIdIn(any()) } returns projections
+            every { postRepository.findPageByUserIdIn(any(), any(), any(), any(), any()) } returns projections
             every { postMapper.mapToPost(any<PostProjection>()) } returnsMany posts
 
             // When
-            val result = postService.getPostsByUserIds(expectedUserIds)
+            val result = postService.getPostsByUserIds(setOf(expectedKey))
 
             // Then
-            verify(exactly = 1) { postRepository.findAllByUserIdIn(expectedUserIds) }
+            verify(exactly = 1) { postRepository.findPageByUserIdIn(listOf(USER_ID), null, null, 21, true) }
             verify(exactly = 1) { postMapper.mapToPost(post1Projection) }
             verify(exactly = 1) { postMapper.mapToPost(post2Projection) }
 
@@ -250,13 +399,135 @@ class PostServiceImplTest {
                 .isEqualTo(expectedResult)
         }
 
+        @Test
+        fun `should return first posts with cursor of the last one when there are more posts of the user`() {
+            // Given
+            val post1Projection = createPostProjection(postId = POST_1_ID).copy(createdDateTime = CREATED_DATE_TIME)
+            val post2Projection = createPostProjection(postId = POST_2_ID).copy(createdDateTime = CREATED_DATE_TIME)
+            val post = post1Projection.toPost()
+
+            val key = UserPostsKey(USER_ID, first = 1, after = null, fields = emptySet())
+
+            every { postRepository.findPageByUserIdIn(any(), any(), any(), any(), any()) } returns listOf(
+                post1Projection,
+                post2Projection,
+            )
+            every { postMapper.mapToPost(any<PostProjection>()) } returns post
+
+            // When
+            val result = postService.getPostsByUserIds(setOf(key))
+
+            // Then
+            verify(exactly = 1) { postRepository.findPageByUserIdIn(listOf(USER_ID), null, null, 2, false) }
+            verify(exactly = 1) { postMapper.mapToPost(post1Projection) }
+
+            val page = result.getValue(key)
+
+            assertThat(page.data)
+                .containsExactly(post)
+            assertThat(page.hasNext)
+                .isTrue()
+            assertThat(UserPostsCursor.decode(page.cursor))
+                .isEqualTo(UserPostsCursor(USER_ID, CREATED_DATE_TIME, POST_1_ID))
+        }
+
+        @Test
+        fun `should query posts once per distinct set of requested fields`() {
+            // Given
+            val projection = createPostProjection().copy(createdDateTime = CREATED_DATE_TIME)
+            val post = projection.toPost()
+
+            val keyWithContent = UserPostsKey(USER_ID, first = 20, after = null, fields = setOf(POST.Content))
+            val keyWithoutContent = UserPostsKey(USER_ID, first = 20, after = null, fields = emptySet())
+
+            every { postRepository.findPageByUserIdIn(any(), any(), any(), any(), any()) } returns listOf(projection)
+            every { postMapper.mapToPost(any<PostProjection>()) } returns post
+
+            // When
+            val result = postService.getPostsByUserIds(setOf(keyWithContent, keyWithoutContent))
+
+            // Then
+            verify(exactly = 1) { postRepository.findPageByUserIdIn(listOf(USER_ID), null, null, 21, true) }
+            verify(exactly = 1) { postRepository.findPageByUserIdIn(listOf(USER_ID), null, null, 21, false) }
+            verify(exactly = 2) { postMapper.mapToPost(projection) }
+
+            assertThat(result)
+                .containsOnlyKeys(keyWithContent, keyWithoutContent)
+        }
+
+        @Test
+        fun `should query posts of all users sharing page arguments at once`() {
+            // Given
+            val otherUserId = OMNI_UUID_VAL
+            val projection = createPostProjection().copy(createdDateTime = CREATED_DATE_TIME)
+            val post = projection.toPost()
+            val cursor = UserPostsCursor(USER_ID, CREATED_DATE_TIME, POST_1_ID).encode()
+
+            val firstPageKey = UserPostsKey(USER_ID, first = 10, after = null, fields = emptySet())
+            val otherFirstPageKey = UserPostsKey(otherUserId, first = 10, after = null, fields = emptySet())
+            val nextPageKey = UserPostsKey(USER_ID, first = 10, after = cursor, fields = emptySet())
+
+            every { postRepository.findPageByUserIdIn(any(), any(), any(), any(), any()) } returns listOf(projection)
+            every { postMapper.mapToPost(any<PostProjection>()) } returns post
+
+            // When
+            val result = postService.getPostsByUserIds(setOf(firstPageKey, otherFirstPageKey, nextPageKey))
+
+            // Then
+            verify(exactly = 1) {
+                postRepository.findPageByUserIdIn(listOf(USER_ID, otherUserId), null, null, 11, false)
+            }
+            verify(exactly = 1) {
+                postRepository.findPageByUserIdIn(listOf(USER_ID), CREATED_DATE_TIME, POST_1_ID, 11, false)
+            }
+            verify(exactly = 2) { postMapper.mapToPost(projection) }
+
+            assertThat(result)
+                .containsOnlyKeys(firstPageKey, otherFirstPageKey, nextPageKey)
+            assertThat(result[otherFirstPageKey])
+                .isEqualTo(UserPostPage(data = emptyList(), cursor = null, hasNext = false))
+        }
+
+        @Test
+        fun `should ignore cursor issued for the posts of another user`() {
+            // Given
+            val otherUserId = OMNI_UUID_VAL
+            val cursor = UserPostsCursor(otherUserId, CREATED_DATE_TIME, POST_1_ID).encode()
+            val key = UserPostsKey(USER_ID, first = 10, after = cursor, fields = emptySet())
+
+            every { postRepository.findPageByUserIdIn(any(), any(), any(), any(), any()) } returns emptyList()
+
+            // When
+            val result = postService.getPostsByUserIds(setOf(key))
+
+            // Then
+            verify(exactly = 1) { postRepository.findPageByUserIdIn(listOf(USER_ID), null, null, 11, false) }
+
+            assertThat(result)
+                .containsOnlyKeys(key)
+        }
+
+        @Test
+        fun `should throw IllegalArgumentException when passed cursor is malformed`() {
+            // Given
+            val key = UserPostsKey(USER_ID, first = 10, after = "malformed-cursor", fields = emptySet())
+
+            // When
+            val result = catchException { postService.getPostsByUserIds(setOf(key)) }
+
+            // Then
+            assertThat(result)
+                .isInstanceOf(IllegalArgumentException::class.java)
+                .hasMessageContaining("malformed-cursor")
+        }
+
         @Test
         fun `should return empty map without repository calls when passed user ids empty`() {
             // Given
-            val userIds = emptySet<UUID>()
+            val keys = emptySet<UserPostsKey>()
 
             // When
-            val result = postService.getPostsByUserIds(userIds)
+            val result = postService.getPostsByUserIds(keys)
 
             // Then
             assertThat(result)
@@ -302,6 +573,148 @@ class PostServiceImplTest {
                 .isNotNull()
         }
 
+        @Test
+        fun `should read user representation from the cache on subsequent post creation`() {
+            // Given
+            val input = CreatePostInput(
+                title = "test-title",
+                content = "test-content",
+            )
+            val post = createPostEntity()
+            val user = UserRepresentation(USER_ID)
+            val expectedPost = post.toPost()
+
+            every { userRepository.findById(any()) } returns Optional.of(user)
+            every { postMapper.mapToEntity(any(), any(), any()) } returns post
+            every { postRepository.save(any()) } answers { firstArg() }
+            every { appEventPublisher.publishEvent(any<Any>()) } just runs
+            every { postMapper.mapToPost(any<PostEntity>()) } returns expectedPost
+
+            val currentUser = mockk<CurrentUserDetails> {
+                every { id } returns USER_ID
+                every { authorities } returns emptyList()
+            }
+
+            // When
+            postService.createPost(input, currentUser)
+            postService.createPost(input, currentUser)
+
+            // Then
+            verify(exactly = 1) { userRepository.findById(USER_ID) }
+            verify(exactly = 2) { postMapper.mapToEntity(input, USER_ID, null) }
+            verify(exactly = 2) { postRepository.save(post) }
+            verify(exactly = 2) { appEventPublisher.publishEvent(PostEvent.Created(id = post.id!!)) }
+            verify(exactly = 2) { postMapper.mapToPost(post) }
+
+            assertThat(usersCache.get(USER_ID)?.get())
+                .isEqualTo(user)
+        }
+
+        @Test
+        fun `should resolve all missing tags with a single upsert and cache them`() {
+            // Given
+            val input = CreatePostInput(
+                title = "test-title",
+                content = "test-content",
+                tags = listOf(TagInput(" Test  One "), TagInput("test two")),
+            )
+            val post = createPostEntity()
+            val tag1 = TagEntity(id = TAG_1_ID, name = "test one")
+            val tag2 = TagEntity(id = TAG_2_ID, name = "test two")
+            val expectedRefs = setOf(TagRef(TAG_1_ID), TagRef(TAG_2_ID))
+
+            every { userRepository.findById(any()) } returns Optional.of(UserRepresentation(USER_ID))
+            every { tagRepository.upsertAllByNameIn(any()) } returns listOf(tag1, tag2)
+            every { postMapper.mapToEntity(any(), any(), any()) } returns post
+            every { postRepository.save(any()) } answers { firstArg() }
+            every { appEventPublisher.publishEvent(any<Any>()) } just runs
+            every { postMapper.mapToPost(any<PostEntity>()) } returns post.toPost()
+
+            // When
+            postService.createPost(input, mockk {
+                every { id } returns USER_ID
+                every { authorities } returns emptyList()
+            })
+
+            // Then
+            verify(exactly = 1) { tagRepository.upsertAllByNameIn(listOf("test one", "test two")) }
+            verify(exactly = 1) { postMapper.mapToEntity(input, USER_ID, expectedRefs) }
+            verify(exactly = 1) { postRepository.save(post) }
+            verify(exactly = 1) { appEventPublisher.publishEvent(PostEvent.Created(id = post.id!!)) }
+            verify(exactly = 1) { postMapper.mapToPost(post) }
+
+            assertThat(tagsCache.get("test one")?.get())
+                .isEqualTo(TAG_1_ID)
+            assertThat(tagsCache.get("test two")?.get())
+                .isEqualTo(TAG_2_ID)
+        }
+
+        @Test
+        fun `should not query tags at all when all of them are cached`() {
+            // Given
+            val input = CreatePostInput(
+                title = "test-title",
+                content = "test-content",
+                tags = listOf(TagInput("test one")),
+            )
+            val post = createPostEntity()
+
+            tagsCache.put("test one", TAG_1_ID)
+
+            every { userRepository.findById(any()) } returns Optional.of(UserRepresentation(USER_ID))
+            every { postMapper.mapToEntity(any(), any(), any()) } returns post
+            every { postRepository.save(any()) } answers { firstArg() }
+            every { appEventPublisher.publishEvent(any<Any>()) } just runs
+            every { postMapper.mapToPost(any<PostEntity>()) } returns post.toPost()
+
+            // When
+            postService.createPost(input, mockk {
+                every { id } returns USER_ID
+                every { authorities } returns emptyList()
+            })
+
+            // Then
+            verify(exactly = 1) { postMapper.mapToEntity(input, USER_ID, setOf(TagRef(TAG_1_ID))) }
+            verify(exactly = 1) { postRepository.save(post) }
+            verify(exactly = 1) { appEventPublisher.publishEvent(PostEvent.Created(id = post.id!!)) }
+            verify(exactly = 1) { postMapper.mapToPost(post) }
+        }
+
+        @Test
+        fun `should find tags created concurrently when upsert does not return them`() {
+            // Given
+            val input = CreatePostInput(
+                title = "test-title",
+                content = "test-content",
+                tags = listOf(TagInput("test one"), TagInput("test two")),
+            )
+            val post = createPostEntity()
+            val tag1 = TagEntity(id = TAG_1_ID, name = "test one")
+            val tag2 = TagEntity(id = TAG_2_ID, name = "test two")
+
+            every { userRepository.findById(any()) } returns Optional.of(UserRepresentation(USER_ID))
+            every { tagRepository.upsertAllByNameIn(any()) } returns listOf(tag1)
+            every { tagRepository.findAllByNameIn(any()) } returns listOf(tag2)
+            every { postMapper.mapToEntity(any(), any(), any()) } returns post
+            every { postRepository.save(any()) } answers { firstArg() }
+            every { appEventPublisher.publishEvent(any<Any>()) } just runs
+            every { postMapper.mapToPost(any<PostEntity>()) } returns post.toPost()
+
+            // When
+            postService.createPost(input, mockk {
+                every { id } returns USER_ID
+                every { authorities } returns emptyList()
+            })
+
+            // Then
+            verify(exactly = 1) { tagRepository.upsertAllByNameIn(listOf("test one", "test two")) }
+            verify(exactly = 1) { tagRepository.findAllByNameIn(listOf("test two")) }
+            verify(exactly = 1) { postMapper.mapToEntity(input, USER_ID, setOf(TagRef(TAG_1_ID), TagRef(TAG_2_ID))) }
+            verify(exactly = 1) { postRepository.save(post) }
+            verify(exactly = 1) { appEventPublisher.publishEvent(PostEvent.Created(id = post.id!!)) }
+            verify(exactly = 1) { postMapper.mapToPost(post) }
+        }
+
         @Test
         fun `should throw EntityNotFoundException when specified user does not exist`() {
             // Given
@@ -437,7 +850,7 @@ class PostServiceImplTest {
         }
 
         @Test
-        fun `should not call PostRepository#save when there are no updates done to the entity`() {
+        fun `should not call PostRepository#update when there are no updates done to the entity`() {
             // Given
             val input = UpdatePostInput(id = POST_1_ID)
             val post = createPostEntity()
@@ -465,7 +878,7 @@ class PostServiceImplTest {
         }
 
         @Test
-        fun `should call PostRepository#save when there are updates done to the entity`() {
+        fun `should call PostRepository#update when there are updates done to the entity`() {
             // Given
             val input = UpdatePostInput(
                 id = POST_1_ID,
@@ -480,7 +893,7 @@ class PostServiceImplTest {
 
             every { postRepository.findById(any()) } returns Optional.of(post)
             every { userRepository.findById(any()) } returns Optional.of(user)
-            every { postRepository.save(any()) } answers { firstArg() }
+            every { postRepository.update(any(), any()) } answers { secondArg() }
             every { postMapper.mapToPost(any<PostEntity>()) } returns expectedPost
 
             // When
@@ -492,7 +905,7 @@ class PostServiceImplTest {
             // Then
             verify(exactly = 1) { postRepository.findById(POST_1_ID) }
             verify(exactly = 1) { userRepository.findById(USER_ID) }
-            verify(exactly = 1) { postRepository.save(updatedPost) }
+            verify(exactly = 1) { postRepository.update(post, updatedPost) }
             verify(exactly = 1) { postMapper.mapToPost(updatedPost) }
 
             assertThat(result)
@@ -519,7 +932,7 @@ class PostServiceImplTest {
 
             every { postRepository.findById(any()) } returns Optional.of(post)
             every { userRepository.findById(any()) } returns Optional.of(user)
-            every { postRepository.save(any()) } throws OptimisticLockingFailureException("test")
+            every { postRepository.update(any(), any()) } throws OptimisticLockingFailureException("test")
 
             // When
             val result = catchException {
@@ -532,7 +945,7 @@ class PostServiceImplTest {
             // Then
             verify(exactly = 1) { postRepository.findById(input.id) }
             verify(exactly = 1) { userRepository.findById(USER_ID) }
-            verify(exactly = 1) { postRepository.save(updatedPost) }
+            verify(exactly = 1) { postRepository.update(post, updatedPost) }
 
             assertThat(result)
                 .isNotNull()
@@ -609,7 +1022,7 @@ class PostServiceImplTest {
         id = id,
         userId = userId,
         title = title,
-        content = content,
+        content = content.orEmpty(),
     )
 
     private fun PostEntity.toPost() = Post(
@@ -623,5 +1036,8 @@ class PostServiceImplTest {
         private val USER_ID = ZERO_UUID_VAL
         private val POST_1_ID = TEST_1_UUID_VAL
         private val POST_2_ID = TEST_2_UUID_VAL
+        private val TAG_1_ID = UUID(0, 101)
+        private val TAG_2_ID = UUID(0, 102)
+        private val CREATED_DATE_TIME = LocalDateTime.parse("2024-01-01T12:00:00.123456")
     }
 }
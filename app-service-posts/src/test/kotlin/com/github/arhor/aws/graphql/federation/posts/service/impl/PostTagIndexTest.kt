@@ -0,0 +1,242 @@
+package com.github.arhor.aws.graphql.federation.posts.service.impl
+
+import com.github.arhor.aws.graphql.federation.posts.data.entity.projection.PostProjection
+import com.github.arhor.aws.graphql.federation.posts.data.repository.PostRepository
+import io.mockk.every
+import io.mockk.mockk
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.DisplayName
+import org.junit.jupiter.api.Nested
+import org.junit.jupiter.api.Test
+import org.springframework.transaction.support.TransactionOperations
+import java.util.UUID
+import java.util.stream.Stream
+
+class PostTagIndexTest {
+
+    private val postRepository = mockk<PostRepository>()
+
+    private val tagIndex = PostTagIndex(postRepository, TransactionOperations.withoutTransaction())
+
+    @Nested
+    @DisplayName("PostTagIndex :: findPostIdsAfter")
+    inner class FindPostIdsAfterTest {
+        @Test
+        fun `should return null when index is not built yet`() {
+            // When
+            val result = tagIndex.findPostIdsAfter(listOf("tag-1"), after = null, limit = 10)
+
+            // Then
+            assertThat(result)
+                .isNull()
+        }
+
+        @Test
+        fun `should return posts having all the given tags in the indexed order`() {
+            // Given
+            initializeIndex()
+
+            // When
+            val result = tagIndex.findPostIdsAfter(listOf("tag-1", "tag-2"), after = null, limit = 10)
+
+            // Then
+            assertThat(result)
+                .containsExactly(POST_2_ID, POST_4_ID)
+        }
+
+        @Test
+        fun `should return posts following the cursor post limited by the given limit`() {
+            // Given
+            initializeIndex()
+
+            // When
+            val result = tagIndex.findPostIdsAfter(listOf("tag-1"), after = POST_1_ID, limit = 1)
+
+            // Then
+            assertThat(result)
+                .containsExactly(POST_2_ID)
+        }
+
+        @Test
+        fun `should return null when the cursor post is not indexed`() {
+            // Given
+            initializeIndex()
+
+            // When
+            val result = tagIndex.findPostIdsAfter(listOf("tag-1"), after = UNKNOWN_POST_ID, limit = 10)
+
+            // Then
+            assertThat(result)
+                .isNull()
+        }
+
+        @Test
+        fun `should return empty list when there is a tag without posts`() {
+            // Given
+            initializeIndex()
+
+            // When
+            val result = tagIndex.findPostIdsAfter(listOf("tag-1", "unknown"), after = null, limit = 10)
+
+            // Then
+            assertThat(result)
+                .isEmpty()
+        }
+    }
+
+    @Nested
+    @DisplayName("PostTagIndex :: findPostIds")
+    inner class FindPostIdsTest {
+        @Test
+        fun `should skip the given number of matching posts`() {
+            // Given
+            initializeIndex()
+
+            // When
+            val result = tagIndex.findPostIds(listOf("tag-1"), offset = 1, limit = 2)
+
+            // Then
+            assertThat(result)
+                .containsExactly(POST_2_ID, POST_4_ID)
+        }
+
+        @Test
+        fun `should return empty list when offset exceeds number of matching posts`() {
+            // Given
+            initializeIndex()
+
+            // When
+            val result = tagIndex.findPostIds(listOf("tag-1"), offset = 3, limit = 2)
+
+            // Then
+            assertThat(result)
+                .isEmpty()
+        }
+    }
+
+    @Nested
+    @DisplayName("PostTagIndex :: countPosts")
+    inner class CountPostsTest {
+        @Test
+        fun `should return number of posts having all the given tags`() {
+            // Given
+            initializeIndex()
+
+            // When
+            val result = tagIndex.countPosts(listOf("tag-1", "tag-2"))
+
+            // Then
+            assertThat(result)
+                .isEqualTo(2)
+        }
+    }
+
+    @Nested
+    @DisplayName("PostTagIndex :: onPostSaved / onPostDeleted")
+    inner class PostChangesTest {
+        @Test
+        fun `should reflect created, updated and deleted posts`() {
+            // Given
+            initializeIndex()
+
+            // When
+            tagIndex.onPostSaved(UNKNOWN_POST_ID, listOf("tag-1", "tag-2"))
+            tagIndex.onPostSaved(POST_2_ID, listOf("tag-3"))
+            tagIndex.onPostDeleted(POST_4_ID)
+
+            // Then
+            assertThat(tagIndex.findPostIdsAfter(listOf("tag-1", "tag-2"), after = null, limit = 10))
+                .containsExactly(UNKNOWN_POST_ID)
+            assertThat(tagIndex.findPostIdsAfter(listOf("tag-3"), after = null, limit = 10))
+                .containsExactly(POST_2_ID)
+            assertThat(tagIndex.countPosts(listOf("tag-1")))
+                .isEqualTo(2)
+        }
+
+        @Test
+        fun `should remove updated post only from the tags it had before the update`() {
+            // Given
+            initializeIndex()
+
+            // When
+            tagIndex.onPostSaved(POST_1_ID, listOf("tag-3"))
+            tagIndex.onPostSaved(POST_2_ID, listOf("tag-2"))
+
+            // Then
+            assertThat(tagIndex.findPostIdsAfter(listOf("tag-1"), after = null, limit = 10))
+                .containsExactly(POST_4_ID)
+            assertThat(tagIndex.findPostIdsAfter(listOf("tag-2"), after = null, limit = 10))
+                .containsExactly(POST_2_ID, POST_3_ID, POST_4_ID)
+            assertThat(tagIndex.findPostIdsAfter(listOf("tag-3"), after = null, limit = 10))
+                .containsExactly(POST_1_ID)
+        }
+
+        @Test
+        fun `should remove deleted post from its tags keeping the other posts of them`() {
+            // Given
+            initializeIndex()
+
+            // When
+            tagIndex.onPostDeleted(POST_3_ID)
+
+            // Then
+            assertThat(tagIndex.countPosts(listOf("tag-2")))
+                .isEqualTo(2)
+            assertThat(tagIndex.findPostIdsAfter(listOf("tag-2"), after = null, limit = 10))
+                .containsExactly(POST_2_ID, POST_4_ID)
+        }
+
+        @Test
+        fun `should apply posts changes committed while the index is built exactly once`() {
+            // Given
+            every { postRepository.findPageAfter(null, null, Int.MAX_VALUE, false, true) } answers {
+                // the first post is saved before the snapshot is read, so it is visible to the snapshot as well
+                tagIndex.onPostSaved(POST_1_ID, listOf("tag-1"))
+                Stream.of(post(POST_1_ID, "tag-1"), post(POST_2_ID, "tag-1")).peek {
+                    // the rest of the changes are committed while the snapshot is read
+                    if (it.id == POST_2_ID) {
+                        tagIndex.onPostSaved(UNKNOWN_POST_ID, listOf("tag-1"))
+                        tagIndex.onPostDeleted(POST_2_ID)
+                    }
+                }
+            }
+
+            // When
+            tagIndex.initialize()
+
+            // Then
+            assertThat(tagIndex.findPostIdsAfter(listOf("tag-1"), after = null, limit = 10))
+                .containsExactly(POST_1_ID, UNKNOWN_POST_ID)
+            assertThat(tagIndex.countPosts(listOf("tag-1")))
+                .isEqualTo(2)
+        }
+    }
+
+    private fun initializeIndex() {
+        every { postRepository.findPageAfter(null, null, Int.MAX_VALUE, false, true) } answers {
+            Stream.of(
+                post(POST_1_ID, "tag-1"),
+                post(POST_2_ID, "tag-1", "tag-2"),
+                post(POST_3_ID, "tag-2"),
+                post(POST_4_ID, "tag-1", "tag-2"),
+            )
+        }
+        tagIndex.initialize()
+    }
+
+    private fun post(id: UUID, vararg tags: String) = PostProjection(
+        id = id,
+        userId = null,
+        title = "test-title",
+        content = null,
+        tags = tags.toList(),
+    )
+
+    companion object {
+        private val POST_1_ID = UUID(0, 1)
+        private val POST_2_ID = UUID(0, 2)
+        private val POST_3_ID = UUID(0, 3)
+        private val POST_4_ID = UUID(0, 4)
+        private val UNKNOWN_POST_ID = UUID(0, 5)
+    }
+}
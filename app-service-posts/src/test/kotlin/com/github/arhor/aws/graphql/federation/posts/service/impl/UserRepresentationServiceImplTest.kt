@@ -9,8 +9,12 @@ import com.github.arhor.aws.graphql.federation.posts.generated.graphql.DgsConsta
 import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.SwitchUserPostsInput
 import com.github.arhor.aws.graphql.federation.posts.generated.graphql.types.User
 import com.github.arhor.aws.graphql.federation.posts.util.Caches
+import com.github.arhor.aws.graphql.federation.starter.core.cascade.CascadeEngine
 import com.github.arhor.aws.graphql.federation.starter.core.data.Features
+import com.github.arhor.aws.graphql.federation.starter.testing.InMemoryIdempotencyStore
 import com.github.arhor.aws.graphql.federation.starter.testing.TEST_1_UUID_VAL
+import com.github.arhor.aws.graphql.federation.starter.testing.TEST_2_UUID_VAL
+import com.github.arhor.aws.graphql.federation.starter.testing.TEST_3_UUID_VAL
 import com.github.arhor.aws.graphql.federation.starter.testing.ZERO_UUID_VAL
 import io.mockk.every
 import io.mockk.just
@@ -28,21 +32,26 @@ import org.junit.jupiter.api.Test
 import org.springframework.cache.CacheManager
 import org.springframework.cache.concurrent.ConcurrentMapCache
 import java.util.Optional
+import java.util.UUID
 
 class UserRepresentationServiceImplTest {
 
-    private val cache = ConcurrentMapCache(Caches.IDEMPOTENT_ID_SET.name)
+    private val usersCache = ConcurrentMapCache(Caches.USER_REPRESENTATIONS.name)
     private val cacheManager = mockk<CacheManager>()
+    private val idempotencyStore = InMemoryIdempotencyStore()
+    private val cascadeEngine = mockk<CascadeEngine>()
     private val userRepository = mockk<UserRepresentationRepository>()
 
     private lateinit var userService: UserRepresentationServiceImpl
 
     @BeforeEach
     fun setUp() {
-        every { cacheManager.getCache(Caches.IDEMPOTENT_ID_SET.name) } returns cache
+        every { cacheManager.getCache(Caches.USER_REPRESENTATIONS.name) } returns usersCache
 
         userService = UserRepresentationServiceImpl(
             cacheManager,
+            idempotencyStore,
+            cascadeEngine,
             userRepository,
         )
         userService.initialize()
@@ -120,9 +129,12 @@ class UserRepresentationServiceImplTest {
     @DisplayName("UserService :: deleteUserRepresentation")
     inner class DeleteUserRepresentationTest {
         @Test
-        fun `should call userRepository deleteById only once with the same idempotencyKey`() {
+        fun `should mark user deleted and schedule posts anonymization only once with the same idempotencyKey`() {
             // Given
-            every { userRepository.deleteById(any()) } just runs
+            usersCache.put(USER_ID, UserRepresentation(id = USER_ID))
+
+            every { userRepository.markDeletedByIdIn(any()) } just runs
+            every { cascadeEngine.schedule(any(), any<UUID>()) } just runs
 
             // When
             for (i in 0..2) {
@@ -130,7 +142,62 @@ class UserRepresentationServiceImplTest {
             }
 
             // Then
-            verify(exactly = 1) { userRepository.deleteById(USER_ID) }
+            verify(exactly = 1) { userRepository.markDeletedByIdIn(setOf(USER_ID)) }
+            verify(exactly = 1) { cascadeEngine.schedule(UserPostsAnonymizationHandler.TYPE, USER_ID) }
+
+            assertThat(usersCache.get(USER_ID))
+                .isNull()
+        }
+    }
+
+    @Nested
+    @DisplayName("UserService :: createUserRepresentations")
+    inner class CreateUserRepresentationsTest {
+        @Test
+        fun `should insert only users with not processed idempotency keys in a single call`() {
+            // Given
+            val processedUserId = TEST_2_UUID_VAL
+            val processedKey = TEST_3_UUID_VAL
+
+            every { userRepository.insertAllIgnoringExisting(any()) } just runs
+
+            userService.createUserRepresentations(mapOf(processedKey to processedUserId))
+            usersCache.put(USER_ID, null)
+
+            // When
+            userService.createUserRepresentations(
+                mapOf(
+                    processedKey to processedUserId,
+                    IDEMPOTENCY_KEY to USER_ID,
+                )
+            )
+
+            // Then
+            verify(exactly = 1) { userRepository.insertAllIgnoringExisting(setOf(processedUserId)) }
+            verify(exactly = 1) { userRepository.insertAllIgnoringExisting(setOf(USER_ID)) }
+
+            assertThat(usersCache.get(USER_ID))
+                .isNull()
+        }
+    }
+
+    @Nested
+    @DisplayName("UserService :: deleteUserRepresentations")
+    inner class DeleteUserRepresentationsTest {
+        @Test
+        fun `should call userRepository markDeletedByIdIn only once with the same idempotencyKey`() {
+            // Given
+            every { userRepository.markDeletedByIdIn(any()) } just runs
+            every { cascadeEngine.schedule(any(), any<Collection<UUID>>()) } just runs
+
+            // When
+            for (i in 0..2) {
+                userService.deleteUserRepresentations(mapOf(IDEMPOTENCY_KEY to USER_ID))
+            }
+
+            // Then
+            verify(exactly = 1) { userRepository.markDeletedByIdIn(setOf(USER_ID)) }
+            verify(exactly = 1) { cascadeEngine.schedule(UserPostsAnonymizationHandler.TYPE, setOf(USER_ID)) }
         }
     }
 
@@ -155,6 +222,8 @@ class UserRepresentationServiceImplTest {
 
             assertThat(result)
                 .isTrue()
+            assertThat(usersCache.get(USER_ID)?.get())
+                .isEqualTo(user.copy(features = user.features + Feature.POSTS_DISABLED))
         }
 
         @Test
@@ -1,8 +1,11 @@
 package com.github.arhor.aws.graphql.federation.users.config
 
 import com.fasterxml.jackson.databind.ObjectMapper
+import com.github.arhor.aws.graphql.federation.starter.core.data.FeaturesReadingConverter
+import com.github.arhor.aws.graphql.federation.starter.core.data.FeaturesWritingConverter
 import com.github.arhor.aws.graphql.federation.starter.core.data.JsonReadingConverter
 import com.github.arhor.aws.graphql.federation.starter.core.data.JsonWritingConverter
+import com.github.arhor.aws.graphql.federation.starter.security.PredefinedAuthority
 import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer
 import org.springframework.context.annotation.Bean
 import org.springframework.context.annotation.Configuration
@@ -20,6 +23,8 @@ class ConfigureDatabase(private val objectMapper: ObjectMapper) : AbstractJdbcCo
     override fun userConverters() = listOf(
         JsonReadingConverter(objectMapper),
         JsonWritingConverter(objectMapper),
+        FeaturesReadingConverter(PredefinedAuthority::class.java),
+        FeaturesWritingConverter(PredefinedAuthority::class.java),
     )
 
     @Bean
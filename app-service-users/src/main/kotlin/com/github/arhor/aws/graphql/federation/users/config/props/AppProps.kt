@@ -10,6 +10,7 @@ import jakarta.validation.constraints.NotNull
 import org.springframework.boot.context.properties.ConfigurationProperties
 import org.springframework.validation.annotation.Validated
 import java.math.BigDecimal
+import java.time.Duration
 
 @Validated
 @ConfigurationProperties(prefix = "app-props")
@@ -21,6 +22,15 @@ data class AppProps(
     @field:Valid
     @field:NotNull
     val retry: Retry?,
+
+    @field:Valid
+    val outbox: Outbox = Outbox(),
+
+    @field:Valid
+    val login: Login = Login(),
+
+    @field:Valid
+    val userImport: UserImport = UserImport(),
 ) {
     data class Aws(
         @field:Valid
@@ -50,4 +60,95 @@ data class AppProps(
         @field:DecimalMax((3.0).toString())
         val multiplier: BigDecimal = (1.5).toBigDecimal(),
     )
+
+    data class Outbox(
+        /**
+         * Time claimed messages stay invisible for the other relays, messages not published within it are claimed
+         * and published again.
+         */
+        val lease: Duration = Duration.ofMinutes(1),
+
+        /**
+         * Number of messages of a single type the relay starts claiming with, the batch is never shrunk below it.
+         */
+        @field:Min(1)
+        val minBatchSize: Int = 10,
+
+        /**
+         * Upper bound for the batch grown by the relay while the backlog is drained fast enough.
+         */
+        @field:Min(1)
+        val maxBatchSize: Int = 500,
+
+        /**
+         * Time to publish a batch the relay aims at, the batch is grown when it is published faster and shrunk when
+         * it is published slower.
+         */
+        val targetLatency: Duration = Duration.ofSeconds(1),
+
+        /**
+         * Maximum number of SNS publish requests in flight.
+         */
+        @field:Min(1)
+        @field:Max(100)
+        val maxConcurrentPublishes: Int = 5,
+
+        /**
+         * Interval the outbox backlog metrics are refreshed with.
+         */
+        val backlogCheckInterval: Duration = Duration.ofSeconds(15),
+    )
+
+    data class Login(
+        /**
+         * Number of threads hashing and verifying passwords, defaults to the number of available processors.
+         */
+        @field:Min(1)
+        val hashingThreads: Int = Runtime.getRuntime().availableProcessors(),
+
+        /**
+         * Maximum number of passwords waiting to be hashed or verified, requests exceeding it are rejected right away.
+         */
+        @field:Min(1)
+        val hashingQueueCapacity: Int = 100,
+
+        /**
+         * Sliding window the login attempts are counted within.
+         */
+        val attemptsWindow: Duration = Duration.ofMinutes(1),
+
+        /**
+         * Maximum number of login attempts for the same username within the window.
+         */
+        @field:Min(1)
+        val maxAttemptsPerUsername: Int = 10,
+
+        /**
+         * Maximum number of login attempts from the same client address within the window.
+         */
+        @field:Min(1)
+        val maxAttemptsPerAddress: Int = 100,
+
+        /**
+         * Maximum number of usernames and client addresses tracked at once by each of the limits.
+         */
+        @field:Min(1)
+        val maxTrackedKeys: Long = 100_000,
+    )
+
+    data class UserImport(
+        /**
+         * Number of rows checked for duplicates and inserted together within a single transaction.
+         */
+        @field:Min(1)
+        @field:Max(5_000)
+        val chunkSize: Int = 500,
+
+        /**
+         * Number of threads hashing passwords of the imported users, shared by all the running imports so that they
+         * can't take the processors over from the login requests.
+         */
+        @field:Min(1)
+        val hashingThreads: Int = (Runtime.getRuntime().availableProcessors() / 2).coerceAtLeast(1),
+    )
 }
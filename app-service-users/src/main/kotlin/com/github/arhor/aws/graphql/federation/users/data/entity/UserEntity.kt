@@ -1,12 +1,13 @@
 package com.github.arhor.aws.graphql.federation.users.data.entity
 
+import com.github.arhor.aws.graphql.federation.starter.core.data.Features
+import com.github.arhor.aws.graphql.federation.starter.security.PredefinedAuthority
 import org.springframework.data.annotation.CreatedDate
 import org.springframework.data.annotation.Id
 import org.springframework.data.annotation.Immutable
 import org.springframework.data.annotation.LastModifiedDate
 import org.springframework.data.annotation.Version
 import org.springframework.data.relational.core.mapping.Column
-import org.springframework.data.relational.core.mapping.MappedCollection
 import org.springframework.data.relational.core.mapping.Table
 import java.time.LocalDateTime
 import java.util.UUID
@@ -36,8 +37,8 @@ data class UserEntity(
     @Column("updated_date_time")
     val updatedDateTime: LocalDateTime? = null,
 
-    @MappedCollection(idColumn = AuthRef.COL_USER_ID)
-    val authorities: Set<AuthRef> = emptySet()
+    @Column("authorities")
+    val authorities: Features<PredefinedAuthority> = Features.emptyOf(PredefinedAuthority::class.java),
 ) {
     companion object {
         const val TABLE_NAME = "users"
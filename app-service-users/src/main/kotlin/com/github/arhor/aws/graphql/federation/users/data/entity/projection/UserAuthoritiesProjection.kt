@@ -0,0 +1,10 @@
+package com.github.arhor.aws.graphql.federation.users.data.entity.projection
+
+import com.github.arhor.aws.graphql.federation.starter.core.data.Features
+import com.github.arhor.aws.graphql.federation.starter.security.PredefinedAuthority
+import java.util.UUID
+
+data class UserAuthoritiesProjection(
+    val id: UUID,
+    val authorities: Features<PredefinedAuthority>,
+)
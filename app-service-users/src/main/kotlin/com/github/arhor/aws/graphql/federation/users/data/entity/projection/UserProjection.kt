@@ -0,0 +1,11 @@
+package com.github.arhor.aws.graphql.federation.users.data.entity.projection
+
+import com.github.arhor.aws.graphql.federation.starter.core.data.Features
+import com.github.arhor.aws.graphql.federation.starter.security.PredefinedAuthority
+import java.util.UUID
+
+data class UserProjection(
+    val id: UUID,
+    val username: String,
+    val authorities: Features<PredefinedAuthority>,
+)
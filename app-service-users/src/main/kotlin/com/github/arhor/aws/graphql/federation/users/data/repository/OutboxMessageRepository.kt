@@ -1,12 +1,29 @@
 package com.github.arhor.aws.graphql.federation.users.data.repository
 
 import com.github.arhor.aws.graphql.federation.users.data.entity.OutboxMessageEntity
+import com.github.arhor.aws.graphql.federation.users.data.entity.projection.OutboxBacklogProjection
+import org.springframework.data.jdbc.repository.query.Modifying
 import org.springframework.data.jdbc.repository.query.Query
 import org.springframework.data.repository.CrudRepository
 import java.util.UUID
 
 interface OutboxMessageRepository : CrudRepository<OutboxMessageEntity, UUID> {
 
-    @Query(name = "OutboxMessageEntity.dequeueOldest")
-    fun dequeueOldest(messageType: String, messagesNum: Int): List<OutboxMessageEntity>
+    /**
+     * Leases the oldest messages of the given type which are not leased yet or whose lease has expired, so that they
+     * are not claimed by the other relays until the lease expires.
+     */
+    @Query(name = "OutboxMessageEntity.claimOldest")
+    fun claimOldest(messageType: String, messagesNum: Int, leaseSeconds: Long): List<OutboxMessageEntity>
+
+    /**
+     * Counts messages of the given types along with the creation time of the oldest one, including the leased ones.
+     * Types without messages are not returned.
+     */
+    @Query(name = "OutboxBacklogProjection.findAllByTypeIn")
+    fun findBacklogByTypeIn(types: Collection<String>): List<OutboxBacklogProjection>
+
+    @Modifying
+    @Query(name = "OutboxMessageEntity.deleteAllByIdIn")
+    fun deleteAllByIdIn(ids: Collection<UUID>)
 }
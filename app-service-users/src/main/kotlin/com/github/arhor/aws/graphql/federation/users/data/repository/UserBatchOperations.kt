@@ -0,0 +1,15 @@
+package com.github.arhor.aws.graphql.federation.users.data.repository
+
+import com.github.arhor.aws.graphql.federation.users.data.entity.UserEntity
+
+interface UserBatchOperations {
+
+    /**
+     * Inserts new users with a single statement, assigning the identifiers and audit fields the same way as they
+     * are assigned saving a single user. Users which username was taken in the meantime, as well as the repeated
+     * usernames within the given users, are skipped.
+     *
+     * @return users actually inserted, as reported by the rows returned by the insert
+     */
+    fun insertAllSkippingTakenUsernames(users: List<UserEntity>): List<UserEntity>
+}
@@ -0,0 +1,80 @@
+package com.github.arhor.aws.graphql.federation.users.data.repository
+
+import com.github.arhor.aws.graphql.federation.starter.core.data.FeaturesWritingConverter
+import com.github.arhor.aws.graphql.federation.starter.security.PredefinedAuthority
+import com.github.arhor.aws.graphql.federation.users.data.entity.UserEntity
+import org.springframework.data.auditing.DateTimeProvider
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations
+import java.time.LocalDateTime
+import java.util.UUID
+
+class UserBatchOperationsImpl(
+    private val jdbcOperations: NamedParameterJdbcOperations,
+    private val dateTimeProvider: DateTimeProvider,
+) : UserBatchOperations {
+
+    private val authoritiesConverter = FeaturesWritingConverter(PredefinedAuthority::class.java)
+
+    override fun insertAllSkippingTakenUsernames(users: List<UserEntity>): List<UserEntity> {
+        if (users.isEmpty()) {
+            return emptyList()
+        }
+        val createdDateTime = dateTimeProvider.now.map(LocalDateTime::from).orElseGet(LocalDateTime::now)
+        val entities = users.map {
+            it.copy(
+                id = it.id ?: UUID.randomUUID(),
+                version = it.version ?: 0,
+                createdDateTime = it.createdDateTime ?: createdDateTime,
+            )
+        }
+        val params =
+            MapSqlParameterSource()
+                .addValue(PARAM_IDS, entities.map { it.id })
+                .addValue(PARAM_USERNAMES, entities.map { it.username })
+                .addValue(PARAM_PASSWORDS, entities.map { it.password })
+                .addValue(PARAM_VERSIONS, entities.map { it.version })
+                .addValue(PARAM_CREATED_DATE_TIMES, entities.map { it.createdDateTime })
+                .addValue(PARAM_AUTHORITIES, entities.map { authoritiesConverter.convert(it.authorities) })
+
+        // rows skipped on conflict are not returned, unlike the batch update counts which may be SUCCESS_NO_INFO
+        val insertedUsernamesById =
+            jdbcOperations
+                .query(INSERT_SKIPPING_TAKEN_USERNAMES, params) { rs, _ ->
+                    rs.getObject(COL_ID, UUID::class.java) to rs.getString(COL_USERNAME)
+                }
+                .toMap()
+
+        return entities.filter { insertedUsernamesById[it.id] == it.username }
+    }
+
+    companion object {
+        // @formatter:off
+        private const val PARAM_IDS                = "ids"
+        private const val PARAM_USERNAMES          = "usernames"
+        private const val PARAM_PASSWORDS          = "passwords"
+        private const val PARAM_VERSIONS           = "versions"
+        private const val PARAM_CREATED_DATE_TIMES = "createdDateTimes"
+        private const val PARAM_AUTHORITIES        = "authorities"
+
+        private const val COL_ID                   = "id"
+        private const val COL_USERNAME             = "username"
+        // @formatter:on
+
+        // language=SQL
+        private const val INSERT_SKIPPING_TAKEN_USERNAMES = """
+            INSERT INTO users (id, username, password, version, created_date_time, authorities)
+                 SELECT *
+                   FROM UNNEST(
+                            ARRAY[:ids]::UUID[],
+                            ARRAY[:usernames]::VARCHAR[],
+                            ARRAY[:passwords]::VARCHAR[],
+                            ARRAY[:versions]::BIGINT[],
+                            ARRAY[:createdDateTimes]::TIMESTAMP[],
+                            ARRAY[:authorities]::INT[]
+                        )
+            ON CONFLICT (username) DO NOTHING
+              RETURNING id, username
+        """
+    }
+}
@@ -1,14 +1,44 @@
 package com.github.arhor.aws.graphql.federation.users.data.repository
 
 import com.github.arhor.aws.graphql.federation.users.data.entity.UserEntity
+import com.github.arhor.aws.graphql.federation.users.data.entity.projection.UserAuthoritiesProjection
+import com.github.arhor.aws.graphql.federation.users.data.entity.projection.UserCredentialsProjection
+import com.github.arhor.aws.graphql.federation.users.data.entity.projection.UserProjection
+import org.springframework.data.jdbc.repository.query.Query
 import org.springframework.data.repository.CrudRepository
 import org.springframework.data.repository.PagingAndSortingRepository
 import java.util.UUID
 
 interface UserRepository :
     CrudRepository<UserEntity, UUID>,
-    PagingAndSortingRepository<UserEntity, UUID> {
+    PagingAndSortingRepository<UserEntity, UUID>,
+    UserBatchOperations {
 
-    fun findByUsername(username: String): UserEntity?
     fun existsByUsername(username: String): Boolean
+
+    /**
+     * Checks a batch of usernames with a single query.
+     *
+     * @return those of the given usernames which are already taken
+     */
+    @Query(name = "UserEntity.findAllUsernamesByUsernameIn")
+    fun findAllUsernamesByUsernameIn(usernames: Collection<String>): List<String>
+
+    /**
+     * Loads the password of the user along with the granted authorities bitmask with a single query.
+     */
+    @Query(name = "UserCredentialsProjection.findByUsername")
+    fun findCredentialsByUsername(username: String): UserCredentialsProjection?
+
+    /**
+     * Loads a page of users with a single query.
+     */
+    @Query(name = "UserProjection.findPage")
+    fun findPage(limit: Int, offset: Long): List<UserProjection>
+
+    /**
+     * Loads the granted authorities bitmask of the users, so that no other table is accessed.
+     */
+    @Query(name = "UserAuthoritiesProjection.findAllByIdIn")
+    fun findAllAuthoritiesByIdIn(ids: Collection<UUID>): List<UserAuthoritiesProjection>
 }
@@ -18,9 +18,14 @@ class AuthFetcher {
 
     @DgsData(parentType = USER.TYPE_NAME, field = USER.Authorities)
     fun userAuthorities(dfe: DgsDataFetchingEnvironment): CompletableFuture<List<String>> {
-        val loader = dfe.getDataLoader<UUID, List<String>>(AuthBatchLoader::class.java)
         val source = dfe.getSource<User>()
 
+        // authorities are already resolved when the user is loaded from the users table
+        source.authorities?.let {
+            return CompletableFuture.completedFuture(it)
+        }
+        val loader = dfe.getDataLoader<UUID, List<String>>(AuthBatchLoader::class.java)
+
         return loader.load(source.id)
     }
 }
@@ -1,25 +1,48 @@
 package com.github.arhor.aws.graphql.federation.users.infrastructure.router
 
+import com.fasterxml.jackson.databind.ObjectMapper
 import com.github.arhor.aws.graphql.federation.common.exception.EntityDuplicateException
 import com.github.arhor.aws.graphql.federation.common.exception.EntityNotFoundException
+import com.github.arhor.aws.graphql.federation.starter.core.rest.ApiError
 import com.github.arhor.aws.graphql.federation.starter.core.rest.sendError
 import com.github.arhor.aws.graphql.federation.starter.security.CurrentUserRequest
+import com.github.arhor.aws.graphql.federation.starter.security.PredefinedAuthority
+import com.github.arhor.aws.graphql.federation.users.service.LoginThrottleService
+import com.github.arhor.aws.graphql.federation.users.service.UserImportService
 import com.github.arhor.aws.graphql.federation.users.service.UserService
+import com.github.arhor.aws.graphql.federation.users.service.exception.LoginAttemptsExceededException
+import org.slf4j.LoggerFactory
+import org.springframework.http.HttpHeaders.RETRY_AFTER
 import org.springframework.http.HttpStatus.BAD_REQUEST
 import org.springframework.http.HttpStatus.CONFLICT
+import org.springframework.http.HttpStatus.FORBIDDEN
 import org.springframework.http.HttpStatus.NOT_FOUND
 import org.springframework.http.HttpStatus.NO_CONTENT
 import org.springframework.http.HttpStatus.OK
+import org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE
+import org.springframework.http.HttpStatus.TOO_MANY_REQUESTS
+import org.springframework.http.HttpStatus.UNSUPPORTED_MEDIA_TYPE
+import org.springframework.http.MediaType
+import org.springframework.http.MediaType.APPLICATION_JSON
+import org.springframework.http.MediaType.APPLICATION_NDJSON
+import org.springframework.security.core.Authentication
+import org.springframework.security.core.GrantedAuthority
 import org.springframework.security.core.userdetails.UsernameNotFoundException
 import org.springframework.stereotype.Component
 import org.springframework.web.servlet.function.RouterFunction
+import org.springframework.web.servlet.function.ServerRequest
 import org.springframework.web.servlet.function.ServerResponse
 import org.springframework.web.servlet.function.body
 import org.springframework.web.servlet.function.router
+import java.net.InetSocketAddress
+import java.util.concurrent.RejectedExecutionException
 
 @Component
 class MainRouter(
     private val userService: UserService,
+    private val userImportService: UserImportService,
+    private val loginThrottleService: LoginThrottleService,
+    private val objectMapper: ObjectMapper,
 ) : RouterFunction<ServerResponse> by router({
 
     /* ---------- Request Mappings ---------- */
@@ -31,11 +54,57 @@ class MainRouter(
     "/api".nest {
         POST("/users/authenticate") {
             val userRequest = it.body<CurrentUserRequest>()
+            val clientAddress = it.remoteAddress().map(InetSocketAddress::getHostString).orElse(null)
+
+            loginThrottleService.registerLoginAttempt(userRequest.username, clientAddress)
             val currentUser = userService.getUserByUsernameAndPassword(userRequest)
 
             status(OK)
                 .body(currentUser)
         }
+        POST("/users/import") {
+            // checked in advance, since errors thrown once the response is committed can't change its status
+            if (!it.hasAuthority(PredefinedAuthority.ROLE_ADMIN)) {
+                return@POST sendError(
+                    status = FORBIDDEN,
+                    message = "Users can be imported by administrators only"
+                )
+            }
+            val format = it.headers().contentType().map(::importFormatOf).orElse(null)
+                ?: return@POST sendError(
+                    status = UNSUPPORTED_MEDIA_TYPE,
+                    message = "Users must be sent as $APPLICATION_NDJSON or $TEXT_CSV"
+                )
+
+            // progress is streamed to the client as soon as each chunk of users is processed, the last line tells
+            // whether the import is completed or failed
+            status(OK)
+                .contentType(APPLICATION_NDJSON)
+                .build { request, response ->
+                    val output = response.outputStream
+                    val listener = object : UserImportService.Listener {
+                        override fun onRowRejected(error: UserImportService.RowError) =
+                            writeLine(mapOf("rejected" to error))
+
+                        override fun onChunkProcessed(progress: UserImportService.Progress) =
+                            writeLine(mapOf("progress" to progress))
+
+                        fun writeLine(value: Any) {
+                            output.write(objectMapper.writeValueAsBytes(value))
+                            output.write('\n'.code)
+                            output.flush()
+                        }
+                    }
+                    try {
+                        val progress = userImportService.importUsers(request.inputStream, format, listener)
+                        listener.writeLine(mapOf("completed" to progress))
+                    } catch (e: Exception) {
+                        logger.error("Failed to import users", e)
+                        listener.writeLine(mapOf("error" to ApiError(message = e.message)))
+                    }
+                    null
+                }
+        }
     }
 
     /* ---------- Exception Handlers ---------- */
@@ -58,4 +127,34 @@ class MainRouter(
             message = e.message
         )
     }
-})
+    onError<LoginAttemptsExceededException> { e, _ ->
+        status(TOO_MANY_REQUESTS)
+            .header(RETRY_AFTER, e.retryAfter.toSeconds().coerceAtLeast(1).toString())
+            .contentType(APPLICATION_JSON)
+            .body(ApiError(message = e.message))
+    }
+    onError<RejectedExecutionException> { _, _ ->
+        sendError(
+            status = SERVICE_UNAVAILABLE,
+            message = "Too many concurrent login requests, try again later"
+        )
+    }
+}) {
+    companion object {
+        private val TEXT_CSV = MediaType("text", "csv")
+
+        private val logger = LoggerFactory.getLogger(this::class.java.enclosingClass)
+
+        private fun ServerRequest.hasAuthority(authority: GrantedAuthority): Boolean =
+            principal()
+                .filter { it is Authentication }
+                .map { (it as Authentication).authorities.any { granted -> granted.authority == authority.authority } }
+                .orElse(false)
+
+        private fun importFormatOf(contentType: MediaType): UserImportService.Format? = when {
+            APPLICATION_NDJSON.isCompatibleWith(contentType) -> UserImportService.Format.NDJSON
+            TEXT_CSV.isCompatibleWith(contentType) -> UserImportService.Format.CSV
+            else -> null
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.github.arhor.aws.graphql.federation.users.infrastructure.scheduler
+
+import com.github.arhor.aws.graphql.federation.common.event.UserEvent
+import com.github.arhor.aws.graphql.federation.users.data.repository.OutboxMessageRepository
+import io.micrometer.core.instrument.Gauge
+import io.micrometer.core.instrument.MeterRegistry
+import org.slf4j.LoggerFactory
+import org.springframework.data.auditing.DateTimeProvider
+import org.springframework.scheduling.annotation.Scheduled
+import org.springframework.stereotype.Component
+import java.time.Duration
+import java.time.LocalDateTime
+
+/**
+ * Periodically checks the number of outbox messages waiting to be published and the age of the oldest one per event
+ * type, so that the gauges are not querying the database on each scrape.
+ */
+@Component
+class OutboxBacklogMonitor(
+    private val outboxMessageRepository: OutboxMessageRepository,
+    private val dateTimeProvider: DateTimeProvider,
+    meterRegistry: MeterRegistry,
+) {
+
+    private val backlogs = UserEvent.Type.entries.associateWith { Backlog() }
+
+    init {
+        for ((type, backlog) in backlogs) {
+            Gauge.builder(BACKLOG_DEPTH_METRIC, backlog) { it.depth.toDouble() }
+                .tag(TYPE_TAG, type.code)
+                .register(meterRegistry)
+
+            Gauge.builder(OLDEST_MESSAGE_AGE_METRIC, backlog) { it.oldestMessageAge }
+                .tag(TYPE_TAG, type.code)
+                .baseUnit("seconds")
+                .register(meterRegistry)
+        }
+    }
+
+    @Scheduled(fixedDelayString = "\${app-props.outbox.backlog-check-interval:PT15S}")
+    fun checkOutboxBacklog() {
+        val now = dateTimeProvider.now.map(LocalDateTime::from).orElseGet(LocalDateTime::now)
+        val found = try {
+            outboxMessageRepository
+                .findBacklogByTypeIn(backlogs.keys.map { it.code })
+                .associateBy { it.type }
+        } catch (e: Exception) {
+            logger.warn("Failed to check outbox messages backlog", e)
+            return
+        }
+        for ((type, backlog) in backlogs) {
+            val projection = found[type.code]
+
+            backlog.depth = projection?.depth ?: 0
+            backlog.oldestMessageAge = projection?.let {
+                Duration.between(it.oldestCreatedDateTime, now).toMillis().coerceAtLeast(0) / 1000.0
+            } ?: 0.0
+        }
+    }
+
+    private class Backlog {
+        @Volatile
+        var depth = 0L
+
+        @Volatile
+        var oldestMessageAge = 0.0
+    }
+
+    companion object {
+        private val logger = LoggerFactory.getLogger(this::class.java.enclosingClass)
+
+        private const val BACKLOG_DEPTH_METRIC = "outbox.messages.backlog"
+        private const val OLDEST_MESSAGE_AGE_METRIC = "outbox.messages.oldest.age"
+        private const val TYPE_TAG = "type"
+    }
+}
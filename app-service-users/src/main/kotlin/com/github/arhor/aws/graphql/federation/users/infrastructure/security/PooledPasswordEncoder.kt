@@ -0,0 +1,117 @@
+package com.github.arhor.aws.graphql.federation.users.infrastructure.security
+
+import com.github.arhor.aws.graphql.federation.users.config.props.AppProps
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.Timer
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics
+import org.springframework.beans.factory.DisposableBean
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.context.annotation.Primary
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder
+import org.springframework.security.crypto.password.PasswordEncoder
+import org.springframework.stereotype.Component
+import java.util.concurrent.ArrayBlockingQueue
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+
+/**
+ * Hashes and verifies passwords on the dedicated executor, so that a burst of login attempts can't occupy more CPUs
+ * than the executor has threads. Requests exceeding the executor queue fail fast with [RejectedExecutionException].
+ * The executor is shut down along with the encoder.
+ */
+@Primary
+@Component
+class PooledPasswordEncoder(
+    private val delegate: PasswordEncoder,
+    private val executor: ExecutorService,
+    meterRegistry: MeterRegistry,
+) : PasswordEncoder, DisposableBean {
+
+    /**
+     * The executor is created by the encoder, otherwise exposed as a bean it would replace the default application
+     * task executor.
+     */
+    @Autowired
+    constructor(
+        appProps: AppProps,
+        passwordEncoder: BCryptPasswordEncoder,
+        meterRegistry: MeterRegistry,
+    ) : this(
+        delegate = passwordEncoder,
+        executor = createExecutor(appProps.login, meterRegistry),
+        meterRegistry = meterRegistry,
+    )
+
+    private val encodeTimers = Timers(meterRegistry, operation = "encode")
+    private val matchesTimers = Timers(meterRegistry, operation = "matches")
+
+    override fun encode(rawPassword: CharSequence?): String =
+        execute(encodeTimers) { delegate.encode(rawPassword) }
+
+    override fun matches(rawPassword: CharSequence?, encodedPassword: String?): Boolean =
+        execute(matchesTimers) { delegate.matches(rawPassword, encodedPassword) }
+
+    override fun upgradeEncoding(encodedPassword: String?): Boolean =
+        delegate.upgradeEncoding(encodedPassword)
+
+    override fun destroy() {
+        executor.shutdown()
+    }
+
+    private fun <T> execute(timers: Timers, action: () -> T): T {
+        val submittedAt = System.nanoTime()
+        val future = executor.submit<T> {
+            timers.queueWait.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS)
+            timers.hashing.recordCallable(action)
+        }
+        return try {
+            future.get()
+        } catch (e: ExecutionException) {
+            throw e.cause ?: e
+        } catch (e: InterruptedException) {
+            future.cancel(true)
+            Thread.currentThread().interrupt()
+            throw RejectedExecutionException("Interrupted while waiting for the password hashing", e)
+        }
+    }
+
+    private class Timers(meterRegistry: MeterRegistry, operation: String) {
+        val queueWait: Timer =
+            Timer.builder(QUEUE_WAIT_METRIC)
+                .tag(OPERATION_TAG, operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+
+        val hashing: Timer =
+            Timer.builder(HASHING_METRIC)
+                .tag(OPERATION_TAG, operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+    }
+
+    companion object {
+        private const val EXECUTOR_NAME = "password-hashing"
+        private const val QUEUE_WAIT_METRIC = "password.hashing.queue.wait"
+        private const val HASHING_METRIC = "password.hashing.duration"
+        private const val OPERATION_TAG = "operation"
+
+        private fun createExecutor(props: AppProps.Login, meterRegistry: MeterRegistry): ExecutorService {
+            val executor = ThreadPoolExecutor(
+                props.hashingThreads,
+                props.hashingThreads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                ArrayBlockingQueue(props.hashingQueueCapacity),
+                CustomizableThreadFactory("$EXECUTOR_NAME-"),
+                ThreadPoolExecutor.AbortPolicy(),
+            )
+            ExecutorServiceMetrics(executor, EXECUTOR_NAME, emptyList()).bindTo(meterRegistry)
+
+            return executor
+        }
+    }
+}
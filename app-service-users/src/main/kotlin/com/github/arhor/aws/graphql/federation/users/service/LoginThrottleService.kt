@@ -0,0 +1,19 @@
+package com.github.arhor.aws.graphql.federation.users.service
+
+import com.github.arhor.aws.graphql.federation.users.service.exception.LoginAttemptsExceededException
+
+/**
+ * LoginThrottleService interface that defines admission control for the login attempts.
+ */
+interface LoginThrottleService {
+
+    /**
+     * Registers a login attempt, so that it is counted against the limits of both the username and the client address.
+     *
+     * @param username      the username the login attempt is made for
+     * @param clientAddress the address of the client making the login attempt, may be `null` when it is unknown
+     * @throws LoginAttemptsExceededException when too many attempts were made recently for the username or from the
+     *                                        client address
+     */
+    fun registerLoginAttempt(username: String, clientAddress: String?)
+}
@@ -4,5 +4,16 @@ import com.github.arhor.aws.graphql.federation.common.event.UserEvent
 
 interface OutboxMessageService {
     fun storeAsOutboxMessage(event: UserEvent)
-    fun releaseOutboxMessagesOfType(eventType: UserEvent.Type)
+
+    /**
+     * Stores all the events as outbox messages with a single JDBC batch.
+     */
+    fun storeAsOutboxMessages(events: Collection<UserEvent>)
+
+    /**
+     * Publishes at most [limit] oldest outbox messages of the given type.
+     *
+     * @return number of the messages published
+     */
+    fun releaseOutboxMessagesOfType(eventType: UserEvent.Type, limit: Int): Int
 }
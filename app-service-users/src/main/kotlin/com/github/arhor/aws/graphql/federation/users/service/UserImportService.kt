@@ -0,0 +1,55 @@
+package com.github.arhor.aws.graphql.federation.users.service
+
+import java.io.InputStream
+
+/**
+ * UserImportService interface that defines bulk creation of the users.
+ */
+interface UserImportService {
+
+    /**
+     * Creates users read from the input chunk by chunk, so that neither the whole input nor the whole result is held
+     * in memory. Each chunk is inserted within its own transaction, so users of the chunks already reported as
+     * processed stay created even if the import is interrupted.
+     *
+     * @param input    the stream of the users to create, one user per line
+     * @param format   the format the users are written in
+     * @param listener the listener notified of the rejected rows and of the progress after each chunk
+     * @return the progress of the whole import
+     */
+    fun importUsers(input: InputStream, format: Format, listener: Listener): Progress
+
+    enum class Format {
+        /**
+         * Each line is a JSON object with `username` and `password` fields.
+         */
+        NDJSON,
+
+        /**
+         * The first line is a header naming the `username` and `password` columns.
+         */
+        CSV,
+    }
+
+    /**
+     * @param line     the number of the rejected line, starting from 1
+     * @param username the username read from the rejected line, if any
+     * @param message  the reason the line was rejected for
+     */
+    data class RowError(
+        val line: Long,
+        val username: String?,
+        val message: String,
+    )
+
+    data class Progress(
+        val processed: Long,
+        val imported: Long,
+        val rejected: Long,
+    )
+
+    interface Listener {
+        fun onRowRejected(error: RowError)
+        fun onChunkProcessed(progress: Progress)
+    }
+}
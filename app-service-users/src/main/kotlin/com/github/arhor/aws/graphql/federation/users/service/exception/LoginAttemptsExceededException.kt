@@ -0,0 +1,12 @@
+package com.github.arhor.aws.graphql.federation.users.service.exception
+
+import java.time.Duration
+
+/**
+ * Thrown when too many login attempts were made recently for the same username or from the same client address.
+ *
+ * @param retryAfter time after which the next attempt may be admitted
+ */
+class LoginAttemptsExceededException(
+    val retryAfter: Duration,
+) : RuntimeException("Too many login attempts, try again later")
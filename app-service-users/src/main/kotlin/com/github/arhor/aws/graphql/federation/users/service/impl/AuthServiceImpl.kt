@@ -1,20 +1,24 @@
 package com.github.arhor.aws.graphql.federation.users.service.impl
 
 import com.github.arhor.aws.graphql.federation.starter.tracing.Trace
-import com.github.arhor.aws.graphql.federation.users.data.repository.AuthRepository
+import com.github.arhor.aws.graphql.federation.users.data.repository.UserRepository
 import com.github.arhor.aws.graphql.federation.users.service.AuthService
+import com.github.arhor.aws.graphql.federation.users.service.mapping.UserMapper
 import org.springframework.stereotype.Service
 import java.util.UUID
 
 @Trace
 @Service
 class AuthServiceImpl(
-    private val authRepository: AuthRepository,
+    private val userRepository: UserRepository,
+    private val userMapper: UserMapper,
 ) : AuthService {
 
     override fun getAuthoritiesByUserIds(userIds: Set<UUID>): Map<UUID, List<String>> = when {
         userIds.isNotEmpty() -> {
-            authRepository.findAllByUserIdIn(userIds)
+            userRepository.findAllAuthoritiesByIdIn(userIds).associate {
+                it.id to userMapper.mapToAuthorityNames(it.authorities)
+            }
         }
 
         else -> {
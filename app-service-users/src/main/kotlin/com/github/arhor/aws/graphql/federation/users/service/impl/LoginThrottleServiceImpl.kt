@@ -0,0 +1,40 @@
+package com.github.arhor.aws.graphql.federation.users.service.impl
+
+import com.github.arhor.aws.graphql.federation.users.config.props.AppProps
+import com.github.arhor.aws.graphql.federation.users.service.LoginThrottleService
+import com.github.arhor.aws.graphql.federation.users.service.exception.LoginAttemptsExceededException
+import com.github.arhor.aws.graphql.federation.users.util.SlidingWindowRateLimiter
+import jakarta.validation.ClockProvider
+import org.slf4j.LoggerFactory
+import org.springframework.stereotype.Service
+
+@Service
+class LoginThrottleServiceImpl(
+    appProps: AppProps,
+    clockProvider: ClockProvider,
+) : LoginThrottleService {
+
+    private val usernameLimiter = appProps.login.let {
+        SlidingWindowRateLimiter(it.maxAttemptsPerUsername, it.attemptsWindow, it.maxTrackedKeys, clockProvider.clock)
+    }
+    private val addressLimiter = appProps.login.let {
+        SlidingWindowRateLimiter(it.maxAttemptsPerAddress, it.attemptsWindow, it.maxTrackedKeys, clockProvider.clock)
+    }
+
+    override fun registerLoginAttempt(username: String, clientAddress: String?) {
+        if (clientAddress != null) {
+            addressLimiter.tryAcquire(clientAddress)?.let {
+                logger.warn("Too many login attempts from the address: {}", clientAddress)
+                throw LoginAttemptsExceededException(retryAfter = it)
+            }
+        }
+        usernameLimiter.tryAcquire(username)?.let {
+            logger.warn("Too many login attempts for the username: {}", username)
+            throw LoginAttemptsExceededException(retryAfter = it)
+        }
+    }
+
+    companion object {
+        private val logger = LoggerFactory.getLogger(this::class.java.enclosingClass)
+    }
+}
@@ -12,13 +12,40 @@ import com.github.arhor.aws.graphql.federation.users.config.props.AppProps
 import com.github.arhor.aws.graphql.federation.users.data.entity.OutboxMessageEntity
 import com.github.arhor.aws.graphql.federation.users.data.repository.OutboxMessageRepository
 import com.github.arhor.aws.graphql.federation.users.service.OutboxMessageService
-import io.awspring.cloud.sns.core.SnsNotification
-import io.awspring.cloud.sns.core.SnsOperations
+import io.awspring.cloud.sns.core.CachingTopicArnResolver
+import io.awspring.cloud.sns.core.DefaultTopicArnResolver
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.Timer
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics
+import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.DisposableBean
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.data.auditing.DateTimeProvider
+import org.springframework.messaging.MessagingException
 import org.springframework.retry.RetryOperations
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory
 import org.springframework.stereotype.Service
 import org.springframework.transaction.annotation.Propagation
 import org.springframework.transaction.annotation.Transactional
-import java.util.UUID
+import org.springframework.transaction.support.TransactionOperations
+import software.amazon.awssdk.core.exception.SdkException
+import software.amazon.awssdk.services.sns.SnsClient
+import software.amazon.awssdk.services.sns.model.MessageAttributeValue
+import software.amazon.awssdk.services.sns.model.PublishBatchRequest
+import software.amazon.awssdk.services.sns.model.PublishBatchRequestEntry
+import java.time.Duration
+import java.time.Instant
+import java.time.LocalDateTime
+import java.time.ZoneOffset
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.concurrent.Executor
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.Semaphore
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
 
 @Service
 class OutboxMessageServiceImpl(
@@ -26,57 +53,264 @@ class OutboxMessageServiceImpl(
     private val objectMapper: ObjectMapper,
     private val outboxMessageRepository: OutboxMessageRepository,
     private val snsRetryOperations: RetryOperations,
-    private val sns: SnsOperations,
-) : OutboxMessageService {
+    private val snsClient: SnsClient,
+    private val executor: Executor,
+    private val transactionOperations: TransactionOperations,
+    private val meterRegistry: MeterRegistry,
+    private val dateTimeProvider: DateTimeProvider,
+) : OutboxMessageService, DisposableBean {
+
+    /**
+     * Batches are published by the dedicated executor, sized to the maximum number of the publish requests in flight,
+     * so that the relay never occupies the threads of the default application task executor.
+     */
+    @Autowired
+    constructor(
+        appProps: AppProps,
+        objectMapper: ObjectMapper,
+        outboxMessageRepository: OutboxMessageRepository,
+        snsRetryOperations: RetryOperations,
+        snsClient: SnsClient,
+        transactionOperations: TransactionOperations,
+        meterRegistry: MeterRegistry,
+        dateTimeProvider: DateTimeProvider,
+    ) : this(
+        appProps = appProps,
+        objectMapper = objectMapper,
+        outboxMessageRepository = outboxMessageRepository,
+        snsRetryOperations = snsRetryOperations,
+        snsClient = snsClient,
+        executor = createExecutor(appProps.outbox, meterRegistry),
+        transactionOperations = transactionOperations,
+        meterRegistry = meterRegistry,
+        dateTimeProvider = dateTimeProvider,
+    )
 
     private val userEventsSnsTopicName = appProps.aws!!.sns!!.userEvents!!
+    private val outboxLease = appProps.outbox.lease
+    private val publishPermits = Semaphore(appProps.outbox.maxConcurrentPublishes)
+    private val topicArnResolver = CachingTopicArnResolver(DefaultTopicArnResolver(snsClient))
 
     @Trace
     @Transactional(propagation = Propagation.MANDATORY)
     override fun storeAsOutboxMessage(event: UserEvent) {
-        outboxMessageRepository.save(
-            OutboxMessageEntity(
-                type = event.type(),
-                data = objectMapper.convertValue(event, OutboxMessageDataTypeRef),
-                traceId = useContextAttribute(Attributes.TRACING_ID),
-            )
-        )
+        outboxMessageRepository.save(createOutboxMessage(event))
     }
 
-    @Transactional
-    override fun releaseOutboxMessagesOfType(eventType: UserEvent.Type) {
-        val outboxMessages =
-            outboxMessageRepository.dequeueOldest(
+    @Trace
+    @Transactional(propagation = Propagation.MANDATORY)
+    override fun storeAsOutboxMessages(events: Collection<UserEvent>) {
+        if (events.isNotEmpty()) {
+            // Spring Data JDBC inserts a collection of new aggregates as a single batch
+            outboxMessageRepository.saveAll(events.map(::createOutboxMessage))
+        }
+    }
+
+    override fun destroy() {
+        (executor as? ExecutorService)?.shutdown()
+    }
+
+    /**
+     * Claims messages in a short transaction and publishes them with the SNS batch API, sending all the batches
+     * concurrently with no transaction open. Only the published messages are deleted afterwards, the others are
+     * published again once their lease expires.
+     */
+    override fun releaseOutboxMessagesOfType(eventType: UserEvent.Type, limit: Int): Int {
+        val outboxMessages = transactionOperations.execute {
+            outboxMessageRepository.claimOldest(
                 messageType = eventType.code,
-                messagesNum = DEFAULT_EVENTS_BATCH_SIZE,
+                messagesNum = limit,
+                leaseSeconds = outboxLease.toSeconds(),
             )
+        }
+        if (outboxMessages.isNullOrEmpty()) {
+            return 0
+        }
+        val topicArn = topicArnResolver.resolveTopicArn(userEventsSnsTopicName).toString()
+        val entries = outboxMessages.map { createBatchEntry(eventType, it) }
+        val publications = splitIntoBatches(entries).map { batch ->
+            publishAsync(topicArn, eventType, batch)
+        }
+        val publishedIds = try {
+            publications.flatMapTo(HashSet()) { it.join() }
+        } catch (e: CompletionException) {
+            throw e.cause ?: e
+        }
+        val publishedMessages = outboxMessages.filter { it.id.toString() in publishedIds }
+        if (publishedMessages.isNotEmpty()) {
+            transactionOperations.executeWithoutResult {
+                outboxMessageRepository.deleteAllByIdIn(publishedMessages.map { it.id!! })
+            }
+            publishedMessages.forEach(::recordDispatchLatency)
+        }
+        return publishedMessages.size
+    }
 
-        for (message in outboxMessages) {
-            val event = objectMapper.convertValue(message.data, eventType.type.java)
+    /**
+     * Blocks the caller while the maximum number of the publish requests is in flight.
+     */
+    private fun publishAsync(
+        topicArn: String,
+        eventType: UserEvent.Type,
+        entries: List<PublishBatchRequestEntry>,
+    ): CompletableFuture<List<String>> {
+        publishPermits.acquire()
+        return try {
+            CompletableFuture
+                .supplyAsync({ publishToSns(topicArn, eventType, entries) }, executor)
+                .whenComplete { _, _ -> publishPermits.release() }
+        } catch (e: RejectedExecutionException) {
+            publishPermits.release()
+            throw e
+        }
+    }
 
-            publishToSns(
-                event = event,
-                traceId = message.traceId,
-                idempotencyKey = message.id!!,
-            )
+    /**
+     * Retries only the batch entries failed to be published, the successfully published ones are not sent again.
+     *
+     * @return IDs of the entries published successfully
+     */
+    private fun publishToSns(
+        topicArn: String,
+        eventType: UserEvent.Type,
+        entries: List<PublishBatchRequestEntry>,
+    ): List<String> {
+        var pendingEntries = entries
+
+        try {
+            snsRetryOperations.execute<Unit, Throwable> {
+                val sample = Timer.start(meterRegistry)
+                val result = try {
+                    snsClient.publishBatch(
+                        PublishBatchRequest.builder()
+                            .topicArn(topicArn)
+                            .publishBatchRequestEntries(pendingEntries)
+                            .build()
+                    )
+                } catch (e: SdkException) {
+                    throw MessagingException("Failed to publish batch of ${pendingEntries.size} outbox messages", e)
+                } finally {
+                    sample.stop(meterRegistry.timer(PUBLISH_LATENCY_METRIC, TYPE_TAG, eventType.code))
+                }
+                if (result.failed().isNotEmpty()) {
+                    val failedIds = result.failed().associate { it.id() to it.code() }
+
+                    pendingEntries = pendingEntries.filter { it.id() in failedIds }
+                    throw MessagingException("Failed to publish outbox messages: $failedIds")
+                }
+                pendingEntries = emptyList()
+            }
+        } catch (e: Exception) {
+            logger.error("Failed to publish {} of {} outbox messages", pendingEntries.size, entries.size, e)
+            meterRegistry
+                .counter(PUBLISH_FAILURES_METRIC, TYPE_TAG, eventType.code)
+                .increment(pendingEntries.size.toDouble())
         }
+        val unpublishedIds = pendingEntries.mapTo(HashSet()) { it.id() }
+
+        return entries.map { it.id() }.filter { it !in unpublishedIds }
     }
 
-    private fun publishToSns(event: UserEvent, traceId: UUID, idempotencyKey: UUID) {
-        val notification = SnsNotification(
-            event,
-            event.attributes(
-                TRACING_ID_KEY to traceId.toString(),
-                IDEMPOTENT_KEY to idempotencyKey.toString(),
-            )
-        )
-        snsRetryOperations.execute<Unit, Throwable> {
-            sns.sendNotification(userEventsSnsTopicName, notification)
+    /**
+     * Cuts the entries into batches limited both by the number of entries and by their total payload size, since SNS
+     * rejects the whole batch request exceeding any of them. The order of the entries is preserved.
+     */
+    private fun splitIntoBatches(entries: List<PublishBatchRequestEntry>): List<List<PublishBatchRequestEntry>> {
+        val batches = ArrayList<List<PublishBatchRequestEntry>>()
+        var batch = ArrayList<PublishBatchRequestEntry>()
+        var batchPayloadSize = 0
+
+        for (entry in entries) {
+            val entryPayloadSize = payloadSize(entry)
+
+            if (batch.size == SNS_PUBLISH_BATCH_MAX_SIZE
+                || (batch.isNotEmpty() && batchPayloadSize + entryPayloadSize > SNS_PUBLISH_BATCH_MAX_PAYLOAD_SIZE)
+            ) {
+                batches += batch
+                batch = ArrayList()
+                batchPayloadSize = 0
+            }
+            batch += entry
+            batchPayloadSize += entryPayloadSize
+        }
+        if (batch.isNotEmpty()) {
+            batches += batch
         }
+        return batches
+    }
+
+    /**
+     * SNS counts the message body along with the names, data types and values of the message attributes.
+     */
+    private fun payloadSize(entry: PublishBatchRequestEntry): Int =
+        entry.message().utf8Size() + entry.messageAttributes().entries.sumOf { (name, value) ->
+            name.utf8Size() + value.dataType().utf8Size() + value.stringValue().utf8Size()
+        }
+
+    private fun String.utf8Size(): Int = toByteArray(Charsets.UTF_8).size
+
+    private fun createOutboxMessage(event: UserEvent) = OutboxMessageEntity(
+        type = event.type(),
+        data = objectMapper.convertValue(event, OutboxMessageDataTypeRef),
+        traceId = useContextAttribute(Attributes.TRACING_ID),
+    )
+
+    private fun createBatchEntry(eventType: UserEvent.Type, message: OutboxMessageEntity): PublishBatchRequestEntry {
+        val event = objectMapper.convertValue(message.data, eventType.type.java)
+        val attributes = event.attributes(
+            TRACING_ID_KEY to message.traceId.toString(),
+            IDEMPOTENT_KEY to message.id.toString(),
+            producedAt = message.createdDateTime?.toInstant(ZoneOffset.UTC) ?: Instant.now(),
+        )
+        return PublishBatchRequestEntry.builder()
+            .id(message.id.toString())
+            .message(objectMapper.writeValueAsString(event))
+            .messageAttributes(attributes.mapValues { stringAttribute(it.value) })
+            .build()
+    }
+
+    private fun stringAttribute(value: String): MessageAttributeValue =
+        MessageAttributeValue.builder()
+            .dataType("String")
+            .stringValue(value)
+            .build()
+
+    private fun recordDispatchLatency(message: OutboxMessageEntity) {
+        val createdDateTime = message.createdDateTime ?: return
+        val dispatchedDateTime = dateTimeProvider.now.map(LocalDateTime::from).orElseGet(LocalDateTime::now)
+
+        meterRegistry
+            .timer(DISPATCH_LATENCY_METRIC, TYPE_TAG, message.type)
+            .record(Duration.between(createdDateTime, dispatchedDateTime))
     }
 
     companion object {
-        private const val DEFAULT_EVENTS_BATCH_SIZE = 50
+        private const val SNS_PUBLISH_BATCH_MAX_SIZE = 10
+        private const val SNS_PUBLISH_BATCH_MAX_PAYLOAD_SIZE = 256 * 1024
+        private const val DISPATCH_LATENCY_METRIC = "outbox.messages.dispatch.latency"
+        private const val PUBLISH_LATENCY_METRIC = "outbox.messages.publish.latency"
+        private const val PUBLISH_FAILURES_METRIC = "outbox.messages.publish.failures"
+        private const val TYPE_TAG = "type"
+        private const val EXECUTOR_NAME = "outbox-publishing"
+
+        private val logger = LoggerFactory.getLogger(this::class.java.enclosingClass)
+
+        /**
+         * The queue is effectively bounded by the publish permits, taken before each batch is submitted.
+         */
+        private fun createExecutor(props: AppProps.Outbox, meterRegistry: MeterRegistry): ExecutorService {
+            val executor = ThreadPoolExecutor(
+                props.maxConcurrentPublishes,
+                props.maxConcurrentPublishes,
+                0L,
+                TimeUnit.MILLISECONDS,
+                LinkedBlockingQueue(),
+                CustomizableThreadFactory("$EXECUTOR_NAME-"),
+            )
+            ExecutorServiceMetrics(executor, EXECUTOR_NAME, emptyList()).bindTo(meterRegistry)
+
+            return executor
+        }
 
         private object OutboxMessageDataTypeRef : TypeReference<Map<String, Any?>>()
     }
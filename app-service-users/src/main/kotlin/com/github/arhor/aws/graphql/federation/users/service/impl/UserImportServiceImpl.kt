@@ -0,0 +1,265 @@
+package com.github.arhor.aws.graphql.federation.users.service.impl
+
+import com.fasterxml.jackson.core.JacksonException
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.github.arhor.aws.graphql.federation.common.event.UserEvent
+import com.github.arhor.aws.graphql.federation.starter.security.PredefinedAuthority
+import com.github.arhor.aws.graphql.federation.users.config.props.AppProps
+import com.github.arhor.aws.graphql.federation.users.data.entity.UserEntity
+import com.github.arhor.aws.graphql.federation.users.data.repository.UserRepository
+import com.github.arhor.aws.graphql.federation.users.generated.graphql.types.CreateUserInput
+import com.github.arhor.aws.graphql.federation.users.service.OutboxMessageService
+import com.github.arhor.aws.graphql.federation.users.service.UserImportService
+import com.github.arhor.aws.graphql.federation.users.service.UserImportService.Format
+import com.github.arhor.aws.graphql.federation.users.service.UserImportService.Listener
+import com.github.arhor.aws.graphql.federation.users.service.UserImportService.Progress
+import com.github.arhor.aws.graphql.federation.users.service.UserImportService.RowError
+import com.github.arhor.aws.graphql.federation.users.service.mapping.UserMapper
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics
+import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.DisposableBean
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory
+import org.springframework.security.access.prepost.PreAuthorize
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder
+import org.springframework.security.crypto.password.PasswordEncoder
+import org.springframework.stereotype.Service
+import org.springframework.transaction.PlatformTransactionManager
+import org.springframework.transaction.support.TransactionOperations
+import org.springframework.transaction.support.TransactionTemplate
+import java.io.InputStream
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+
+/**
+ * Unlike creating users one by one, checks the usernames of a chunk with a single query, hashes the passwords of a
+ * chunk in parallel and inserts the users of a chunk along with their outbox messages with JDBC batches.
+ */
+@Service
+class UserImportServiceImpl(
+    private val chunkSize: Int,
+    private val objectMapper: ObjectMapper,
+    private val userMapper: UserMapper,
+    private val userRepository: UserRepository,
+    private val outboxMessageService: OutboxMessageService,
+    private val passwordEncoder: PasswordEncoder,
+    private val hashingExecutor: ExecutorService,
+    private val readTransaction: TransactionOperations,
+    private val writeTransaction: TransactionOperations,
+) : UserImportService, DisposableBean {
+
+    /**
+     * Passwords are hashed by the dedicated executor instead of the one verifying passwords on login, so that an
+     * import can't fill its queue up and make the login requests rejected.
+     */
+    @Autowired
+    constructor(
+        appProps: AppProps,
+        objectMapper: ObjectMapper,
+        userMapper: UserMapper,
+        userRepository: UserRepository,
+        outboxMessageService: OutboxMessageService,
+        passwordEncoder: BCryptPasswordEncoder,
+        transactionManager: PlatformTransactionManager,
+        meterRegistry: MeterRegistry,
+    ) : this(
+        chunkSize = appProps.userImport.chunkSize,
+        objectMapper = objectMapper,
+        userMapper = userMapper,
+        userRepository = userRepository,
+        outboxMessageService = outboxMessageService,
+        passwordEncoder = passwordEncoder,
+        hashingExecutor = createExecutor(appProps.userImport, meterRegistry),
+        readTransaction = TransactionTemplate(transactionManager).apply { isReadOnly = true },
+        writeTransaction = TransactionTemplate(transactionManager),
+    )
+
+    @PreAuthorize("hasRole('ADMIN')")
+    override fun importUsers(input: InputStream, format: Format, listener: Listener): Progress {
+        var progress = Progress(processed = 0, imported = 0, rejected = 0)
+
+        input.bufferedReader().useLines { lines ->
+            for (chunk in readRows(lines, format).chunked(chunkSize)) {
+                val imported = importChunk(chunk, listener)
+
+                progress = Progress(
+                    processed = progress.processed + chunk.size,
+                    imported = progress.imported + imported,
+                    rejected = progress.rejected + chunk.size - imported,
+                )
+                listener.onChunkProcessed(progress)
+            }
+        }
+        logger.info("Users import completed: {}", progress)
+        return progress
+    }
+
+    override fun destroy() {
+        hashingExecutor.shutdown()
+    }
+
+    /**
+     * @return number of the users imported
+     */
+    private fun importChunk(chunk: List<Row>, listener: Listener): Int {
+        val errors = ArrayList<RowError>()
+        val candidates = LinkedHashMap<String, Row>()
+
+        for (row in chunk) {
+            val error = row.error
+                ?: validate(row)
+                ?: if (row.username in candidates) DUPLICATED_USERNAME else null
+
+            if (error != null) {
+                errors += RowError(line = row.line, username = row.username, message = error)
+            } else {
+                candidates[row.username!!] = row
+            }
+        }
+        if (candidates.isNotEmpty()) {
+            val takenUsernames = readTransaction.execute {
+                userRepository.findAllUsernamesByUsernameIn(candidates.keys)
+            }
+            for (username in takenUsernames.orEmpty()) {
+                candidates.remove(username)?.let {
+                    errors += RowError(line = it.line, username = username, message = TAKEN_USERNAME)
+                }
+            }
+        }
+        val importedUsernames = if (candidates.isNotEmpty()) {
+            val users = hashPasswords(candidates.values)
+            val imported = writeTransaction.execute {
+                userRepository.insertAllSkippingTakenUsernames(users).also { inserted ->
+                    outboxMessageService.storeAsOutboxMessages(inserted.map { UserEvent.Created(id = it.id!!) })
+                }
+            }
+            imported.orEmpty().mapTo(HashSet()) { it.username }
+        } else {
+            emptySet()
+        }
+        for ((username, row) in candidates) {
+            if (username !in importedUsernames) {
+                errors += RowError(line = row.line, username = username, message = TAKEN_USERNAME)
+            }
+        }
+        errors.sortBy { it.line }
+        errors.forEach(listener::onRowRejected)
+
+        return importedUsernames.size
+    }
+
+    private fun hashPasswords(rows: Collection<Row>): List<UserEntity> {
+        val users = rows.map { row ->
+            CompletableFuture.supplyAsync({ passwordEncoder.encode(row.password) }, hashingExecutor).thenApply {
+                userMapper.mapToEntity(
+                    CreateUserInput(username = row.username!!, password = it),
+                    PredefinedAuthority.ROLE_USER,
+                )
+            }
+        }
+        return try {
+            users.map { it.join() }
+        } catch (e: CompletionException) {
+            throw e.cause ?: e
+        }
+    }
+
+    private fun readRows(lines: Sequence<String>, format: Format): Sequence<Row> {
+        val numberedLines = lines
+            .mapIndexed { index, text -> (index + 1L) to text }
+            .filter { (_, text) -> text.isNotBlank() }
+
+        return when (format) {
+            Format.NDJSON -> numberedLines.map { (line, text) -> readJsonRow(line, text) }
+            Format.CSV -> sequence {
+                var columns: Map<String, Int>? = null
+
+                for ((line, text) in numberedLines) {
+                    val values = text.split(CSV_SEPARATOR).map(String::trim)
+
+                    if (columns == null) {
+                        columns = values.withIndex().associate { it.value.lowercase() to it.index }
+                    } else {
+                        yield(
+                            Row(
+                                line = line,
+                                username = columns[FIELD_USERNAME]?.let(values::getOrNull),
+                                password = columns[FIELD_PASSWORD]?.let(values::getOrNull),
+                            )
+                        )
+                    }
+                }
+            }
+        }
+    }
+
+    private fun readJsonRow(line: Long, text: String): Row =
+        try {
+            val node = objectMapper.readTree(text)
+
+            Row(
+                line = line,
+                username = node.path(FIELD_USERNAME).textValue(),
+                password = node.path(FIELD_PASSWORD).textValue(),
+            )
+        } catch (e: JacksonException) {
+            Row(line = line, username = null, password = null, error = MALFORMED_LINE)
+        }
+
+    /**
+     * Applies the same constraints as the createUser mutation input.
+     */
+    private fun validate(row: Row): String? = when {
+        row.username.isNullOrBlank() -> "Username is required"
+        !USERNAME_PATTERN.matches(row.username) -> "Username does not match $USERNAME_PATTERN"
+        row.password.isNullOrBlank() -> "Password is required"
+        !PASSWORD_PATTERN.matches(row.password) -> "Password does not match $PASSWORD_PATTERN"
+        else -> null
+    }
+
+    private data class Row(
+        val line: Long,
+        val username: String?,
+        val password: String?,
+        val error: String? = null,
+    )
+
+    companion object {
+        private val logger = LoggerFactory.getLogger(this::class.java.enclosingClass)
+
+        private const val EXECUTOR_NAME = "user-import-hashing"
+        private const val CSV_SEPARATOR = ','
+        private const val FIELD_USERNAME = "username"
+        private const val FIELD_PASSWORD = "password"
+
+        private const val MALFORMED_LINE = "Line is not a valid JSON object"
+        private const val DUPLICATED_USERNAME = "Username is duplicated within the input"
+        private const val TAKEN_USERNAME = "Username is already taken"
+
+        private val USERNAME_PATTERN = Regex("^[a-zA-Z0-9]{6,20}$")
+        private val PASSWORD_PATTERN = Regex("^(?=.*[a-z])(?=.*[A-Z])(?=.*[0-9])[a-zA-Z0-9]{8,20}$")
+
+        /**
+         * Queue is not bounded by the executor itself, each running import submits at most one chunk of passwords
+         * at a time and waits for all of them to be hashed.
+         */
+        private fun createExecutor(props: AppProps.UserImport, meterRegistry: MeterRegistry): ExecutorService {
+            val executor = ThreadPoolExecutor(
+                props.hashingThreads,
+                props.hashingThreads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                LinkedBlockingQueue(),
+                CustomizableThreadFactory("$EXECUTOR_NAME-"),
+            )
+            ExecutorServiceMetrics(executor, EXECUTOR_NAME, emptyList()).bindTo(meterRegistry)
+
+            return executor
+        }
+    }
+}
@@ -10,7 +10,6 @@ import com.github.arhor.aws.graphql.federation.starter.security.CurrentUserReque
 import com.github.arhor.aws.graphql.federation.starter.security.PredefinedAuthority
 import com.github.arhor.aws.graphql.federation.starter.tracing.Trace
 import com.github.arhor.aws.graphql.federation.users.data.entity.UserEntity
-import com.github.arhor.aws.graphql.federation.users.data.repository.AuthRepository
 import com.github.arhor.aws.graphql.federation.users.data.repository.UserRepository
 import com.github.arhor.aws.graphql.federation.users.generated.graphql.DgsConstants.USER
 import com.github.arhor.aws.graphql.federation.users.generated.graphql.types.CreateUserInput
@@ -30,6 +29,7 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException
 import org.springframework.security.crypto.password.PasswordEncoder
 import org.springframework.stereotype.Service
 import org.springframework.transaction.annotation.Transactional
+import org.springframework.transaction.support.TransactionOperations
 import java.util.UUID
 
 @Trace
@@ -37,9 +37,9 @@ import java.util.UUID
 class UserServiceImpl(
     private val userMapper: UserMapper,
     private val userRepository: UserRepository,
-    private val authRepository: AuthRepository,
     private val eventPublisher: ApplicationEventPublisher,
     private val passwordEncoder: PasswordEncoder,
+    private val transactionOperations: TransactionOperations,
 ) : UserService {
 
     @Transactional(readOnly = true)
@@ -54,34 +54,31 @@ class UserServiceImpl(
 
     @Transactional(readOnly = true)
     override fun getUserPage(input: UsersLookupInput): UserPage {
-        return userRepository
-            .findAll(PageRequest.of(input.page, input.size))
-            .map(userMapper::mapToResult)
-            .let {
-                UserPage(
-                    data = it.content,
-                    page = input.page,
-                    size = input.size,
-                    hasPrev = it.hasPrevious(),
-                    hasNext = it.hasNext(),
-                )
-            }
+        val pageable = PageRequest.of(input.page, input.size)
+
+        // one extra user is loaded to find out whether there is a next page without counting all the users
+        val users = userRepository.findPage(limit = pageable.pageSize + 1, offset = pageable.offset)
+
+        return UserPage(
+            data = users.take(pageable.pageSize).map(userMapper::mapToResult),
+            page = input.page,
+            size = input.size,
+            hasPrev = pageable.hasPrevious(),
+            hasNext = users.size > pageable.pageSize,
+        )
     }
 
-    @Transactional(readOnly = true)
     override fun getUserByUsernameAndPassword(request: CurrentUserRequest): CurrentUser {
         val (username, password) = request
-        val user = userRepository.findByUsername(username)
 
-        if (user != null) {
-            if (passwordEncoder.matches(password, user.password)) {
-                val authorities = user.authorities
-                    .map { it.authId }
-                    .let { authRepository.findAllById(it) }
+        // no transaction is opened, so the connection is released before the password verification is queued
+        val credentials = userRepository.findCredentialsByUsername(username)
 
-                return userMapper.mapToCurrentUser(user, authorities)
+        if (credentials != null) {
+            if (passwordEncoder.matches(password, credentials.password)) {
+                return userMapper.mapToCurrentUser(credentials)
             } else {
-                logger.error("Provided incorrect password for the user with id: {}", user.id)
+                logger.error("Provided incorrect password for the user with id: {}", credentials.id)
             }
         } else {
             logger.error("Provided incorrect username: {}", username)
@@ -89,40 +86,43 @@ class UserServiceImpl(
         throw UsernameNotFoundException("Bad Credentials")
     }
 
-    @Transactional
     override fun createUser(input: CreateUserInput): User {
-        if (userRepository.existsByUsername(input.username)) {
-            throw EntityDuplicateException(
-                entity = USER.TYPE_NAME,
-                condition = "${USER.Username} = ${input.username}",
-                operation = Operation.CREATE,
-            )
-        }
-        val auth = authRepository.findByName(PredefinedAuthority.ROLE_USER)
+        // the password is hashed before the transaction is started, so no connection is held while hashing is queued
+        val encodedPassword = passwordEncoder.encode(input.password)
 
-        return input.copy(password = passwordEncoder.encode(input.password))
-            .let { userMapper.mapToEntity(it, auth) }
-            .let { userRepository.save(it) }
-            .also { eventPublisher.publishEvent(UserEvent.Created(id = it.id!!)) }
-            .let { userMapper.mapToResult(it) }
+        return transactionOperations.execute {
+            if (userRepository.existsByUsername(input.username)) {
+                throw EntityDuplicateException(
+                    entity = USER.TYPE_NAME,
+                    condition = "${USER.Username} = ${input.username}",
+                    operation = Operation.CREATE,
+                )
+            }
+            input.copy(password = encodedPassword)
+                .let { userMapper.mapToEntity(it, PredefinedAuthority.ROLE_USER) }
+                .let { userRepository.save(it) }
+                .also { eventPublisher.publishEvent(UserEvent.Created(id = it.id!!)) }
+        }!!.let { userMapper.mapToResult(it) }
     }
 
-    @Transactional
     override fun updateUser(input: UpdateUserInput): User {
-        val initialState = userRepository.findByIdOrNull(input.id) ?: throw EntityNotFoundException(
-            entity = USER.TYPE_NAME,
-            condition = "${USER.Id} = ${input.id}",
-            operation = Operation.UPDATE,
-        )
-        val currentState = initialState.copy(
-            password = input.password?.let(passwordEncoder::encode) ?: initialState.password
-        )
-        return userMapper.mapToResult(
-            entity = when (currentState != initialState) {
+        // the password is hashed before the transaction is started, so no connection is held while hashing is queued
+        val encodedPassword = input.password?.let(passwordEncoder::encode)
+
+        return transactionOperations.execute {
+            val initialState = userRepository.findByIdOrNull(input.id) ?: throw EntityNotFoundException(
+                entity = USER.TYPE_NAME,
+                condition = "${USER.Id} = ${input.id}",
+                operation = Operation.UPDATE,
+            )
+            val currentState = initialState.copy(
+                password = encodedPassword ?: initialState.password
+            )
+            when (currentState != initialState) {
                 true -> trySaveHandlingConcurrentUpdates(currentState)
                 else -> initialState
             }
-        )
+        }!!.let { userMapper.mapToResult(entity = it) }
     }
 
     @Transactional
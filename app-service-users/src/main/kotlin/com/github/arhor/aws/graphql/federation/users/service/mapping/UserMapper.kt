@@ -1,13 +1,18 @@
 package com.github.arhor.aws.graphql.federation.users.service.mapping
 
+import com.github.arhor.aws.graphql.federation.starter.core.data.Features
 import com.github.arhor.aws.graphql.federation.starter.security.CurrentUser
-import com.github.arhor.aws.graphql.federation.users.data.entity.AuthEntity
+import com.github.arhor.aws.graphql.federation.starter.security.PredefinedAuthority
 import com.github.arhor.aws.graphql.federation.users.data.entity.UserEntity
+import com.github.arhor.aws.graphql.federation.users.data.entity.projection.UserCredentialsProjection
+import com.github.arhor.aws.graphql.federation.users.data.entity.projection.UserProjection
 import com.github.arhor.aws.graphql.federation.users.generated.graphql.types.CreateUserInput
 import com.github.arhor.aws.graphql.federation.users.generated.graphql.types.User
 
 interface UserMapper {
-    fun mapToEntity(input: CreateUserInput, defaultAuth: AuthEntity): UserEntity
+    fun mapToEntity(input: CreateUserInput, defaultAuth: PredefinedAuthority): UserEntity
     fun mapToResult(entity: UserEntity): User
-    fun mapToCurrentUser(user: UserEntity, authorities: Iterable<AuthEntity>): CurrentUser
+    fun mapToResult(projection: UserProjection): User
+    fun mapToCurrentUser(credentials: UserCredentialsProjection): CurrentUser
+    fun mapToAuthorityNames(authorities: Features<PredefinedAuthority>): List<String>
 }
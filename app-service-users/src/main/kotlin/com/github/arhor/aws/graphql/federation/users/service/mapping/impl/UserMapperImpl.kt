@@ -1,10 +1,12 @@
 package com.github.arhor.aws.graphql.federation.users.service.mapping.impl
 
+import com.github.arhor.aws.graphql.federation.starter.core.data.Features
 import com.github.arhor.aws.graphql.federation.starter.security.CurrentUser
+import com.github.arhor.aws.graphql.federation.starter.security.PredefinedAuthority
 import com.github.arhor.aws.graphql.federation.starter.tracing.Trace
-import com.github.arhor.aws.graphql.federation.users.data.entity.AuthEntity
-import com.github.arhor.aws.graphql.federation.users.data.entity.AuthRef
 import com.github.arhor.aws.graphql.federation.users.data.entity.UserEntity
+import com.github.arhor.aws.graphql.federation.users.data.entity.projection.UserCredentialsProjection
+import com.github.arhor.aws.graphql.federation.users.data.entity.projection.UserProjection
 import com.github.arhor.aws.graphql.federation.users.generated.graphql.types.CreateUserInput
 import com.github.arhor.aws.graphql.federation.users.generated.graphql.types.User
 import com.github.arhor.aws.graphql.federation.users.service.mapping.UserMapper
@@ -14,21 +16,29 @@ import org.springframework.stereotype.Component
 @Component
 class UserMapperImpl : UserMapper {
 
-    override fun mapToEntity(input: CreateUserInput, defaultAuth: AuthEntity) = UserEntity(
+    override fun mapToEntity(input: CreateUserInput, defaultAuth: PredefinedAuthority) = UserEntity(
         username = input.username,
         password = input.password,
-        authorities = setOf(AuthRef.from(defaultAuth)),
+        authorities = Features.of(defaultAuth),
     )
 
     override fun mapToResult(entity: UserEntity): User = User(
         id = entity.id ?: throw IllegalArgumentException("Entity must be persisted with assigned id!"),
         username = entity.username,
+        authorities = mapToAuthorityNames(entity.authorities),
     )
 
-    override fun mapToCurrentUser(user: UserEntity, authorities: Iterable<AuthEntity>): CurrentUser {
-        return CurrentUser(
-            id = user.id ?: throw IllegalArgumentException("Entity must be persisted with assigned id!"),
-            authorities = authorities.map { it.name },
-        )
-    }
+    override fun mapToResult(projection: UserProjection): User = User(
+        id = projection.id,
+        username = projection.username,
+        authorities = mapToAuthorityNames(projection.authorities),
+    )
+
+    override fun mapToCurrentUser(credentials: UserCredentialsProjection): CurrentUser = CurrentUser(
+        id = credentials.id,
+        authorities = mapToAuthorityNames(credentials.authorities),
+    )
+
+    override fun mapToAuthorityNames(authorities: Features<PredefinedAuthority>): List<String> =
+        authorities.items.map { it.authority }
 }
@@ -0,0 +1,67 @@
+package com.github.arhor.aws.graphql.federation.users.util
+
+import com.github.benmanes.caffeine.cache.Cache
+import com.github.benmanes.caffeine.cache.Caffeine
+import java.time.Clock
+import java.time.Duration
+
+/**
+ * Limits the number of permits acquired per key within a sliding window.
+ *
+ * The window is approximated by two adjacent fixed windows, the count of the previous one is weighted by the part of
+ * it still covered by the sliding window, so that a burst at the edge of a fixed window is not admitted twice.
+ *
+ * @param limit   maximum number of permits per key within the window
+ * @param window  duration of the sliding window
+ * @param maxKeys maximum number of keys tracked at once, the least recently used ones are evicted first
+ * @param clock   clock used to determine the current window
+ */
+class SlidingWindowRateLimiter(
+    private val limit: Int,
+    private val window: Duration,
+    maxKeys: Long,
+    private val clock: Clock,
+) {
+    private val windowMillis = window.toMillis()
+    private val counters: Cache<String, Counter> =
+        Caffeine.newBuilder()
+            .expireAfterAccess(window.multipliedBy(2))
+            .maximumSize(maxKeys)
+            .build()
+
+    /**
+     * @param key the key to acquire a permit for
+     * @return `null` when the permit is acquired, otherwise time until the current fixed window ends
+     */
+    fun tryAcquire(key: String): Duration? {
+        val counter = counters.get(key) { Counter() }
+        val now = clock.millis()
+
+        return synchronized(counter) {
+            counter.tryAcquire(now)
+        }
+    }
+
+    private inner class Counter {
+        private var windowStart = 0L
+        private var previousCount = 0
+        private var currentCount = 0
+
+        fun tryAcquire(now: Long): Duration? {
+            val currentWindowStart = now - (now % windowMillis)
+
+            if (currentWindowStart != windowStart) {
+                previousCount = if (currentWindowStart - windowStart == windowMillis) currentCount else 0
+                currentCount = 0
+                windowStart = currentWindowStart
+            }
+            val previousWeight = 1.0 - (now - windowStart).toDouble() / windowMillis
+
+            if (previousCount * previousWeight + currentCount >= limit) {
+                return Duration.ofMillis(windowStart + windowMillis - now)
+            }
+            currentCount++
+            return null
+        }
+    }
+}
@@ -0,0 +1,20 @@
+-- Bit positions must match the ordinals of PredefinedAuthority entries.
+ALTER TABLE "users"
+    ADD COLUMN IF NOT EXISTS "authorities" INT NOT NULL DEFAULT 0;
+
+UPDATE "users" u
+   SET "authorities" = (
+           SELECT COALESCE(BIT_OR(
+                      CASE a."name"
+                          WHEN 'ROLE_USER'  THEN 1 << 0
+                          WHEN 'ROLE_ADMIN' THEN 1 << 1
+                          ELSE 0
+                      END
+                  ), 0)
+             FROM "users_has_authorities" uha
+             JOIN "authorities" a ON a."id" = uha."auth_id"
+            WHERE uha."user_id" = u."id"
+       );
+
+DROP TABLE IF EXISTS "users_has_authorities";
+DROP TABLE IF EXISTS "authorities";
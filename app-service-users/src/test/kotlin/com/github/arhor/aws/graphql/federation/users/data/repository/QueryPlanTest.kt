@@ -0,0 +1,118 @@
+package com.github.arhor.aws.graphql.federation.users.data.repository
+
+import com.github.arhor.aws.graphql.federation.starter.testing.ConfigureQueryPlanGuard
+import com.github.arhor.aws.graphql.federation.starter.testing.QueryPlanGuard
+import com.github.arhor.aws.graphql.federation.starter.testing.QueryPlanRules
+import com.github.arhor.aws.graphql.federation.users.data.entity.callback.OutboxMessageEntityCallback
+import com.github.arhor.aws.graphql.federation.users.data.entity.callback.UserEntityCallback
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.DynamicTest
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestFactory
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.test.context.ContextConfiguration
+import java.util.UUID
+
+@ContextConfiguration(
+    classes = [
+        ConfigureQueryPlanGuard::class,
+        OutboxMessageEntityCallback::class,
+        UserEntityCallback::class,
+    ]
+)
+class QueryPlanTest : RepositoryTestBase() {
+
+    @Autowired
+    private lateinit var queryPlanGuard: QueryPlanGuard
+
+    @Autowired
+    private lateinit var userRepository: UserRepository
+
+    @BeforeEach
+    fun setUp() {
+        queryPlanGuard.seed(
+            RULES,
+            """
+            INSERT INTO users (id, username, password, version, created_date_time, authorities)
+                 SELECT CAST('00000000-0000-0000-0001-' || LPAD(TO_HEX(i), 12, '0') AS UUID)
+                      , 'user-' || i
+                      , 'password-' || i
+                      , 0
+                      , TIMESTAMP '2024-01-01' + i * INTERVAL '1 minute'
+                      , 1
+                   FROM generate_series(1, :volume) AS i
+            """,
+            """
+            INSERT INTO outbox_messages (id, type, data, trace_id, created_date_time)
+                 SELECT CAST('00000000-0000-0000-0002-' || LPAD(TO_HEX(i), 12, '0') AS UUID)
+                      , 'test-event-' || (i % 20)
+                      , CAST('{}' AS JSONB)
+                      , CAST('00000000-0000-0000-0000-000000000000' AS UUID)
+                      , TIMESTAMP '2024-01-01' + i * INTERVAL '1 second'
+                   FROM generate_series(1, :volume) AS i
+            """,
+        )
+    }
+
+    @TestFactory
+    fun `should use efficient plans for all named queries`(): List<DynamicTest> {
+        val userIds = ids(kind = 1, 1, 2, 3)
+
+        return queryPlanGuard.verifyNamedQueries(
+            params = mapOf(
+                "OutboxMessageEntity.claimOldest" to mapOf(
+                    "messageType" to "test-event-1",
+                    "messagesNum" to 50,
+                    "leaseSeconds" to 60L,
+                ),
+                "OutboxMessageEntity.deleteAllByIdIn" to mapOf("ids" to userIds),
+                "OutboxBacklogProjection.findAllByTypeIn" to mapOf("types" to listOf("test-event-1")),
+                "UserProjection.findPage" to mapOf("limit" to 21, "offset" to 0L),
+                "UserCredentialsProjection.findByUsername" to mapOf("username" to "user-1"),
+                "UserAuthoritiesProjection.findAllByIdIn" to mapOf("ids" to userIds),
+                "UserEntity.findAllUsernamesByUsernameIn" to mapOf("usernames" to listOf("user-1", "user-2")),
+            ),
+            rules = RULES,
+        )
+    }
+
+    @Test
+    fun `should use efficient plans for derived queries`() {
+        // When
+        val statements = queryPlanGuard.captureStatements {
+            userRepository.existsByUsername("user-2")
+        }
+
+        // Then
+        for (statement in statements) {
+            queryPlanGuard.verifyStatement(statement.sql, statement, RULES)
+        }
+    }
+
+    @Test
+    fun `should load a page of users with a single statement regardless of the page size`() {
+        // When
+        val statements = queryPlanGuard.captureStatements {
+            userRepository.findPage(limit = 101, offset = 0)
+        }
+
+        // Then
+        assertThat(statements)
+            .hasSize(1)
+
+        queryPlanGuard.verifyStatement(statements.single().sql, statements.single(), RULES)
+    }
+
+    /**
+     * @param kind    the kind of seeded entity: 1 - user
+     * @param numbers the ordinal numbers of seeded entities
+     * @return identifiers of the seeded entities
+     */
+    private fun ids(kind: Long, vararg numbers: Long): List<UUID> =
+        numbers.map { UUID(0L, (kind shl 48) or it) }
+
+    companion object {
+        private val RULES = QueryPlanRules()
+    }
+}
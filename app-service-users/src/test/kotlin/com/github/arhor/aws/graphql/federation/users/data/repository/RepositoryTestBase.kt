@@ -1,9 +1,10 @@
 package com.github.arhor.aws.graphql.federation.users.data.repository
 
 import com.github.arhor.aws.graphql.federation.starter.core.ConfigureCoreApplicationComponents
+import com.github.arhor.aws.graphql.federation.starter.core.data.Features
+import com.github.arhor.aws.graphql.federation.starter.security.PredefinedAuthority
 import com.github.arhor.aws.graphql.federation.starter.testing.ConfigureTestObjectMapper
 import com.github.arhor.aws.graphql.federation.users.config.ConfigureDatabase
-import com.github.arhor.aws.graphql.federation.users.data.entity.AuthRef
 import com.github.arhor.aws.graphql.federation.users.data.entity.UserEntity
 import org.junit.jupiter.api.Tag
 import org.springframework.beans.factory.annotation.Autowired
@@ -31,19 +32,19 @@ import org.testcontainers.junit.jupiter.Testcontainers
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 abstract class RepositoryTestBase {
 
-    @Autowired
-    protected lateinit var authRepository: AuthRepository
-
     @Autowired
     protected lateinit var userRepository: UserRepository
 
     @Autowired
     protected lateinit var outboxMessageRepository: OutboxMessageRepository
 
-    protected fun createAndSaveTestUser(authorities: Set<AuthRef> = emptySet()): UserEntity =
+    protected fun createAndSaveTestUser(
+        username: String = "test-username",
+        authorities: Features<PredefinedAuthority> = Features.emptyOf(PredefinedAuthority::class.java),
+    ): UserEntity =
         userRepository.save(
             UserEntity(
-                username = "test-username",
+                username = username,
                 password = "test-password",
                 authorities = authorities,
             )
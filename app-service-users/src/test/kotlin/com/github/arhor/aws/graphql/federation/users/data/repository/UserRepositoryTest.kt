@@ -1,8 +1,16 @@
 package com.github.arhor.aws.graphql.federation.users.data.repository
 
+import com.github.arhor.aws.graphql.federation.starter.core.data.Features
+import com.github.arhor.aws.graphql.federation.starter.security.PredefinedAuthority.ROLE_ADMIN
+import com.github.arhor.aws.graphql.federation.starter.security.PredefinedAuthority.ROLE_USER
+import com.github.arhor.aws.graphql.federation.users.data.entity.UserEntity
 import com.github.arhor.aws.graphql.federation.users.data.entity.callback.UserEntityCallback
+import com.github.arhor.aws.graphql.federation.users.data.entity.projection.UserAuthoritiesProjection
+import com.github.arhor.aws.graphql.federation.users.data.entity.projection.UserCredentialsProjection
 import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.from
 import org.junit.jupiter.api.Test
+import org.springframework.data.repository.findByIdOrNull
 import org.springframework.test.context.ContextConfiguration
 
 @ContextConfiguration(classes = [UserEntityCallback::class])
@@ -34,4 +42,125 @@ class UserRepositoryTest : RepositoryTestBase() {
         assertThat(result)
             .isFalse()
     }
+
+    @Test
+    fun `should return user credentials along with granted authorities`() {
+        // Given
+        val createdUser = createAndSaveTestUser(authorities = Features.of(ROLE_USER, ROLE_ADMIN))
+
+        // When
+        val result = userRepository.findCredentialsByUsername(createdUser.username)
+
+        // Then
+        assertThat(result)
+            .isEqualTo(
+                UserCredentialsProjection(
+                    id = createdUser.id!!,
+                    password = createdUser.password,
+                    authorities = Features.of(ROLE_USER, ROLE_ADMIN),
+                )
+            )
+    }
+
+    @Test
+    fun `should return null trying to get credentials of a non-existing user`() {
+        // When
+        val result = userRepository.findCredentialsByUsername("non-existing-username")
+
+        // Then
+        assertThat(result)
+            .isNull()
+    }
+
+    @Test
+    fun `should return granted authorities of each requested user`() {
+        // Given
+        val user1 = createAndSaveTestUser(username = "test-username-1", authorities = Features.of(ROLE_USER))
+        val user2 = createAndSaveTestUser(username = "test-username-2", authorities = Features.of(ROLE_ADMIN))
+        val user3 = createAndSaveTestUser(username = "test-username-3")
+
+        // When
+        val result = userRepository.findAllAuthoritiesByIdIn(listOf(user1.id!!, user2.id!!, user3.id!!))
+
+        // Then
+        assertThat(result)
+            .containsExactlyInAnyOrder(
+                UserAuthoritiesProjection(id = user1.id!!, authorities = Features.of(ROLE_USER)),
+                UserAuthoritiesProjection(id = user2.id!!, authorities = Features.of(ROLE_ADMIN)),
+                UserAuthoritiesProjection(id = user3.id!!, authorities = user3.authorities),
+            )
+    }
+
+    @Test
+    fun `should return empty list trying to get authorities of non-existing users`() {
+        // Given
+        val createdUser = createAndSaveTestUser()
+
+        // When
+        userRepository.delete(createdUser)
+        val result = userRepository.findAllAuthoritiesByIdIn(listOf(createdUser.id!!))
+
+        // Then
+        assertThat(result)
+            .isEmpty()
+    }
+
+    @Test
+    fun `should return only taken usernames of the given ones`() {
+        // Given
+        val createdUser = createAndSaveTestUser()
+
+        // When
+        val result = userRepository.findAllUsernamesByUsernameIn(listOf(createdUser.username, "non-existing-username"))
+
+        // Then
+        assertThat(result)
+            .containsExactly(createdUser.username)
+    }
+
+    @Test
+    fun `should insert all users at once skipping the ones with taken usernames`() {
+        // Given
+        val createdUser = createAndSaveTestUser()
+        val users = listOf(
+            UserEntity(username = "test-username-1", password = "test-password", authorities = Features.of(ROLE_USER)),
+            UserEntity(username = createdUser.username, password = "test-password"),
+        )
+
+        // When
+        val result = userRepository.insertAllSkippingTakenUsernames(users)
+
+        // Then
+        assertThat(result)
+            .singleElement()
+            .returns(0L, from { it.version })
+            .matches { it.id != null && it.createdDateTime != null }
+
+        assertThat(userRepository.findByIdOrNull(result.single().id!!))
+            .isNotNull()
+            .returns(users.first().username, from { it!!.username })
+            .returns(users.first().authorities, from { it!!.authorities })
+    }
+
+    @Test
+    fun `should insert only the first of the users sharing the same username`() {
+        // Given
+        val users = listOf(
+            UserEntity(username = "test-username-1", password = "test-password-1"),
+            UserEntity(username = "test-username-1", password = "test-password-2"),
+            UserEntity(username = "test-username-2", password = "test-password-3"),
+        )
+
+        // When
+        val result = userRepository.insertAllSkippingTakenUsernames(users)
+
+        // Then
+        assertThat(result.map { it.username to it.password })
+            .containsExactly(
+                "test-username-1" to "test-password-1",
+                "test-username-2" to "test-password-3",
+            )
+        assertThat(userRepository.findAllById(result.map { it.id!! }))
+            .hasSize(2)
+    }
 }
@@ -2,21 +2,32 @@ package com.github.arhor.aws.graphql.federation.users.infrastructure.router
 
 import com.github.arhor.aws.graphql.federation.starter.security.CurrentUser
 import com.github.arhor.aws.graphql.federation.starter.security.CurrentUserRequest
+import com.github.arhor.aws.graphql.federation.starter.security.PredefinedAuthority.ROLE_ADMIN
+import com.github.arhor.aws.graphql.federation.starter.security.PredefinedAuthority.ROLE_USER
 import com.github.arhor.aws.graphql.federation.starter.testing.ZERO_UUID_VAL
+import com.github.arhor.aws.graphql.federation.users.service.LoginThrottleService
+import com.github.arhor.aws.graphql.federation.users.service.UserImportService
 import com.github.arhor.aws.graphql.federation.users.service.UserService
+import com.github.arhor.aws.graphql.federation.users.service.exception.LoginAttemptsExceededException
 import com.ninjasquad.springmockk.MockkBean
 import io.mockk.every
+import io.mockk.just
+import io.mockk.runs
 import io.mockk.verify
 import org.hamcrest.Matchers.contains
 import org.junit.jupiter.api.Test
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest
+import org.springframework.http.HttpHeaders
 import org.springframework.http.MediaType
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken
 import org.springframework.test.web.servlet.MockMvc
 import org.springframework.test.web.servlet.get
 import org.springframework.test.web.servlet.post
 import java.net.URI
+import java.time.Duration
+import java.util.concurrent.RejectedExecutionException
 
 @AutoConfigureMockMvc(addFilters = false)
 @WebMvcTest(controllers = [MainRouter::class])
@@ -28,6 +39,12 @@ class MainRouterTest {
     @MockkBean
     private lateinit var userService: UserService
 
+    @MockkBean
+    private lateinit var userImportService: UserImportService
+
+    @MockkBean
+    private lateinit var loginThrottleService: LoginThrottleService
+
     @Test
     fun `should return empty response with NO_CONTENT status trying to get favicon`() {
         // Given
@@ -52,6 +69,7 @@ class MainRouterTest {
         val expectedRes = CurrentUser(id = ZERO_UUID_VAL, authorities = listOf("ROLE_TEST_1", "ROLE_TEST_2"))
         val expectedContentType = MediaType.APPLICATION_JSON
 
+        every { loginThrottleService.registerLoginAttempt(any(), any()) } just runs
         every { userService.getUserByUsernameAndPassword(any()) } returns expectedRes
 
         // When
@@ -75,6 +93,172 @@ class MainRouterTest {
             jsonPath("$.authorities") { value(contains(*expectedRes.authorities.toTypedArray())) }
         }
 
+        verify(exactly = 1) { loginThrottleService.registerLoginAttempt(expectedReq.username, any()) }
         verify(exactly = 1) { userService.getUserByUsernameAndPassword(expectedReq) }
     }
+
+    @Test
+    fun `should return TOO_MANY_REQUESTS status when too many login attempts were made`() {
+        // Given
+        val requestURI = URI.create("/api/users/authenticate")
+
+        every { loginThrottleService.registerLoginAttempt(any(), any()) } throws LoginAttemptsExceededException(
+            retryAfter = Duration.ofSeconds(30)
+        )
+
+        // When
+        val result = http.post(uri = requestURI) {
+            content = """{ "username": "test-username", "password": "test-password" }"""
+            contentType = MediaType.APPLICATION_JSON
+        }
+
+        // Then
+        result.andExpect {
+            status { isTooManyRequests() }
+            header { string(HttpHeaders.RETRY_AFTER, "30") }
+        }
+
+        verify(exactly = 0) { userService.getUserByUsernameAndPassword(any()) }
+    }
+
+    @Test
+    fun `should return SERVICE_UNAVAILABLE status when password verification is rejected`() {
+        // Given
+        val requestURI = URI.create("/api/users/authenticate")
+
+        every { loginThrottleService.registerLoginAttempt(any(), any()) } just runs
+        every { userService.getUserByUsernameAndPassword(any()) } throws RejectedExecutionException()
+
+        // When
+        val result = http.post(uri = requestURI) {
+            content = """{ "username": "test-username", "password": "test-password" }"""
+            contentType = MediaType.APPLICATION_JSON
+        }
+
+        // Then
+        result.andExpect {
+            status { isServiceUnavailable() }
+        }
+    }
+
+    @Test
+    fun `should stream rejected rows and progress of the users import`() {
+        // Given
+        val requestURI = URI.create("/api/users/import")
+        val progress = UserImportService.Progress(processed = 2, imported = 1, rejected = 1)
+
+        every { userImportService.importUsers(any(), any(), any()) } answers {
+            thirdArg<UserImportService.Listener>().run {
+                onRowRejected(UserImportService.RowError(line = 2, username = "user", message = "test-message"))
+                onChunkProcessed(progress)
+            }
+            progress
+        }
+
+        // When
+        val result = http.post(uri = requestURI) {
+            content = """
+                username,password
+                testUser1,TestPassword1
+                user,password
+            """.trimIndent()
+            contentType = MediaType("text", "csv")
+            principal = ADMIN
+        }
+
+        // Then
+        result.andExpect {
+            status { isOk() }
+            content { contentType(MediaType.APPLICATION_NDJSON) }
+            content {
+                string(
+                    """
+                    {"rejected":{"line":2,"username":"user","message":"test-message"}}
+                    {"progress":{"processed":2,"imported":1,"rejected":1}}
+                    {"completed":{"processed":2,"imported":1,"rejected":1}}
+
+                    """.trimIndent()
+                )
+            }
+        }
+
+        verify(exactly = 1) { userImportService.importUsers(any(), UserImportService.Format.CSV, any()) }
+    }
+
+    @Test
+    fun `should finish users import stream with error line when the import fails`() {
+        // Given
+        val requestURI = URI.create("/api/users/import")
+        val progress = UserImportService.Progress(processed = 2, imported = 2, rejected = 0)
+
+        every { userImportService.importUsers(any(), any(), any()) } answers {
+            thirdArg<UserImportService.Listener>().onChunkProcessed(progress)
+            throw IllegalStateException("test-message")
+        }
+
+        // When
+        val result = http.post(uri = requestURI) {
+            content = """{ "username": "testUser1", "password": "TestPassword1" }"""
+            contentType = MediaType.APPLICATION_NDJSON
+            principal = ADMIN
+        }
+
+        // Then
+        result.andExpect {
+            status { isOk() }
+            content {
+                string(
+                    """
+                    {"progress":{"processed":2,"imported":2,"rejected":0}}
+                    {"error":{"message":"test-message"}}
+
+                    """.trimIndent()
+                )
+            }
+        }
+    }
+
+    @Test
+    fun `should return FORBIDDEN status trying to import users without admin authority`() {
+        // Given
+        val requestURI = URI.create("/api/users/import")
+
+        // When
+        val result = http.post(uri = requestURI) {
+            content = """{ "username": "testUser1", "password": "TestPassword1" }"""
+            contentType = MediaType.APPLICATION_NDJSON
+            principal = UsernamePasswordAuthenticationToken.authenticated("user", null, listOf(ROLE_USER))
+        }
+
+        // Then
+        result.andExpect {
+            status { isForbidden() }
+        }
+
+        verify(exactly = 0) { userImportService.importUsers(any(), any(), any()) }
+    }
+
+    @Test
+    fun `should return UNSUPPORTED_MEDIA_TYPE status trying to import users in unknown format`() {
+        // Given
+        val requestURI = URI.create("/api/users/import")
+
+        // When
+        val result = http.post(uri = requestURI) {
+            content = """{ "username": "testUser1", "password": "TestPassword1" }"""
+            contentType = MediaType.APPLICATION_JSON
+            principal = ADMIN
+        }
+
+        // Then
+        result.andExpect {
+            status { isUnsupportedMediaType() }
+        }
+
+        verify(exactly = 0) { userImportService.importUsers(any(), any(), any()) }
+    }
+
+    companion object {
+        private val ADMIN = UsernamePasswordAuthenticationToken.authenticated("admin", null, listOf(ROLE_ADMIN))
+    }
 }
@@ -0,0 +1,89 @@
+package com.github.arhor.aws.graphql.federation.users.infrastructure.scheduler
+
+import com.github.arhor.aws.graphql.federation.common.event.UserEvent
+import com.github.arhor.aws.graphql.federation.users.data.entity.projection.OutboxBacklogProjection
+import com.github.arhor.aws.graphql.federation.users.data.repository.OutboxMessageRepository
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.verify
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.DisplayName
+import org.junit.jupiter.api.Nested
+import org.junit.jupiter.api.Test
+import org.springframework.data.auditing.DateTimeProvider
+import java.time.LocalDateTime
+import java.util.Optional
+
+class OutboxBacklogMonitorTest {
+
+    private val outboxMessageRepository = mockk<OutboxMessageRepository>()
+    private val meterRegistry = SimpleMeterRegistry()
+    private val outboxBacklogMonitor = OutboxBacklogMonitor(
+        outboxMessageRepository,
+        DateTimeProvider { Optional.of(CHECKED_DATE_TIME) },
+        meterRegistry,
+    )
+
+    @Nested
+    @DisplayName("OutboxBacklogMonitor :: checkOutboxBacklog")
+    inner class CheckOutboxBacklogTest {
+        @Test
+        fun `should expose backlog depth and oldest message age per event type`() {
+            // Given
+            every { outboxMessageRepository.findBacklogByTypeIn(any()) } returns listOf(
+                OutboxBacklogProjection(
+                    type = CREATED.code,
+                    depth = 42,
+                    oldestCreatedDateTime = CHECKED_DATE_TIME.minusSeconds(30),
+                )
+            )
+
+            // When
+            outboxBacklogMonitor.checkOutboxBacklog()
+
+            // Then
+            verify(exactly = 1) { outboxMessageRepository.findBacklogByTypeIn(listOf(CREATED.code, DELETED.code)) }
+
+            assertThat(gauge("outbox.messages.backlog", CREATED))
+                .isEqualTo(42.0)
+            assertThat(gauge("outbox.messages.oldest.age", CREATED))
+                .isEqualTo(30.0)
+            assertThat(gauge("outbox.messages.backlog", DELETED))
+                .isEqualTo(0.0)
+            assertThat(gauge("outbox.messages.oldest.age", DELETED))
+                .isEqualTo(0.0)
+        }
+
+        @Test
+        fun `should keep previous values when backlog check fails`() {
+            // Given
+            every { outboxMessageRepository.findBacklogByTypeIn(any()) } returns listOf(
+                OutboxBacklogProjection(
+                    type = CREATED.code,
+                    depth = 42,
+                    oldestCreatedDateTime = CHECKED_DATE_TIME,
+                )
+            ) andThenThrows RuntimeException()
+
+            // When
+            outboxBacklogMonitor.checkOutboxBacklog()
+            outboxBacklogMonitor.checkOutboxBacklog()
+
+            // Then
+            verify(exactly = 2) { outboxMessageRepository.findBacklogByTypeIn(any()) }
+
+            assertThat(gauge("outbox.messages.backlog", CREATED))
+                .isEqualTo(42.0)
+        }
+    }
+
+    private fun gauge(name: String, type: UserEvent.Type): Double? =
+        meterRegistry.find(name).tag("type", type.code).gauge()?.value()
+
+    companion object {
+        private val CREATED = UserEvent.Type.USER_EVENT_CREATED
+        private val DELETED = UserEvent.Type.USER_EVENT_DELETED
+        private val CHECKED_DATE_TIME = LocalDateTime.of(2024, 1, 1, 12, 0, 0)
+    }
+}
@@ -1,22 +1,32 @@
 package com.github.arhor.aws.graphql.federation.users.infrastructure.scheduler
 
 import com.github.arhor.aws.graphql.federation.common.event.UserEvent
+import com.github.arhor.aws.graphql.federation.users.config.props.AppProps
 import com.github.arhor.aws.graphql.federation.users.service.OutboxMessageService
 import io.mockk.confirmVerified
 import io.mockk.every
-import io.mockk.just
 import io.mockk.mockk
-import io.mockk.runs
 import io.mockk.verify
+import io.mockk.verifyOrder
 import org.junit.jupiter.api.AfterEach
 import org.junit.jupiter.api.DisplayName
 import org.junit.jupiter.api.Nested
 import org.junit.jupiter.api.Test
+import java.time.Duration
 
 class UserEventProcessorTest {
 
+    private val appProps = AppProps(
+        aws = null,
+        retry = null,
+        outbox = AppProps.Outbox(
+            minBatchSize = 10,
+            maxBatchSize = 40,
+            targetLatency = TARGET_LATENCY,
+        ),
+    )
     private val outboxMessageService = mockk<OutboxMessageService>()
-    private val userEventProcessor = UserEventProcessor(outboxMessageService)
+    private val userEventProcessor = UserEventProcessor(appProps, outboxMessageService, Runnable::run)
 
     @AfterEach
     fun tearDown() {
@@ -24,34 +34,148 @@ class UserEventProcessorTest {
     }
 
     @Nested
-    @DisplayName("UserEventProcessor :: processUserCreatedEvents")
-    inner class ProcessUserCreatedEventsTest {
+    @DisplayName("UserEventProcessor :: processUserEvents")
+    inner class ProcessUserEventsTest {
         @Test
-        fun `should publish UserEvent#Created using UserEventPublisher instance`() {
+        fun `should release outbox messages of all types once when there is no backlog`() {
             // Given
-            every { outboxMessageService.releaseOutboxMessagesOfType(any()) } just runs
+            every { outboxMessageService.releaseOutboxMessagesOfType(any(), any()) } returns 0
 
             // When
-            userEventProcessor.processUserCreatedEvents()
+            userEventProcessor.processUserEvents()
 
             // Then
-            verify(exactly = 1) { outboxMessageService.releaseOutboxMessagesOfType(UserEvent.Type.USER_EVENT_CREATED) }
+            verify(exactly = 1) { outboxMessageService.releaseOutboxMessagesOfType(CREATED, 10) }
+            verify(exactly = 1) { outboxMessageService.releaseOutboxMessagesOfType(DELETED, 10) }
+        }
+
+        @Test
+        fun `should keep draining backlog of a single type doubling the batch up to the maximum size`() {
+            // Given
+            every { outboxMessageService.releaseOutboxMessagesOfType(DELETED, any()) } returns 0
+            every { outboxMessageService.releaseOutboxMessagesOfType(CREATED, any()) } answers {
+                secondArg()
+            } andThenAnswer {
+                secondArg()
+            } andThenAnswer {
+                secondArg()
+            } andThenAnswer {
+                5
+            }
+
+            // When
+            userEventProcessor.processUserEvents()
+
+            // Then
+            verifyOrder {
+                outboxMessageService.releaseOutboxMessagesOfType(CREATED, 10)
+                outboxMessageService.releaseOutboxMessagesOfType(DELETED, 10)
+                outboxMessageService.releaseOutboxMessagesOfType(CREATED, 20)
+                outboxMessageService.releaseOutboxMessagesOfType(CREATED, 40)
+                outboxMessageService.releaseOutboxMessagesOfType(CREATED, 40)
+            }
+        }
+
+        @Test
+        fun `should release a batch of each type per round while both types have backlog`() {
+            // Given
+            for (type in listOf(CREATED, DELETED)) {
+                every { outboxMessageService.releaseOutboxMessagesOfType(type, any()) } answers {
+                    secondArg()
+                } andThenAnswer {
+                    secondArg()
+                } andThenAnswer {
+                    0
+                }
+            }
+
+            // When
+            userEventProcessor.processUserEvents()
+
+            // Then
+            verifyOrder {
+                outboxMessageService.releaseOutboxMessagesOfType(CREATED, 10)
+                outboxMessageService.releaseOutboxMessagesOfType(DELETED, 10)
+                outboxMessageService.releaseOutboxMessagesOfType(CREATED, 20)
+                outboxMessageService.releaseOutboxMessagesOfType(DELETED, 20)
+                outboxMessageService.releaseOutboxMessagesOfType(CREATED, 40)
+                outboxMessageService.releaseOutboxMessagesOfType(DELETED, 40)
+            }
+        }
+
+        @Test
+        fun `should halve the batch when it is published slower than the target latency`() {
+            // Given
+            every { outboxMessageService.releaseOutboxMessagesOfType(DELETED, any()) } returns 0
+            every { outboxMessageService.releaseOutboxMessagesOfType(CREATED, any()) } answers {
+                secondArg()
+            } andThenAnswer {
+                Thread.sleep(TARGET_LATENCY.multipliedBy(2).toMillis())
+                secondArg()
+            } andThenAnswer {
+                0
+            }
+
+            // When
+            userEventProcessor.processUserEvents()
+
+            // Then
+            verifyOrder {
+                outboxMessageService.releaseOutboxMessagesOfType(CREATED, 10)
+                outboxMessageService.releaseOutboxMessagesOfType(DELETED, 10)
+                outboxMessageService.releaseOutboxMessagesOfType(CREATED, 20)
+                outboxMessageService.releaseOutboxMessagesOfType(CREATED, 10)
+            }
+        }
+
+        @Test
+        fun `should stop draining type which outbox messages failed to be released`() {
+            // Given
+            every { outboxMessageService.releaseOutboxMessagesOfType(CREATED, any()) } throws RuntimeException()
+            every { outboxMessageService.releaseOutboxMessagesOfType(DELETED, any()) } returns 0
+
+            // When
+            userEventProcessor.processUserEvents()
+
+            // Then
+            verify(exactly = 1) { outboxMessageService.releaseOutboxMessagesOfType(CREATED, 10) }
+            verify(exactly = 1) { outboxMessageService.releaseOutboxMessagesOfType(DELETED, 10) }
         }
     }
 
     @Nested
-    @DisplayName("UserEventProcessor :: processUserDeletedEvents")
-    inner class ProcessUserDeletedEventsTest {
+    @DisplayName("UserEventProcessor :: onNotification")
+    inner class OnNotificationTest {
         @Test
-        fun `should publish UserEvent#Deleted using UserEventPublisher instance`() {
+        fun `should release outbox messages of all types on notification`() {
             // Given
-            every { outboxMessageService.releaseOutboxMessagesOfType(any()) } just runs
+            every { outboxMessageService.releaseOutboxMessagesOfType(any(), any()) } returns 0
 
             // When
-            userEventProcessor.processUserDeletedEvents()
+            userEventProcessor.onNotification(DELETED.code)
 
             // Then
-            verify(exactly = 1) { outboxMessageService.releaseOutboxMessagesOfType(UserEvent.Type.USER_EVENT_DELETED) }
+            verify(exactly = 1) { outboxMessageService.releaseOutboxMessagesOfType(CREATED, 10) }
+            verify(exactly = 1) { outboxMessageService.releaseOutboxMessagesOfType(DELETED, 10) }
         }
+
+        @Test
+        fun `should release outbox messages of all types when notification has no payload`() {
+            // Given
+            every { outboxMessageService.releaseOutboxMessagesOfType(any(), any()) } returns 0
+
+            // When
+            userEventProcessor.onNotification(null)
+
+            // Then
+            verify(exactly = 1) { outboxMessageService.releaseOutboxMessagesOfType(CREATED, 10) }
+            verify(exactly = 1) { outboxMessageService.releaseOutboxMessagesOfType(DELETED, 10) }
+        }
+    }
+
+    companion object {
+        private val CREATED = UserEvent.Type.USER_EVENT_CREATED
+        private val DELETED = UserEvent.Type.USER_EVENT_DELETED
+        private val TARGET_LATENCY = Duration.ofMillis(50)
     }
 }
@@ -0,0 +1,114 @@
+package com.github.arhor.aws.graphql.federation.users.infrastructure.security
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.verify
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.catchThrowable
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.DisplayName
+import org.junit.jupiter.api.Nested
+import org.junit.jupiter.api.Test
+import org.springframework.security.crypto.password.PasswordEncoder
+import java.util.concurrent.ArrayBlockingQueue
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+
+class PooledPasswordEncoderTest {
+
+    private val delegate = mockk<PasswordEncoder>()
+    private val executor = ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, ArrayBlockingQueue(1))
+    private val meterRegistry = SimpleMeterRegistry()
+    private val passwordEncoder = PooledPasswordEncoder(delegate, executor, meterRegistry)
+
+    @AfterEach
+    fun tearDown() {
+        passwordEncoder.destroy()
+    }
+
+    @Nested
+    @DisplayName("PooledPasswordEncoder :: matches")
+    inner class MatchesTest {
+        @Test
+        fun `should verify password on the executor thread recording queue wait and hashing time`() {
+            // Given
+            var verifiedOn: Thread? = null
+
+            every { delegate.matches(any(), any()) } answers {
+                verifiedOn = Thread.currentThread()
+                true
+            }
+
+            // When
+            val result = passwordEncoder.matches(RAW_PASSWORD, ENCODED_PASSWORD)
+
+            // Then
+            verify(exactly = 1) { delegate.matches(RAW_PASSWORD, ENCODED_PASSWORD) }
+
+            assertThat(result)
+                .isTrue()
+            assertThat(verifiedOn)
+                .isNotNull()
+                .isNotSameAs(Thread.currentThread())
+            assertThat(timerCount("password.hashing.queue.wait", "matches"))
+                .isEqualTo(1)
+            assertThat(timerCount("password.hashing.duration", "matches"))
+                .isEqualTo(1)
+        }
+
+        @Test
+        fun `should reject verification right away when the executor queue is full`() {
+            // Given
+            val blocker = CountDownLatch(1)
+
+            every { delegate.matches(any(), any()) } returns true
+
+            repeat(2) { executor.execute { blocker.await() } }
+
+            // When
+            val result = catchThrowable { passwordEncoder.matches(RAW_PASSWORD, ENCODED_PASSWORD) }
+
+            // Then
+            blocker.countDown()
+
+            verify(exactly = 0) { delegate.matches(any(), any()) }
+
+            assertThat(result)
+                .isInstanceOf(RejectedExecutionException::class.java)
+        }
+    }
+
+    @Nested
+    @DisplayName("PooledPasswordEncoder :: encode")
+    inner class EncodeTest {
+        @Test
+        fun `should rethrow exception thrown hashing the password`() {
+            // Given
+            val expectedException = IllegalArgumentException()
+
+            every { delegate.encode(any()) } throws expectedException
+
+            // When
+            val result = catchThrowable { passwordEncoder.encode(RAW_PASSWORD) }
+
+            // Then
+            verify(exactly = 1) { delegate.encode(RAW_PASSWORD) }
+
+            assertThat(result)
+                .isSameAs(expectedException)
+            assertThat(timerCount("password.hashing.duration", "encode"))
+                .isEqualTo(1)
+        }
+    }
+
+    private fun timerCount(name: String, operation: String): Long? =
+        meterRegistry.find(name).tag("operation", operation).timer()?.count()
+
+    companion object {
+        private const val RAW_PASSWORD = "test-password"
+        private const val ENCODED_PASSWORD = "test-encoded-password"
+    }
+}
@@ -1,11 +1,18 @@
 package com.github.arhor.aws.graphql.federation.users.service.impl
 
+import com.github.arhor.aws.graphql.federation.starter.core.data.Features
+import com.github.arhor.aws.graphql.federation.starter.security.PredefinedAuthority.ROLE_ADMIN
+import com.github.arhor.aws.graphql.federation.starter.security.PredefinedAuthority.ROLE_USER
 import com.github.arhor.aws.graphql.federation.starter.testing.TEST_1_UUID_VAL
 import com.github.arhor.aws.graphql.federation.starter.testing.TEST_2_UUID_VAL
-import com.github.arhor.aws.graphql.federation.users.data.repository.AuthRepository
+import com.github.arhor.aws.graphql.federation.users.data.entity.projection.UserAuthoritiesProjection
+import com.github.arhor.aws.graphql.federation.users.data.repository.UserRepository
+import com.github.arhor.aws.graphql.federation.users.service.mapping.UserMapper
 import io.mockk.every
 import io.mockk.mockk
 import io.mockk.verify
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
 import org.junit.jupiter.params.ParameterizedTest
 import org.junit.jupiter.params.provider.Arguments
 import org.junit.jupiter.params.provider.Arguments.arguments
@@ -15,8 +22,9 @@ import java.util.stream.Stream
 
 class AuthServiceImplTest {
 
-    private val authRepository = mockk<AuthRepository>()
-    private val authService = AuthServiceImpl(authRepository)
+    private val userRepository = mockk<UserRepository>()
+    private val userMapper = mockk<UserMapper>()
+    private val authService = AuthServiceImpl(userRepository, userMapper)
 
     @MethodSource
     @ParameterizedTest
@@ -25,13 +33,35 @@ class AuthServiceImplTest {
         expectedUserIds: Set<UUID>,
         expectedInvocations: Int,
     ) {
-        every { authRepository.findAllByUserIdIn(any()) } returns emptyMap()
+        every { userRepository.findAllAuthoritiesByIdIn(any()) } returns emptyList()
 
         // When
         authService.getAuthoritiesByUserIds(expectedUserIds)
 
         // Then
-        verify(exactly = expectedInvocations) { authRepository.findAllByUserIdIn(expectedUserIds) }
+        verify(exactly = expectedInvocations) { userRepository.findAllAuthoritiesByIdIn(expectedUserIds) }
+    }
+
+    @Test
+    fun `should return names of the authorities granted to each found user`() {
+        // Given
+        val authorities = Features.of(ROLE_USER, ROLE_ADMIN)
+        val expectedNames = listOf(ROLE_USER.name, ROLE_ADMIN.name)
+
+        every { userRepository.findAllAuthoritiesByIdIn(any()) } returns listOf(
+            UserAuthoritiesProjection(id = USER_1_ID, authorities = authorities)
+        )
+        every { userMapper.mapToAuthorityNames(any()) } returns expectedNames
+
+        // When
+        val result = authService.getAuthoritiesByUserIds(setOf(USER_1_ID, USER_2_ID))
+
+        // Then
+        assertThat(result)
+            .containsExactlyEntriesOf(mapOf(USER_1_ID to expectedNames))
+
+        verify(exactly = 1) { userRepository.findAllAuthoritiesByIdIn(setOf(USER_1_ID, USER_2_ID)) }
+        verify(exactly = 1) { userMapper.mapToAuthorityNames(authorities) }
     }
 
     companion object {
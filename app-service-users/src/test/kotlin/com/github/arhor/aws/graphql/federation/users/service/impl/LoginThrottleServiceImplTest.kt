@@ -0,0 +1,82 @@
+package com.github.arhor.aws.graphql.federation.users.service.impl
+
+import com.github.arhor.aws.graphql.federation.users.config.props.AppProps
+import com.github.arhor.aws.graphql.federation.users.service.exception.LoginAttemptsExceededException
+import jakarta.validation.ClockProvider
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.catchThrowable
+import org.assertj.core.api.Assertions.from
+import org.assertj.core.api.InstanceOfAssertFactories.throwable
+import org.junit.jupiter.api.DisplayName
+import org.junit.jupiter.api.Nested
+import org.junit.jupiter.api.Test
+import java.time.Clock
+import java.time.Duration
+import java.time.Instant
+import java.time.ZoneOffset
+
+class LoginThrottleServiceImplTest {
+
+    private val appProps = AppProps(
+        aws = null,
+        retry = null,
+        login = AppProps.Login(
+            attemptsWindow = Duration.ofMinutes(1),
+            maxAttemptsPerUsername = 2,
+            maxAttemptsPerAddress = 3,
+        ),
+    )
+    private val loginThrottleService = LoginThrottleServiceImpl(
+        appProps,
+        ClockProvider { Clock.fixed(Instant.parse("2024-01-01T00:00:30Z"), ZoneOffset.UTC) },
+    )
+
+    @Nested
+    @DisplayName("LoginThrottleService :: registerLoginAttempt")
+    inner class RegisterLoginAttemptTest {
+        @Test
+        fun `should throw LoginAttemptsExceededException when too many attempts made for the same username`() {
+            // Given
+            repeat(2) { loginThrottleService.registerLoginAttempt(USERNAME, "10.0.0.$it") }
+
+            // When
+            val result = catchThrowable { loginThrottleService.registerLoginAttempt(USERNAME, "10.0.0.100") }
+
+            // Then
+            assertThat(result)
+                .asInstanceOf(throwable(LoginAttemptsExceededException::class.java))
+                .returns(Duration.ofSeconds(30), from { it.retryAfter })
+        }
+
+        @Test
+        fun `should throw LoginAttemptsExceededException when too many attempts made from the same address`() {
+            // Given
+            repeat(3) { loginThrottleService.registerLoginAttempt("$USERNAME-$it", ADDRESS) }
+
+            // When
+            val result = catchThrowable { loginThrottleService.registerLoginAttempt("$USERNAME-100", ADDRESS) }
+
+            // Then
+            assertThat(result)
+                .isInstanceOf(LoginAttemptsExceededException::class.java)
+        }
+
+        @Test
+        fun `should only limit attempts per username when client address is unknown`() {
+            // When
+            val result = catchThrowable {
+                repeat(2) { loginThrottleService.registerLoginAttempt("$USERNAME-$it", null) }
+                repeat(2) { loginThrottleService.registerLoginAttempt(USERNAME, null) }
+            }
+
+            // Then
+            assertThat(result)
+                .isNull()
+        }
+    }
+
+    companion object {
+        private const val USERNAME = "test-username"
+        private const val ADDRESS = "10.0.0.1"
+    }
+}
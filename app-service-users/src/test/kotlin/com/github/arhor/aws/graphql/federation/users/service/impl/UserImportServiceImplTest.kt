@@ -0,0 +1,201 @@
+package com.github.arhor.aws.graphql.federation.users.service.impl
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.github.arhor.aws.graphql.federation.common.event.UserEvent
+import com.github.arhor.aws.graphql.federation.starter.security.PredefinedAuthority.ROLE_USER
+import com.github.arhor.aws.graphql.federation.users.data.entity.UserEntity
+import com.github.arhor.aws.graphql.federation.users.data.repository.UserRepository
+import com.github.arhor.aws.graphql.federation.users.generated.graphql.types.CreateUserInput
+import com.github.arhor.aws.graphql.federation.users.service.OutboxMessageService
+import com.github.arhor.aws.graphql.federation.users.service.UserImportService.Format
+import com.github.arhor.aws.graphql.federation.users.service.UserImportService.Listener
+import com.github.arhor.aws.graphql.federation.users.service.UserImportService.Progress
+import com.github.arhor.aws.graphql.federation.users.service.UserImportService.RowError
+import com.github.arhor.aws.graphql.federation.users.service.mapping.UserMapper
+import io.mockk.every
+import io.mockk.just
+import io.mockk.mockk
+import io.mockk.runs
+import io.mockk.slot
+import io.mockk.verify
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.from
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.DisplayName
+import org.junit.jupiter.api.Nested
+import org.junit.jupiter.api.Test
+import org.springframework.security.crypto.password.PasswordEncoder
+import org.springframework.transaction.support.TransactionOperations
+import java.util.UUID
+import java.util.concurrent.Executors
+
+class UserImportServiceImplTest {
+
+    private val userMapper = mockk<UserMapper>()
+    private val userRepository = mockk<UserRepository>()
+    private val outboxMessageService = mockk<OutboxMessageService>()
+    private val passwordEncoder = mockk<PasswordEncoder>()
+    private val hashingExecutor = Executors.newFixedThreadPool(2)
+
+    private val userImportService = UserImportServiceImpl(
+        chunkSize = 2,
+        objectMapper = ObjectMapper(),
+        userMapper = userMapper,
+        userRepository = userRepository,
+        outboxMessageService = outboxMessageService,
+        passwordEncoder = passwordEncoder,
+        hashingExecutor = hashingExecutor,
+        readTransaction = TransactionOperations.withoutTransaction(),
+        writeTransaction = TransactionOperations.withoutTransaction(),
+    )
+
+    @AfterEach
+    fun tearDown() {
+        userImportService.destroy()
+    }
+
+    @Nested
+    @DisplayName("UserImportService :: importUsers")
+    inner class ImportUsersTest {
+        @Test
+        fun `should import users chunk by chunk reporting progress after each chunk`() {
+            // Given
+            val input = """
+                {"username": "testUser1", "password": "TestPassword1"}
+                {"username": "testUser2", "password": "TestPassword2"}
+                {"username": "testUser3", "password": "TestPassword3"}
+            """.trimIndent()
+            val listener = RecordingListener()
+            val insertedUsers = slot<List<UserEntity>>()
+
+            givenAllUsersAreInserted()
+
+            // When
+            val result = userImportService.importUsers(input.byteInputStream(), Format.NDJSON, listener)
+
+            // Then
+            assertThat(result)
+                .isEqualTo(Progress(processed = 3, imported = 3, rejected = 0))
+            assertThat(listener.errors)
+                .isEmpty()
+            assertThat(listener.progress)
+                .containsExactly(
+                    Progress(processed = 2, imported = 2, rejected = 0),
+                    Progress(processed = 3, imported = 3, rejected = 0),
+                )
+
+            verify(exactly = 1) { userRepository.findAllUsernamesByUsernameIn(setOf("testUser1", "testUser2")) }
+            verify(exactly = 1) { userRepository.findAllUsernamesByUsernameIn(setOf("testUser3")) }
+            verify(exactly = 2) { userRepository.insertAllSkippingTakenUsernames(capture(insertedUsers)) }
+            verify(exactly = 2) { outboxMessageService.storeAsOutboxMessages(any()) }
+
+            assertThat(insertedUsers.captured)
+                .singleElement()
+                .returns("testUser3", from { it.username })
+                .returns("encoded-TestPassword3", from { it.password })
+        }
+
+        @Test
+        fun `should reject invalid, duplicated and taken usernames importing the rest of the chunk`() {
+            // Given
+            val input = """
+                username,password
+                testUser1,TestPassword1
+                user,TestPassword2
+                testUser1,TestPassword3
+                takenUser1,TestPassword4
+                takenUser2,TestPassword5
+                testUser2,password
+            """.trimIndent()
+            val listener = RecordingListener()
+            val userImportService = UserImportServiceImpl(
+                chunkSize = 10,
+                objectMapper = ObjectMapper(),
+                userMapper = userMapper,
+                userRepository = userRepository,
+                outboxMessageService = outboxMessageService,
+                passwordEncoder = passwordEncoder,
+                hashingExecutor = hashingExecutor,
+                readTransaction = TransactionOperations.withoutTransaction(),
+                writeTransaction = TransactionOperations.withoutTransaction(),
+            )
+
+            givenAllUsersAreInserted(takenUsernames = listOf("takenUser1"), concurrentlyTakenUsername = "takenUser2")
+
+            // When
+            val result = userImportService.importUsers(input.byteInputStream(), Format.CSV, listener)
+
+            // Then
+            assertThat(result)
+                .isEqualTo(Progress(processed = 6, imported = 1, rejected = 5))
+            assertThat(listener.errors.map { it.line to it.username })
+                .containsExactly(
+                    3L to "user",
+                    4L to "testUser1",
+                    5L to "takenUser1",
+                    6L to "takenUser2",
+                    7L to "testUser2",
+                )
+
+            verify(exactly = 1) {
+                userRepository.findAllUsernamesByUsernameIn(setOf("testUser1", "takenUser1", "takenUser2"))
+            }
+            verify(exactly = 1) {
+                outboxMessageService.storeAsOutboxMessages(match { it.single() is UserEvent.Created })
+            }
+        }
+
+        @Test
+        fun `should reject lines which are not valid JSON objects`() {
+            // Given
+            val input = """
+                {"username": "testUser1", "password": "TestPassword1"}
+                not a json
+            """.trimIndent()
+            val listener = RecordingListener()
+
+            givenAllUsersAreInserted()
+
+            // When
+            val result = userImportService.importUsers(input.byteInputStream(), Format.NDJSON, listener)
+
+            // Then
+            assertThat(result)
+                .isEqualTo(Progress(processed = 2, imported = 1, rejected = 1))
+            assertThat(listener.errors)
+                .singleElement()
+                .returns(2L, from { it.line })
+                .returns(null, from { it.username })
+        }
+    }
+
+    private fun givenAllUsersAreInserted(
+        takenUsernames: List<String> = emptyList(),
+        concurrentlyTakenUsername: String? = null,
+    ) {
+        every { userRepository.findAllUsernamesByUsernameIn(any()) } returns takenUsernames
+        every { passwordEncoder.encode(any()) } answers { "encoded-${firstArg<CharSequence>()}" }
+        every { userMapper.mapToEntity(any(), ROLE_USER) } answers {
+            firstArg<CreateUserInput>().let { UserEntity(username = it.username, password = it.password) }
+        }
+        every { userRepository.insertAllSkippingTakenUsernames(any()) } answers {
+            firstArg<List<UserEntity>>()
+                .filter { it.username != concurrentlyTakenUsername }
+                .map { it.copy(id = UUID.randomUUID()) }
+        }
+        every { outboxMessageService.storeAsOutboxMessages(any()) } just runs
+    }
+
+    private class RecordingListener : Listener {
+        val errors = ArrayList<RowError>()
+        val progress = ArrayList<Progress>()
+
+        override fun onRowRejected(error: RowError) {
+            errors += error
+        }
+
+        override fun onChunkProcessed(progress: Progress) {
+            this.progress += progress
+        }
+    }
+}
@@ -3,12 +3,14 @@ package com.github.arhor.aws.graphql.federation.users.service.impl
 import com.github.arhor.aws.graphql.federation.common.exception.EntityDuplicateException
 import com.github.arhor.aws.graphql.federation.common.exception.EntityNotFoundException
 import com.github.arhor.aws.graphql.federation.common.exception.Operation
+import com.github.arhor.aws.graphql.federation.starter.core.data.Features
 import com.github.arhor.aws.graphql.federation.starter.security.CurrentUserRequest
+import com.github.arhor.aws.graphql.federation.starter.security.PredefinedAuthority
+import com.github.arhor.aws.graphql.federation.starter.security.PredefinedAuthority.ROLE_USER
 import com.github.arhor.aws.graphql.federation.starter.testing.ZERO_UUID_VAL
-import com.github.arhor.aws.graphql.federation.users.data.entity.AuthEntity
-import com.github.arhor.aws.graphql.federation.users.data.entity.AuthRef
 import com.github.arhor.aws.graphql.federation.users.data.entity.UserEntity
-import com.github.arhor.aws.graphql.federation.users.data.repository.AuthRepository
+import com.github.arhor.aws.graphql.federation.users.data.entity.projection.UserCredentialsProjection
+import com.github.arhor.aws.graphql.federation.users.data.entity.projection.UserProjection
 import com.github.arhor.aws.graphql.federation.users.data.repository.UserRepository
 import com.github.arhor.aws.graphql.federation.users.generated.graphql.DgsConstants.USER
 import com.github.arhor.aws.graphql.federation.users.generated.graphql.types.CreateUserInput
@@ -26,20 +28,21 @@ import io.mockk.just
 import io.mockk.mockk
 import io.mockk.runs
 import io.mockk.verify
+import io.mockk.verifyOrder
 import org.assertj.core.api.Assertions.assertThat
 import org.assertj.core.api.Assertions.catchThrowable
 import org.assertj.core.api.Assertions.from
 import org.assertj.core.api.InstanceOfAssertFactories.throwable
 import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.DisplayName
 import org.junit.jupiter.api.Nested
 import org.junit.jupiter.api.Test
 import org.springframework.context.ApplicationEventPublisher
-import org.springframework.data.domain.Page
-import org.springframework.data.domain.PageImpl
-import org.springframework.data.domain.Pageable
 import org.springframework.data.repository.findByIdOrNull
 import org.springframework.security.crypto.password.PasswordEncoder
+import org.springframework.transaction.support.TransactionCallback
+import org.springframework.transaction.support.TransactionOperations
 import java.util.Optional
 import java.util.UUID
 
@@ -47,25 +50,31 @@ class UserServiceImplTest {
 
     private val userMapper: UserMapper = mockk()
     private val userRepository: UserRepository = mockk()
-    private val authRepository: AuthRepository = mockk()
     private val eventPublisher: ApplicationEventPublisher = mockk()
     private val passwordEncoder: PasswordEncoder = mockk()
+    private val transactionOperations: TransactionOperations = mockk()
 
     private val userService = UserServiceImpl(
         userMapper,
         userRepository,
-        authRepository,
         eventPublisher,
         passwordEncoder,
+        transactionOperations,
     )
 
+    @BeforeEach
+    fun setUp() {
+        every { transactionOperations.execute(any<TransactionCallback<Any>>()) } answers {
+            firstArg<TransactionCallback<Any>>().doInTransaction(mockk())
+        }
+    }
+
     @AfterEach
     fun tearDown() {
         confirmVerified(
             userMapper,
             userRepository,
-            authRepository,
-            eventPublisher,
+                eventPublisher,
             passwordEncoder,
         )
     }
@@ -80,7 +89,7 @@ class UserServiceImplTest {
             val userResult = mockk<User>()
 
             every { userRepository.findByIdOrNull(any()) } returns userEntity
-            every { userMapper.mapToResult(any()) } returns userResult
+            every { userMapper.mapToResult(any<UserEntity>()) } returns userResult
 
             // When
             val result = userService.getUserById(USER_ID)
@@ -127,38 +136,62 @@ class UserServiceImplTest {
         fun `should return an expected list of users`() {
             // Given
             val input = UsersLookupInput(page = 1, size = 3)
-            val paged = Pageable.ofSize(input.size).withPage(input.page)
-            val userEntity = mockk<UserEntity>()
-            val resultList = List(input.size) { userEntity }
+            val projection = mockk<UserProjection>()
+            val resultList = List(input.size) { projection }
 
-            every { userRepository.findAll(any<Pageable>()) } returns PageImpl(resultList)
-            every { userMapper.mapToResult(any()) } returns mockk()
+            every { userRepository.findPage(any(), any()) } returns resultList
+            every { userMapper.mapToResult(any<UserProjection>()) } returns mockk()
 
             // When
             val result = userService.getUserPage(input)
 
             // Then
-            verify(exactly = 1) { userRepository.findAll(paged) }
-            verify(exactly = 3) { userMapper.mapToResult(userEntity) }
+            verify(exactly = 1) { userRepository.findPage(limit = 4, offset = 3) }
+            verify(exactly = 3) { userMapper.mapToResult(projection) }
 
+            assertThat(result)
+                .returns(true, from { it.hasPrev })
+                .returns(false, from { it.hasNext })
             assertThat(result.data)
                 .isNotNull()
                 .hasSameSizeAs(resultList)
         }
 
+        @Test
+        fun `should return page with next page available when one more user is found than requested`() {
+            // Given
+            val input = UsersLookupInput(page = 0, size = 3)
+            val projection = mockk<UserProjection>()
+
+            every { userRepository.findPage(any(), any()) } returns List(input.size + 1) { projection }
+            every { userMapper.mapToResult(any<UserProjection>()) } returns mockk()
+
+            // When
+            val result = userService.getUserPage(input)
+
+            // Then
+            verify(exactly = 1) { userRepository.findPage(limit = 4, offset = 0) }
+            verify(exactly = 3) { userMapper.mapToResult(projection) }
+
+            assertThat(result)
+                .returns(false, from { it.hasPrev })
+                .returns(true, from { it.hasNext })
+            assertThat(result.data)
+                .hasSize(input.size)
+        }
+
         @Test
         fun `should return an empty list when there are no users found`() {
             // Given
             val input = UsersLookupInput(page = 1, size = 3)
-            val paged = Pageable.ofSize(input.size).withPage(input.page)
 
-            every { userRepository.findAll(any<Pageable>()) } returns Page.empty(paged)
+            every { userRepository.findPage(any(), any()) } returns emptyList()
 
             // When
             val result = userService.getUserPage(input)
 
             // Then
-            verify(exactly = 1) { userRepository.findAll(paged) }
+            verify(exactly = 1) { userRepository.findPage(limit = 4, offset = 3) }
 
             assertThat(result.data)
                 .isNotNull()
@@ -173,25 +206,22 @@ class UserServiceImplTest {
         fun `should return current user for a valid pair of username and password`() {
             // Given
             val request = CurrentUserRequest(username = "test-username", password = "test-password")
-            val entity = mockk<UserEntity>()
-            val expectedAuthorities = emptyList<AuthEntity>()
-            val expectedAuthorityRefs = emptySet<AuthRef>()
-
-            every { entity.username } returns request.username
-            every { entity.password } returns request.password
-            every { entity.authorities } returns expectedAuthorityRefs
-            every { userRepository.findByUsername(any()) } returns entity
+            val credentials = UserCredentialsProjection(
+                id = USER_ID,
+                password = request.password,
+                authorities = Features.of(ROLE_USER),
+            )
+
+            every { userRepository.findCredentialsByUsername(any()) } returns credentials
             every { passwordEncoder.matches(any(), any()) } returns true
-            every { authRepository.findAllById(any()) } returns expectedAuthorities
-            every { userMapper.mapToCurrentUser(any(), any()) } returns mockk()
+            every { userMapper.mapToCurrentUser(any()) } returns mockk()
 
             // When
             val user = userService.getUserByUsernameAndPassword(request)
 
-            verify(exactly = 1) { userRepository.findByUsername(request.username) }
+            verify(exactly = 1) { userRepository.findCredentialsByUsername(request.username) }
             verify(exactly = 1) { passwordEncoder.matches(request.password, request.password) }
-            verify(exactly = 1) { authRepository.findAllById(expectedAuthorityRefs.map { it.authId }) }
-            verify(exactly = 1) { userMapper.mapToCurrentUser(entity, expectedAuthorities) }
+            verify(exactly = 1) { userMapper.mapToCurrentUser(credentials) }
 
             // Then
             assertThat(user)
@@ -203,12 +233,12 @@ class UserServiceImplTest {
             // Given
             val request = CurrentUserRequest(username = "test-username", password = "test-password")
 
-            every { userRepository.findByUsername(any()) } returns null
+            every { userRepository.findCredentialsByUsername(any()) } returns null
 
             // When
             val result = catchThrowable { userService.getUserByUsernameAndPassword(request) }
 
-            verify(exactly = 1) { userRepository.findByUsername(request.username) }
+            verify(exactly = 1) { userRepository.findCredentialsByUsername(request.username) }
 
             // Then
             assertThat(result)
@@ -221,18 +251,19 @@ class UserServiceImplTest {
         fun `should throw DgsBadRequestException exception trying to get current user with invalid password`() {
             // Given
             val request = CurrentUserRequest(username = "test-username", password = "test-password")
-            val entity = mockk<UserEntity>()
+            val credentials = UserCredentialsProjection(
+                id = USER_ID,
+                password = request.password,
+                authorities = Features.emptyOf(PredefinedAuthority::class.java),
+            )
 
-            every { entity.id } returns USER_ID
-            every { entity.username } returns request.username
-            every { entity.password } returns request.password
-            every { userRepository.findByUsername(any()) } returns entity
+            every { userRepository.findCredentialsByUsername(any()) } returns credentials
             every { passwordEncoder.matches(any(), any()) } returns false
 
             // When
             val result = catchThrowable { userService.getUserByUsernameAndPassword(request) }
 
-            verify(exactly = 1) { userRepository.findByUsername(request.username) }
+            verify(exactly = 1) { userRepository.findCredentialsByUsername(request.username) }
             verify(exactly = 1) { passwordEncoder.matches(request.password, request.password) }
 
             // Then
@@ -258,12 +289,11 @@ class UserServiceImplTest {
             )
 
             every { userRepository.existsByUsername(any()) } returns false
-            every { authRepository.findByName(any()) } returns mockk()
             every { passwordEncoder.encode(any()) } answers { firstArg() }
             every { userMapper.mapToEntity(any(), any()) } answers convertingDtoToUser
             every { userRepository.save(any()) } answers copyingUserWithAssignedId(id = USER_ID)
             every { eventPublisher.publishEvent(any<Any>()) } just runs
-            every { userMapper.mapToResult(any()) } answers convertingUserToDto
+            every { userMapper.mapToResult(any<UserEntity>()) } answers convertingUserToDto
 
             // When
             val result = userService.createUser(input)
@@ -274,12 +304,15 @@ class UserServiceImplTest {
                 .returns(expectedUsername, from { it.username })
 
             verify(exactly = 1) { userRepository.existsByUsername(any()) }
-            verify(exactly = 1) { authRepository.findByName(any()) }
             verify(exactly = 1) { passwordEncoder.encode(any()) }
-            verify(exactly = 1) { userMapper.mapToEntity(any(), any()) }
+            verify(exactly = 1) { userMapper.mapToEntity(any(), ROLE_USER) }
+            verifyOrder {
+                passwordEncoder.encode(any())
+                transactionOperations.execute(any<TransactionCallback<Any>>())
+            }
             verify(exactly = 1) { userRepository.save(any()) }
             verify(exactly = 1) { eventPublisher.publishEvent(any<Any>()) }
-            verify(exactly = 1) { userMapper.mapToResult(any()) }
+            verify(exactly = 1) { userMapper.mapToResult(any<UserEntity>()) }
         }
 
         @Test
@@ -295,11 +328,13 @@ class UserServiceImplTest {
             val expectedCondition = "${USER.Username} = ${input.username}"
             val expectedExceptionType = EntityDuplicateException::class.java
 
+            every { passwordEncoder.encode(any()) } answers { firstArg() }
             every { userRepository.existsByUsername(any()) } returns true
 
             // When
             val result = catchThrowable { userService.createUser(input) }
 
+            verify(exactly = 1) { passwordEncoder.encode(input.password) }
             verify(exactly = 1) { userRepository.existsByUsername(input.username) }
 
             // Then
@@ -328,7 +363,7 @@ class UserServiceImplTest {
 
             every { userRepository.findById(any()) } returns Optional.of(user)
             every { userRepository.save(any()) } answers { firstArg() }
-            every { userMapper.mapToResult(any()) } answers convertingUserToDto
+            every { userMapper.mapToResult(any<UserEntity>()) } answers convertingUserToDto
             every { passwordEncoder.encode(any()) } answers { firstArg() }
 
             // When
@@ -342,8 +377,12 @@ class UserServiceImplTest {
             // Then
             verify(exactly = 1) { userRepository.findById(any()) }
             verify(exactly = 1) { userRepository.save(any()) }
-            verify(exactly = 1) { userMapper.mapToResult(any()) }
+            verify(exactly = 1) { userMapper.mapToResult(any<UserEntity>()) }
             verify(exactly = 1) { passwordEncoder.encode(any()) }
+            verifyOrder {
+                passwordEncoder.encode(any())
+                transactionOperations.execute(any<TransactionCallback<Any>>())
+            }
         }
 
         @Test
@@ -356,7 +395,7 @@ class UserServiceImplTest {
             )
 
             every { userRepository.findById(any()) } returns Optional.of(user)
-            every { userMapper.mapToResult(any()) } answers convertingUserToDto
+            every { userMapper.mapToResult(any<UserEntity>()) } answers convertingUserToDto
             every { passwordEncoder.encode(any()) } answers { firstArg() }
 
             // When
@@ -369,7 +408,7 @@ class UserServiceImplTest {
 
             // Then
             verify(exactly = 1) { userRepository.findById(any()) }
-            verify(exactly = 1) { userMapper.mapToResult(any()) }
+            verify(exactly = 1) { userMapper.mapToResult(any<UserEntity>()) }
             verify(exactly = 1) { passwordEncoder.encode(any()) }
         }
     }
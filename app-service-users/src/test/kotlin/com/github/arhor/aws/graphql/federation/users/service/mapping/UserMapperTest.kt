@@ -1,14 +1,15 @@
 package com.github.arhor.aws.graphql.federation.users.service.mapping
 
+import com.github.arhor.aws.graphql.federation.starter.core.data.Features
+import com.github.arhor.aws.graphql.federation.starter.security.PredefinedAuthority.ROLE_ADMIN
+import com.github.arhor.aws.graphql.federation.starter.security.PredefinedAuthority.ROLE_USER
 import com.github.arhor.aws.graphql.federation.starter.testing.ZERO_UUID_VAL
-import com.github.arhor.aws.graphql.federation.users.data.entity.AuthEntity
-import com.github.arhor.aws.graphql.federation.users.data.entity.AuthRef
 import com.github.arhor.aws.graphql.federation.users.data.entity.UserEntity
+import com.github.arhor.aws.graphql.federation.users.data.entity.projection.UserCredentialsProjection
 import com.github.arhor.aws.graphql.federation.users.generated.graphql.types.CreateUserInput
 import io.mockk.every
 import io.mockk.mockk
 import org.assertj.core.api.Assertions.assertThat
-import org.assertj.core.api.Assertions.catchException
 import org.assertj.core.api.Assertions.catchThrowable
 import org.assertj.core.api.Assertions.from
 import org.junit.jupiter.api.DisplayName
@@ -43,18 +44,15 @@ class UserMapperTest {
             // Given
             val expectedUsername = "test-username"
             val expectedPassword = "test-password"
-            val expectedAuthRef = AuthRef(authId = 1)
-            val expectedAuthorities = setOf(expectedAuthRef)
+            val expectedAuthorities = Features.of(ROLE_USER)
 
             val input = mockk<CreateUserInput>()
-            val defaultAuthority = mockk<AuthEntity>()
 
             every { input.username } returns expectedUsername
             every { input.password } returns expectedPassword
-            every { defaultAuthority.id } returns expectedAuthRef.authId
 
             // When
-            val entity = userMapper.mapToEntity(input, defaultAuthority)
+            val entity = userMapper.mapToEntity(input, ROLE_USER)
 
             // Then
             assertThat(entity)
@@ -75,6 +73,7 @@ class UserMapperTest {
 
             every { user.id } returns USER_ID
             every { user.username } returns expectedUsername
+            every { user.authorities } returns Features.of(ROLE_USER, ROLE_ADMIN)
 
             // When
             val result = userMapper.mapToResult(user)
@@ -83,6 +82,7 @@ class UserMapperTest {
             assertThat(result)
                 .returns(USER_ID, from { it.id })
                 .returns(expectedUsername, from { it.username })
+                .returns(listOf(ROLE_USER.name, ROLE_ADMIN.name), from { it.authorities })
         }
 
         @Test
@@ -105,40 +105,22 @@ class UserMapperTest {
     @DisplayName("UserMapper :: mapToCurrentUser")
     inner class MapToCurrentUserTest {
         @Test
-        fun `should correctly map user with authorities to CurrentUser object`() {
+        fun `should correctly map user credentials with authorities to CurrentUser object`() {
             // Given
-            val user = mockk<UserEntity>()
-            val auth = mockk<AuthEntity>()
-            val authName = "test-auth"
-
-            every { user.id } returns USER_ID
-            every { auth.name } returns authName
+            val credentials = UserCredentialsProjection(
+                id = USER_ID,
+                password = "test-password",
+                authorities = Features.of(ROLE_ADMIN),
+            )
 
             // When
-            val result = userMapper.mapToCurrentUser(user, listOf(auth))
+            val result = userMapper.mapToCurrentUser(credentials)
 
             // Then
             assertThat(result)
                 .isNotNull()
                 .returns(USER_ID, from { it.id })
-                .returns(listOf(authName), from { it.authorities })
-        }
-
-        @Test
-        fun `should throw IllegalArgumentException trying to map user without ID`() {
-            // Given
-            val user = mockk<UserEntity>()
-            val auth = mockk<AuthEntity>()
-
-            every { user.id } returns null
-
-            // When
-            val result = catchException { userMapper.mapToCurrentUser(user, listOf(auth)) }
-
-            // Then
-            assertThat(result)
-                .isNotNull()
-                .isInstanceOf(IllegalArgumentException::class.java)
+                .returns(listOf(ROLE_ADMIN.name), from { it.authorities })
         }
     }
 
@@ -0,0 +1,94 @@
+package com.github.arhor.aws.graphql.federation.users.util
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.DisplayName
+import org.junit.jupiter.api.Nested
+import org.junit.jupiter.api.Test
+import java.time.Clock
+import java.time.Duration
+import java.time.Instant
+import java.time.ZoneId
+import java.time.ZoneOffset
+
+class SlidingWindowRateLimiterTest {
+
+    private val clock = MutableClock(WINDOW_START)
+    private val rateLimiter = SlidingWindowRateLimiter(
+        limit = LIMIT,
+        window = WINDOW,
+        maxKeys = 100,
+        clock = clock,
+    )
+
+    @Nested
+    @DisplayName("SlidingWindowRateLimiter :: tryAcquire")
+    inner class TryAcquireTest {
+        @Test
+        fun `should acquire permits up to the limit within the window`() {
+            // When
+            val results = List(LIMIT + 1) { rateLimiter.tryAcquire(KEY) }
+
+            // Then
+            assertThat(results.take(LIMIT))
+                .containsOnlyNulls()
+            assertThat(results.last())
+                .isEqualTo(WINDOW)
+        }
+
+        @Test
+        fun `should count permits separately for each key`() {
+            // Given
+            repeat(LIMIT) { rateLimiter.tryAcquire(KEY) }
+
+            // When
+            val result = rateLimiter.tryAcquire("other-key")
+
+            // Then
+            assertThat(result)
+                .isNull()
+        }
+
+        @Test
+        fun `should take into account permits acquired within the previous window still covered by sliding window`() {
+            // Given
+            repeat(LIMIT) { rateLimiter.tryAcquire(KEY) }
+
+            // When
+            clock.instant = WINDOW_START.plus(WINDOW).plus(WINDOW.dividedBy(2))
+            val results = List(LIMIT / 2 + 1) { rateLimiter.tryAcquire(KEY) }
+
+            // Then
+            assertThat(results.take(LIMIT / 2))
+                .containsOnlyNulls()
+            assertThat(results.last())
+                .isEqualTo(WINDOW.dividedBy(2))
+        }
+
+        @Test
+        fun `should acquire permits up to the limit again once the previous window is not covered by sliding window`() {
+            // Given
+            repeat(LIMIT) { rateLimiter.tryAcquire(KEY) }
+
+            // When
+            clock.instant = WINDOW_START.plus(WINDOW.multipliedBy(2))
+            val results = List(LIMIT) { rateLimiter.tryAcquire(KEY) }
+
+            // Then
+            assertThat(results)
+                .containsOnlyNulls()
+        }
+    }
+
+    private class MutableClock(var instant: Instant) : Clock() {
+        override fun getZone(): ZoneId = ZoneOffset.UTC
+        override fun withZone(zone: ZoneId?): Clock = this
+        override fun instant(): Instant = instant
+    }
+
+    companion object {
+        private const val KEY = "test-key"
+        private const val LIMIT = 10
+        private val WINDOW = Duration.ofMinutes(1)
+        private val WINDOW_START = Instant.parse("2024-01-01T00:00:00Z")
+    }
+}
@@ -1,14 +1,23 @@
 package com.github.arhor.aws.graphql.federation.common.event
 
+import java.time.Instant
+
 interface DomainEvent {
 
     fun type(): String
 
-    fun attributes(vararg values: Pair<String, String> = emptyArray()): Map<String, String> {
-        return mapOf(ATTRS_PAYLOAD_TYPE to type(), *values)
+    /**
+     * @param producedAt time the event was produced at, passed to the consumers as epoch milliseconds
+     */
+    fun attributes(
+        vararg values: Pair<String, String> = emptyArray(),
+        producedAt: Instant = Instant.now(),
+    ): Map<String, String> {
+        return mapOf(ATTRS_PAYLOAD_TYPE to type(), ATTRS_PRODUCED_AT to producedAt.toEpochMilli().toString(), *values)
     }
 
     companion object {
         const val ATTRS_PAYLOAD_TYPE = "x-event-type"
+        const val ATTRS_PRODUCED_AT = "x-produced-at"
     }
-}
\ No newline at end of file
+}
@@ -9,5 +9,6 @@ dependencies {
         api(libs.findbugs.jsr305)
         api(libs.mockk.core)
         api(libs.mockk.spring)
+        api(libs.roaringbitmap)
     }
 }
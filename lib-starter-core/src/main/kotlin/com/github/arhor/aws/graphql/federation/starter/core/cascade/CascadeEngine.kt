@@ -0,0 +1,28 @@
+package com.github.arhor.aws.graphql.federation.starter.core.cascade
+
+import java.util.UUID
+
+/**
+ * Engine processing dependent rows of deleted entities in the background, chunk by chunk.
+ */
+interface CascadeEngine {
+
+    /**
+     * Schedules cascade tasks of the given type. Tasks are stored in the current transaction, so they are
+     * processed only if the tombstones of the target entities are committed along with them. Scheduling a task
+     * which is already pending makes it run once again after the current run is finished.
+     *
+     * @param type      type of the task, must be supported by one of the registered handlers
+     * @param targetIds IDs of the entities to process dependent rows for
+     */
+    fun schedule(type: String, targetIds: Collection<UUID>)
+
+    /**
+     * Schedules cascade task of the given type.
+     *
+     * @param type     type of the task, must be supported by one of the registered handlers
+     * @param targetId ID of the entity to process dependent rows for
+     */
+    fun schedule(type: String, targetId: UUID) =
+        schedule(type, listOf(targetId))
+}
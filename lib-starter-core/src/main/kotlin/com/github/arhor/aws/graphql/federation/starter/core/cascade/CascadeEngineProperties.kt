@@ -0,0 +1,26 @@
+package com.github.arhor.aws.graphql.federation.starter.core.cascade
+
+import org.springframework.boot.context.properties.ConfigurationProperties
+import java.time.Duration
+
+@ConfigurationProperties(prefix = "cascade-engine")
+data class CascadeEngineProperties(
+    val enabled: Boolean = false,
+    val chunkSize: Int = 500,
+    /**
+     * Pause between chunks, limiting the load background processing puts on the database.
+     */
+    val throttle: Duration = Duration.ofMillis(50),
+    /**
+     * Time a claimed task stays invisible for other instances, expired tasks are resumed by any of them.
+     */
+    val lease: Duration = Duration.ofMinutes(1),
+    /**
+     * The maximum number of chunks processed during a single poll, unfinished tasks are resumed by the next one.
+     */
+    val chunksPerPoll: Int = 100,
+    /**
+     * Delay between polls in ISO-8601 format, read directly by the scheduler.
+     */
+    val pollInterval: String = "PT5S",
+)
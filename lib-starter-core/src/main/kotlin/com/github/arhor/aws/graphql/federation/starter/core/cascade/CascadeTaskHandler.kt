@@ -0,0 +1,33 @@
+package com.github.arhor.aws.graphql.federation.starter.core.cascade
+
+import java.util.UUID
+
+/**
+ * Handler of the cascade tasks of a single type.
+ */
+interface CascadeTaskHandler {
+
+    /**
+     * Type of the tasks processed by this handler.
+     */
+    val type: String
+
+    /**
+     * Processes the next chunk of dependent rows. Called in a separate transaction for each chunk, so it should
+     * leave data in a consistent state and be safe to repeat after a crash.
+     *
+     * @param targetId  ID of the entity to process dependent rows for
+     * @param chunkSize the maximum number of rows to process
+     * @return number of processed rows, `0` means there is nothing left to process
+     */
+    fun processChunk(targetId: UUID, chunkSize: Int): Int
+
+    /**
+     * Called in the same transaction the finished task is removed in, when there is nothing left to process.
+     *
+     * @param targetId ID of the entity dependent rows were processed for
+     */
+    fun complete(targetId: UUID) {
+        // no-op by default
+    }
+}
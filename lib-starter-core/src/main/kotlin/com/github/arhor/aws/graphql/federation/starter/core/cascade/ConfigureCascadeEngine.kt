@@ -0,0 +1,38 @@
+package com.github.arhor.aws.graphql.federation.starter.core.cascade
+
+import io.micrometer.core.instrument.MeterRegistry
+import org.springframework.beans.factory.ObjectProvider
+import org.springframework.boot.autoconfigure.AutoConfiguration
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration
+import org.springframework.boot.context.properties.EnableConfigurationProperties
+import org.springframework.context.annotation.Bean
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations
+import org.springframework.transaction.support.TransactionOperations
+
+@AutoConfiguration(
+    after = [JdbcTemplateAutoConfiguration::class, TransactionAutoConfiguration::class],
+    afterName = ["org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration"],
+)
+@ConditionalOnProperty(prefix = "cascade-engine", name = ["enabled"], havingValue = "true")
+@EnableConfigurationProperties(CascadeEngineProperties::class)
+class ConfigureCascadeEngine {
+
+    @Bean
+    @ConditionalOnMissingBean(CascadeEngine::class)
+    fun cascadeEngine(
+        jdbcOperations: NamedParameterJdbcOperations,
+        transactionOperations: TransactionOperations,
+        meterRegistry: MeterRegistry,
+        properties: CascadeEngineProperties,
+        handlers: ObjectProvider<CascadeTaskHandler>,
+    ) = JdbcCascadeEngine(
+        jdbcOperations,
+        transactionOperations,
+        meterRegistry,
+        properties,
+        handlers.orderedStream().toList(),
+    )
+}
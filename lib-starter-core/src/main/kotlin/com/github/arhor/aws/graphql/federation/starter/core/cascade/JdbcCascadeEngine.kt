@@ -0,0 +1,283 @@
+package com.github.arhor.aws.graphql.federation.starter.core.cascade
+
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics
+import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.DisposableBean
+import org.springframework.jdbc.core.RowMapper
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations
+import org.springframework.scheduling.annotation.Scheduled
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory
+import org.springframework.transaction.support.TransactionOperations
+import java.util.UUID
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.SynchronousQueue
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Cascade engine backed by the `cascade_tasks` table.
+ *
+ * Each poll claims pending tasks one by one with `FOR UPDATE SKIP LOCKED`, holding a lease on the claimed task
+ * while it is processed. Every chunk is processed in its own short transaction, which also records the progress
+ * and extends the lease, so a task abandoned by a crashed instance is resumed by any instance after the lease
+ * expires. Tasks not finished within a single poll are released and continued by the next one, after the other
+ * pending tasks.
+ *
+ * Polls are run on the dedicated single-thread executor, so the throttling between chunks doesn't hold the shared
+ * scheduler thread. A poll triggered while the previous one is still running is skipped.
+ */
+class JdbcCascadeEngine(
+    private val jdbcOperations: NamedParameterJdbcOperations,
+    private val transactionOperations: TransactionOperations,
+    private val meterRegistry: MeterRegistry,
+    private val properties: CascadeEngineProperties,
+    handlers: List<CascadeTaskHandler>,
+    private val executor: ExecutorService = createExecutor(meterRegistry),
+) : CascadeEngine, DisposableBean {
+
+    private val handlers = handlers.associateBy { it.type }
+    private val pendingTasks = meterRegistry.gauge(PENDING_TASKS_METRIC, AtomicLong())!!
+
+    override fun schedule(type: String, targetIds: Collection<UUID>) {
+        require(type in handlers) { "There is no cascade task handler for the type: $type" }
+
+        if (targetIds.isNotEmpty()) {
+            jdbcOperations.update(
+                SCHEDULE_TASKS,
+                mapOf(
+                    "type" to type,
+                    "targetIds" to targetIds,
+                )
+            )
+        }
+    }
+
+    @Scheduled(fixedDelayString = "\${cascade-engine.poll-interval:PT5S}")
+    fun processPendingTasks() {
+        if (handlers.isNotEmpty()) {
+            executor.execute(::drainPendingTasks)
+        }
+    }
+
+    override fun destroy() {
+        executor.shutdownNow()
+    }
+
+    private fun drainPendingTasks() {
+        var chunksLeft = properties.chunksPerPoll
+
+        while (chunksLeft > 0) {
+            val task = claimNextTask() ?: break
+            try {
+                chunksLeft -= process(task, chunksLeft)
+            } catch (e: InterruptedException) {
+                // the engine is shutting down, the task is resumed once the lease expires
+                Thread.currentThread().interrupt()
+                return
+            } catch (e: Exception) {
+                // the lease is kept, so the task is retried by any instance once it expires
+                logger.error("Failed to process cascade task {} of {}", task.type, task.targetId, e)
+                break
+            }
+        }
+        pendingTasks.set(countPendingTasks())
+    }
+
+    /**
+     * @return number of processed chunks
+     */
+    private fun process(task: CascadeTask, maxChunks: Int): Int {
+        val handler = handlers.getValue(task.type)
+        var processed = task.processed
+        var chunks = 0
+
+        while (chunks < maxChunks) {
+            val rows = transactionOperations.execute {
+                handler.processChunk(task.targetId, properties.chunkSize).also {
+                    if (it > 0) {
+                        recordProgress(task, it)
+                    }
+                }
+            } ?: 0
+            chunks++
+
+            if (rows == 0) {
+                complete(task, handler)
+                logger.debug("Finished cascade task {} of {}, processed rows: {}", task.type, task.targetId, processed)
+                return chunks
+            }
+            processed += rows
+            meterRegistry.counter(PROCESSED_ROWS_METRIC, TYPE_TAG, task.type).increment(rows.toDouble())
+
+            Thread.sleep(properties.throttle)
+        }
+        release(task)
+        logger.debug("Paused cascade task {} of {}, processed rows: {}", task.type, task.targetId, processed)
+        return chunks
+    }
+
+    /**
+     * Claims the task in its own transaction, so that the lease is committed before the processing is started.
+     */
+    private fun claimNextTask(): CascadeTask? =
+        transactionOperations.execute {
+            jdbcOperations.query(
+                CLAIM_NEXT_TASK,
+                mapOf(
+                    "types" to handlers.keys,
+                    "leaseSeconds" to properties.lease.toSeconds(),
+                ),
+                CASCADE_TASK_MAPPER,
+            ).firstOrNull()
+        }
+
+    private fun recordProgress(task: CascadeTask, rows: Int) {
+        jdbcOperations.update(
+            RECORD_PROGRESS,
+            mapOf(
+                "type" to task.type,
+                "targetId" to task.targetId,
+                "rows" to rows,
+                "leaseSeconds" to properties.lease.toSeconds(),
+            )
+        )
+    }
+
+    private fun complete(task: CascadeTask, handler: CascadeTaskHandler) {
+        transactionOperations.executeWithoutResult {
+            val deleted = jdbcOperations.update(
+                DELETE_TASK,
+                mapOf(
+                    "type" to task.type,
+                    "targetId" to task.targetId,
+                    "revision" to task.revision,
+                )
+            )
+            if (deleted > 0) {
+                handler.complete(task.targetId)
+                meterRegistry.counter(COMPLETED_TASKS_METRIC, TYPE_TAG, task.type).increment()
+            } else {
+                // task was scheduled once again while it was processed, so it has to be run once again
+                release(task)
+            }
+        }
+    }
+
+    private fun release(task: CascadeTask) {
+        transactionOperations.executeWithoutResult {
+            jdbcOperations.update(
+                RELEASE_TASK,
+                mapOf(
+                    "type" to task.type,
+                    "targetId" to task.targetId,
+                )
+            )
+        }
+    }
+
+    private fun countPendingTasks(): Long =
+        jdbcOperations.queryForObject(COUNT_PENDING_TASKS, emptyMap<String, Any>(), Long::class.java) ?: 0
+
+    private data class CascadeTask(
+        val type: String,
+        val targetId: UUID,
+        val revision: Long,
+        val processed: Long,
+    )
+
+    companion object {
+        private val logger = LoggerFactory.getLogger(this::class.java.enclosingClass)
+
+        private const val PENDING_TASKS_METRIC = "cascade.tasks.pending"
+        private const val PROCESSED_ROWS_METRIC = "cascade.tasks.processed.rows"
+        private const val COMPLETED_TASKS_METRIC = "cascade.tasks.completed"
+        private const val TYPE_TAG = "type"
+        private const val EXECUTOR_NAME = "cascade-engine"
+
+        /**
+         * Executor without a queue, rejected polls are discarded since the running one will handle pending tasks.
+         */
+        private fun createExecutor(meterRegistry: MeterRegistry): ExecutorService {
+            val executor = ThreadPoolExecutor(
+                1,
+                1,
+                0L,
+                TimeUnit.MILLISECONDS,
+                SynchronousQueue(),
+                CustomizableThreadFactory("$EXECUTOR_NAME-"),
+                ThreadPoolExecutor.DiscardPolicy(),
+            )
+            ExecutorServiceMetrics(executor, EXECUTOR_NAME, emptyList()).bindTo(meterRegistry)
+
+            return executor
+        }
+
+        private val CASCADE_TASK_MAPPER = RowMapper { rs, _ ->
+            CascadeTask(
+                type = rs.getString("type"),
+                targetId = rs.getObject("target_id", UUID::class.java),
+                revision = rs.getLong("revision"),
+                processed = rs.getLong("processed"),
+            )
+        }
+
+        private const val SCHEDULE_TASKS = """
+            INSERT INTO cascade_tasks (type, target_id, revision, processed, locked_until, created_date_time)
+                 SELECT DISTINCT :type, t.id, 0, 0, CAST(NULL AS TIMESTAMP), NOW()
+                   FROM UNNEST(ARRAY[:targetIds]::UUID[]) AS t(id)
+            ON CONFLICT (type, target_id) DO UPDATE
+                    SET revision = cascade_tasks.revision + 1
+        """
+
+        private const val CLAIM_NEXT_TASK = """
+                UPDATE cascade_tasks t
+                   SET locked_until = NOW() + :leaseSeconds * INTERVAL '1 second'
+                  FROM (
+                             SELECT c.type
+                                  , c.target_id
+                               FROM cascade_tasks c
+                              WHERE c.type IN (:types)
+                                AND (c.locked_until IS NULL OR c.locked_until < NOW())
+                           ORDER BY c.locked_until NULLS FIRST
+                                  , c.created_date_time
+                              LIMIT 1
+                                FOR UPDATE SKIP LOCKED
+                       ) AS n
+                 WHERE t.type = n.type
+                   AND t.target_id = n.target_id
+             RETURNING t.type
+                     , t.target_id
+                     , t.revision
+                     , t.processed
+        """
+
+        private const val RECORD_PROGRESS = """
+            UPDATE cascade_tasks
+               SET processed = processed + :rows
+                 , locked_until = NOW() + :leaseSeconds * INTERVAL '1 second'
+             WHERE type = :type
+               AND target_id = :targetId
+        """
+
+        private const val RELEASE_TASK = """
+            UPDATE cascade_tasks
+               SET locked_until = NOW()
+             WHERE type = :type
+               AND target_id = :targetId
+        """
+
+        private const val DELETE_TASK = """
+            DELETE FROM cascade_tasks
+                  WHERE type = :type
+                    AND target_id = :targetId
+                    AND revision = :revision
+        """
+
+        private const val COUNT_PENDING_TASKS = """
+            SELECT COUNT(*)
+              FROM cascade_tasks
+        """
+    }
+}
@@ -0,0 +1,25 @@
+package com.github.arhor.aws.graphql.federation.starter.core.idempotency
+
+import org.springframework.boot.autoconfigure.AutoConfiguration
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration
+import org.springframework.boot.context.properties.EnableConfigurationProperties
+import org.springframework.context.annotation.Bean
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations
+import org.springframework.transaction.support.TransactionOperations
+
+@AutoConfiguration(after = [JdbcTemplateAutoConfiguration::class, TransactionAutoConfiguration::class])
+@ConditionalOnProperty(prefix = "idempotency-store", name = ["enabled"], havingValue = "true")
+@EnableConfigurationProperties(IdempotencyStoreProperties::class)
+class ConfigureIdempotencyStore {
+
+    @Bean
+    @ConditionalOnMissingBean(IdempotencyStore::class)
+    fun idempotencyStore(
+        jdbcOperations: NamedParameterJdbcOperations,
+        transactionOperations: TransactionOperations,
+        properties: IdempotencyStoreProperties,
+    ) = JdbcIdempotencyStore(jdbcOperations, transactionOperations, properties)
+}
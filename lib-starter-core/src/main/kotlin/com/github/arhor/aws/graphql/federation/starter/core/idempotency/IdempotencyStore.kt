@@ -0,0 +1,30 @@
+package com.github.arhor.aws.graphql.federation.starter.core.idempotency
+
+import java.util.UUID
+import java.util.function.Consumer
+
+/**
+ * Store of already processed idempotency keys, shared between all instances of the application.
+ */
+fun interface IdempotencyStore {
+
+    /**
+     * Executes passed action only for the keys which were never processed before. Keys are claimed in the same
+     * transaction the action is executed, so in case of failure they may be processed once again.
+     *
+     * @param keys   idempotency keys of the operations
+     * @param action action to execute, receives only not yet processed keys, never called with an empty set
+     * @return keys the action was executed for
+     */
+    fun executeOnce(keys: Collection<UUID>, action: Consumer<Set<UUID>>): Set<UUID>
+
+    /**
+     * Executes passed action only if the key was never processed before.
+     *
+     * @param key    idempotency key of the operation
+     * @param action action to execute
+     * @return `true` if the action was executed, `false` otherwise
+     */
+    fun executeOnce(key: UUID, action: Runnable): Boolean =
+        executeOnce(listOf(key)) { action.run() }.isNotEmpty()
+}
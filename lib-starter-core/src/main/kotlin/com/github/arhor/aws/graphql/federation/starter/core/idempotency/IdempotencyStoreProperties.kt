@@ -0,0 +1,19 @@
+package com.github.arhor.aws.graphql.federation.starter.core.idempotency
+
+import org.springframework.boot.context.properties.ConfigurationProperties
+import java.time.Duration
+
+@ConfigurationProperties(prefix = "idempotency-store")
+data class IdempotencyStoreProperties(
+    val enabled: Boolean = false,
+    /**
+     * Processed keys are grouped into the time buckets of this size, expired buckets are removed as a whole.
+     */
+    val bucketSize: Duration = Duration.ofHours(1),
+    val retention: Duration = Duration.ofDays(7),
+    val cleanupCron: String = "0 30 * * * *",
+    /**
+     * Number of recently processed keys remembered by each instance, must be a power of two.
+     */
+    val localKeysCapacity: Int = 65_536,
+)
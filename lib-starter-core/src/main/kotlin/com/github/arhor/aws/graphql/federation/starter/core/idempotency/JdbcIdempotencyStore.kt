@@ -0,0 +1,85 @@
+package com.github.arhor.aws.graphql.federation.starter.core.idempotency
+
+import org.slf4j.LoggerFactory
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations
+import org.springframework.scheduling.annotation.Scheduled
+import org.springframework.transaction.support.TransactionOperations
+import java.util.UUID
+import java.util.function.Consumer
+
+/**
+ * Idempotency store backed by the `idempotency_keys` table.
+ *
+ * Keys recently processed by the current instance are remembered in a fixed-size local set, so that messages
+ * redelivered to the same instance are skipped without a database round-trip. The rest of the keys are claimed with
+ * a single `INSERT ... ON CONFLICT DO NOTHING` statement, which is the only source of truth shared between instances,
+ * so keys unknown to the local set always go to the database, even if they were never seen by any instance.
+ */
+class JdbcIdempotencyStore(
+    private val jdbcOperations: NamedParameterJdbcOperations,
+    private val transactionOperations: TransactionOperations,
+    private val properties: IdempotencyStoreProperties,
+) : IdempotencyStore {
+
+    private val recentKeys = RecentKeysSet(properties.localKeysCapacity)
+
+    override fun executeOnce(keys: Collection<UUID>, action: Consumer<Set<UUID>>): Set<UUID> {
+        val unknownKeys = keys.filterNotTo(LinkedHashSet(), recentKeys::contains)
+        if (unknownKeys.isEmpty()) {
+            return emptySet()
+        }
+        val claimedKeys = transactionOperations.execute {
+            claim(unknownKeys).also {
+                if (it.isNotEmpty()) {
+                    action.accept(it)
+                }
+            }
+        } ?: emptySet()
+
+        for (key in unknownKeys) {
+            recentKeys.add(key)
+        }
+        return claimedKeys
+    }
+
+    @Scheduled(cron = "\${idempotency-store.cleanup-cron:0 30 * * * *}")
+    fun deleteExpiredKeys() {
+        val deletedNum = transactionOperations.execute {
+            jdbcOperations.update(
+                DELETE_EXPIRED_KEYS,
+                mapOf(
+                    "bucketSeconds" to properties.bucketSize.toSeconds(),
+                    "retainedBuckets" to properties.retention.dividedBy(properties.bucketSize),
+                )
+            )
+        }
+        logger.debug("Deleted {} expired idempotency keys", deletedNum)
+    }
+
+    private fun claim(keys: Collection<UUID>): Set<UUID> =
+        jdbcOperations.queryForList(
+            CLAIM_KEYS,
+            mapOf(
+                "keys" to keys,
+                "bucketSeconds" to properties.bucketSize.toSeconds(),
+            ),
+            UUID::class.java,
+        ).toSet()
+
+    companion object {
+        private val logger = LoggerFactory.getLogger(this::class.java.enclosingClass)
+
+        private const val CLAIM_KEYS = """
+            INSERT INTO idempotency_keys (key, bucket)
+                 SELECT k.key, FLOOR(EXTRACT(EPOCH FROM NOW()) / :bucketSeconds)
+                   FROM UNNEST(ARRAY[:keys]::UUID[]) AS k(key)
+            ON CONFLICT (key) DO NOTHING
+              RETURNING key
+        """
+
+        private const val DELETE_EXPIRED_KEYS = """
+            DELETE FROM idempotency_keys
+                  WHERE bucket < FLOOR(EXTRACT(EPOCH FROM NOW()) / :bucketSeconds) - :retainedBuckets
+        """
+    }
+}
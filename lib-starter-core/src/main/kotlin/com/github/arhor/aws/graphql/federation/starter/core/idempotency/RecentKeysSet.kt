@@ -0,0 +1,38 @@
+package com.github.arhor.aws.graphql.federation.starter.core.idempotency
+
+import java.util.UUID
+
+/**
+ * Fixed-size set of UUIDs stored as primitive longs. Each key maps to a single slot, so adding a key evicts the
+ * previous occupant of the slot. Membership checks are exact: evicted keys are reported as absent.
+ */
+internal class RecentKeysSet(capacity: Int) {
+
+    init {
+        require(capacity > 0 && capacity and (capacity - 1) == 0) { "Capacity must be a power of two: $capacity" }
+    }
+
+    private val mask = capacity - 1
+    private val msb = LongArray(capacity)
+    private val lsb = LongArray(capacity)
+    private val occupied = BooleanArray(capacity)
+
+    @Synchronized
+    fun contains(key: UUID): Boolean {
+        val slot = slot(key)
+        return occupied[slot]
+            && msb[slot] == key.mostSignificantBits
+            && lsb[slot] == key.leastSignificantBits
+    }
+
+    @Synchronized
+    fun add(key: UUID) {
+        val slot = slot(key)
+        msb[slot] = key.mostSignificantBits
+        lsb[slot] = key.leastSignificantBits
+        occupied[slot] = true
+    }
+
+    private fun slot(key: UUID): Int =
+        key.hashCode() and mask
+}
@@ -0,0 +1,33 @@
+package com.github.arhor.aws.graphql.federation.starter.core.notification
+
+import org.springframework.beans.factory.ObjectProvider
+import org.springframework.boot.autoconfigure.AutoConfiguration
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties
+import org.springframework.boot.context.properties.EnableConfigurationProperties
+import org.springframework.context.annotation.Bean
+import java.sql.DriverManager
+
+@AutoConfiguration(after = [DataSourceAutoConfiguration::class])
+@ConditionalOnProperty(prefix = "pg-notifications", name = ["enabled"], havingValue = "true")
+@EnableConfigurationProperties(DataSourceProperties::class, PgNotificationsProperties::class)
+class ConfigurePgNotifications {
+
+    @Bean(destroyMethod = "close")
+    fun pgNotificationListener(
+        dataSourceProperties: DataSourceProperties,
+        properties: PgNotificationsProperties,
+        handlers: ObjectProvider<PgNotificationHandler>,
+    ) = PgNotificationListener(
+        connectionFactory = {
+            DriverManager.getConnection(
+                dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(),
+                dataSourceProperties.determinePassword(),
+            )
+        },
+        properties = properties,
+        handlers = handlers.orderedStream().toList(),
+    )
+}
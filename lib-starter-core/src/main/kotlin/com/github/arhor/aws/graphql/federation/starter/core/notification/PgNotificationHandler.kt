@@ -0,0 +1,20 @@
+package com.github.arhor.aws.graphql.federation.starter.core.notification
+
+/**
+ * Handler of the notifications sent to the Postgres channel with `NOTIFY` or `pg_notify`.
+ *
+ * Handlers are invoked on the single listener thread, so they are expected to hand off any heavy work.
+ */
+interface PgNotificationHandler {
+
+    /**
+     * Name of the channel to listen to, must be a plain lower-case SQL identifier.
+     */
+    val channel: String
+
+    /**
+     * @param payload the notification payload, or `null` when notifications might have been missed while the
+     *                listener was not connected, so the handler should check for any pending work
+     */
+    fun onNotification(payload: String?)
+}
@@ -0,0 +1,109 @@
+package com.github.arhor.aws.graphql.federation.starter.core.notification
+
+import org.postgresql.PGConnection
+import org.slf4j.LoggerFactory
+import org.springframework.boot.context.event.ApplicationReadyEvent
+import org.springframework.context.event.EventListener
+import java.sql.Connection
+
+/**
+ * Listens to the Postgres channels of the given handlers on a dedicated connection, which is not taken from the
+ * application connection pool, since it is held for the whole application lifetime.
+ *
+ * Notifications sent while the connection is lost are not delivered, so on each (re)connect all the handlers are
+ * invoked with `null` payload to check for the work they might have missed.
+ */
+class PgNotificationListener(
+    private val connectionFactory: () -> Connection,
+    private val properties: PgNotificationsProperties,
+    handlers: List<PgNotificationHandler>,
+) : AutoCloseable {
+
+    private val handlers = handlers.groupBy { it.channel }
+    private val thread = Thread(::listen, "pg-notification-listener").apply { isDaemon = true }
+
+    @Volatile
+    private var running = false
+
+    init {
+        for (channel in this.handlers.keys) {
+            require(channel.matches(CHANNEL_NAME_PATTERN)) { "Invalid notification channel name: $channel" }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent::class)
+    fun start() {
+        if (handlers.isNotEmpty() && !running) {
+            running = true
+            thread.start()
+        }
+    }
+
+    override fun close() {
+        if (running) {
+            running = false
+            thread.interrupt()
+            thread.join(properties.pollTimeout.toMillis() * 2)
+        }
+    }
+
+    private fun listen() {
+        while (running) {
+            try {
+                connectionFactory().use { connection ->
+                    connection.autoCommit = true
+                    connection.createStatement().use { statement ->
+                        for (channel in handlers.keys) {
+                            statement.execute("LISTEN $channel")
+                        }
+                    }
+                    logger.info("Listening to the notification channels: {}", handlers.keys)
+
+                    for (channel in handlers.keys) {
+                        dispatch(channel, null)
+                    }
+                    receive(connection.unwrap(PGConnection::class.java))
+                }
+            } catch (e: Exception) {
+                if (running) {
+                    logger.warn("Notification listener connection is lost, reconnecting", e)
+                    sleepBeforeReconnect()
+                }
+            }
+        }
+    }
+
+    private fun receive(connection: PGConnection) {
+        val timeout = properties.pollTimeout.toMillis().toInt()
+
+        while (running) {
+            connection.getNotifications(timeout)?.forEach {
+                dispatch(it.name, it.parameter.ifEmpty { null })
+            }
+        }
+    }
+
+    private fun dispatch(channel: String, payload: String?) {
+        for (handler in handlers[channel].orEmpty()) {
+            try {
+                handler.onNotification(payload)
+            } catch (e: Exception) {
+                logger.error("Failed to handle notification from the channel {}: {}", channel, payload, e)
+            }
+        }
+    }
+
+    private fun sleepBeforeReconnect() {
+        try {
+            Thread.sleep(properties.reconnectDelay)
+        } catch (e: InterruptedException) {
+            Thread.currentThread().interrupt()
+        }
+    }
+
+    companion object {
+        private val logger = LoggerFactory.getLogger(this::class.java.enclosingClass)
+
+        private val CHANNEL_NAME_PATTERN = Regex("[a-z_][a-z0-9_]*")
+    }
+}
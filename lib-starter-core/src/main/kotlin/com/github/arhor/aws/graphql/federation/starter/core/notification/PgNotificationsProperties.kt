@@ -0,0 +1,17 @@
+package com.github.arhor.aws.graphql.federation.starter.core.notification
+
+import org.springframework.boot.context.properties.ConfigurationProperties
+import java.time.Duration
+
+@ConfigurationProperties(prefix = "pg-notifications")
+data class PgNotificationsProperties(
+    val enabled: Boolean = false,
+    /**
+     * The maximum time the listener waits for notifications before checking whether it has to stop.
+     */
+    val pollTimeout: Duration = Duration.ofSeconds(1),
+    /**
+     * Pause before reconnecting after the listener connection is lost.
+     */
+    val reconnectDelay: Duration = Duration.ofSeconds(5),
+)
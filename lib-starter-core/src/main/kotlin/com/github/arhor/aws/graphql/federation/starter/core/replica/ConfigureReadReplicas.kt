@@ -0,0 +1,75 @@
+package com.github.arhor.aws.graphql.federation.starter.core.replica
+
+import com.zaxxer.hikari.HikariDataSource
+import io.micrometer.core.instrument.MeterRegistry
+import org.springframework.boot.autoconfigure.AutoConfiguration
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties
+import org.springframework.boot.context.properties.ConfigurationProperties
+import org.springframework.boot.context.properties.EnableConfigurationProperties
+import org.springframework.context.annotation.Bean
+import org.springframework.context.annotation.Primary
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy
+import javax.sql.DataSource
+
+/**
+ * Replaces the auto-configured data source with a lazy proxy, which obtains connections for read-only
+ * transactions from the read replicas and for all the others from the primary.
+ */
+@AutoConfiguration(before = [DataSourceAutoConfiguration::class])
+@ConditionalOnProperty(prefix = "read-replicas", name = ["enabled"], havingValue = "true")
+@EnableConfigurationProperties(DataSourceProperties::class, ReadReplicasProperties::class)
+class ConfigureReadReplicas {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    fun primaryDataSource(properties: DataSourceProperties): HikariDataSource =
+        properties.initializeDataSourceBuilder()
+            .type(HikariDataSource::class.java)
+            .build()
+
+    @Bean
+    fun readYourWritesTracker(properties: ReadReplicasProperties) =
+        ReadYourWritesTracker(
+            properties.readYourWritesWindow,
+            properties.readYourWritesCookie,
+        )
+
+    @Bean(destroyMethod = "close")
+    fun replicaPool(
+        primaryDataSource: HikariDataSource,
+        properties: ReadReplicasProperties,
+        meterRegistry: MeterRegistry,
+    ) = ReplicaPool(
+        properties.replicas.mapIndexed { index, replica -> createReplicaDataSource(primaryDataSource, replica, index) },
+        properties.maxLag,
+        meterRegistry,
+    )
+
+    @Bean
+    @Primary
+    fun dataSource(
+        primaryDataSource: HikariDataSource,
+        replicaPool: ReplicaPool,
+        readYourWritesTracker: ReadYourWritesTracker,
+    ): DataSource =
+        LazyConnectionDataSourceProxy(WriteTrackingDataSource(primaryDataSource, readYourWritesTracker)).apply {
+            setReadOnlyDataSource(ReplicaRoutingDataSource(primaryDataSource, replicaPool, readYourWritesTracker))
+        }
+
+    private fun createReplicaDataSource(
+        primary: HikariDataSource,
+        replica: ReadReplicasProperties.Replica,
+        index: Int,
+    ) = HikariDataSource().also {
+        primary.copyStateTo(it)
+        it.poolName = "replica-$index"
+        it.jdbcUrl = replica.url
+        it.username = replica.username ?: primary.username
+        it.password = replica.password ?: primary.password
+        it.isReadOnly = true
+        // unreachable replica must not prevent application from starting
+        it.initializationFailTimeout = -1
+    }
+}
@@ -0,0 +1,38 @@
+package com.github.arhor.aws.graphql.federation.starter.core.replica
+
+import org.springframework.boot.context.properties.ConfigurationProperties
+import java.time.Duration
+
+@ConfigurationProperties(prefix = "read-replicas")
+data class ReadReplicasProperties(
+    val enabled: Boolean = false,
+    val replicas: List<Replica> = emptyList(),
+    /**
+     * Replicas lagging behind the primary for longer are excluded from routing until they catch up.
+     */
+    val maxLag: Duration = Duration.ofSeconds(5),
+    /**
+     * Delay between replication lag checks in ISO-8601 format, read directly by the scheduler.
+     */
+    val lagCheckInterval: String = "PT2S",
+    /**
+     * Period after a committed write during which reads of the same request or client are served by the primary.
+     */
+    val readYourWritesWindow: Duration = Duration.ofSeconds(5),
+    /**
+     * Name of the cookie carrying the time of the last write to the subsequent requests of the same client.
+     */
+    val readYourWritesCookie: String = "last-write",
+) {
+    data class Replica(
+        val url: String,
+        /**
+         * Defaults to the primary datasource username when not set.
+         */
+        val username: String? = null,
+        /**
+         * Defaults to the primary datasource password when not set.
+         */
+        val password: String? = null,
+    )
+}
@@ -0,0 +1,64 @@
+package com.github.arhor.aws.graphql.federation.starter.core.replica
+
+import jakarta.servlet.http.Cookie
+import org.springframework.web.context.request.RequestAttributes
+import org.springframework.web.context.request.RequestContextHolder
+import org.springframework.web.context.request.ServletRequestAttributes
+import java.time.Clock
+import java.time.Duration
+
+/**
+ * Keeps track of the last write committed on behalf of the current request.
+ *
+ * The time of the write is stored in the request attributes, which are shared with the dataloader threads, and
+ * sent back to the client in a cookie, so that its subsequent requests also read from the primary until the window
+ * passes. Cookie values pointing to the future, beyond the allowed clock skew between instances, are ignored.
+ */
+class ReadYourWritesTracker(
+    private val window: Duration,
+    private val cookieName: String,
+    private val clock: Clock = Clock.systemUTC(),
+) {
+
+    fun recordWrite() {
+        val attributes = currentRequestAttributes() ?: return
+        val now = clock.millis()
+
+        attributes.setAttribute(LAST_WRITE_ATTRIBUTE, now, RequestAttributes.SCOPE_REQUEST)
+        attributes.response?.addCookie(
+            Cookie(cookieName, now.toString()).apply {
+                path = "/"
+                maxAge = window.toSeconds().toInt().coerceAtLeast(1)
+                isHttpOnly = true
+            }
+        )
+    }
+
+    fun isWithinWindow(): Boolean {
+        val attributes = currentRequestAttributes() ?: return false
+        val lastWrite = attributes.getAttribute(LAST_WRITE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) as? Long
+            ?: attributes.request.cookies?.find { it.name == cookieName }?.value?.toLongOrNull()
+            ?: return false
+
+        // the cookie comes from the client, so a write time in the future is not trusted beyond the clock skew
+        return (clock.millis() - lastWrite) in -MAX_CLOCK_SKEW.toMillis() until window.toMillis()
+    }
+
+    /**
+     * @return attributes of the current request, or `null` outside a request or once it is completed
+     */
+    private fun currentRequestAttributes(): ServletRequestAttributes? {
+        val attributes = RequestContextHolder.getRequestAttributes() as? ServletRequestAttributes ?: return null
+        return try {
+            attributes.getAttribute(LAST_WRITE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+            attributes
+        } catch (e: IllegalStateException) {
+            null
+        }
+    }
+
+    companion object {
+        private val MAX_CLOCK_SKEW = Duration.ofSeconds(5)
+        private val LAST_WRITE_ATTRIBUTE = ReadYourWritesTracker::class.java.name + ".LAST_WRITE"
+    }
+}
@@ -0,0 +1,110 @@
+package com.github.arhor.aws.graphql.federation.starter.core.replica
+
+import com.zaxxer.hikari.HikariDataSource
+import io.micrometer.core.instrument.Gauge
+import io.micrometer.core.instrument.MeterRegistry
+import org.slf4j.LoggerFactory
+import org.springframework.scheduling.annotation.Scheduled
+import java.time.Duration
+import java.util.concurrent.atomic.AtomicInteger
+import javax.sql.DataSource
+
+/**
+ * Pool of read replicas, periodically checking their replication lag.
+ *
+ * Replicas lagging behind the primary for longer than the allowed maximum, as well as unreachable ones, are
+ * excluded from routing until the next successful check. Replicas are considered unavailable until they are
+ * checked for the first time.
+ */
+class ReplicaPool(
+    dataSources: List<HikariDataSource>,
+    private val maxLag: Duration,
+    meterRegistry: MeterRegistry,
+) : AutoCloseable {
+
+    private val replicas = dataSources.map(::Replica)
+    private val counter = AtomicInteger()
+
+    init {
+        for (replica in replicas) {
+            Gauge.builder(REPLICATION_LAG_METRIC, replica) { it.lag }
+                .tag("replica", replica.name)
+                .baseUnit("seconds")
+                .register(meterRegistry)
+        }
+    }
+
+    /**
+     * @return available replicas in the round-robin order
+     */
+    fun availableReplicas(): Sequence<DataSource> {
+        val offset = counter.getAndIncrement().mod(replicas.size.coerceAtLeast(1))
+        return replicas.indices.asSequence()
+            .map { replicas[(offset + it) % replicas.size] }
+            .filter { it.available }
+            .map { it.dataSource }
+    }
+
+    fun markUnavailable(dataSource: DataSource, cause: Exception) {
+        replicas.find { it.dataSource === dataSource }?.let {
+            logger.warn("Replica {} is unavailable until the next lag check", it.name, cause)
+            it.available = false
+        }
+    }
+
+    @Scheduled(fixedDelayString = "\${read-replicas.lag-check-interval:PT2S}")
+    fun checkReplicationLag() {
+        for (replica in replicas) {
+            replica.lag = try {
+                replica.dataSource.connection.use { conn ->
+                    conn.createStatement().use { stmt ->
+                        stmt.executeQuery(REPLICATION_LAG_QUERY).use { rs ->
+                            rs.next()
+                            rs.getDouble(1)
+                        }
+                    }
+                }
+            } catch (e: Exception) {
+                logger.warn("Failed to check replication lag of the replica {}", replica.name, e)
+                Double.POSITIVE_INFINITY
+            }
+            val available = replica.lag <= maxLag.toMillis() / 1000.0
+
+            if (available != replica.available) {
+                logger.info("Replica {} is {}, replication lag: {}s", replica.name, if (available) "available" else "unavailable", replica.lag)
+            }
+            replica.available = available
+        }
+    }
+
+    override fun close() {
+        for (replica in replicas) {
+            replica.dataSource.close()
+        }
+    }
+
+    private class Replica(val dataSource: HikariDataSource) {
+        val name: String = dataSource.poolName
+
+        @Volatile
+        var lag = Double.POSITIVE_INFINITY
+
+        @Volatile
+        var available = false
+    }
+
+    companion object {
+        private val logger = LoggerFactory.getLogger(this::class.java.enclosingClass)
+
+        private const val REPLICATION_LAG_METRIC = "datasource.replica.lag"
+
+        // language=SQL
+        private const val REPLICATION_LAG_QUERY = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() THEN 0
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM NOW() - pg_last_xact_replay_timestamp()), 'Infinity')
+                   END::DOUBLE PRECISION
+        """
+    }
+}
@@ -0,0 +1,35 @@
+package com.github.arhor.aws.graphql.federation.starter.core.replica
+
+import org.springframework.jdbc.datasource.AbstractDataSource
+import java.sql.Connection
+import java.sql.SQLException
+import javax.sql.DataSource
+
+/**
+ * Data source used for read-only transactions, routing them to the available replicas.
+ *
+ * Falls back to the primary when there are no available replicas, when none of them can provide a connection,
+ * and within the read-your-writes window after a write made by the same request or client.
+ */
+class ReplicaRoutingDataSource(
+    private val primary: DataSource,
+    private val replicas: ReplicaPool,
+    private val readYourWrites: ReadYourWritesTracker,
+) : AbstractDataSource() {
+
+    override fun getConnection(): Connection {
+        if (!readYourWrites.isWithinWindow()) {
+            for (replica in replicas.availableReplicas()) {
+                try {
+                    return replica.connection
+                } catch (e: SQLException) {
+                    replicas.markUnavailable(replica, e)
+                }
+            }
+        }
+        return primary.connection
+    }
+
+    override fun getConnection(username: String, password: String): Connection =
+        primary.getConnection(username, password)
+}
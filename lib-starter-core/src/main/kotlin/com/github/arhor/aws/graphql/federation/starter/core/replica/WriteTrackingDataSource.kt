@@ -0,0 +1,38 @@
+package com.github.arhor.aws.graphql.federation.starter.core.replica
+
+import org.springframework.jdbc.datasource.DelegatingDataSource
+import org.springframework.transaction.support.TransactionSynchronization
+import org.springframework.transaction.support.TransactionSynchronizationManager
+import java.sql.Connection
+import javax.sql.DataSource
+
+/**
+ * Primary data source, recording a write for the current request once a read-write transaction is committed.
+ */
+class WriteTrackingDataSource(
+    primary: DataSource,
+    private val readYourWrites: ReadYourWritesTracker,
+) : DelegatingDataSource(primary) {
+
+    override fun getConnection(): Connection {
+        trackCurrentTransaction()
+        return super.getConnection()
+    }
+
+    override fun getConnection(username: String, password: String): Connection {
+        trackCurrentTransaction()
+        return super.getConnection(username, password)
+    }
+
+    private fun trackCurrentTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+            && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+        ) {
+            TransactionSynchronizationManager.registerSynchronization(object : TransactionSynchronization {
+                override fun afterCommit() {
+                    readYourWrites.recordWrite()
+                }
+            })
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.github.arhor.aws.graphql.federation.starter.core.idempotency
+
+import com.zaxxer.hikari.HikariDataSource
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Tag
+import org.junit.jupiter.api.Test
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate
+import org.springframework.jdbc.support.JdbcTransactionManager
+import org.springframework.transaction.support.TransactionTemplate
+import org.testcontainers.containers.PostgreSQLContainer
+import org.testcontainers.junit.jupiter.Container
+import org.testcontainers.junit.jupiter.Testcontainers
+import java.sql.DriverManager
+import java.util.UUID
+
+@Tag("integration")
+@Testcontainers(disabledWithoutDocker = true)
+class JdbcIdempotencyStoreTest {
+
+    private lateinit var dataSource: HikariDataSource
+    private lateinit var idempotencyStore: JdbcIdempotencyStore
+
+    @BeforeEach
+    fun setUp() {
+        execute(
+            """
+            CREATE TABLE IF NOT EXISTS idempotency_keys
+            (
+                key    UUID   NOT NULL PRIMARY KEY,
+                bucket BIGINT NOT NULL
+            );
+            TRUNCATE idempotency_keys;
+            """
+        )
+        // the same as in the applications, so that statements executed outside of a transaction are rolled back
+        dataSource = HikariDataSource().apply {
+            jdbcUrl = db.jdbcUrl
+            username = db.username
+            password = db.password
+            isAutoCommit = false
+        }
+        idempotencyStore = JdbcIdempotencyStore(
+            jdbcOperations = NamedParameterJdbcTemplate(dataSource),
+            transactionOperations = TransactionTemplate(JdbcTransactionManager(dataSource)),
+            properties = IdempotencyStoreProperties(enabled = true),
+        )
+    }
+
+    @AfterEach
+    fun tearDown() {
+        dataSource.close()
+    }
+
+    @Test
+    fun `should execute action only for the keys never processed before`() {
+        // Given
+        val processedKey = UUID.randomUUID()
+        val unknownKey = UUID.randomUUID()
+
+        idempotencyStore.executeOnce(processedKey) {}
+
+        // When
+        val result = idempotencyStore.executeOnce(listOf(processedKey, unknownKey)) {}
+
+        // Then
+        assertThat(result)
+            .containsExactly(unknownKey)
+        assertThat(storedKeys())
+            .containsExactlyInAnyOrder(processedKey, unknownKey)
+    }
+
+    @Test
+    fun `should delete keys of the expired buckets keeping the rest of them`() {
+        // Given
+        val expiredKey = UUID.randomUUID()
+        val retainedKey = UUID.randomUUID()
+
+        execute("INSERT INTO idempotency_keys (key, bucket) VALUES ('$expiredKey', 0)")
+        idempotencyStore.executeOnce(retainedKey) {}
+
+        // When
+        idempotencyStore.deleteExpiredKeys()
+
+        // Then
+        assertThat(storedKeys())
+            .containsExactly(retainedKey)
+    }
+
+    private fun storedKeys(): List<UUID> =
+        connect().use { conn ->
+            conn.createStatement().use { statement ->
+                statement.executeQuery("SELECT key FROM idempotency_keys").use { rs ->
+                    buildList {
+                        while (rs.next()) {
+                            add(rs.getObject("key", UUID::class.java))
+                        }
+                    }
+                }
+            }
+        }
+
+    private fun execute(sql: String) {
+        connect().use { conn ->
+            conn.createStatement().use {
+                it.execute(sql)
+            }
+        }
+    }
+
+    private fun connect() = DriverManager.getConnection(db.jdbcUrl, db.username, db.password)
+
+    companion object {
+        @JvmStatic
+        @Container
+        private val db = PostgreSQLContainer("postgres:13-alpine")
+    }
+}
@@ -0,0 +1,67 @@
+package com.github.arhor.aws.graphql.federation.starter.core.idempotency
+
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.catchException
+import org.junit.jupiter.api.Test
+import java.util.UUID
+
+class RecentKeysSetTest {
+
+    @Test
+    fun `should contain only added keys`() {
+        // Given
+        val recentKeys = RecentKeysSet(capacity = 16)
+        val addedKey = UUID(0, 1)
+        val missingKey = UUID(0, 17)
+
+        // When
+        recentKeys.add(addedKey)
+
+        // Then
+        assertThat(recentKeys.contains(addedKey))
+            .isTrue()
+        assertThat(recentKeys.contains(missingKey))
+            .isFalse()
+    }
+
+    @Test
+    fun `should not report nil UUID as contained in the empty set`() {
+        // Given
+        val recentKeys = RecentKeysSet(capacity = 16)
+
+        // When
+        val result = recentKeys.contains(UUID(0, 0))
+
+        // Then
+        assertThat(result)
+            .isFalse()
+    }
+
+    @Test
+    fun `should evict previous key mapped to the same slot`() {
+        // Given
+        val recentKeys = RecentKeysSet(capacity = 16)
+        val evictedKey = UUID(0, 1)
+        val actualKey = UUID(0, 17)
+
+        // When
+        recentKeys.add(evictedKey)
+        recentKeys.add(actualKey)
+
+        // Then
+        assertThat(recentKeys.contains(evictedKey))
+            .isFalse()
+        assertThat(recentKeys.contains(actualKey))
+            .isTrue()
+    }
+
+    @Test
+    fun `should throw IllegalArgumentException when capacity is not a power of two`() {
+        // When
+        val result = catchException { RecentKeysSet(capacity = 10) }
+
+        // Then
+        assertThat(result)
+            .isInstanceOf(IllegalArgumentException::class.java)
+    }
+}
@@ -0,0 +1,125 @@
+package com.github.arhor.aws.graphql.federation.starter.core.notification
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Tag
+import org.junit.jupiter.api.Test
+import org.testcontainers.containers.PostgreSQLContainer
+import org.testcontainers.junit.jupiter.Container
+import org.testcontainers.junit.jupiter.Testcontainers
+import java.sql.DriverManager
+import java.time.Duration
+import java.util.Optional
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.TimeUnit
+
+@Tag("integration")
+@Testcontainers(disabledWithoutDocker = true)
+class PgNotificationListenerTest {
+
+    private val payloads = LinkedBlockingQueue<Optional<String>>()
+
+    private lateinit var listener: PgNotificationListener
+
+    @BeforeEach
+    fun setUp() {
+        listener = PgNotificationListener(
+            connectionFactory = ::connect,
+            properties = PgNotificationsProperties(
+                enabled = true,
+                pollTimeout = Duration.ofMillis(100),
+                reconnectDelay = Duration.ofMillis(100),
+            ),
+            handlers = listOf(
+                object : PgNotificationHandler {
+                    override val channel = CHANNEL
+                    override fun onNotification(payload: String?) {
+                        payloads.add(Optional.ofNullable(payload))
+                    }
+                }
+            ),
+        )
+    }
+
+    @AfterEach
+    fun tearDown() {
+        listener.close()
+    }
+
+    @Test
+    fun `should invoke handler without payload once listener is connected`() {
+        // When
+        listener.start()
+
+        // Then
+        assertThat(nextPayload())
+            .isEmpty()
+    }
+
+    @Test
+    fun `should invoke handler with payload of the notification committed to the channel`() {
+        // Given
+        listener.start()
+        nextPayload()
+
+        // When
+        notify("test-payload")
+
+        // Then
+        assertThat(nextPayload())
+            .hasValue("test-payload")
+    }
+
+    @Test
+    fun `should check for missed notifications after the listener connection is lost`() {
+        // Given
+        listener.start()
+        nextPayload()
+
+        // When
+        terminateListenerConnection()
+
+        // Then
+        assertThat(nextPayload())
+            .isEmpty()
+    }
+
+    private fun nextPayload(): Optional<String>? =
+        payloads.poll(10, TimeUnit.SECONDS)
+
+    private fun notify(payload: String) {
+        connect().use { conn ->
+            conn.prepareStatement("SELECT pg_notify(?, ?)").use {
+                it.setString(1, CHANNEL)
+                it.setString(2, payload)
+                it.execute()
+            }
+        }
+    }
+
+    private fun terminateListenerConnection() {
+        connect().use { conn ->
+            conn.createStatement().use {
+                it.execute(
+                    """
+                    SELECT pg_terminate_backend(a.pid)
+                      FROM pg_stat_activity a
+                     WHERE a.query LIKE 'LISTEN%'
+                       AND a.pid <> pg_backend_pid()
+                    """
+                )
+            }
+        }
+    }
+
+    private fun connect() = DriverManager.getConnection(db.jdbcUrl, db.username, db.password)
+
+    companion object {
+        private const val CHANNEL = "test_channel"
+
+        @JvmStatic
+        @Container
+        private val db = PostgreSQLContainer("postgres:13-alpine")
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.arhor.aws.graphql.federation.starter.core.replica
+
+import jakarta.servlet.http.Cookie
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.Arguments
+import org.junit.jupiter.params.provider.Arguments.arguments
+import org.junit.jupiter.params.provider.MethodSource
+import org.springframework.mock.web.MockHttpServletRequest
+import org.springframework.mock.web.MockHttpServletResponse
+import org.springframework.web.context.request.RequestContextHolder
+import org.springframework.web.context.request.ServletRequestAttributes
+import java.time.Clock
+import java.time.Duration
+import java.time.Instant
+import java.time.ZoneOffset
+import java.util.stream.Stream
+
+class ReadYourWritesTrackerTest {
+
+    private val clock = Clock.fixed(Instant.parse("2024-01-01T12:00:00Z"), ZoneOffset.UTC)
+    private val readYourWrites = ReadYourWritesTracker(Duration.ofMinutes(1), COOKIE_NAME, clock)
+
+    @AfterEach
+    fun tearDown() {
+        RequestContextHolder.resetRequestAttributes()
+    }
+
+    @MethodSource
+    @ParameterizedTest
+    fun `should trust last write cookie only within the window and the allowed clock skew`(
+        lastWriteOffset: Duration,
+        expectedResult: Boolean,
+    ) {
+        // Given
+        val lastWrite = clock.instant().plus(lastWriteOffset).toEpochMilli()
+        val request = MockHttpServletRequest().apply { setCookies(Cookie(COOKIE_NAME, lastWrite.toString())) }
+
+        RequestContextHolder.setRequestAttributes(ServletRequestAttributes(request, MockHttpServletResponse()))
+
+        // When
+        val result = readYourWrites.isWithinWindow()
+
+        // Then
+        assertThat(result)
+            .isEqualTo(expectedResult)
+    }
+
+    companion object {
+        private const val COOKIE_NAME = "last-write"
+
+        @JvmStatic
+        fun `should trust last write cookie only within the window and the allowed clock skew`(): Stream<Arguments> =
+            Stream.of(
+                // @formatter:off
+                arguments( Duration.ofSeconds(-30) , true  ),
+                arguments( Duration.ofSeconds(-61) , false ),
+                arguments( Duration.ofSeconds(3)   , true  ),
+                arguments( Duration.ofMinutes(10)  , false ),
+                arguments( Duration.ofDays(365)    , false ),
+                // @formatter:on
+            )
+    }
+}
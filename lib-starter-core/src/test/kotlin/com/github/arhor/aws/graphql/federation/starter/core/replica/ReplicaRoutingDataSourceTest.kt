@@ -0,0 +1,183 @@
+package com.github.arhor.aws.graphql.federation.starter.core.replica
+
+import com.zaxxer.hikari.HikariDataSource
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import jakarta.servlet.http.Cookie
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Tag
+import org.junit.jupiter.api.Test
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.jdbc.core.queryForObject
+import org.springframework.jdbc.datasource.DataSourceTransactionManager
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy
+import org.springframework.mock.web.MockHttpServletRequest
+import org.springframework.mock.web.MockHttpServletResponse
+import org.springframework.transaction.support.TransactionTemplate
+import org.springframework.web.context.request.RequestContextHolder
+import org.springframework.web.context.request.ServletRequestAttributes
+import org.testcontainers.containers.PostgreSQLContainer
+import org.testcontainers.junit.jupiter.Container
+import org.testcontainers.junit.jupiter.Testcontainers
+import java.time.Duration
+
+/**
+ * Uses two independent Postgres instances as a stand-in for the primary and its replica.
+ */
+@Tag("integration")
+@Testcontainers(disabledWithoutDocker = true)
+class ReplicaRoutingDataSourceTest {
+
+    private val readYourWrites = ReadYourWritesTracker(Duration.ofMinutes(1), COOKIE_NAME)
+
+    private lateinit var primaryDataSource: HikariDataSource
+    private lateinit var replicaDataSource: HikariDataSource
+    private lateinit var replicaPool: ReplicaPool
+    private lateinit var jdbcTemplate: JdbcTemplate
+    private lateinit var transactionTemplate: TransactionTemplate
+
+    @BeforeEach
+    fun setUp() {
+        primaryDataSource = createDataSource(primaryDb, "primary")
+        replicaDataSource = createDataSource(replicaDb, "replica-0")
+        replicaPool = ReplicaPool(listOf(replicaDataSource), Duration.ofSeconds(5), SimpleMeterRegistry())
+
+        val dataSource =
+            LazyConnectionDataSourceProxy(WriteTrackingDataSource(primaryDataSource, readYourWrites)).apply {
+                setReadOnlyDataSource(ReplicaRoutingDataSource(primaryDataSource, replicaPool, readYourWrites))
+            }
+
+        jdbcTemplate = JdbcTemplate(dataSource)
+        transactionTemplate = TransactionTemplate(DataSourceTransactionManager(dataSource))
+    }
+
+    @AfterEach
+    fun tearDown() {
+        RequestContextHolder.resetRequestAttributes()
+        replicaPool.close()
+        primaryDataSource.close()
+    }
+
+    @Test
+    fun `should route read-only transaction to the replica once its replication lag is checked`() {
+        // Given
+        replicaPool.checkReplicationLag()
+
+        // When
+        val result = currentDatabase(readOnly = true)
+
+        // Then
+        assertThat(result)
+            .isEqualTo(REPLICA_DB_NAME)
+    }
+
+    @Test
+    fun `should route read-only transaction to the primary before replication lag of the replica is checked`() {
+        // When
+        val result = currentDatabase(readOnly = true)
+
+        // Then
+        assertThat(result)
+            .isEqualTo(PRIMARY_DB_NAME)
+    }
+
+    @Test
+    fun `should route read-write transaction to the primary`() {
+        // Given
+        replicaPool.checkReplicationLag()
+
+        // When
+        val result = currentDatabase(readOnly = false)
+
+        // Then
+        assertThat(result)
+            .isEqualTo(PRIMARY_DB_NAME)
+    }
+
+    @Test
+    fun `should route read-only transaction to the primary when replica fails to provide connection`() {
+        // Given
+        replicaPool.checkReplicationLag()
+        replicaDataSource.close()
+
+        // When
+        val result = currentDatabase(readOnly = true)
+
+        // Then
+        assertThat(result)
+            .isEqualTo(PRIMARY_DB_NAME)
+        assertThat(replicaPool.availableReplicas().toList())
+            .isEmpty()
+    }
+
+    @Test
+    fun `should route read-only transaction to the primary after a write committed within the same request`() {
+        // Given
+        val response = MockHttpServletResponse()
+
+        replicaPool.checkReplicationLag()
+        RequestContextHolder.setRequestAttributes(ServletRequestAttributes(MockHttpServletRequest(), response))
+
+        // When
+        currentDatabase(readOnly = false)
+        val result = currentDatabase(readOnly = true)
+
+        // Then
+        assertThat(result)
+            .isEqualTo(PRIMARY_DB_NAME)
+        assertThat(response.getCookie(COOKIE_NAME))
+            .isNotNull()
+    }
+
+    @Test
+    fun `should route read-only transaction to the primary when request carries recent write cookie`() {
+        // Given
+        val request = MockHttpServletRequest().apply {
+            setCookies(Cookie(COOKIE_NAME, System.currentTimeMillis().toString()))
+        }
+
+        replicaPool.checkReplicationLag()
+        RequestContextHolder.setRequestAttributes(ServletRequestAttributes(request, MockHttpServletResponse()))
+
+        // When
+        val result = currentDatabase(readOnly = true)
+
+        // Then
+        assertThat(result)
+            .isEqualTo(PRIMARY_DB_NAME)
+    }
+
+    private fun currentDatabase(readOnly: Boolean): String? {
+        transactionTemplate.isReadOnly = readOnly
+        return transactionTemplate.execute {
+            jdbcTemplate.queryForObject<String>("SELECT current_database()")
+        }
+    }
+
+    private fun createDataSource(db: PostgreSQLContainer<*>, name: String) = HikariDataSource().apply {
+        poolName = name
+        jdbcUrl = db.jdbcUrl
+        username = db.username
+        password = db.password
+        isAutoCommit = false
+    }
+
+    companion object {
+        private const val COOKIE_NAME = "last-write"
+        private const val PRIMARY_DB_NAME = "primary_db"
+        private const val REPLICA_DB_NAME = "replica_db"
+
+        @JvmStatic
+        @Container
+        private val primaryDb = PostgreSQLContainer("postgres:13-alpine").apply {
+            withDatabaseName(PRIMARY_DB_NAME)
+        }
+
+        @JvmStatic
+        @Container
+        private val replicaDb = PostgreSQLContainer("postgres:13-alpine").apply {
+            withDatabaseName(REPLICA_DB_NAME)
+        }
+    }
+}
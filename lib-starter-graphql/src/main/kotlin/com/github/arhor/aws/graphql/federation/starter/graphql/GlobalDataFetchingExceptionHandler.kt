@@ -5,11 +5,13 @@ import com.github.arhor.aws.graphql.federation.common.exception.EntityNotFoundEx
 import com.github.arhor.aws.graphql.federation.common.exception.EntityOperationRestrictedException
 import com.netflix.graphql.dgs.exceptions.DefaultDataFetcherExceptionHandler
 import com.netflix.graphql.dgs.exceptions.DgsException
+import com.netflix.graphql.types.errors.ErrorType
 import com.netflix.graphql.types.errors.TypedGraphQLError
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.stereotype.Component
 import java.util.concurrent.CompletableFuture
 import java.util.concurrent.CompletionException
+import java.util.concurrent.RejectedExecutionException
 import graphql.execution.DataFetcherExceptionHandler as DfeHandler
 import graphql.execution.DataFetcherExceptionHandlerParameters as DfeHandlerParams
 import graphql.execution.DataFetcherExceptionHandlerResult as DfeHandlerResult
@@ -35,6 +37,10 @@ class GlobalDataFetchingExceptionHandler(private val delegate: DfeHandler) : Dfe
                 onEntityOperationRestrictedException(throwable, params)
             }
 
+            is RejectedExecutionException -> {
+                onRejectedExecutionException(throwable, params)
+            }
+
             else -> {
                 delegate.handleException(params)
             }
@@ -58,8 +64,21 @@ class GlobalDataFetchingExceptionHandler(private val delegate: DfeHandler) : Dfe
         TypedGraphQLError.newPermissionDeniedBuilder()
             .createResult(e, params)
 
-    private fun TypedGraphQLError.Builder.createResult(throwable: Throwable, params: DfeHandlerParams) =
-        this.message(throwable.message)
+    /**
+     * Bounded executors, e.g. password hashing pool, reject tasks when saturated, which means the client should retry
+     * later, so the rejection details are not exposed.
+     */
+    private fun onRejectedExecutionException(e: RejectedExecutionException, params: DfeHandlerParams) =
+        TypedGraphQLError.newBuilder()
+            .errorType(ErrorType.UNAVAILABLE)
+            .createResult(e, params, message = "Service is overloaded, try again later")
+
+    private fun TypedGraphQLError.Builder.createResult(
+        throwable: Throwable,
+        params: DfeHandlerParams,
+        message: String? = throwable.message,
+    ) =
+        this.message(message)
             .extensions(mapOf(DgsException.EXTENSION_CLASS_KEY to throwable::class.java.name))
             .also { params.path?.also(::path) }
             .build()
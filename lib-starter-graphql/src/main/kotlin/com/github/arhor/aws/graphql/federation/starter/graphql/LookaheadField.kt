@@ -0,0 +1,41 @@
+package com.github.arhor.aws.graphql.federation.starter.graphql
+
+import com.netflix.graphql.dgs.DgsDataFetchingEnvironment
+import org.dataloader.MappedBatchLoader
+
+/**
+ * Child field, which data may be fetched by the parent field fetcher within the same query instead of a separate
+ * data loader dispatch.
+ *
+ * Parent fetcher checks whether the child field is selected, fetches its data along with the parent and primes the
+ * data loader used by the child field fetcher, so that the child field is resolved from the data loader cache.
+ *
+ * @param K          type of the data loader key
+ * @param V          type of the data loader value
+ * @param path       path to the child field relative to the parent field, glob patterns are supported, e.g. `data/tags`
+ * @param loaderType type of the data loader used by the child field fetcher
+ */
+class LookaheadField<K : Any, V>(
+    private val path: String,
+    private val loaderType: Class<out MappedBatchLoader<K, V>>,
+) {
+
+    /**
+     * @return `true` if the child field is requested within the current selection set, otherwise `false`
+     */
+    fun isSelected(dfe: DgsDataFetchingEnvironment): Boolean =
+        dfe.selectionSet.contains(path)
+
+    /**
+     * Primes the child field data loader with the values fetched along with the parent, so the child field fetcher
+     * does not trigger data loader dispatch.
+     */
+    fun prime(dfe: DgsDataFetchingEnvironment, values: Map<K, V>) {
+        val loader = dfe.getDataLoader<K, V>(loaderType)
+            ?: return
+
+        for ((key, value) in values) {
+            loader.prime(key, value)
+        }
+    }
+}
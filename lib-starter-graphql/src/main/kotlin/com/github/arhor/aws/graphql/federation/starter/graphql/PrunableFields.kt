@@ -0,0 +1,34 @@
+package com.github.arhor.aws.graphql.federation.starter.graphql
+
+import graphql.schema.DataFetchingEnvironment
+import graphql.schema.DataFetchingFieldSelectionSet
+
+/**
+ * Fields of a type backed by columns that are expensive to fetch, so they should be selected from the database only
+ * when the client actually requests them.
+ *
+ * Resolved set of fields is meant to be a part of the data loader key, so that requests with different selections
+ * are neither batched nor cached together.
+ *
+ * @param parent path to the type containing the fields relative to the current field, e.g. `data`, `null` if the
+ *               current field itself has the type containing the fields
+ * @param fields names of the fields backed by expensive columns
+ */
+class PrunableFields(
+    parent: String?,
+    fields: Set<String>,
+) {
+    private val pathsByField = fields.associateWith { if (parent != null) "$parent/$it" else it }
+
+    /**
+     * @return the fields requested within the current selection set
+     */
+    fun selectedIn(dfe: DataFetchingEnvironment): Set<String> =
+        selectedIn(dfe.selectionSet)
+
+    /**
+     * @return the fields requested within the given selection set, e.g. the one of a nested field
+     */
+    fun selectedIn(selectionSet: DataFetchingFieldSelectionSet): Set<String> =
+        pathsByField.filterValues(selectionSet::contains).keys.toSet()
+}
@@ -2,16 +2,20 @@ package com.github.arhor.aws.graphql.federation.starter.graphql
 
 import com.github.arhor.aws.graphql.federation.common.exception.EntityDuplicateException
 import com.github.arhor.aws.graphql.federation.common.exception.EntityNotFoundException
+import com.netflix.graphql.types.errors.ErrorType
 import graphql.execution.DataFetcherExceptionHandler
 import graphql.execution.DataFetcherExceptionHandlerParameters
 import graphql.schema.DataFetchingEnvironment
 import io.mockk.mockk
 import io.mockk.verify
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
 import org.junit.jupiter.params.ParameterizedTest
 import org.junit.jupiter.params.provider.Arguments
 import org.junit.jupiter.params.provider.Arguments.arguments
 import org.junit.jupiter.params.provider.MethodSource
 import java.util.concurrent.CompletionException
+import java.util.concurrent.RejectedExecutionException
 import java.util.stream.Stream
 
 class GlobalDataFetchingExceptionHandlerTest {
@@ -41,6 +45,28 @@ class GlobalDataFetchingExceptionHandlerTest {
         verify(exactly = expectedDelegateCalls) { mockkDelegate.handleException(params) }
     }
 
+    @Test
+    fun `should return UNAVAILABLE error without details when task is rejected by saturated executor`() {
+        // Given
+        val params =
+            DataFetcherExceptionHandlerParameters
+                .newExceptionParameters()
+                .dataFetchingEnvironment(mockkDfe)
+                .exception(RejectedExecutionException("Task rejected from pool"))
+                .build()
+
+        // When
+        val result = handlerUnderTest.handleException(params).join()
+
+        // Then
+        assertThat(result.errors)
+            .singleElement()
+            .satisfies(
+                { assertThat(it.message).isEqualTo("Service is overloaded, try again later") },
+                { assertThat(it.errorType).isEqualTo(ErrorType.UNAVAILABLE) },
+            )
+    }
+
     companion object {
         @JvmStatic
         fun `should call delegate only for unexpected exceptions`(): Stream<Arguments> = Stream.of(
@@ -49,6 +75,7 @@ class GlobalDataFetchingExceptionHandlerTest {
             arguments( CompletionException(EntityNotFoundException("TEST", "TEST")) , 0 ),
             arguments( EntityDuplicateException("TEST", "TEST")                     , 0 ),
             arguments( CompletionException(EntityDuplicateException("TEST", "TEST")), 0 ),
+            arguments( RejectedExecutionException("TEST")                           , 0 ),
             arguments( RuntimeException("TEST")                                     , 1 ),
             // @formatter:on
         )
@@ -0,0 +1,53 @@
+package com.github.arhor.aws.graphql.federation.starter.graphql
+
+import com.netflix.graphql.dgs.DgsDataFetchingEnvironment
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.verify
+import org.assertj.core.api.Assertions.assertThat
+import org.dataloader.DataLoader
+import org.dataloader.MappedBatchLoader
+import org.junit.jupiter.api.Test
+import java.util.concurrent.CompletableFuture
+
+class LookaheadFieldTest {
+
+    private val dfe = mockk<DgsDataFetchingEnvironment>()
+    private val loader = mockk<DataLoader<String, Int>>()
+
+    private val field = LookaheadField("data/length", TestBatchLoader::class.java)
+
+    @Test
+    fun `should check selection set using the child field path`() {
+        // Given
+        every { dfe.selectionSet.contains(any()) } returns true
+
+        // When
+        val result = field.isSelected(dfe)
+
+        // Then
+        verify(exactly = 1) { dfe.selectionSet.contains("data/length") }
+
+        assertThat(result)
+            .isTrue()
+    }
+
+    @Test
+    fun `should prime data loader with each of the provided values`() {
+        // Given
+        every { dfe.getDataLoader<String, Int>(TestBatchLoader::class.java) } returns loader
+        every { loader.prime(any(), any<Int>()) } returns loader
+
+        // When
+        field.prime(dfe, mapOf("a" to 1, "bb" to 2))
+
+        // Then
+        verify(exactly = 1) { loader.prime("a", 1) }
+        verify(exactly = 1) { loader.prime("bb", 2) }
+    }
+
+    private class TestBatchLoader : MappedBatchLoader<String, Int> {
+        override fun load(keys: Set<String>): CompletableFuture<Map<String, Int>> =
+            CompletableFuture.completedFuture(keys.associateWith { it.length })
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.arhor.aws.graphql.federation.starter.graphql
+
+import graphql.schema.DataFetchingEnvironment
+import io.mockk.every
+import io.mockk.mockk
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+
+class PrunableFieldsTest {
+
+    private val dfe = mockk<DataFetchingEnvironment>()
+
+    @Test
+    fun `should return only fields requested within the selection set under the parent path`() {
+        // Given
+        val fields = PrunableFields("data", setOf("content", "tags"))
+
+        every { dfe.selectionSet.contains("data/content") } returns true
+        every { dfe.selectionSet.contains("data/tags") } returns false
+
+        // When
+        val result = fields.selectedIn(dfe)
+
+        // Then
+        assertThat(result)
+            .containsExactly("content")
+    }
+
+    @Test
+    fun `should check fields of the current field when parent path is not specified`() {
+        // Given
+        val fields = PrunableFields(null, setOf("content"))
+
+        every { dfe.selectionSet.contains("content") } returns false
+
+        // When
+        val result = fields.selectedIn(dfe)
+
+        // Then
+        assertThat(result)
+            .isEmpty()
+    }
+}
@@ -2,6 +2,10 @@ package com.github.arhor.aws.graphql.federation.starter.security
 
 import org.springframework.security.core.GrantedAuthority
 
+/**
+ * Dictionary of the authorities known to the application. Ordinal of each entry is persisted as a bit position of
+ * the authorities bitmask, so new entries must only be appended to the end.
+ */
 enum class PredefinedAuthority : GrantedAuthority {
     ROLE_USER,
     ROLE_ADMIN,
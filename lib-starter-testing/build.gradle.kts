@@ -49,6 +49,7 @@ configurations {
 
 dependencies {
     implementation(platform(":lib-platform"))
+    implementation(":lib-starter-core")
     implementation(":lib-starter-graphql")
     implementation(":lib-starter-security")
     implementation("com.fasterxml.jackson.module:jackson-module-kotlin")
@@ -57,6 +58,7 @@ dependencies {
     implementation("com.netflix.graphql.dgs:graphql-dgs-spring-boot-starter")
     implementation("org.jetbrains.kotlin:kotlin-reflect")
     implementation("org.jetbrains.kotlin:kotlin-stdlib")
+    implementation("org.springframework:spring-jdbc")
     implementation("org.springframework.boot:spring-boot-starter-test")
     implementation("org.springframework.security:spring-security-test")
 }
@@ -0,0 +1,26 @@
+package com.github.arhor.aws.graphql.federation.starter.testing
+
+import org.springframework.beans.factory.config.BeanPostProcessor
+import org.springframework.boot.test.context.TestConfiguration
+import org.springframework.context.annotation.Bean
+import javax.sql.DataSource
+
+@TestConfiguration(proxyBeanMethods = false)
+class ConfigureQueryPlanGuard {
+
+    @Bean
+    fun queryPlanGuard(dataSource: DataSource) = QueryPlanGuard(dataSource)
+
+    companion object {
+        @JvmStatic
+        @Bean
+        fun statementCapturingDataSourcePostProcessor(): BeanPostProcessor = object : BeanPostProcessor {
+            override fun postProcessAfterInitialization(bean: Any, beanName: String): Any =
+                if (bean is DataSource && bean !is StatementCapturingDataSource) {
+                    StatementCapturingDataSource(bean)
+                } else {
+                    bean
+                }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.github.arhor.aws.graphql.federation.starter.testing
+
+import com.github.arhor.aws.graphql.federation.starter.core.idempotency.IdempotencyStore
+import java.util.UUID
+import java.util.concurrent.ConcurrentHashMap
+import java.util.function.Consumer
+
+/**
+ * Idempotency store keeping processed keys in memory, intended for unit tests only.
+ */
+class InMemoryIdempotencyStore : IdempotencyStore {
+
+    private val processedKeys = ConcurrentHashMap.newKeySet<UUID>()
+
+    override fun executeOnce(keys: Collection<UUID>, action: Consumer<Set<UUID>>): Set<UUID> {
+        val claimedKeys = keys.filterTo(LinkedHashSet(), processedKeys::add)
+        if (claimedKeys.isNotEmpty()) {
+            try {
+                action.accept(claimedKeys)
+            } catch (e: Exception) {
+                processedKeys.removeAll(claimedKeys)
+                throw e
+            }
+        }
+        return claimedKeys
+    }
+}
@@ -0,0 +1,169 @@
+package com.github.arhor.aws.graphql.federation.starter.testing
+
+import com.fasterxml.jackson.databind.JsonNode
+import com.fasterxml.jackson.module.kotlin.jacksonObjectMapper
+import com.github.arhor.aws.graphql.federation.starter.testing.StatementCapturingDataSource.CapturedStatement
+import org.junit.jupiter.api.DynamicTest
+import org.springframework.core.io.ClassPathResource
+import org.springframework.core.io.support.PropertiesLoaderUtils
+import org.springframework.expression.spel.standard.SpelExpressionParser
+import org.springframework.expression.spel.support.StandardEvaluationContext
+import org.springframework.jdbc.core.PreparedStatementCreator
+import org.springframework.jdbc.core.ResultSetExtractor
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate
+import javax.sql.DataSource
+
+/**
+ * Verifies execution plans of the application queries on the seeded database, failing when a plan contains:
+ * - sequential scan of a relation not listed in [QueryPlanRules.allowedSeqScans]
+ * - sort spilled to disk
+ * - node estimated to produce more rows than [QueryPlanRules.maxEstimatedRows]
+ *
+ * Named queries are loaded from the `META-INF/jdbc-named-queries.properties`, while queries derived by the Spring
+ * Data JDBC should be captured using [captureStatements] - see [ConfigureQueryPlanGuard].
+ */
+class QueryPlanGuard(dataSource: DataSource) {
+
+    private val jdbcTemplate = NamedParameterJdbcTemplate(dataSource)
+
+    /**
+     * Executes given statements using `:volume` parameter, then refreshes planner statistics.
+     */
+    fun seed(rules: QueryPlanRules, vararg statements: String) {
+        for (statement in statements) {
+            jdbcTemplate.update(statement, mapOf(VOLUME_PARAM to rules.volume))
+        }
+        jdbcTemplate.jdbcTemplate.execute("ANALYZE")
+    }
+
+    /**
+     * @param params parameters of the named queries, where the key is the query name
+     * @param rules  rules to apply to the query plans
+     * @return dynamic test per each named query not listed in [QueryPlanRules.excludedQueries]
+     */
+    fun verifyNamedQueries(params: Map<String, Map<String, Any?>>, rules: QueryPlanRules): List<DynamicTest> =
+        loadNamedQueries()
+            .filterKeys { it !in rules.excludedQueries }
+            .map { (name, sql) ->
+                DynamicTest.dynamicTest(name) {
+                    val queryParams = params[name]
+                        ?: throw AssertionError("No parameters provided for the named query: $name")
+
+                    verifyNamedQuery(name, sql, queryParams, rules)
+                }
+            }
+
+    /**
+     * @param action action calling repository methods
+     * @return statements prepared while executing the action
+     */
+    fun captureStatements(action: Runnable): List<CapturedStatement> =
+        StatementCapturingDataSource.capture(action).also {
+            if (it.isEmpty()) {
+                throw AssertionError("No statements captured, make sure ConfigureQueryPlanGuard is imported")
+            }
+        }
+
+    /**
+     * @param name      name of the verified query used in the failure message
+     * @param statement statement to verify
+     * @param rules     rules to apply to the query plan
+     */
+    fun verifyStatement(name: String, statement: CapturedStatement, rules: QueryPlanRules) {
+        val plan = jdbcTemplate.jdbcTemplate.query(
+            PreparedStatementCreator { it.prepareStatement(explain(statement.sql, rules)).also(statement::bindParameters) },
+            ResultSetExtractor { if (it.next()) it.getString(1) else null }
+        )
+        verifyPlan(name, plan, rules)
+    }
+
+    /**
+     * Executes the named query to count the rows actually produced by the plan nodes of the given type, which allows
+     * to verify how much work the query does, not only how many rows it returns.
+     *
+     * @param name     name of the query
+     * @param params   parameters of the query
+     * @param nodeType type of the plan nodes, e.g. `Recursive Union`
+     * @return total number of rows produced by the plan nodes of the given type over all their loops
+     */
+    fun countProducedRows(name: String, params: Map<String, Any?>, nodeType: String): Long {
+        val sql = loadNamedQueries()[name]
+            ?: throw AssertionError("No named query found: $name")
+
+        val plan = explainNamedQuery(sql, params, QueryPlanRules(analyze = true))
+        return sumProducedRows(OBJECT_MAPPER.readTree(plan).path(0).path("Plan"), nodeType)
+    }
+
+    private fun verifyNamedQuery(name: String, sql: String, params: Map<String, Any?>, rules: QueryPlanRules) {
+        verifyPlan(name, explainNamedQuery(sql, params, rules), rules)
+    }
+
+    private fun explainNamedQuery(sql: String, params: Map<String, Any?>, rules: QueryPlanRules): String? {
+        val context = StandardEvaluationContext().apply { setVariables(params) }
+        val allParams = HashMap(params)
+
+        // Spring Data JDBC evaluates SpEL expressions using method arguments, so do the same here
+        val resolvedSql = SPEL_PARAM_PATTERN.replace(sql) {
+            val param = "$SPEL_PARAM_PREFIX${allParams.size}"
+            allParams[param] = SPEL_PARSER.parseExpression(it.groupValues[1]).getValue(context)
+            ":$param"
+        }
+        return jdbcTemplate.queryForObject(explain(resolvedSql, rules), allParams, String::class.java)
+    }
+
+    private fun sumProducedRows(node: JsonNode, nodeType: String): Long {
+        val producedRows =
+            if (node.path("Node Type").asText() == nodeType) {
+                node.path("Actual Rows").asLong() * node.path("Actual Loops").asLong()
+            } else {
+                0
+            }
+        return producedRows + node.path("Plans").sumOf { sumProducedRows(it, nodeType) }
+    }
+
+    private fun verifyPlan(name: String, plan: String?, rules: QueryPlanRules) {
+        val violations = ArrayList<String>()
+        collectViolations(OBJECT_MAPPER.readTree(plan).path(0).path("Plan"), rules, violations)
+
+        if (violations.isNotEmpty()) {
+            throw AssertionError(
+                "Inefficient execution plan of the query '$name':\n - ${violations.joinToString("\n - ")}\n$plan"
+            )
+        }
+    }
+
+    private fun collectViolations(node: JsonNode, rules: QueryPlanRules, violations: MutableList<String>) {
+        val nodeType = node.path("Node Type").asText()
+        val relation = node.path("Relation Name").asText(null)
+        val estimatedRows = node.path("Plan Rows").asLong()
+
+        if (nodeType == "Seq Scan" && relation !in rules.allowedSeqScans) {
+            violations += "sequential scan on '$relation'"
+        }
+        if (node.path("Sort Space Type").asText() == "Disk") {
+            violations += "sort spilled to disk, used ${node.path("Sort Space Used").asLong()} kB"
+        }
+        if (estimatedRows > rules.maxEstimatedRows) {
+            violations += "'$nodeType' estimated to produce $estimatedRows rows, max allowed ${rules.maxEstimatedRows}"
+        }
+        node.path("Plans").forEach { collectViolations(it, rules, violations) }
+    }
+
+    private fun explain(sql: String, rules: QueryPlanRules): String =
+        "EXPLAIN (${if (rules.analyze) "ANALYZE, " else ""}FORMAT JSON) ${sql.trim().removeSuffix(";")}"
+
+    private fun loadNamedQueries(): Map<String, String> =
+        PropertiesLoaderUtils.loadProperties(ClassPathResource(NAMED_QUERIES_LOCATION))
+            .entries
+            .associateTo(sortedMapOf()) { (name, sql) -> name.toString() to sql.toString() }
+
+    companion object {
+        private const val NAMED_QUERIES_LOCATION = "META-INF/jdbc-named-queries.properties"
+        private const val VOLUME_PARAM = "volume"
+        private const val SPEL_PARAM_PREFIX = "__spel_"
+
+        private val SPEL_PARAM_PATTERN = Regex(""":#\{(.+?)}""")
+        private val SPEL_PARSER = SpelExpressionParser()
+        private val OBJECT_MAPPER = jacksonObjectMapper()
+    }
+}
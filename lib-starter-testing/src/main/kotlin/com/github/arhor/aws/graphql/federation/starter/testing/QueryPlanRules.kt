@@ -0,0 +1,25 @@
+package com.github.arhor.aws.graphql.federation.starter.testing
+
+/**
+ * Rules applied by [QueryPlanGuard] to the execution plans of the verified queries.
+ *
+ * @property volume           number of rows used to seed the main tables before verification, may be overridden
+ *                            using `query-plan-guard.volume` system property
+ * @property maxEstimatedRows maximum number of rows any plan node is allowed to produce
+ * @property allowedSeqScans  relations which are allowed to be scanned sequentially, e.g. small dictionaries
+ * @property excludedQueries  names of the queries which are not verified at all, e.g. maintenance full-table jobs
+ * @property analyze          whether queries should be actually executed to find sorts spilled to disk
+ */
+data class QueryPlanRules @JvmOverloads constructor(
+    val volume: Int = System.getProperty("query-plan-guard.volume")?.toInt() ?: 10_000,
+    val maxEstimatedRows: Long = 1_000,
+    val allowedSeqScans: Set<String> = emptySet(),
+    val excludedQueries: Set<String> = emptySet(),
+    val analyze: Boolean = true,
+) {
+    fun withMaxEstimatedRows(maxEstimatedRows: Long) = copy(maxEstimatedRows = maxEstimatedRows)
+
+    fun withAllowedSeqScans(vararg relations: String) = copy(allowedSeqScans = relations.toSet())
+
+    fun withExcludedQueries(vararg queries: String) = copy(excludedQueries = queries.toSet())
+}
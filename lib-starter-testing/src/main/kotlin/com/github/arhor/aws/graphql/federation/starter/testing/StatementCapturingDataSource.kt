@@ -0,0 +1,87 @@
+package com.github.arhor.aws.graphql.federation.starter.testing
+
+import org.springframework.jdbc.datasource.DelegatingDataSource
+import java.lang.reflect.InvocationTargetException
+import java.lang.reflect.Method
+import java.lang.reflect.Proxy
+import java.sql.Connection
+import java.sql.PreparedStatement
+import javax.sql.DataSource
+
+/**
+ * Data source recording SQL statements along with their parameters prepared within [capture] block, so plans of
+ * the queries generated by Spring Data JDBC may be verified the same way as explicitly declared ones.
+ */
+class StatementCapturingDataSource(target: DataSource) : DelegatingDataSource(target) {
+
+    override fun getConnection(): Connection =
+        capturing(super.getConnection())
+
+    override fun getConnection(username: String, password: String): Connection =
+        capturing(super.getConnection(username, password))
+
+    private fun capturing(connection: Connection): Connection =
+        proxy(connection) { method, args, result ->
+            val statements = CAPTURED_STATEMENTS.get()
+
+            if (statements != null && method.name == "prepareStatement" && result is PreparedStatement) {
+                CapturedStatement(sql = args!![0] as String).let {
+                    statements += it
+                    recording(result, it)
+                }
+            } else {
+                result
+            }
+        }
+
+    private fun recording(statement: PreparedStatement, captured: CapturedStatement): PreparedStatement =
+        proxy(statement) { method, args, result ->
+            if (method.name.startsWith("set") && args != null && args.size >= 2 && args[0] is Int) {
+                captured.parameters += { method.invoke(it, *args) }
+            }
+            result
+        }
+
+    /**
+     * SQL statement prepared by the application along with recorded calls setting its parameters.
+     */
+    class CapturedStatement(val sql: String) {
+        internal val parameters = ArrayList<(PreparedStatement) -> Unit>()
+
+        fun bindParameters(statement: PreparedStatement) {
+            parameters.forEach { it(statement) }
+        }
+
+        override fun toString() = sql
+    }
+
+    companion object {
+        private val CAPTURED_STATEMENTS = ThreadLocal<MutableList<CapturedStatement>>()
+
+        /**
+         * @param action action executing queries using data source
+         * @return statements prepared by the current thread while executing the action
+         */
+        @JvmStatic
+        fun capture(action: Runnable): List<CapturedStatement> {
+            val statements = ArrayList<CapturedStatement>()
+            CAPTURED_STATEMENTS.set(statements)
+            try {
+                action.run()
+            } finally {
+                CAPTURED_STATEMENTS.remove()
+            }
+            return statements
+        }
+
+        private inline fun <reified T : Any> proxy(target: T, crossinline intercept: (Method, Array<Any?>?, Any?) -> Any?): T =
+            Proxy.newProxyInstance(T::class.java.classLoader, arrayOf(T::class.java)) { _, method, args ->
+                val result = try {
+                    method.invoke(target, *(args ?: emptyArray()))
+                } catch (e: InvocationTargetException) {
+                    throw e.targetException
+                }
+                intercept(method, args, result)
+            } as T
+    }
+}